@@ -3,11 +3,18 @@
 import org.apache.avro.Schema;
 import org.apache.avro.file.*;
 import org.apache.avro.generic.*;
+import org.typemeta.funcj.codec.*;
 import org.typemeta.funcj.codec.Codec;
 import org.typemeta.funcj.codec.avro.AvroTypes.*;
+import org.typemeta.funcj.codec.impl.*;
+import org.typemeta.funcj.codec.utils.CodecException;
 import org.typemeta.funcj.functions.Functions;
 import org.typemeta.funcj.util.Exceptions;
 
+import java.io.*;
+import java.util.*;
+import java.util.stream.*;
+
 /**
  * Interface for classes which implement an encoding via JSON.
  */
@@ -15,8 +22,11 @@
         extends CodecCoreDelegate<WithSchema, Object, Config>
         implements CodecStrAPI.IO {
 
+    private final AvroCodecFormat format;
+
     public AvroCodecCore(AvroCodecFormat format) {
         super(new CodecCoreImpl<>(format));
+        this.format = format;
     }
 
     public AvroCodecCore(Config config) {
@@ -90,6 +100,28 @@ public <T> void registerArgMapTypeCtor(
         super.registerArgMapTypeCtor(clazz, typeCtor);
     }
 
+    /**
+     * Return the schema for the given class.
+     * Schemas are generated once per class and then cached within this core.
+     * @param clazz     the class
+     * @return          the schema
+     */
+    public Schema schemaOf(Class<?> clazz) {
+        return format.schemaOf(clazz);
+    }
+
+    /**
+     * Register the reader schema for the given class, in place of the generated schema.
+     * Records written with other schemas are resolved against it,
+     * so it can supply defaults for fields which older writer schemas lack.
+     * The schema must be registered before values of the class are first encoded or decoded.
+     * @param clazz     the class
+     * @param schema    the schema
+     */
+    public void registerSchema(Class<?> clazz, Schema schema) {
+        format.registerSchema(clazz, schema);
+    }
+
     public <T> DataFileWriter<GenericRecord> encode(
             Class<? super T> clazz,
             Schema schema,
@@ -115,6 +147,100 @@ public <T> DataFileWriter<GenericRecord> encode(
         });
     }
 
+    /**
+     * Encode a sequence of values into a single Avro container file.
+     * All values share one header and sync marker, and are appended in blocks
+     * of approximately {@code syncInterval} bytes, each compressed with {@code codec}.
+     * The output stream is closed once all the values have been written.
+     * @param clazz     the static type of the values
+     * @param schema    the schema for the values
+     * @param values    the values to be encoded
+     * @param os        the output stream to which the container is written
+     * @param codec     the block compression codec, e.g. {@link CodecFactory#deflateCodec(int)}
+     * @param syncInterval the approximate size of each block, in bytes
+     * @param <T>       the static type of the values
+     * @return          the number of values written
+     */
+    public <T> long encodeAll(
+            Class<? super T> clazz,
+            Schema schema,
+            Iterable<T> values,
+            OutputStream os,
+            CodecFactory codec,
+            int syncInterval
+    ) {
+        return Exceptions.wrap(() -> {
+            try (final DataFileWriter<GenericRecord> writer =
+                         new DataFileWriter<GenericRecord>(new GenericDatumWriter<GenericRecord>(schema))
+                                 .setCodec(codec)
+                                 .setSyncInterval(syncInterval)
+                                 .create(schema, os)) {
+                long count = 0;
+                for (T value : values) {
+                    encode(clazz, schema, value, writer);
+                    ++count;
+                }
+                return count;
+            }
+        });
+    }
+
+    /**
+     * Encode a stream of values into a single Avro container file.
+     * @see #encodeAll(Class, Schema, Iterable, OutputStream, CodecFactory, int)
+     * @param clazz     the static type of the values
+     * @param schema    the schema for the values
+     * @param values    the values to be encoded
+     * @param os        the output stream to which the container is written
+     * @param codec     the block compression codec
+     * @param syncInterval the approximate size of each block, in bytes
+     * @param <T>       the static type of the values
+     * @return          the number of values written
+     */
+    public <T> long encodeAll(
+            Class<? super T> clazz,
+            Schema schema,
+            Stream<T> values,
+            OutputStream os,
+            CodecFactory codec,
+            int syncInterval
+    ) {
+        final Iterable<T> iter = values::iterator;
+        return encodeAll(clazz, schema, iter, os, codec, syncInterval);
+    }
+
+    /**
+     * Decode the values in an Avro container file as a lazy {@link Stream}.
+     * A single {@link GenericRecord} is reused for every value read from the container.
+     * The stream should be closed after use, which closes the underlying input stream.
+     * @param clazz     the static type of the values
+     * @param is        the input stream from which the container is read
+     * @param <T>       the static type of the values
+     * @return          the stream of decoded values
+     */
+    public <T> Stream<T> decodeAll(Class<? super T> clazz, InputStream is) {
+        final DataFileStream<GenericRecord> dfs =
+                Exceptions.wrap(() -> new DataFileStream<>(is, new GenericDatumReader<>()));
+
+        final Iterator<T> iter = new Iterator<T>() {
+            private GenericRecord genRec;
+
+            @Override
+            public boolean hasNext() {
+                return dfs.hasNext();
+            }
+
+            @Override
+            public T next() {
+                genRec = Exceptions.wrap(() -> dfs.next(genRec));
+                return decodeImpl(clazz, WithSchema.of(genRec, genRec.getSchema()));
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iter, Spliterator.ORDERED), false)
+                .onClose(() -> Exceptions.wrap(dfs::close));
+    }
+
     public <T> T decode(Class<? super T> clazz, DataFileStream<GenericRecord> dfs) {
         final GenericRecord genRec = dfs.next();
         return decodeImpl(clazz, WithSchema.of(genRec, genRec.getSchema()));
@@ -126,12 +252,11 @@ public <T> OutputStream encode(
             T value,
             OutputStream os
     ) {
-        throw null;
-//        try (DataFileWriter<GenericRecord> dfw = encode(clazz, schema, value, os)) {
-//            return os;
-//        } catch (IOException ex) {
-//            throw new CodecException(ex);
-//        }
+        try (DataFileWriter<GenericRecord> dfw = encode(clazz, schemaOf(clazz), value, os)) {
+            return os;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
     }
 
     @Override
@@ -1,13 +1,18 @@
 package org.typemeta.funcj.codec.avro;
 
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.*;
+import org.typemeta.funcj.codec.*;
 import org.typemeta.funcj.codec.avro.AvroTypes.*;
 import org.typemeta.funcj.codec.impl.CollectionCodec;
 import org.typemeta.funcj.codec.utils.CodecException;
 import org.typemeta.funcj.functions.Functions;
 
+import java.lang.reflect.*;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.typemeta.funcj.codec.utils.StreamUtils.toLinkedHashMap;
 
@@ -19,6 +24,8 @@ public class AvroCodecFormat implements CodecFormat<WithSchema, Object, Config>
 
     protected final Config config;
 
+    protected final Map<Class<?>, Schema> schemas = new ConcurrentHashMap<>();
+
     protected static Schema findType(Schema schema, Schema.Type type) {
         if (schema.isUnion()) {
             for (Schema subSchema : schema.getTypes()) {
@@ -47,11 +54,8 @@ protected static Schema checkSchemaType(Schema schema, Schema.Type type) {
 
     protected static Schema checkArraySchemaType(Schema schema, Schema.Type elemType) {
         final Schema match = findType(schema, Schema.Type.ARRAY);
-        if (match != null) {
-            final Schema elemMatch = findType(match, elemType);
-            if (elemMatch != null) {
-                return elemMatch;
-            }
+        if (match != null && findType(match.getElementType(), elemType) != null) {
+            return match;
         }
 
         throw new CodecException(
@@ -60,6 +64,74 @@ protected static Schema checkArraySchemaType(Schema schema, Schema.Type elemType
         );
     }
 
+    protected static Schema nonNullType(Schema schema) {
+        if (schema.isUnion()) {
+            for (Schema subSchema : schema.getTypes()) {
+                if (subSchema.getType() != Schema.Type.NULL) {
+                    return subSchema;
+                }
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Determine the conversion required to read a value written with the writer schema,
+     * as a value of the reader schema, as per the Avro schema resolution rules.
+     * @param writer    the writer schema
+     * @param reader    the reader schema
+     * @return          the conversion, or null if the value can be used as-is
+     */
+    protected static Functions.F<Object, Object> promotion(Schema writer, Schema reader) {
+        final Schema.Type wt = nonNullType(writer).getType();
+        final Schema.Type rt = nonNullType(reader).getType();
+        if (wt == rt) {
+            return null;
+        }
+
+        switch (wt) {
+            case INT:
+                switch (rt) {
+                    case LONG: return v -> v == null ? null : (Object)((Integer)v).longValue();
+                    case FLOAT: return v -> v == null ? null : (Object)((Integer)v).floatValue();
+                    case DOUBLE: return v -> v == null ? null : (Object)((Integer)v).doubleValue();
+                }
+                break;
+            case LONG:
+                switch (rt) {
+                    case FLOAT: return v -> v == null ? null : (Object)((Long)v).floatValue();
+                    case DOUBLE: return v -> v == null ? null : (Object)((Long)v).doubleValue();
+                }
+                break;
+            case FLOAT:
+                if (rt == Schema.Type.DOUBLE) {
+                    return v -> v == null ? null : (Object)((Float)v).doubleValue();
+                }
+                break;
+            case STRING:
+                if (rt == Schema.Type.BYTES) {
+                    return v -> v == null ? null : ByteBuffer.wrap(v.toString().getBytes(StandardCharsets.UTF_8));
+                }
+                break;
+            case BYTES:
+                if (rt == Schema.Type.STRING) {
+                    return v -> {
+                        if (v == null) {
+                            return null;
+                        } else {
+                            final ByteBuffer bb = ((ByteBuffer)v).duplicate();
+                            final byte[] ba = new byte[bb.remaining()];
+                            bb.get(ba);
+                            return new String(ba, StandardCharsets.UTF_8);
+                        }
+                    };
+                }
+                break;
+        }
+
+        return null;
+    }
+
     public AvroCodecFormat(Config config) {
         this.config = config;
     }
@@ -69,6 +141,27 @@ public Config config() {
         return config;
     }
 
+    /**
+     * Return the schema generated for the given class.
+     * Schemas are generated once per class and then cached.
+     * @param clazz     the class
+     * @return          the schema
+     */
+    public Schema schemaOf(Class<?> clazz) {
+        return schemas.computeIfAbsent(clazz, GenerateSchema::apply);
+    }
+
+    /**
+     * Register the reader schema for the given class, in place of the generated schema.
+     * This allows the schema to supply defaults for fields which older writer schemas lack.
+     * The schema must be registered before values of the class are first encoded or decoded.
+     * @param clazz     the class
+     * @param schema    the schema
+     */
+    public void registerSchema(Class<?> clazz, Schema schema) {
+        schemas.put(clazz, schema);
+    }
+
     @Override
     public <T> WasEncoded<Object> encodeNull(T val, Object out) {
         if (val == null) {
@@ -149,9 +242,7 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, boolean[] val
 
         @Override
         public boolean[] decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-            checkArraySchemaType(in.schema(), Schema.Type.BOOLEAN);
-
-            final Schema elemSchema = in.schema().getElementType();
+            final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.BOOLEAN).getElementType();
 
             final List<Boolean> values = in.value();
             final boolean[] arr = new boolean[values.size()];
@@ -228,7 +319,7 @@ public Object encodePrim(char value, Object out) {
         @Override
         public char decodePrim(WithSchema in) {
             checkSchemaType(in.schema(), Schema.Type.STRING);
-            final String s = in.value();
+            final CharSequence s = in.value();
             return s.charAt(0);
         }
     }
@@ -250,15 +341,25 @@ public Class<char[]> type() {
 
         @Override
         public Object encode(CodecCoreEx<WithSchema, Object, Config> core, char[] value, Object out) {
-            checkSchemaType((Schema)out, Schema.Type.STRING);
-            return new String(value);
+            checkArraySchemaType((Schema)out, Schema.Type.STRING);
+
+            final List<String> list = new ArrayList<>(value.length);
+            for (char val : value) {
+                list.add(String.valueOf(val));
+            }
+            return list;
         }
 
         @Override
         public char[] decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-            checkSchemaType(in.schema(), Schema.Type.STRING);
-            final String s = in.value();
-            return s.toCharArray();
+            final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.STRING).getElementType();
+
+            final List<CharSequence> values = in.value();
+            final char[] arr = new char[values.size()];
+            for (int i = 0; i < values.size(); ++i) {
+                arr[i] = charCodec().decodePrim(WithSchema.of(values.get(i), elemSchema));
+            }
+            return arr;
         }
     };
 
@@ -310,9 +411,7 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, short[] value
 
         @Override
         public short[] decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-            checkArraySchemaType(in.schema(), Schema.Type.INT);
-
-            final Schema elemSchema = in.schema().getElementType();
+            final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.INT).getElementType();
 
             final List<Short> values = in.value();
             final short[] arr = new short[values.size()];
@@ -371,9 +470,7 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, int[] value,
 
         @Override
         public int[] decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-            checkArraySchemaType(in.schema(), Schema.Type.INT);
-
-            final Schema elemSchema = in.schema().getElementType();
+            final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.INT).getElementType();
 
             final List<Integer> values = in.value();
             final int[] arr = new int[values.size()];
@@ -432,9 +529,7 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, long[] value,
 
         @Override
         public long[] decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-            checkArraySchemaType(in.schema(), Schema.Type.LONG);
-
-            final Schema elemSchema = in.schema().getElementType();
+            final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.LONG).getElementType();
 
             final List<Long> values = in.value();
             final long[] arr = new long[values.size()];
@@ -493,9 +588,7 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, float[] value
 
         @Override
         public float[] decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-            checkArraySchemaType(in.schema(), Schema.Type.FLOAT);
-
-            final Schema elemSchema = in.schema().getElementType();
+            final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.FLOAT).getElementType();
 
             final List<Float> values = in.value();
             final float[] arr = new float[values.size()];
@@ -554,9 +647,7 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, double[] valu
 
         @Override
         public double[] decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-            checkArraySchemaType(in.schema(), Schema.Type.DOUBLE);
-
-            final Schema elemSchema = in.schema().getElementType();
+            final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.DOUBLE).getElementType();
 
             final List<Double> values = in.value();
             final double[] arr = new double[values.size()];
@@ -588,7 +679,9 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, String value,
         @Override
         public String decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
             checkSchemaType(in.schema(), Schema.Type.STRING);
-            return in.value();
+            // The generic reader returns strings as Utf8 instances.
+            final CharSequence s = in.value();
+            return s.toString();
         }
     }
 
@@ -656,7 +749,7 @@ public <T> Codec<Collection<T>, WithSchema, Object, Config> createCollCodec(
 
             @Override
             public Object encode(CodecCoreEx<WithSchema, Object, Config> core, Collection<T> value, Object out) {
-                final Schema elemSchema = checkArraySchemaType((Schema)out, Schema.Type.ARRAY)
+                final Schema elemSchema = checkSchemaType((Schema)out, Schema.Type.ARRAY)
                         .getElementType();
 
                 final List<Object> list = new ArrayList<>(value.size());
@@ -668,7 +761,7 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, Collection<T>
 
             @Override
             public Collection<T> decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-                final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.ARRAY)
+                final Schema elemSchema = checkSchemaType(in.schema(), Schema.Type.ARRAY)
                         .getElementType();
 
                 final List<Object> values = in.value();
@@ -698,7 +791,7 @@ public Class<T[]> type() {
 
             @Override
             public Object encode(CodecCoreEx<WithSchema, Object, Config> core, T[] value, Object out) {
-                final Schema elemSchema = checkArraySchemaType((Schema)out, Schema.Type.ARRAY)
+                final Schema elemSchema = checkSchemaType((Schema)out, Schema.Type.ARRAY)
                         .getElementType();
 
                 final List<Object> list = new ArrayList<>(value.length);
@@ -710,7 +803,7 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, T[] value, Ob
 
             @Override
             public T[] decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
-                final Schema elemSchema = checkArraySchemaType(in.schema(), Schema.Type.ARRAY)
+                final Schema elemSchema = checkSchemaType(in.schema(), Schema.Type.ARRAY)
                         .getElementType();
 
                 final List<Object> values = in.value();
@@ -743,6 +836,7 @@ public <T, RA extends ObjectMeta.Builder<T>> Codec<T, WithSchema, Object, Config
         private final Class<T> type;
         private final ObjectMeta<T, WithSchema, Object, RA> objMeta;
         private final Map<String, ObjectMeta.Field<T, WithSchema, Object, RA>> fields;
+        private final Map<Schema, FieldStep<T, RA>[]> plans = new ConcurrentHashMap<>();
 
         private ObjectCodec(
                 Class<T> type,
@@ -777,33 +871,101 @@ public Object encode(CodecCoreEx<WithSchema, Object, Config> core, T value, Obje
         public T decode(CodecCoreEx<WithSchema, Object, Config> core, WithSchema in) {
             final Schema schema = checkSchemaType(in.schema(), Schema.Type.RECORD);
 
-            final GenericData.Record record = in.value();
+            final GenericRecord record = in.value();
 
-            final Set<String> expNames = fields.keySet();
-            final Set<String> actNames = new HashSet<>();
-            final RA ra = objMeta.startDecode();
+            final RA ra = objMeta.createBuilder();
 
-            schema.getFields().forEach(field -> {
-                final String name = field.name();
-                if (!expNames.contains(name)) {
+            for (FieldStep<T, RA> step : plans.computeIfAbsent(schema, this::resolve)) {
+                step.decode(ra, record);
+            }
+
+            return ra.construct();
+        }
+
+        /**
+         * Construct the resolution plan for records written with the given writer schema.
+         * The plan contains one step per field to be decoded,
+         * each of which accesses the record field by position.
+         * Writer fields not present in the type are skipped,
+         * and reader fields absent from the writer schema take the reader schema's default, if any.
+         * @param schema    the writer record schema
+         * @return          the resolution plan
+         */
+        protected FieldStep<T, RA>[] resolve(Schema schema) {
+            final Schema readerSchema = findType(schemaOf(type), Schema.Type.RECORD);
+
+            final List<FieldStep<T, RA>> steps = new ArrayList<>(fields.size());
+
+            for (Schema.Field wrtField : schema.getFields()) {
+                final String name = wrtField.name();
+                final ObjectMeta.Field<T, WithSchema, Object, RA> field = fields.get(name);
+                if (field == null) {
                     if (config().failOnUnrecognisedFields()) {
                         throw new CodecException(
                                 "Field name '" + name + "' unexpected for type " + type
                         );
                     }
-                } else if (actNames.contains(name)) {
-                    throw new CodecException(
-                            "Duplicate field name '" + name + "' for type " + type
-                    );
                 } else {
-                    actNames.add(name);
-                    final Object value = record.get(name);
-                    final Schema fieldSchema = field.schema();
-                    fields.get(name).decodeField(ra, WithSchema.of(value, fieldSchema));
+                    final Schema.Field rdrField = readerSchema == null ? null : readerSchema.getField(name);
+                    final Functions.F<Object, Object> promo =
+                            rdrField == null ? null : promotion(wrtField.schema(), rdrField.schema());
+                    if (promo == null) {
+                        steps.add(new FieldStep<>(wrtField.pos(), field, wrtField.schema(), null, null));
+                    } else {
+                        steps.add(new FieldStep<>(wrtField.pos(), field, rdrField.schema(), promo, null));
+                    }
                 }
-            });
+            }
 
-            return ra.construct();
+            if (readerSchema != null) {
+                for (Schema.Field rdrField : readerSchema.getFields()) {
+                    final ObjectMeta.Field<T, WithSchema, Object, RA> field = fields.get(rdrField.name());
+                    if (field != null && schema.getField(rdrField.name()) == null && rdrField.hasDefaultValue()) {
+                        final Object defVal = GenericData.get().getDefaultValue(rdrField);
+                        steps.add(new FieldStep<>(-1, field, rdrField.schema(), null, defVal));
+                    }
+                }
+            }
+
+            return steps.toArray(new FieldStep[0]);
+        }
+    }
+
+    /**
+     * A single step in a record resolution plan.
+     * @param <T>       the record type
+     * @param <RA>      the record builder type
+     */
+    protected static class FieldStep<T, RA extends ObjectMeta.Builder<T>> {
+        protected final int pos;
+        protected final ObjectMeta.Field<T, WithSchema, Object, RA> field;
+        protected final Schema schema;
+        protected final Functions.F<Object, Object> promotion;
+        protected final Object defaultValue;
+
+        protected FieldStep(
+                int pos,
+                ObjectMeta.Field<T, WithSchema, Object, RA> field,
+                Schema schema,
+                Functions.F<Object, Object> promotion,
+                Object defaultValue) {
+            this.pos = pos;
+            this.field = field;
+            this.schema = schema;
+            this.promotion = promotion;
+            this.defaultValue = defaultValue;
+        }
+
+        protected void decode(RA ra, GenericRecord record) {
+            final Object value;
+            if (pos < 0) {
+                value = defaultValue;
+            } else if (promotion == null) {
+                value = record.get(pos);
+            } else {
+                value = promotion.apply(record.get(pos));
+            }
+            field.decodeField(ra, WithSchema.of(value, schema));
         }
     }
 
@@ -24,11 +24,6 @@ public Builder dynamicTypeTags(boolean enable) {
         public Builder failOnNoTypeConstructor(boolean enable) {
             throw new NotSupportedException();
         }
-
-        @Override
-        public Builder failOnUnrecognisedFields(boolean enable) {
-            throw new NotSupportedException();
-        }
     }
 
     public static AvroConfig.Builder builder() {
@@ -1,6 +1,7 @@
 package org.typemeta.funcj.codec.avro;
 
 import org.typemeta.funcj.codec.CodecConfig;
+import org.typemeta.funcj.codec.avro.binary.AvroBinaryCodecCore;
 import org.typemeta.funcj.codec.avro.schema.*;
 
 /**
@@ -27,4 +28,16 @@ public static AvroCodecCore avroCodec() {
     public static AvroCodecCore avroCodec(CodecConfig.Builder<?, AvroTypes.Config> cfgBldr) {
         return registerAll(cfgBldr, AvroCodecCore::new);
     }
+
+    /**
+     * Construct and return a new instance of a {@link AvroBinaryCodecCore}.
+     * @return      the Avro binary codec
+     */
+    public static AvroBinaryCodecCore avroBinaryCodec() {
+        return avroBinaryCodec(new AvroConfig.Builder());
+    }
+
+    public static AvroBinaryCodecCore avroBinaryCodec(CodecConfig.Builder<?, AvroTypes.Config> cfgBldr) {
+        return registerAll(cfgBldr, AvroBinaryCodecCore::new);
+    }
 }
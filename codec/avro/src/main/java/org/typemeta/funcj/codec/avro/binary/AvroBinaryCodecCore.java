@@ -0,0 +1,206 @@
+package org.typemeta.funcj.codec.avro.binary;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.*;
+import org.apache.avro.io.*;
+import org.typemeta.funcj.codec.CodecStrAPI;
+import org.typemeta.funcj.codec.avro.AvroConfig;
+import org.typemeta.funcj.codec.avro.AvroTypes.Config;
+import org.typemeta.funcj.codec.avro.binary.AvroBinaryTypes.*;
+import org.typemeta.funcj.codec.impl.*;
+import org.typemeta.funcj.codec.utils.CodecException;
+
+import java.io.*;
+import java.util.stream.*;
+
+/**
+ * Interface for classes which implement an encoding via the Avro binary encoding.
+ * <p>
+ * Values are streamed directly to and from Avro {@link Encoder}s and {@link Decoder}s.
+ * The {@code OutputStream} and {@code InputStream} methods reuse a per-thread
+ * {@link BinaryEncoder} and {@link BinaryDecoder}.
+ */
+public class AvroBinaryCodecCore
+        extends CodecCoreDelegate<InStream, OutStream, Config>
+        implements CodecStrAPI.IO {
+
+    private static final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
+
+    private static final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    public AvroBinaryCodecCore(AvroBinaryCodecFormat format) {
+        super(new CodecCoreImpl<>(format));
+    }
+
+    public AvroBinaryCodecCore(Config config) {
+        this(new AvroBinaryCodecFormat(config));
+    }
+
+    public AvroBinaryCodecCore() {
+        this(new AvroConfig());
+    }
+
+    /**
+     * Encode the given value into Avro binary data and write it to the {@link Encoder}.
+     * The encoder is not flushed.
+     * @param type      the static type of the value
+     * @param value     the value to be encoded
+     * @param encoder   the encoder to which the data is written
+     * @param <T>       the static type of the value
+     * @return          the encoder
+     */
+    public <T> Encoder encode(Class<? super T> type, T value, Encoder encoder) {
+        encodeImpl(type, value, AvroBinaryTypes.outputOf(encoder));
+        return encoder;
+    }
+
+    /**
+     * Decode a value by reading Avro binary data from the given {@link Decoder}.
+     * @param type      the static type of the value to be decoded.
+     * @param decoder   the decoder from which the data is read
+     * @param <T>       the static type of the value
+     * @return          the decoded value
+     */
+    public <T> T decode(Class<? super T> type, Decoder decoder) {
+        return decodeImpl(type, AvroBinaryTypes.inputOf(decoder));
+    }
+
+    /**
+     * Encode the given value into Avro binary data and write the results to the {@link OutputStream} object.
+     * @param type      the static type of the value
+     * @param value     the value to be encoded
+     * @param os        the output stream to which the data is written
+     * @param <T>       the static type of the value
+     * @return          the output stream
+     */
+    @Override
+    public <T> OutputStream encode(Class<? super T> type, T value, OutputStream os) {
+        final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(os, encoders.get());
+        encoders.set(encoder);
+        final OutStream out = AvroBinaryTypes.outputOf(encoder);
+        encodeImpl(type, value, out);
+        out.flush();
+        return os;
+    }
+
+    /**
+     * Decode a value by reading Avro binary data from the given {@link InputStream} object.
+     * The decoder is buffered, so may read beyond the end of the value.
+     * To decode a sequence of values from a stream,
+     * use {@link #decode(Class, Decoder)} with a single decoder.
+     * @param type      the static type of the value to be decoded.
+     * @param is        the input stream from which the data is read
+     * @param <T>       the static type of the value
+     * @return          the decoded value
+     */
+    @Override
+    public <T> T decode(Class<? super T> type, InputStream is) {
+        final BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(is, decoders.get());
+        decoders.set(decoder);
+        return decodeImpl(type, AvroBinaryTypes.inputOf(decoder));
+    }
+
+    /**
+     * Encode a sequence of values into a single Avro container file,
+     * written to the given {@link OutputStream}.
+     * The container has a single header, and the values are appended in blocks
+     * of approximately {@code syncInterval} bytes, each compressed with {@code codec}.
+     * The output stream is closed once all the values have been written.
+     * @param type      the static type of the values
+     * @param schema    the schema for the values, typically from {@link org.typemeta.funcj.codec.avro.GenerateSchema}
+     * @param values    the values to be encoded
+     * @param os        the output stream to which the container is written
+     * @param codec     the block compression codec, e.g. {@link CodecFactory#deflateCodec(int)}
+     * @param syncInterval the approximate size of each block, in bytes
+     * @param <T>       the static type of the values
+     * @return          the number of values written
+     */
+    public <T> long encodeAll(
+            Class<? super T> type,
+            Schema schema,
+            Iterable<T> values,
+            OutputStream os,
+            CodecFactory codec,
+            int syncInterval) {
+        try (final DataFileWriter<T> dfw = new DataFileWriter<>(new CodecDatumWriter<>(this, type))) {
+            dfw.setCodec(codec);
+            dfw.setSyncInterval(syncInterval);
+            dfw.create(schema, os);
+
+            long count = 0;
+            for (T value : values) {
+                dfw.append(value);
+                ++count;
+            }
+
+            return count;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Encode a sequence of values into a single, uncompressed, Avro container file.
+     * @see #encodeAll(Class, Schema, Iterable, OutputStream, CodecFactory, int)
+     * @param type      the static type of the values
+     * @param schema    the schema for the values
+     * @param values    the values to be encoded
+     * @param os        the output stream to which the container is written
+     * @param <T>       the static type of the values
+     * @return          the number of values written
+     */
+    public <T> long encodeAll(Class<? super T> type, Schema schema, Iterable<T> values, OutputStream os) {
+        return encodeAll(type, schema, values, os, CodecFactory.nullCodec(), DataFileConstants.DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Encode a stream of values into a single Avro container file.
+     * @see #encodeAll(Class, Schema, Iterable, OutputStream, CodecFactory, int)
+     * @param type      the static type of the values
+     * @param schema    the schema for the values
+     * @param values    the values to be encoded
+     * @param os        the output stream to which the container is written
+     * @param codec     the block compression codec
+     * @param syncInterval the approximate size of each block, in bytes
+     * @param <T>       the static type of the values
+     * @return          the number of values written
+     */
+    public <T> long encodeAll(
+            Class<? super T> type,
+            Schema schema,
+            Stream<T> values,
+            OutputStream os,
+            CodecFactory codec,
+            int syncInterval) {
+        final Iterable<T> iter = values::iterator;
+        return encodeAll(type, schema, iter, os, codec, syncInterval);
+    }
+
+    /**
+     * Decode the values in an Avro container file as a lazy {@link Stream}.
+     * Values are decoded directly from each block as the stream is consumed.
+     * The stream should be closed after use, which closes the underlying input stream.
+     * @param type      the static type of the values
+     * @param is        the input stream from which the container is read
+     * @param <T>       the static type of the values
+     * @return          the stream of decoded values
+     * @throws CodecException if the container's schema doesn't match the schema generated for the type
+     */
+    public <T> Stream<T> decodeAll(Class<? super T> type, InputStream is) {
+        final DataFileStream<T> dfs;
+        try {
+            dfs = new DataFileStream<>(is, new CodecDatumReader<>(this, type));
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+
+        return StreamSupport.stream(dfs.spliterator(), false)
+                .onClose(() -> {
+                    try {
+                        dfs.close();
+                    } catch (IOException ex) {
+                        throw new CodecException(ex);
+                    }
+                });
+    }
+}
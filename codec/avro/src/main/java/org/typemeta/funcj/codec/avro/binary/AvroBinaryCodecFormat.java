@@ -0,0 +1,794 @@
+package org.typemeta.funcj.codec.avro.binary;
+
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.avro.AvroConfig;
+import org.typemeta.funcj.codec.avro.AvroTypes.Config;
+import org.typemeta.funcj.codec.avro.binary.AvroBinaryTypes.*;
+import org.typemeta.funcj.codec.impl.CollectionCodec;
+import org.typemeta.funcj.codec.stream.StreamCodecFormat;
+import org.typemeta.funcj.codec.utils.CodecException;
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.util.Folds;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Encoding via the Avro binary encoding.
+ * <p>
+ * Values are written directly to an Avro {@link org.apache.avro.io.Encoder},
+ * and read directly from an Avro {@link org.apache.avro.io.Decoder},
+ * without building intermediate {@code GenericRecord} trees.
+ * The encoded data conforms to the schema generated by
+ * {@link org.typemeta.funcj.codec.avro.GenerateSchema} for the same type,
+ * i.e. object fields are written in field order,
+ * and all non-primitive values are written as a union of the value type (index 0) and null (index 1).
+ */
+@SuppressWarnings("unchecked")
+public class AvroBinaryCodecFormat implements StreamCodecFormat<InStream, OutStream, Config> {
+
+    protected final Config config;
+
+    public AvroBinaryCodecFormat(Config config) {
+        this.config = config;
+    }
+
+    public AvroBinaryCodecFormat() {
+        this(new AvroConfig());
+    }
+
+    @Override
+    public Config config() {
+        return config;
+    }
+
+    /**
+     * The maximum number of array elements allocated up-front, based on the encoded block count.
+     * Larger arrays grow as their elements are decoded,
+     * so that a corrupt count can't cause an excessive allocation.
+     */
+    protected static final int MAX_INITIAL_CAPACITY = 1024;
+
+    /**
+     * Determine the initial capacity of a decoded array.
+     * @param n         the element count of the first block
+     * @return          the initial capacity
+     */
+    protected static int initialCapacity(long n) {
+        return (int)Math.min(n, MAX_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Determine the capacity of a decoded array which is full.
+     * @param size      the number of elements decoded so far
+     * @param remaining the number of elements remaining in the current block
+     * @return          the new capacity
+     */
+    protected static int newCapacity(int size, long remaining) {
+        final long required = size + remaining;
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new CodecException("Array element count of " + required + " exceeds the maximum array size");
+        } else {
+            return (int)Math.min(required, Math.max(size * 2L, MAX_INITIAL_CAPACITY));
+        }
+    }
+
+    @Override
+    public <T> WasEncoded<OutStream> encodeNull(T val, OutStream out) {
+        final boolean isNull = val == null;
+        out.writeIndex(isNull ? 1 : 0);
+        return WasEncoded.of(isNull, out);
+    }
+
+    @Override
+    public boolean decodeNull(InStream in) {
+        return in.readIndex() == 1;
+    }
+
+    @Override
+    public <T> WasEncoded<OutStream> encodeDynamicType(
+            CodecCoreEx<InStream, OutStream, Config> core,
+            Codec<T, InStream, OutStream, Config> codec,
+            T val,
+            OutStream out,
+            Functions.F<Class<T>, Codec<T, InStream, OutStream, Config>> getDynCodec
+    ) {
+        final Class<T> dynType = (Class<T>) val.getClass();
+        final Class<T> stcType = codec.type();
+        if (config().dynamicTypeMatch(stcType, dynType)) {
+            return WasEncoded.of(false, out);
+        } else if (Collection.class.isAssignableFrom(stcType) || Map.class.isAssignableFrom(stcType)) {
+            // Collections and maps are written structurally, and decode as the default implementation type.
+            return WasEncoded.of(false, out);
+        } else {
+            // Avro data carries no type tags, so a value whose type differs from its static type can't be decoded.
+            throw new CodecException(
+                    "Value of type " + dynType + " can't be encoded as Avro binary data" +
+                            " with a static type of " + stcType);
+        }
+    }
+
+    /**
+     * Avro data carries no type tags, so values are always decoded as their static type.
+     */
+    @Override
+    public <T> T decodeDynamicType(InStream in, Functions.F2<String, InStream, T> decoder) {
+        return null;
+    }
+
+    protected static class BooleanCodec implements Codec.BooleanCodec<InStream, OutStream, Config> {
+
+        @Override
+        public OutStream encodePrim(boolean val, OutStream out) {
+            return out.writeBoolean(val);
+        }
+
+        @Override
+        public boolean decodePrim(InStream in) {
+            return in.readBoolean();
+        }
+    }
+
+    protected final Codec.BooleanCodec<InStream, OutStream, Config> booleanCodec = new BooleanCodec();
+
+    @Override
+    public Codec.BooleanCodec<InStream, OutStream, Config> booleanCodec() {
+        return booleanCodec;
+    }
+
+    protected final Codec<boolean[], InStream, OutStream, Config> booleanArrayCodec =
+            new Codec<boolean[], InStream, OutStream, Config>() {
+
+        @Override
+        public Class<boolean[]> type() {
+            return boolean[].class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, boolean[] value, OutStream out) {
+            out.startArray(value.length);
+            for (boolean val : value) {
+                booleanCodec().encodePrim(val, out.startItem());
+            }
+            return out.endArray();
+        }
+
+        @Override
+        public boolean[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            long n = in.readArrayStart();
+            boolean[] vals = new boolean[initialCapacity(n)];
+            int i = 0;
+            while (n != 0) {
+                for (long j = 0; j < n; ++j) {
+                    if (i == vals.length) {
+                        vals = Arrays.copyOf(vals, newCapacity(i, n - j));
+                    }
+                    vals[i++] = booleanCodec().decodePrim(in);
+                }
+
+                n = in.arrayNext();
+            }
+
+            return i == vals.length ? vals : Arrays.copyOf(vals, i);
+        }
+    };
+
+    @Override
+    public Codec<boolean[], InStream, OutStream, Config> booleanArrayCodec() {
+        return booleanArrayCodec;
+    }
+
+    protected static class ByteCodec implements Codec.ByteCodec<InStream, OutStream, Config> {
+
+        @Override
+        public OutStream encodePrim(byte val, OutStream out) {
+            return out.writeByte(val);
+        }
+
+        @Override
+        public byte decodePrim(InStream in) {
+            return in.readByte();
+        }
+    }
+
+    protected final Codec.ByteCodec<InStream, OutStream, Config> byteCodec = new ByteCodec();
+
+    @Override
+    public Codec.ByteCodec<InStream, OutStream, Config> byteCodec() {
+        return byteCodec;
+    }
+
+    protected final Codec<byte[], InStream, OutStream, Config> byteArrayCodec =
+            new Codec<byte[], InStream, OutStream, Config>() {
+
+        @Override
+        public Class<byte[]> type() {
+            return byte[].class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, byte[] value, OutStream out) {
+            return out.writeBytes(value);
+        }
+
+        @Override
+        public byte[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            return in.readBytes();
+        }
+    };
+
+    @Override
+    public Codec<byte[], InStream, OutStream, Config> byteArrayCodec() {
+        return byteArrayCodec;
+    }
+
+    protected static class CharCodec implements Codec.CharCodec<InStream, OutStream, Config> {
+
+        @Override
+        public OutStream encodePrim(char val, OutStream out) {
+            return out.writeChar(val);
+        }
+
+        @Override
+        public char decodePrim(InStream in) {
+            return in.readChar();
+        }
+    }
+
+    protected final Codec.CharCodec<InStream, OutStream, Config> charCodec = new CharCodec();
+
+    @Override
+    public Codec.CharCodec<InStream, OutStream, Config> charCodec() {
+        return charCodec;
+    }
+
+    protected final Codec<char[], InStream, OutStream, Config> charArrayCodec =
+            new Codec<char[], InStream, OutStream, Config>() {
+
+        @Override
+        public Class<char[]> type() {
+            return char[].class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, char[] value, OutStream out) {
+            out.startArray(value.length);
+            for (char val : value) {
+                charCodec().encodePrim(val, out.startItem());
+            }
+            return out.endArray();
+        }
+
+        @Override
+        public char[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            long n = in.readArrayStart();
+            char[] vals = new char[initialCapacity(n)];
+            int i = 0;
+            while (n != 0) {
+                for (long j = 0; j < n; ++j) {
+                    if (i == vals.length) {
+                        vals = Arrays.copyOf(vals, newCapacity(i, n - j));
+                    }
+                    vals[i++] = charCodec().decodePrim(in);
+                }
+
+                n = in.arrayNext();
+            }
+
+            return i == vals.length ? vals : Arrays.copyOf(vals, i);
+        }
+    };
+
+    @Override
+    public Codec<char[], InStream, OutStream, Config> charArrayCodec() {
+        return charArrayCodec;
+    }
+
+    protected static class ShortCodec implements Codec.ShortCodec<InStream, OutStream, Config> {
+
+        @Override
+        public OutStream encodePrim(short val, OutStream out) {
+            return out.writeShort(val);
+        }
+
+        @Override
+        public short decodePrim(InStream in) {
+            return in.readShort();
+        }
+    }
+
+    protected final Codec.ShortCodec<InStream, OutStream, Config> shortCodec = new ShortCodec();
+
+    @Override
+    public Codec.ShortCodec<InStream, OutStream, Config> shortCodec() {
+        return shortCodec;
+    }
+
+    protected final Codec<short[], InStream, OutStream, Config> shortArrayCodec =
+            new Codec<short[], InStream, OutStream, Config>() {
+
+        @Override
+        public Class<short[]> type() {
+            return short[].class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, short[] value, OutStream out) {
+            out.startArray(value.length);
+            for (short val : value) {
+                shortCodec().encodePrim(val, out.startItem());
+            }
+            return out.endArray();
+        }
+
+        @Override
+        public short[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            long n = in.readArrayStart();
+            short[] vals = new short[initialCapacity(n)];
+            int i = 0;
+            while (n != 0) {
+                for (long j = 0; j < n; ++j) {
+                    if (i == vals.length) {
+                        vals = Arrays.copyOf(vals, newCapacity(i, n - j));
+                    }
+                    vals[i++] = shortCodec().decodePrim(in);
+                }
+
+                n = in.arrayNext();
+            }
+
+            return i == vals.length ? vals : Arrays.copyOf(vals, i);
+        }
+    };
+
+    @Override
+    public Codec<short[], InStream, OutStream, Config> shortArrayCodec() {
+        return shortArrayCodec;
+    }
+
+    protected static class IntCodec implements Codec.IntCodec<InStream, OutStream, Config> {
+
+        @Override
+        public OutStream encodePrim(int val, OutStream out) {
+            return out.writeInt(val);
+        }
+
+        @Override
+        public int decodePrim(InStream in) {
+            return in.readInt();
+        }
+    }
+
+    protected final Codec.IntCodec<InStream, OutStream, Config> intCodec = new IntCodec();
+
+    @Override
+    public Codec.IntCodec<InStream, OutStream, Config> intCodec() {
+        return intCodec;
+    }
+
+    protected final Codec<int[], InStream, OutStream, Config> intArrayCodec =
+            new Codec<int[], InStream, OutStream, Config>() {
+
+        @Override
+        public Class<int[]> type() {
+            return int[].class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, int[] value, OutStream out) {
+            out.startArray(value.length);
+            for (int val : value) {
+                intCodec().encodePrim(val, out.startItem());
+            }
+            return out.endArray();
+        }
+
+        @Override
+        public int[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            long n = in.readArrayStart();
+            int[] vals = new int[initialCapacity(n)];
+            int i = 0;
+            while (n != 0) {
+                for (long j = 0; j < n; ++j) {
+                    if (i == vals.length) {
+                        vals = Arrays.copyOf(vals, newCapacity(i, n - j));
+                    }
+                    vals[i++] = intCodec().decodePrim(in);
+                }
+
+                n = in.arrayNext();
+            }
+
+            return i == vals.length ? vals : Arrays.copyOf(vals, i);
+        }
+    };
+
+    @Override
+    public Codec<int[], InStream, OutStream, Config> intArrayCodec() {
+        return intArrayCodec;
+    }
+
+    protected static class LongCodec implements Codec.LongCodec<InStream, OutStream, Config> {
+
+        @Override
+        public OutStream encodePrim(long val, OutStream out) {
+            return out.writeLong(val);
+        }
+
+        @Override
+        public long decodePrim(InStream in) {
+            return in.readLong();
+        }
+    }
+
+    protected final Codec.LongCodec<InStream, OutStream, Config> longCodec = new LongCodec();
+
+    @Override
+    public Codec.LongCodec<InStream, OutStream, Config> longCodec() {
+        return longCodec;
+    }
+
+    protected final Codec<long[], InStream, OutStream, Config> longArrayCodec =
+            new Codec<long[], InStream, OutStream, Config>() {
+
+        @Override
+        public Class<long[]> type() {
+            return long[].class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, long[] value, OutStream out) {
+            out.startArray(value.length);
+            for (long val : value) {
+                longCodec().encodePrim(val, out.startItem());
+            }
+            return out.endArray();
+        }
+
+        @Override
+        public long[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            long n = in.readArrayStart();
+            long[] vals = new long[initialCapacity(n)];
+            int i = 0;
+            while (n != 0) {
+                for (long j = 0; j < n; ++j) {
+                    if (i == vals.length) {
+                        vals = Arrays.copyOf(vals, newCapacity(i, n - j));
+                    }
+                    vals[i++] = longCodec().decodePrim(in);
+                }
+
+                n = in.arrayNext();
+            }
+
+            return i == vals.length ? vals : Arrays.copyOf(vals, i);
+        }
+    };
+
+    @Override
+    public Codec<long[], InStream, OutStream, Config> longArrayCodec() {
+        return longArrayCodec;
+    }
+
+    protected static class FloatCodec implements Codec.FloatCodec<InStream, OutStream, Config> {
+
+        @Override
+        public OutStream encodePrim(float val, OutStream out) {
+            return out.writeFloat(val);
+        }
+
+        @Override
+        public float decodePrim(InStream in) {
+            return in.readFloat();
+        }
+    }
+
+    protected final Codec.FloatCodec<InStream, OutStream, Config> floatCodec = new FloatCodec();
+
+    @Override
+    public Codec.FloatCodec<InStream, OutStream, Config> floatCodec() {
+        return floatCodec;
+    }
+
+    protected final Codec<float[], InStream, OutStream, Config> floatArrayCodec =
+            new Codec<float[], InStream, OutStream, Config>() {
+
+        @Override
+        public Class<float[]> type() {
+            return float[].class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, float[] value, OutStream out) {
+            out.startArray(value.length);
+            for (float val : value) {
+                floatCodec().encodePrim(val, out.startItem());
+            }
+            return out.endArray();
+        }
+
+        @Override
+        public float[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            long n = in.readArrayStart();
+            float[] vals = new float[initialCapacity(n)];
+            int i = 0;
+            while (n != 0) {
+                for (long j = 0; j < n; ++j) {
+                    if (i == vals.length) {
+                        vals = Arrays.copyOf(vals, newCapacity(i, n - j));
+                    }
+                    vals[i++] = floatCodec().decodePrim(in);
+                }
+
+                n = in.arrayNext();
+            }
+
+            return i == vals.length ? vals : Arrays.copyOf(vals, i);
+        }
+    };
+
+    @Override
+    public Codec<float[], InStream, OutStream, Config> floatArrayCodec() {
+        return floatArrayCodec;
+    }
+
+    protected static class DoubleCodec implements Codec.DoubleCodec<InStream, OutStream, Config> {
+
+        @Override
+        public OutStream encodePrim(double val, OutStream out) {
+            return out.writeDouble(val);
+        }
+
+        @Override
+        public double decodePrim(InStream in) {
+            return in.readDouble();
+        }
+    }
+
+    protected final Codec.DoubleCodec<InStream, OutStream, Config> doubleCodec = new DoubleCodec();
+
+    @Override
+    public Codec.DoubleCodec<InStream, OutStream, Config> doubleCodec() {
+        return doubleCodec;
+    }
+
+    protected final Codec<double[], InStream, OutStream, Config> doubleArrayCodec =
+            new Codec<double[], InStream, OutStream, Config>() {
+
+        @Override
+        public Class<double[]> type() {
+            return double[].class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, double[] value, OutStream out) {
+            out.startArray(value.length);
+            for (double val : value) {
+                doubleCodec().encodePrim(val, out.startItem());
+            }
+            return out.endArray();
+        }
+
+        @Override
+        public double[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            long n = in.readArrayStart();
+            double[] vals = new double[initialCapacity(n)];
+            int i = 0;
+            while (n != 0) {
+                for (long j = 0; j < n; ++j) {
+                    if (i == vals.length) {
+                        vals = Arrays.copyOf(vals, newCapacity(i, n - j));
+                    }
+                    vals[i++] = doubleCodec().decodePrim(in);
+                }
+
+                n = in.arrayNext();
+            }
+
+            return i == vals.length ? vals : Arrays.copyOf(vals, i);
+        }
+    };
+
+    @Override
+    public Codec<double[], InStream, OutStream, Config> doubleArrayCodec() {
+        return doubleArrayCodec;
+    }
+
+    protected static class StringCodec implements Codec<String, InStream, OutStream, Config> {
+
+        @Override
+        public Class<String> type() {
+            return String.class;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, String value, OutStream out) {
+            return out.writeString(value);
+        }
+
+        @Override
+        public String decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            return in.readString();
+        }
+    }
+
+    protected final Codec<String, InStream, OutStream, Config> stringCodec = new StringCodec();
+
+    @Override
+    public Codec<String, InStream, OutStream, Config> stringCodec() {
+        return stringCodec;
+    }
+
+    @Override
+    public <EM extends Enum<EM>> Codec<EM, InStream, OutStream, Config> enumCodec(Class<EM> enumType) {
+        final EM[] values = enumType.getEnumConstants();
+        return new Codec.FinalCodec<EM, InStream, OutStream, Config>() {
+            @Override
+            public Class<EM> type() {
+                return enumType;
+            }
+
+            @Override
+            public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, EM value, OutStream out) {
+                return out.writeEnum(value.ordinal());
+            }
+
+            @Override
+            public EM decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+                final int ordinal = in.readEnum();
+                if (ordinal < 0 || ordinal >= values.length) {
+                    throw new CodecException("Enum ordinal " + ordinal + " is out of range for type " + enumType);
+                }
+                return values[ordinal];
+            }
+        };
+    }
+
+    @Override
+    public <V> Codec<Map<String, V>, InStream, OutStream, Config> createMapCodec(
+            Class<Map<String, V>> type,
+            Codec<V, InStream, OutStream, Config> valueCodec) {
+        return new AvroBinaryMapCodecs.StringMapCodec<V>(type, valueCodec);
+    }
+
+    @Override
+    public <K, V> Codec<Map<K, V>, InStream, OutStream, Config> createMapCodec(
+            Class<Map<K, V>> type,
+            Codec<K, InStream, OutStream, Config> keyCodec,
+            Codec<V, InStream, OutStream, Config> valueCodec) {
+        return new AvroBinaryMapCodecs.MapCodec<K, V>(type, keyCodec, valueCodec);
+    }
+
+    @Override
+    public <T> Codec<Collection<T>, InStream, OutStream, Config> createCollCodec(
+            Class<Collection<T>> collType,
+            Codec<T, InStream, OutStream, Config> elemCodec) {
+        return new CollectionCodec<T, InStream, OutStream, Config>(collType, elemCodec) {
+
+            @Override
+            public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, Collection<T> value, OutStream out) {
+                out.startArray(value.size());
+                for (T val : value) {
+                    elemCodec.encodeWithCheck(core, val, out.startItem());
+                }
+                return out.endArray();
+            }
+
+            @Override
+            public Collection<T> decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+                long n = in.readArrayStart();
+                // The array may span several blocks, so the count is only that of the first block.
+                final CollectionBuilder<T> collectionBuilder = getCollectionBuilder(core);
+
+                while (n != 0) {
+                    for (long j = 0; j < n; ++j) {
+                        collectionBuilder.add(elemCodec.decodeWithCheck(core, in));
+                    }
+                    n = in.arrayNext();
+                }
+
+                return collectionBuilder.construct();
+            }
+        };
+    }
+
+    @Override
+    public <T> Codec<T[], InStream, OutStream, Config> createObjectArrayCodec(
+            Class<T[]> arrType,
+            Class<T> elemType,
+            Codec<T, InStream, OutStream, Config> elemCodec) {
+        return new Codec<T[], InStream, OutStream, Config>() {
+
+            @Override
+            public Class<T[]> type() {
+                return arrType;
+            }
+
+            @Override
+            public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, T[] value, OutStream out) {
+                out.startArray(value.length);
+                for (T val : value) {
+                    elemCodec.encodeWithCheck(core, val, out.startItem());
+                }
+                return out.endArray();
+            }
+
+            @Override
+            public T[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+                long n = in.readArrayStart();
+                T[] vals = (T[]) Array.newInstance(elemType, initialCapacity(n));
+                int i = 0;
+                while (n != 0) {
+                    for (long j = 0; j < n; ++j) {
+                        if (i == vals.length) {
+                            vals = Arrays.copyOf(vals, newCapacity(i, n - j));
+                        }
+                        vals[i++] = elemCodec.decodeWithCheck(core, in);
+                    }
+
+                    n = in.arrayNext();
+                }
+
+                return i == vals.length ? vals : Arrays.copyOf(vals, i);
+            }
+        };
+    }
+
+    @Override
+    public <T, RA extends ObjectMeta.Builder<T>> Codec<T, InStream, OutStream, Config> createObjectCodec(
+            Class<T> type,
+            ObjectMeta<T, InStream, OutStream, RA> objMeta) {
+        if (Modifier.isFinal(type.getModifiers())) {
+            return new FinalObjectCodec<T, RA>(type, objMeta);
+        } else {
+            return new ObjectCodec<T, RA>(type, objMeta);
+        }
+    }
+
+    protected static class ObjectCodec<T, RA extends ObjectMeta.Builder<T>>
+            implements Codec<T, InStream, OutStream, Config> {
+
+        private final Class<T> type;
+        private final ObjectMeta<T, InStream, OutStream, RA> objMeta;
+
+        private ObjectCodec(
+                Class<T> type,
+                ObjectMeta<T, InStream, OutStream, RA> objMeta) {
+            this.type = type;
+            this.objMeta = objMeta;
+        }
+
+        @Override
+        public Class<T> type() {
+            return type;
+        }
+
+        @Override
+        public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, T value, OutStream out) {
+            objMeta.forEach(field ->
+                    field.encodeField(value, out)
+            );
+            return out;
+        }
+
+        @Override
+        public T decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            return Folds.foldLeft(
+                    (acc, field) -> field.decodeField(acc, in),
+                    objMeta.createBuilder(),
+                    objMeta
+            ).construct();
+        }
+    }
+
+    protected static class FinalObjectCodec<T, RA extends ObjectMeta.Builder<T>>
+            extends ObjectCodec<T, RA>
+            implements Codec.FinalCodec<T, InStream, OutStream, Config> {
+
+        protected FinalObjectCodec(
+                Class<T> type,
+                ObjectMeta<T, InStream, OutStream, RA> objMeta) {
+            super(type, objMeta);
+        }
+    }
+}
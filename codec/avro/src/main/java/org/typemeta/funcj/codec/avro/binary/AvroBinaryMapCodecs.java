@@ -0,0 +1,96 @@
+package org.typemeta.funcj.codec.avro.binary;
+
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.avro.AvroTypes.Config;
+import org.typemeta.funcj.codec.avro.binary.AvroBinaryTypes.*;
+import org.typemeta.funcj.codec.impl.MapCodecs.*;
+
+import java.util.Map;
+
+public abstract class AvroBinaryMapCodecs {
+
+    /**
+     * Codec for maps with non-string keys.
+     * Avro maps only support string keys, so these are encoded as an array of key/value records.
+     */
+    public static class MapCodec<K, V> extends AbstractMapCodec<K, V, InStream, OutStream, Config> {
+
+        public MapCodec(
+                Class<Map<K, V>> mapType,
+                Codec<K, InStream, OutStream, Config> keyCodec,
+                Codec<V, InStream, OutStream, Config> valueCodec) {
+            super(mapType, keyCodec, valueCodec);
+        }
+
+        @Override
+        public OutStream encode(
+                CodecCoreEx<InStream, OutStream, Config> core,
+                Map<K, V> value,
+                OutStream out
+        ) {
+            out.startArray(value.size());
+
+            for (Map.Entry<K, V> entry : value.entrySet()) {
+                keyCodec.encodeWithCheck(core, entry.getKey(), out.startItem());
+                valueCodec.encodeWithCheck(core, entry.getValue(), out);
+            }
+
+            return out.endArray();
+        }
+
+        @Override
+        public Map<K, V> decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final MapProxy<K, V> mapProxy = getMapProxy(core);
+
+            for (long n = in.readArrayStart(); n != 0; n = in.arrayNext()) {
+                for (long i = 0; i < n; ++i) {
+                    final K key = keyCodec.decodeWithCheck(core, in);
+                    final V value = valueCodec.decodeWithCheck(core, in);
+                    mapProxy.put(key, value);
+                }
+            }
+
+            return mapProxy.construct();
+        }
+    }
+
+    public static class StringMapCodec<V> extends AbstractStringMapCodec<V, InStream, OutStream, Config> {
+
+        public StringMapCodec(
+                Class<Map<String, V>> type,
+                Codec<V, InStream, OutStream, Config> valueCodec) {
+            super(type, valueCodec);
+        }
+
+        @Override
+        public OutStream encode(
+                CodecCoreEx<InStream, OutStream, Config> core,
+                Map<String, V> value,
+                OutStream out
+        ) {
+            out.startMap(value.size());
+
+            for (Map.Entry<String, V> entry : value.entrySet()) {
+                out.startItem().writeString(entry.getKey());
+                valueCodec.encodeWithCheck(core, entry.getValue(), out);
+            }
+
+            return out.endMap();
+        }
+
+        @Override
+        public Map<String, V> decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final MapProxy<String, V> mapProxy = getMapProxy(core);
+
+            for (long n = in.readMapStart(); n != 0; n = in.mapNext()) {
+                for (long i = 0; i < n; ++i) {
+                    final String key = in.readString();
+                    final V value = valueCodec.decodeWithCheck(core, in);
+                    mapProxy.put(key, value);
+                }
+            }
+
+            return mapProxy.construct();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.typemeta.funcj.codec.avro.binary;
+
+import org.apache.avro.io.*;
+import org.typemeta.funcj.codec.avro.binary.io.*;
+import org.typemeta.funcj.codec.stream.StreamCodecFormat;
+
+public abstract class AvroBinaryTypes {
+
+    /**
+     * Interface for classes which implement an input stream of Avro binary data
+     */
+    public interface InStream extends StreamCodecFormat.Input<InStream> {
+        int readIndex();
+
+        int readEnum();
+
+        byte[] readBytes();
+
+        long readArrayStart();
+
+        long arrayNext();
+
+        long readMapStart();
+
+        long mapNext();
+    }
+
+    /**
+     * Interface for classes which implement an output stream of Avro binary data
+     */
+    public interface OutStream extends StreamCodecFormat.Output<OutStream> {
+        OutStream writeIndex(int index);
+
+        OutStream writeEnum(int ordinal);
+
+        OutStream writeBytes(byte[] value);
+
+        OutStream startArray(long size);
+
+        OutStream endArray();
+
+        OutStream startMap(long size);
+
+        OutStream endMap();
+
+        OutStream startItem();
+
+        OutStream flush();
+    }
+
+    public static InStream inputOf(Decoder decoder) {
+        return new InputImpl(decoder);
+    }
+
+    public static OutStream outputOf(Encoder encoder) {
+        return new OutputImpl(encoder);
+    }
+}
@@ -0,0 +1,49 @@
+package org.typemeta.funcj.codec.avro.binary;
+
+import org.apache.avro.*;
+import org.apache.avro.io.*;
+import org.typemeta.funcj.codec.avro.GenerateSchema;
+import org.typemeta.funcj.codec.utils.CodecException;
+
+/**
+ * An Avro {@link DatumReader} which reads values directly via an {@link AvroBinaryCodecCore}.
+ * This allows values to be read with the Avro container-file API,
+ * without going through {@code GenericRecord}s.
+ * Values are constructed by the type's codec, so the {@code reuse} argument is ignored.
+ * <p>
+ * The codec reads data laid out according to the schema generated for the type,
+ * so the writer schema must match it.
+ * Schema resolution isn't supported, and data written with any other schema is rejected.
+ * @param <T>       the datum type
+ */
+public class CodecDatumReader<T> implements DatumReader<T> {
+
+    private final AvroBinaryCodecCore core;
+    private final Class<? super T> type;
+
+    public CodecDatumReader(AvroBinaryCodecCore core, Class<? super T> type) {
+        this.core = core;
+        this.type = type;
+    }
+
+    /**
+     * Check the writer schema matches the schema generated for the type.
+     * Schemas are compared by their parsing canonical form,
+     * so differences which don't affect the binary data, such as docs, are ignored.
+     * @param schema    the writer schema
+     * @throws CodecException if the writer schema doesn't match
+     */
+    @Override
+    public void setSchema(Schema schema) {
+        final Schema readerSchema = GenerateSchema.apply(type);
+        if (!SchemaNormalization.toParsingForm(schema).equals(SchemaNormalization.toParsingForm(readerSchema))) {
+            throw new CodecException(
+                    "Writer schema doesn't match the schema for " + type + " - " + schema);
+        }
+    }
+
+    @Override
+    public T read(T reuse, Decoder in) {
+        return core.decode(type, in);
+    }
+}
@@ -0,0 +1,30 @@
+package org.typemeta.funcj.codec.avro.binary;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.*;
+
+/**
+ * An Avro {@link DatumWriter} which writes values directly via an {@link AvroBinaryCodecCore}.
+ * This allows values to be written with the Avro container-file API,
+ * without first converting them into {@code GenericRecord}s.
+ * @param <T>       the datum type
+ */
+public class CodecDatumWriter<T> implements DatumWriter<T> {
+
+    private final AvroBinaryCodecCore core;
+    private final Class<? super T> type;
+
+    public CodecDatumWriter(AvroBinaryCodecCore core, Class<? super T> type) {
+        this.core = core;
+        this.type = type;
+    }
+
+    @Override
+    public void setSchema(Schema schema) {
+    }
+
+    @Override
+    public void write(T datum, Encoder out) {
+        core.encode(type, datum, out);
+    }
+}
@@ -0,0 +1,180 @@
+package org.typemeta.funcj.codec.avro.binary.io;
+
+import org.apache.avro.io.Decoder;
+import org.typemeta.funcj.codec.avro.binary.AvroBinaryTypes;
+import org.typemeta.funcj.codec.utils.CodecException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class InputImpl implements AvroBinaryTypes.InStream {
+
+    private final Decoder dec;
+
+    private final byte[] fixed1 = new byte[1];
+
+    private ByteBuffer bytesBuf;
+
+    public InputImpl(Decoder dec) {
+        this.dec = dec;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        try {
+            return dec.readBoolean();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public char readChar() {
+        final String s = readString();
+        if (s.length() != 1) {
+            throw new CodecException("Expected a string of length 1 but got '" + s + "'");
+        }
+        return s.charAt(0);
+    }
+
+    @Override
+    public byte readByte() {
+        try {
+            dec.readFixed(fixed1, 0, 1);
+            return fixed1[0];
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public short readShort() {
+        return (short)readInt();
+    }
+
+    @Override
+    public int readInt() {
+        try {
+            return dec.readInt();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public long readLong() {
+        try {
+            return dec.readLong();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public float readFloat() {
+        try {
+            return dec.readFloat();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public double readDouble() {
+        try {
+            return dec.readDouble();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public String readString() {
+        try {
+            return dec.readString();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public int readIndex() {
+        try {
+            return dec.readIndex();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public int readEnum() {
+        try {
+            return dec.readEnum();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public byte[] readBytes() {
+        try {
+            // The buffer is reused by the decoder when it's large enough.
+            bytesBuf = dec.readBytes(bytesBuf);
+            final byte[] value = new byte[bytesBuf.remaining()];
+            bytesBuf.get(value);
+            return value;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public long readArrayStart() {
+        try {
+            return checkCount(dec.readArrayStart());
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public long arrayNext() {
+        try {
+            return checkCount(dec.arrayNext());
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public long readMapStart() {
+        try {
+            return checkCount(dec.readMapStart());
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public long mapNext() {
+        try {
+            return checkCount(dec.mapNext());
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Validate a block count read from the input.
+     * @param n         the block count
+     * @return          the block count
+     * @throws CodecException if the count is invalid
+     */
+    private static long checkCount(long n) {
+        if (n < 0 || n > Integer.MAX_VALUE) {
+            throw new CodecException("Invalid block count " + n + " in Avro data");
+        } else {
+            return n;
+        }
+    }
+}
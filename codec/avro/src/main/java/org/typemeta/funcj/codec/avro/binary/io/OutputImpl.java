@@ -0,0 +1,191 @@
+package org.typemeta.funcj.codec.avro.binary.io;
+
+import org.apache.avro.io.Encoder;
+import org.typemeta.funcj.codec.avro.binary.AvroBinaryTypes;
+import org.typemeta.funcj.codec.utils.CodecException;
+
+import java.io.IOException;
+
+public class OutputImpl implements AvroBinaryTypes.OutStream {
+
+    private final Encoder enc;
+
+    private final byte[] fixed1 = new byte[1];
+
+    public OutputImpl(Encoder enc) {
+        this.enc = enc;
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeBoolean(boolean value) {
+        try {
+            enc.writeBoolean(value);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeChar(char value) {
+        return writeString(String.valueOf(value));
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeByte(byte value) {
+        try {
+            fixed1[0] = value;
+            enc.writeFixed(fixed1, 0, 1);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeShort(short value) {
+        return writeInt(value);
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeInt(int value) {
+        try {
+            enc.writeInt(value);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeLong(long value) {
+        try {
+            enc.writeLong(value);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeFloat(float value) {
+        try {
+            enc.writeFloat(value);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeDouble(double value) {
+        try {
+            enc.writeDouble(value);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeString(String value) {
+        try {
+            enc.writeString(value);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeIndex(int index) {
+        try {
+            enc.writeIndex(index);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeEnum(int ordinal) {
+        try {
+            enc.writeEnum(ordinal);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream writeBytes(byte[] value) {
+        try {
+            enc.writeBytes(value, 0, value.length);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream startArray(long size) {
+        try {
+            enc.writeArrayStart();
+            enc.setItemCount(size);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream endArray() {
+        try {
+            enc.writeArrayEnd();
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream startMap(long size) {
+        try {
+            enc.writeMapStart();
+            enc.setItemCount(size);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream endMap() {
+        try {
+            enc.writeMapEnd();
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream startItem() {
+        try {
+            enc.startItem();
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public AvroBinaryTypes.OutStream flush() {
+        try {
+            enc.flush();
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+}
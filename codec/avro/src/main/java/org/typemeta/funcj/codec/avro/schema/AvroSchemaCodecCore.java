@@ -1,7 +1,11 @@
 package org.typemeta.funcj.codec.avro.schema;
 
+import org.typemeta.funcj.codec.*;
 import org.typemeta.funcj.codec.avro.*;
 import org.typemeta.funcj.codec.avro.AvroTypes.WithSchema;
+import org.typemeta.funcj.codec.impl.*;
+
+import java.util.*;
 
 import static java.util.stream.Collectors.toList;
 import static org.typemeta.funcj.codec.avro.AvroTypes.Config;
@@ -78,7 +82,7 @@ public Iterator<Field<T, WithSchema, Object, BuilderImpl>> iterator() {
                         }
 
                         @Override
-                        public BuilderImpl startDecode() {
+                        public BuilderImpl createBuilder() {
                             return new BuilderImpl();
                         }
                     }
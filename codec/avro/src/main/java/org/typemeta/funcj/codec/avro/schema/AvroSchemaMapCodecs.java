@@ -1,6 +1,7 @@
 package org.typemeta.funcj.codec.avro.schema;
 
 import org.apache.avro.Schema;
+import org.typemeta.funcj.codec.*;
 import org.typemeta.funcj.codec.avro.AvroTypes.WithSchema;
 import org.typemeta.funcj.codec.impl.MapCodecs;
 
@@ -3,6 +3,8 @@
 import org.apache.avro.Schema;
 import org.typemeta.funcj.codec.utils.CodecException;
 
+import java.util.*;
+
 public abstract class SchemaMerge {
 
     public static Schema merge(Schema lhs, Schema rhs) {
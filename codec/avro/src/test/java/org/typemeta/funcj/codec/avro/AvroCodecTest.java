@@ -1,11 +1,17 @@
 package org.typemeta.funcj.codec.avro;
 
 import org.apache.avro.Schema;
-import org.typemeta.funcj.codec.TestBase;
+import org.apache.avro.file.CodecFactory;
+import org.junit.*;
+import org.typemeta.funcj.codec.*;
 import org.typemeta.funcj.codec.avro.schema.AvroSchemaCodecCore;
+import org.typemeta.funcj.codec.utils.CodecException;
 
+import java.io.*;
 import java.lang.reflect.Field;
 import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.*;
 
 public class AvroCodecTest {
 
@@ -350,6 +356,70 @@ public int hashCode() {
             return result;
         }
     }
+
+    static class Person {
+        String name;
+        int age;
+    }
+
+    static class PersonWithScore {
+        String name;
+        int age;
+        int score;
+    }
+
+    static class PersonWithNickname {
+        String name;
+        int age;
+        String nickname;
+    }
+
+    static class PersonWithLongAge {
+        String name;
+        long age;
+    }
+
+    static class Record {
+        enum Colour {RED, GREEN, BLUE}
+
+        boolean bo;
+        int in;
+        long lo;
+        double du;
+        char[] a_ch;
+        int[] a_in;
+        String st;
+        Colour en;
+        List<LocalDate> l_d;
+        Map<String, Long> m_s_l;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Record that = (Record) o;
+            return bo == that.bo &&
+                    in == that.in &&
+                    lo == that.lo &&
+                    Double.compare(that.du, du) == 0 &&
+                    Arrays.equals(a_ch, that.a_ch) &&
+                    Arrays.equals(a_in, that.a_in) &&
+                    Objects.equals(st, that.st) &&
+                    en == that.en &&
+                    Objects.equals(l_d, that.l_d) &&
+                    Objects.equals(m_s_l, that.m_s_l);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bo, in, lo, du, st, en, l_d, m_s_l);
+        }
+    }
+
     private static final AvroTestType nullVal = new AvroTestType();
 
     private static final AvroTestType nonNullVal = new AvroTestType(
@@ -394,6 +464,137 @@ public void testNonNull() {
         roundTrip(nonNullVal, AvroTestType.class);
     }
 
+    private static AvroCodecCore codec() {
+        final AvroConfig.Builder cfgBldr = AvroConfig.builder()
+                .registerAllowedPackage(Record.class.getPackage());
+        return Codecs.avroCodec(cfgBldr);
+    }
+
+    private static Record record(int i) {
+        final Record rec = new Record();
+        rec.bo = i % 2 == 0;
+        rec.in = i;
+        rec.lo = -i * 1000L;
+        rec.du = i / 4.0;
+        rec.a_ch = ("ch" + i).toCharArray();
+        rec.a_in = new int[]{i, -i};
+        rec.st = "rec" + i;
+        rec.en = Record.Colour.values()[i % 3];
+        rec.l_d = Arrays.asList(LocalDate.of(2019, 4, 19), LocalDate.of(2020, 1, 1 + i % 28));
+        rec.m_s_l = Collections.singletonMap("k" + i, (long)i);
+        return rec;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final AvroCodecCore codec = codec();
+
+        final Record val = record(1);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(Record.class, val, baos);
+
+        final Record val2 = codec.decode(Record.class, new ByteArrayInputStream(baos.toByteArray()));
+
+        Assert.assertEquals(val, val2);
+    }
+
+    @Test
+    public void testContainerRoundTrip() {
+        final AvroCodecCore codec = codec();
+
+        final List<Record> vals = IntStream.range(0, 100).mapToObj(AvroCodecTest::record).collect(Collectors.toList());
+        vals.set(50, new Record());
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final long count = codec.encodeAll(
+                Record.class,
+                codec.schemaOf(Record.class),
+                vals,
+                baos,
+                CodecFactory.deflateCodec(6),
+                256);
+        Assert.assertEquals(vals.size(), count);
+
+        final List<Record> vals2;
+        try (Stream<Record> stream = codec.decodeAll(Record.class, new ByteArrayInputStream(baos.toByteArray()))) {
+            vals2 = stream.collect(Collectors.toList());
+        }
+
+        Assert.assertEquals(vals, vals2);
+    }
+
+    private static Person person() {
+        final Person person = new Person();
+        person.name = "Alice";
+        person.age = 42;
+        return person;
+    }
+
+    private static <T> T convert(AvroCodecCore codec, Class<?> wrtType, Object value, Class<T> rdrType) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode((Class<Object>)wrtType, value, baos);
+        return codec.decode(rdrType, new ByteArrayInputStream(baos.toByteArray()));
+    }
+
+    @Test
+    public void testAddedFieldTakesDefault() {
+        final AvroCodecCore codec = codec();
+
+        // The reader schema gives the added score field a default.
+        final Schema genSchema = codec.schemaOf(PersonWithScore.class).getTypes().get(0);
+        final List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : genSchema.getFields()) {
+            final Object defVal = field.name().equals("score") ? 7 : field.defaultVal();
+            fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), defVal));
+        }
+        final Schema rdrSchema = Schema.createUnion(
+                Schema.createRecord(genSchema.getName(), genSchema.getDoc(), genSchema.getNamespace(), false, fields),
+                Schema.create(Schema.Type.NULL));
+        codec.registerSchema(PersonWithScore.class, rdrSchema);
+
+        final PersonWithScore val = convert(codec, Person.class, person(), PersonWithScore.class);
+
+        Assert.assertEquals("Alice", val.name);
+        Assert.assertEquals(42, val.age);
+        Assert.assertEquals(7, val.score);
+    }
+
+    @Test
+    public void testRemovedFieldSkipped() {
+        final AvroConfig.Builder cfgBldr = AvroConfig.builder()
+                .registerAllowedPackage(Record.class.getPackage())
+                .failOnUnrecognisedFields(false);
+        final AvroCodecCore codec = Codecs.avroCodec(cfgBldr);
+
+        final PersonWithNickname wrtVal = new PersonWithNickname();
+        wrtVal.name = "Alice";
+        wrtVal.age = 42;
+        wrtVal.nickname = "Al";
+
+        final Person val = convert(codec, PersonWithNickname.class, wrtVal, Person.class);
+
+        Assert.assertEquals("Alice", val.name);
+        Assert.assertEquals(42, val.age);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testRemovedFieldRejected() {
+        final PersonWithNickname wrtVal = new PersonWithNickname();
+        wrtVal.name = "Alice";
+        wrtVal.nickname = "Al";
+
+        convert(codec(), PersonWithNickname.class, wrtVal, Person.class);
+    }
+
+    @Test
+    public void testIntPromotedToLong() {
+        final PersonWithLongAge val = convert(codec(), Person.class, person(), PersonWithLongAge.class);
+
+        Assert.assertEquals("Alice", val.name);
+        Assert.assertEquals(42L, val.age);
+    }
+
     public static void main(String[] args) {
         try {
             System.out.println("AvroTestType.o_d");
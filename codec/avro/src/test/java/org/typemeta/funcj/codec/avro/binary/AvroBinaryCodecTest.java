@@ -0,0 +1,310 @@
+package org.typemeta.funcj.codec.avro.binary;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.*;
+import org.apache.avro.generic.*;
+import org.junit.*;
+import org.typemeta.funcj.codec.TestDataUtils;
+import org.typemeta.funcj.codec.utils.CodecException;
+import org.typemeta.funcj.codec.avro.*;
+import org.typemeta.funcj.codec.avro.Codecs;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.*;
+
+public class AvroBinaryCodecTest {
+
+    static class TestType {
+        enum Colour {RED, GREEN, BLUE}
+
+        final boolean bo;
+        final byte by;
+        final char ch;
+        final short sh;
+        final int in;
+        final long lo;
+        final float fl;
+        final double du;
+
+        final int[] a_in;
+        final byte[] a_by;
+        final double[] a_du;
+
+        final Integer bx_in;
+        final String st;
+
+        final Colour en;
+        final Colour[] a_en;
+
+        final List<LocalDate> l_d;
+        final Set<String> s_s;
+        final Map<String, Long> m_s_l;
+
+        TestType(
+                boolean bo, byte by, char ch, short sh, int in, long lo, float fl, double du,
+                int[] a_in, byte[] a_by, double[] a_du,
+                Integer bx_in, String st,
+                Colour en, Colour[] a_en,
+                List<LocalDate> l_d, Set<String> s_s, Map<String, Long> m_s_l
+        ) {
+            this.bo = bo;
+            this.by = by;
+            this.ch = ch;
+            this.sh = sh;
+            this.in = in;
+            this.lo = lo;
+            this.fl = fl;
+            this.du = du;
+            this.a_in = a_in;
+            this.a_by = a_by;
+            this.a_du = a_du;
+            this.bx_in = bx_in;
+            this.st = st;
+            this.en = en;
+            this.a_en = a_en;
+            this.l_d = l_d;
+            this.s_s = s_s;
+            this.m_s_l = m_s_l;
+        }
+
+        TestType() {
+            this(false, (byte)0, 'a', (short)0, 0, 0, 0, 0,
+                    null, null, null, null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final TestType that = (TestType) o;
+            return bo == that.bo &&
+                    by == that.by &&
+                    ch == that.ch &&
+                    sh == that.sh &&
+                    in == that.in &&
+                    lo == that.lo &&
+                    Float.compare(that.fl, fl) == 0 &&
+                    Double.compare(that.du, du) == 0 &&
+                    Arrays.equals(a_in, that.a_in) &&
+                    Arrays.equals(a_by, that.a_by) &&
+                    Arrays.equals(a_du, that.a_du) &&
+                    Objects.equals(bx_in, that.bx_in) &&
+                    Objects.equals(st, that.st) &&
+                    en == that.en &&
+                    Arrays.equals(a_en, that.a_en) &&
+                    Objects.equals(l_d, that.l_d) &&
+                    Objects.equals(s_s, that.s_s) &&
+                    Objects.equals(m_s_l, that.m_s_l);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bo, by, ch, sh, in, lo, fl, du, bx_in, st, en, l_d, s_s, m_s_l);
+        }
+    }
+
+    static class Chars {
+        char[] chs;
+        List<Integer> ints;
+    }
+
+    static class Ints {
+        int[] vals;
+    }
+
+    static class Base {
+        int x;
+    }
+
+    static class Sub extends Base {
+        int y;
+    }
+
+    static class HasBase {
+        Base base;
+    }
+
+    private static final TestType nullVal = new TestType();
+
+    private static final TestType nonNullVal = new TestType(
+            true, (byte)123, 'x', (short)234, 345, 456L, 12.34f, 23.45,
+            new int[]{1, -2, 3},
+            new byte[]{4, 5, -6},
+            new double[]{},
+            1234,
+            "abcd",
+            TestType.Colour.GREEN,
+            new TestType.Colour[]{TestType.Colour.RED, TestType.Colour.BLUE},
+            Arrays.asList(LocalDate.of(2019, 4, 19), LocalDate.of(2020, 1, 1)),
+            new HashSet<>(Arrays.asList("Alpha", "Beta")),
+            Collections.singletonMap("Now", 789L)
+    );
+
+    protected boolean printData() {
+        return false;
+    }
+
+    private static AvroBinaryCodecCore codec() {
+        final AvroConfig.Builder cfgBldr = AvroConfig.builder();
+        cfgBldr.registerAllowedPackage(TestType.class.getPackage());
+        return Codecs.avroBinaryCodec(cfgBldr);
+    }
+
+    protected <T> void roundTrip(T val, Class<T> clazz) {
+        final AvroBinaryCodecCore codec = codec();
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        codec.encode(clazz, val, baos);
+
+        final byte[] ba = baos.toByteArray();
+
+        if (printData()) {
+            System.out.println(TestDataUtils.printHexBinary(ba));
+        }
+
+        final T val2 = codec.decode(clazz, new ByteArrayInputStream(ba));
+
+        Assert.assertEquals(val, val2);
+    }
+
+    @Test
+    public void testNulls() {
+        roundTrip(nullVal, TestType.class);
+    }
+
+    @Test
+    public void testNonNull() {
+        roundTrip(nonNullVal, TestType.class);
+    }
+
+    @Test
+    public void testContainerRoundTrip() {
+        final AvroConfig.Builder cfgBldr = AvroConfig.builder();
+        cfgBldr.registerAllowedPackage(TestType.class.getPackage());
+        final AvroBinaryCodecCore codec = Codecs.avroBinaryCodec(cfgBldr);
+
+        final Schema schema = GenerateSchema.apply(TestType.class);
+        final List<TestType> vals = Arrays.asList(nullVal, nonNullVal, nullVal, nonNullVal);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final long count = codec.encodeAll(TestType.class, schema, vals, baos, CodecFactory.deflateCodec(6), 1024);
+        Assert.assertEquals(vals.size(), count);
+
+        final List<TestType> vals2;
+        try (Stream<TestType> stream = codec.decodeAll(TestType.class, new ByteArrayInputStream(baos.toByteArray()))) {
+            vals2 = stream.collect(Collectors.toList());
+        }
+
+        Assert.assertEquals(vals, vals2);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testContainerSchemaMismatchRejected() throws IOException {
+        // Write a container whose schema has evolved, by adding a field to the record.
+        // The generated schema is a union of the record and null.
+        final Schema schema = GenerateSchema.apply(Ints.class).getTypes().get(0);
+        final List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal()));
+        }
+        fields.add(new Schema.Field("extra", Schema.create(Schema.Type.INT), null, null));
+        final Schema evolvedRec = Schema.createRecord(
+                schema.getName(), schema.getDoc(), schema.getNamespace(), false, fields);
+        final Schema evolved = Schema.createUnion(evolvedRec, Schema.create(Schema.Type.NULL));
+
+        final GenericRecord rec = new GenericData.Record(evolvedRec);
+        rec.put("vals", null);
+        rec.put("extra", 1);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataFileWriter<GenericRecord> dfw = new DataFileWriter<>(new GenericDatumWriter<>(evolved))) {
+            dfw.create(evolved, baos);
+            dfw.append(rec);
+        }
+
+        try (Stream<Ints> stream = codec().decodeAll(Ints.class, new ByteArrayInputStream(baos.toByteArray()))) {
+            stream.forEach(val -> {});
+        }
+    }
+
+    @Test
+    public void testMultiBlockArray() {
+        // The record, a null chs field, then the ints field holding [1, 2] and [3] as two blocks.
+        final byte[] ba = {0, 2, 0, 4, 0, 2, 0, 4, 2, 0, 6, 0};
+
+        final Chars val = codec().decode(Chars.class, new ByteArrayInputStream(ba));
+
+        Assert.assertEquals(Arrays.asList(1, 2, 3), val.ints);
+        Assert.assertNull(val.chs);
+    }
+
+    @Test
+    public void testMultiBlockPrimitiveArray() {
+        // The record, then the vals field holding [1, 2] and [3] as two blocks.
+        final byte[] ba = {0, 0, 4, 2, 4, 2, 6, 0};
+
+        final Ints val = codec().decode(Ints.class, new ByteArrayInputStream(ba));
+
+        Assert.assertArrayEquals(new int[]{1, 2, 3}, val.vals);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testNegativeBlockCountRejected() {
+        // A block count of Long.MIN_VALUE, which is still negative once the decoder negates it.
+        final byte[] ba = {0, 0, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1, 0};
+
+        codec().decode(Ints.class, new ByteArrayInputStream(ba));
+    }
+
+    @Test(expected = CodecException.class)
+    public void testOversizedBlockCountRejected() {
+        // A block count of 2^40.
+        final byte[] ba = {0, 0, -128, -128, -128, -128, -128, 64};
+
+        codec().decode(Ints.class, new ByteArrayInputStream(ba));
+    }
+
+    @Test(expected = CodecException.class)
+    public void testTruncatedLargeArray() {
+        // A block count of Integer.MAX_VALUE, followed by a single element.
+        final byte[] ba = {0, 0, -2, -1, -1, -1, 15, 2};
+
+        codec().decode(Ints.class, new ByteArrayInputStream(ba));
+    }
+
+    @Test(expected = CodecException.class)
+    public void testDynamicTypeRejected() {
+        final HasBase val = new HasBase();
+        val.base = new Sub();
+        codec().encode(HasBase.class, val, new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void testContainerMatchesSchema() throws IOException {
+        final AvroBinaryCodecCore codec = codec();
+
+        final Chars val = new Chars();
+        val.chs = new char[]{'a', 'b'};
+        val.ints = Arrays.asList(1, 2, 3);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encodeAll(Chars.class, GenerateSchema.apply(Chars.class), Collections.singletonList(val), baos);
+
+        final List<GenericRecord> recs = new ArrayList<>();
+        try (DataFileStream<GenericRecord> dfs =
+                     new DataFileStream<>(new ByteArrayInputStream(baos.toByteArray()), new GenericDatumReader<>())) {
+            dfs.forEach(recs::add);
+        }
+
+        Assert.assertEquals(1, recs.size());
+        Assert.assertEquals("[a, b]", recs.get(0).get("chs").toString());
+        Assert.assertEquals(val.ints, recs.get(0).get("ints"));
+    }
+}
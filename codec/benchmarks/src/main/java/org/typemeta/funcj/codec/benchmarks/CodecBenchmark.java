@@ -0,0 +1,82 @@
+package org.typemeta.funcj.codec.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.codec.benchmarks.Payloads.Customer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state encode, decode and round-trip throughput for each codec format and payload size.
+ * <p>
+ * The codec core is created, and its codecs prepared and exercised, once per trial,
+ * so the measurements exclude codec construction.
+ * <p>
+ * Run via the uber-jar, e.g.:
+ * <pre>
+ *     cd codec
+ *     mvn -pl benchmarks -am package
+ *     java -jar benchmarks/target/benchmarks.jar CodecBenchmark -prof gc
+ * </pre>
+ * or via {@link #main(String[])}, which enables the GC profiler to report allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"JSON", "JSONNODE", "BYTES", "MPACK", "XML", "XMLNODE", "AVRO", "AVROBINARY"})
+    public Format format;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Payloads.Size size;
+
+    private Format.FormatCodec codec;
+
+    private Customer value;
+
+    private Object encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        codec = format.create();
+        codec.core().prepare(Customer.class);
+
+        value = Payloads.create(size);
+        encoded = codec.encode(value);
+
+        final Customer decoded = codec.decode(encoded);
+        if (!value.equals(decoded)) {
+            throw new IllegalStateException(format + " failed to round-trip the " + size + " payload");
+        }
+    }
+
+    @Benchmark
+    public Object encode() {
+        return codec.encode(value);
+    }
+
+    @Benchmark
+    public Customer decode() {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public Customer roundTrip() {
+        return codec.decode(codec.encode(value));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+                .include(CodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
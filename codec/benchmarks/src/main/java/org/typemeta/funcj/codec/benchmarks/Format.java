@@ -0,0 +1,153 @@
+package org.typemeta.funcj.codec.benchmarks;
+
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.avro.AvroConfig;
+import org.typemeta.funcj.codec.benchmarks.Payloads.Customer;
+import org.typemeta.funcj.codec.bytes.ByteConfig;
+import org.typemeta.funcj.codec.json.JsonConfig;
+import org.typemeta.funcj.codec.jsonnode.JsonNodeConfig;
+import org.typemeta.funcj.codec.mpack.MpackConfig;
+import org.typemeta.funcj.codec.xml.XmlConfig;
+import org.typemeta.funcj.codec.xmlnode.XmlNodeConfig;
+
+import java.io.*;
+
+/**
+ * The codec formats under test.
+ */
+public enum Format {
+    JSON {
+        @Override
+        FormatCodec create() {
+            final JsonConfig.Builder cfgBldr = JsonConfig.builder();
+            cfgBldr.registerAllowedPackage(PAYLOAD_PACKAGE);
+            return new RWCodec<>(org.typemeta.funcj.codec.json.Codecs.jsonCodec(cfgBldr));
+        }
+    },
+    JSONNODE {
+        @Override
+        FormatCodec create() {
+            final JsonNodeConfig.Builder cfgBldr = JsonNodeConfig.builder();
+            cfgBldr.registerAllowedPackage(PAYLOAD_PACKAGE);
+            return new RWCodec<>(org.typemeta.funcj.codec.json.Codecs.jsonNodeCodec(cfgBldr));
+        }
+    },
+    BYTES {
+        @Override
+        FormatCodec create() {
+            final ByteConfig.Builder cfgBldr = ByteConfig.builder();
+            cfgBldr.registerAllowedPackage(PAYLOAD_PACKAGE);
+            return new IOCodec<>(org.typemeta.funcj.codec.Codecs.byteCodec(cfgBldr));
+        }
+    },
+    MPACK {
+        @Override
+        FormatCodec create() {
+            final MpackConfig.Builder cfgBldr = MpackConfig.builder();
+            cfgBldr.registerAllowedPackage(PAYLOAD_PACKAGE);
+            return new IOCodec<>(org.typemeta.funcj.codec.mpack.Codecs.mpackCodec(cfgBldr));
+        }
+    },
+    XML {
+        @Override
+        FormatCodec create() {
+            final XmlConfig.Builder cfgBldr = XmlConfig.builder();
+            cfgBldr.registerAllowedPackage(PAYLOAD_PACKAGE);
+            return new IOCodec<>(org.typemeta.funcj.codec.xml.Codecs.xmlCodec(cfgBldr));
+        }
+    },
+    XMLNODE {
+        @Override
+        FormatCodec create() {
+            final XmlNodeConfig.Builder cfgBldr = XmlNodeConfig.builder();
+            cfgBldr.registerAllowedPackage(PAYLOAD_PACKAGE);
+            return new IOCodec<>(org.typemeta.funcj.codec.xml.Codecs.xmlNodeCodec(cfgBldr));
+        }
+    },
+    AVRO {
+        @Override
+        FormatCodec create() {
+            final AvroConfig.Builder cfgBldr = AvroConfig.builder();
+            cfgBldr.registerAllowedPackage(PAYLOAD_PACKAGE);
+            return new IOCodec<>(org.typemeta.funcj.codec.avro.Codecs.avroCodec(cfgBldr));
+        }
+    },
+    AVROBINARY {
+        @Override
+        FormatCodec create() {
+            final AvroConfig.Builder cfgBldr = AvroConfig.builder();
+            cfgBldr.registerAllowedPackage(PAYLOAD_PACKAGE);
+            return new IOCodec<>(org.typemeta.funcj.codec.avro.Codecs.avroBinaryCodec(cfgBldr));
+        }
+    };
+
+    private static final Package PAYLOAD_PACKAGE = Payloads.class.getPackage();
+
+    /**
+     * Create a new codec for this format.
+     * @return          the codec
+     */
+    abstract FormatCodec create();
+
+    /**
+     * Adapts the codec cores to a common interface.
+     */
+    static abstract class FormatCodec {
+
+        abstract CodecCore<?, ?, ?> core();
+
+        abstract Object encode(Customer value);
+
+        abstract Customer decode(Object data);
+    }
+
+    private static final class IOCodec<C extends CodecCore<?, ?, ?> & CodecStrAPI.IO> extends FormatCodec {
+        private final C codec;
+
+        IOCodec(C codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        CodecCore<?, ?, ?> core() {
+            return codec;
+        }
+
+        @Override
+        Object encode(Customer value) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream(4096);
+            codec.encode(Customer.class, value, baos);
+            return baos.toByteArray();
+        }
+
+        @Override
+        Customer decode(Object data) {
+            return codec.decode(Customer.class, new ByteArrayInputStream((byte[])data));
+        }
+    }
+
+    private static final class RWCodec<C extends CodecCore<?, ?, ?> & CodecStrAPI.RW> extends FormatCodec {
+        private final C codec;
+
+        RWCodec(C codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        CodecCore<?, ?, ?> core() {
+            return codec;
+        }
+
+        @Override
+        Object encode(Customer value) {
+            final StringWriter sw = new StringWriter(4096);
+            codec.encode(Customer.class, value, sw);
+            return sw.toString();
+        }
+
+        @Override
+        Customer decode(Object data) {
+            return codec.decode(Customer.class, new StringReader((String)data));
+        }
+    }
+}
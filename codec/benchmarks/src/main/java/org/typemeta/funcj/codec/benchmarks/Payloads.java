@@ -0,0 +1,278 @@
+package org.typemeta.funcj.codec.benchmarks;
+
+import java.util.*;
+
+/**
+ * A simple but realistic domain model, used as the benchmark payload,
+ * along with deterministic generators for small, medium and large instances.
+ */
+public abstract class Payloads {
+
+    public enum Size {
+        SMALL(2, 3),
+        MEDIUM(20, 10),
+        LARGE(500, 20);
+
+        final int orders;
+        final int itemsPerOrder;
+
+        Size(int orders, int itemsPerOrder) {
+            this.orders = orders;
+            this.itemsPerOrder = itemsPerOrder;
+        }
+    }
+
+    public enum Tier {STANDARD, SILVER, GOLD, PLATINUM}
+
+    public enum Status {PENDING, PAID, SHIPPED, DELIVERED, CANCELLED}
+
+    public static class Address {
+        public final String street;
+        public final String city;
+        public final String postcode;
+        public final String country;
+
+        public Address(String street, String city, String postcode, String country) {
+            this.street = street;
+            this.city = city;
+            this.postcode = postcode;
+            this.country = country;
+        }
+
+        private Address() {
+            this(null, null, null, null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Address that = (Address) o;
+            return Objects.equals(street, that.street) &&
+                    Objects.equals(city, that.city) &&
+                    Objects.equals(postcode, that.postcode) &&
+                    Objects.equals(country, that.country);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(street, city, postcode, country);
+        }
+    }
+
+    public static class LineItem {
+        public final String sku;
+        public final String description;
+        public final int quantity;
+        public final double unitPrice;
+        public final String[] tags;
+
+        public LineItem(String sku, String description, int quantity, double unitPrice, String[] tags) {
+            this.sku = sku;
+            this.description = description;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.tags = tags;
+        }
+
+        private LineItem() {
+            this(null, null, 0, 0, null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final LineItem that = (LineItem) o;
+            return quantity == that.quantity &&
+                    Double.compare(that.unitPrice, unitPrice) == 0 &&
+                    Objects.equals(sku, that.sku) &&
+                    Objects.equals(description, that.description) &&
+                    Arrays.equals(tags, that.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sku, description, quantity, unitPrice);
+        }
+    }
+
+    public static class Order {
+        public final long id;
+        public final long timestamp;
+        public final Status status;
+        public final Address shipTo;
+        public final List<LineItem> items;
+        public final double total;
+
+        public Order(long id, long timestamp, Status status, Address shipTo, List<LineItem> items) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.status = status;
+            this.shipTo = shipTo;
+            this.items = items;
+            this.total = items.stream().mapToDouble(item -> item.quantity * item.unitPrice).sum();
+        }
+
+        private Order() {
+            this.id = 0;
+            this.timestamp = 0;
+            this.status = null;
+            this.shipTo = null;
+            this.items = null;
+            this.total = 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Order that = (Order) o;
+            return id == that.id &&
+                    timestamp == that.timestamp &&
+                    Double.compare(that.total, total) == 0 &&
+                    status == that.status &&
+                    Objects.equals(shipTo, that.shipTo) &&
+                    Objects.equals(items, that.items);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, timestamp, status, shipTo, items, total);
+        }
+    }
+
+    public static class Customer {
+        public final String id;
+        public final String name;
+        public final String email;
+        public final Tier tier;
+        public final boolean active;
+        public final Address address;
+        public final Map<String, String> attributes;
+        public final List<Order> orders;
+
+        public Customer(
+                String id,
+                String name,
+                String email,
+                Tier tier,
+                boolean active,
+                Address address,
+                Map<String, String> attributes,
+                List<Order> orders) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.tier = tier;
+            this.active = active;
+            this.address = address;
+            this.attributes = attributes;
+            this.orders = orders;
+        }
+
+        private Customer() {
+            this(null, null, null, null, false, null, null, null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Customer that = (Customer) o;
+            return active == that.active &&
+                    Objects.equals(id, that.id) &&
+                    Objects.equals(name, that.name) &&
+                    Objects.equals(email, that.email) &&
+                    tier == that.tier &&
+                    Objects.equals(address, that.address) &&
+                    Objects.equals(attributes, that.attributes) &&
+                    Objects.equals(orders, that.orders);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name, email, tier, active, address, attributes, orders);
+        }
+    }
+
+    private static final String[] CITIES = {"London", "Paris", "Berlin", "Madrid", "Rome", "Vienna"};
+
+    private static final String[] TAGS = {"fragile", "gift", "express", "bulk", "discount", "import"};
+
+    /**
+     * Create a payload of the given size.
+     * The payload is generated from a fixed seed, so is the same for every call.
+     * @param size      the payload size
+     * @return          the payload
+     */
+    public static Customer create(Size size) {
+        final Random rand = new Random(1234);
+
+        final Address home = address(rand);
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("segment", "retail");
+        attributes.put("channel", "web");
+        attributes.put("locale", "en_GB");
+
+        final List<Order> orders = new ArrayList<>(size.orders);
+        for (int i = 0; i < size.orders; ++i) {
+            final List<LineItem> items = new ArrayList<>(size.itemsPerOrder);
+            for (int j = 0; j < size.itemsPerOrder; ++j) {
+                final String[] tags = new String[rand.nextInt(3)];
+                for (int k = 0; k < tags.length; ++k) {
+                    tags[k] = TAGS[rand.nextInt(TAGS.length)];
+                }
+
+                items.add(new LineItem(
+                        "SKU-" + (100000 + rand.nextInt(900000)),
+                        "Item description " + rand.nextInt(1000),
+                        1 + rand.nextInt(10),
+                        Math.round(rand.nextDouble() * 10000) / 100.0,
+                        tags));
+            }
+
+            orders.add(new Order(
+                    1000000L + i,
+                    1500000000000L + rand.nextInt(1000000000),
+                    Status.values()[rand.nextInt(Status.values().length)],
+                    rand.nextBoolean() ? home : address(rand),
+                    items));
+        }
+
+        return new Customer(
+                "C-" + rand.nextInt(1000000),
+                "Jane Smith",
+                "jane.smith@example.com",
+                Tier.GOLD,
+                true,
+                home,
+                attributes,
+                orders);
+    }
+
+    private static Address address(Random rand) {
+        return new Address(
+                (1 + rand.nextInt(200)) + " High Street",
+                CITIES[rand.nextInt(CITIES.length)],
+                "PC" + rand.nextInt(10000),
+                "GB");
+    }
+}
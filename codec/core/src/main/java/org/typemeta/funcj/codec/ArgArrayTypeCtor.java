@@ -1,5 +1,9 @@
 package org.typemeta.funcj.codec;
 
+import org.typemeta.funcj.codec.utils.*;
+
+import java.lang.reflect.Constructor;
+
 /**
  * Interface for constructing an uninitialised value of type {@code T},
  * using a constructor which takes an array of objects.
@@ -7,6 +11,34 @@
  */
 public interface ArgArrayTypeCtor<T> {
 
+    /**
+     * Create an {@code ArgArrayTypeCtor} which passes the argument array,
+     * positionally, to the constructor with the specified parameter types.
+     * <p>
+     * The constructor invoker is generated once, via
+     * {@link ConstructorInvokers#argArrayCtor(Constructor, int[], int)}.
+     * @param clazz     the class to be constructed
+     * @param paramTypes the constructor parameter types
+     * @param <T>       the type of value to be constructed
+     * @return          the {@code ArgArrayTypeCtor}
+     * @throws CodecException if no such constructor exists
+     */
+    static <T> ArgArrayTypeCtor<T> create(Class<T> clazz, Class<?>... paramTypes) throws CodecException {
+        final Constructor<T> ctor;
+        try {
+            ctor = clazz.getDeclaredConstructor(paramTypes);
+        } catch (NoSuchMethodException ex) {
+            throw new CodecException("No suitable constructor was found for " + clazz, ex);
+        }
+
+        final int[] argIndices = new int[paramTypes.length];
+        for (int i = 0; i < argIndices.length; ++i) {
+            argIndices[i] = i;
+        }
+
+        return ConstructorInvokers.argArrayCtor(ctor, argIndices, paramTypes.length);
+    }
+
     /**
      * Construct a value of type {@code T}.
      * @param args      the array of argument values
@@ -23,6 +23,8 @@ default OUT encodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
             final CodecFormat.WasEncoded<OUT> nullRes = core.format().encodeNull(value, out);
             if (nullRes.wasEncoded) {
                 return nullRes.out;
+            } else if (core.isReferenceTracked(type())) {
+                return core.encodeReference(value, out, out2 -> encode(core, value, out2));
             } else {
                 return encode(core, value, out);
             }
@@ -32,10 +34,21 @@ default OUT encodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
         default T decodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             if (core.format().decodeNull(in)) {
                 return null;
+            } else if (core.isReferenceTracked(type())) {
+                return core.decodeReference(in, in2 -> decode(core, in2));
             } else {
                 return decode(core, in);
             }
         }
+
+        @Override
+        default void skipWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            if (core.isReferenceTracked(type())) {
+                decodeWithCheck(core, in);
+            } else if (!core.format().decodeNull(in)) {
+                skip(core, in);
+            }
+        }
     }
 
     /**
@@ -60,6 +73,11 @@ default Boolean decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             return decodePrim(in);
         }
 
+        @Override
+        default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            decodePrim(in);
+        }
+
         OUT encodePrim(boolean val, OUT out);
 
         boolean decodePrim(IN in);
@@ -87,6 +105,11 @@ default Byte decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             return decodePrim(in);
         }
 
+        @Override
+        default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            decodePrim(in);
+        }
+
         OUT encodePrim(byte val, OUT out);
 
         byte decodePrim(IN in);
@@ -114,6 +137,11 @@ default Character decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             return decodePrim(in);
         }
 
+        @Override
+        default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            decodePrim(in);
+        }
+
         OUT encodePrim(char val, OUT out);
 
         char decodePrim(IN in);
@@ -141,6 +169,11 @@ default Short decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             return decodePrim(in);
         }
 
+        @Override
+        default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            decodePrim(in);
+        }
+
         OUT encodePrim(short val, OUT out);
 
         short decodePrim(IN in);
@@ -168,6 +201,11 @@ default Integer decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             return decodePrim(in);
         }
 
+        @Override
+        default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            decodePrim(in);
+        }
+
         OUT encodePrim(int val, OUT out);
 
         int decodePrim(IN in);
@@ -195,6 +233,11 @@ default Long decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             return decodePrim(in);
         }
 
+        @Override
+        default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            decodePrim(in);
+        }
+
         OUT encodePrim(long val, OUT out);
 
         long decodePrim(IN in);
@@ -222,6 +265,11 @@ default Float decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             return decodePrim(in);
         }
 
+        @Override
+        default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            decodePrim(in);
+        }
+
         OUT encodePrim(float val, OUT out);
 
         float decodePrim(IN in);
@@ -249,6 +297,11 @@ default Double decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             return decodePrim(in);
         }
 
+        @Override
+        default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            decodePrim(in);
+        }
+
         OUT encodePrim(double value, OUT out);
 
         double decodePrim(IN in);
@@ -278,6 +331,17 @@ default Double decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
      */
     T decode(CodecCoreEx<IN, OUT, CFG> core, IN in);
 
+    /**
+     * Skip over an encoded value of type {@code T}, without constructing it.
+     * The default implementation decodes the value and discards it,
+     * so codecs for formats which support projected decoding should override it.
+     * @param core      the codec core
+     * @param in        the encoded input stream
+     */
+    default void skip(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+        decode(core, in);
+    }
+
     /**
      * Encode a value of type {@code T} into an encoded value of type {@code OUT},
      * where the value maybe either null or of a different (sub-) type.
@@ -290,6 +354,11 @@ default OUT encodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
         final CodecFormat.WasEncoded<OUT> nullRes = core.format().encodeNull(value, out);
         if (nullRes.wasEncoded) {
             return nullRes.out;
+        } else if (core.isReferenceTracked(type())) {
+            return core.encodeReference(value, out, out2 -> {
+                final CodecFormat.WasEncoded<OUT> dynRes = core.encodeDynamicType(this, value, out2);
+                return dynRes.wasEncoded ? dynRes.out : encode(core, value, out2);
+            });
         } else {
             final CodecFormat.WasEncoded<OUT> dynRes = core.encodeDynamicType(this, value, out);
             if (dynRes.wasEncoded) {
@@ -310,6 +379,11 @@ default OUT encodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
     default T decodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
         if (core.format().decodeNull(in)) {
             return null;
+        } else if (core.isReferenceTracked(type())) {
+            return core.decodeReference(in, in2 -> {
+                final T value = core.decodeDynamicType(in2);
+                return value != null ? value : decode(core, in2);
+            });
         } else {
             final T value = core.decodeDynamicType(in);
             if (value != null) {
@@ -319,4 +393,18 @@ default T decodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             }
         }
     }
+
+    /**
+     * Skip over an encoded value of type {@code T},
+     * where the encoded value maybe either null or of a different (sub-) type.
+     * @param core      the codec core
+     * @param in        the encoded input stream
+     */
+    default void skipWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+        if (core.isReferenceTracked(type())) {
+            decodeWithCheck(core, in);
+        } else if (!core.format().decodeNull(in) && !core.skipDynamicType(in)) {
+            skip(core, in);
+        }
+    }
 }
@@ -2,6 +2,8 @@
 
 import org.typemeta.funcj.functions.Functions;
 
+import java.util.function.Supplier;
+
 public interface CodecAPI {
     /**
      * Return the config object associated with this {@code CodecCore}.
@@ -50,4 +52,15 @@ <T> void registerArgArrayCtor(
     <T> void registerArgMapTypeCtor(
             Class<? extends T> clazz,
             ArgMapTypeCtor<T> typeCtor);
+
+    /**
+     * Perform a projected decode, in which only the fields selected by {@code selector} are decoded.
+     * Fields which aren't selected are skipped, and nested objects within them aren't constructed,
+     * where the encoding allows.
+     * @param selector  the field selector
+     * @param decoder   the decode operation
+     * @param <T>       the decoded value type
+     * @return          the decoded value
+     */
+    <T> T decodeSelected(FieldSelector selector, Supplier<T> decoder);
 }
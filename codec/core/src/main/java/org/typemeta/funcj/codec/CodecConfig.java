@@ -1,5 +1,6 @@
 package org.typemeta.funcj.codec;
 
+import org.typemeta.funcj.codec.utils.BlockCompression;
 import org.typemeta.funcj.codec.utils.CodecException;
 
 import java.lang.reflect.Field;
@@ -108,6 +109,38 @@ public interface CodecConfig {
      */
     boolean failOnUnrecognisedFields();
 
+    /**
+     * Indicates whether shared references should be tracked.
+     * @return          whether shared references should be tracked
+     */
+    boolean referenceTracking();
+
+    /**
+     * Indicates whether codec metrics should be collected.
+     * @return          whether codec metrics should be collected
+     */
+    boolean collectMetrics();
+
+    /**
+     * Return the maximum number of encoded values to cache for a type,
+     * or zero if encoded values of the type aren't cached.
+     * @param clazz     the type
+     * @return          the maximum number of encoded values to cache
+     */
+    int encodedValueCacheSize(Class<?> clazz);
+
+    /**
+     * Return the compression level for block-compressed encodings.
+     * @return          the compression level
+     */
+    int compressionLevel();
+
+    /**
+     * Return the uncompressed block size for block-compressed encodings.
+     * @return          the block size
+     */
+    int compressionBlockSize();
+
     /**
      * Interface for classes which build {@link CodecConfig} implementations.
      * @param <B>       the builder implementation type
@@ -181,5 +214,56 @@ public interface CodecConfig {
          * @param enable    specify whether an unrecognised field should give rise to an error.
          */
         B failOnUnrecognisedFields(boolean enable);
+
+        /**
+         * Specify whether shared references should be tracked.
+         * When enabled, an object which is referenced more than once within the encoded value
+         * is encoded once, with subsequent occurrences encoded as back-references.
+         * Collections, maps and leaf values such as strings and boxed primitives are not tracked.
+         * Cyclic references are not supported, and give rise to an error.
+         * By default this is disabled.
+         * @param enable    specify whether shared references should be tracked.
+         */
+        B referenceTracking(boolean enable);
+
+        /**
+         * Specify whether codec metrics should be collected.
+         * When enabled, per-type encode and decode counts and timings,
+         * and codec cache statistics, are available via {@link CodecCore#metrics()}.
+         * By default this is disabled.
+         * @param enable    specify whether codec metrics should be collected.
+         */
+        B collectMetrics(boolean enable);
+
+        /**
+         * Register a cache of encoded values for a type.
+         * The first time a value of the type is encoded, its encoded form is cached,
+         * and subsequent encodes of the same instance write the cached form directly to the output.
+         * Values are cached by identity, so this is only suitable for immutable types.
+         * The cache holds at most {@code maxSize} entries, evicting the least recently used.
+         * Statistics for the cache are available via {@link CodecCore#encodedValueCache(Class)}.
+         * Encoded value caching is not supported in conjunction with reference tracking.
+         * @param clazz     the type
+         * @param maxSize   the maximum number of encoded values to cache
+         */
+        B registerEncodedValueCache(Class<?> clazz, int maxSize);
+
+        /**
+         * Specify the compression level for block-compressed encodings,
+         * as per {@link java.util.zip.Deflater#setLevel(int)}.
+         * By default this is {@link java.util.zip.Deflater#DEFAULT_COMPRESSION}.
+         * @param level     the compression level
+         * @see BlockCompression
+         */
+        B compressionLevel(int level);
+
+        /**
+         * Specify the uncompressed block size for block-compressed encodings.
+         * Larger blocks compress better, while smaller blocks allow more concurrency when decompressing.
+         * By default this is {@link BlockCompression#DEFAULT_BLOCK_SIZE}.
+         * @param blockSize the block size
+         * @see BlockCompression
+         */
+        B compressionBlockSize(int blockSize);
     }
 }
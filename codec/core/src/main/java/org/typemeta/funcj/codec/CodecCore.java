@@ -1,8 +1,11 @@
 package org.typemeta.funcj.codec;
 
+import org.typemeta.funcj.codec.utils.*;
 import org.typemeta.funcj.functions.Functions;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * Interface for classes which provide an encoding of values of any type,
@@ -19,6 +22,21 @@
      */
     CFG config();
 
+    /**
+     * Return the metrics collected by this {@code CodecCore}.
+     * Metrics are only collected if enabled in the config.
+     * @return          the metrics collected by this {@code CodecCore}
+     */
+    CodecMetrics metrics();
+
+    /**
+     * Return the encoded value cache for a class,
+     * or null if no cache has been registered for the class, or no value of the class has been encoded yet.
+     * @param clazz     the class
+     * @return          the encoded value cache, or null
+     */
+    EncodedValueCache<?> encodedValueCache(Class<?> clazz);
+
     /**
      * Register a {@code Codec} for a class.
      * @param clazz     the class to register codec against
@@ -110,6 +128,28 @@ <T> void registerArgMapTypeCtor(
      */
     <T> T decodeImpl(Class<? super T> clazz, IN in);
 
+    /**
+     * Decode a value of type {@code T}, decoding only the fields selected by {@code selector}.
+     * @param clazz     the type of the decoded value
+     * @param in        the input to decode
+     * @param selector  the field selector
+     * @param <T>       the decoded value type
+     * @return          the decoded value
+     */
+    default <T> T decodeImpl(Class<? super T> clazz, IN in, FieldSelector selector) {
+        return decodeSelected(selector, () -> decodeImpl(clazz, in));
+    }
+
+    /**
+     * Perform a projected decode, in which only the fields selected by {@code selector} are decoded.
+     * @param selector  the field selector
+     * @param decoder   the decode operation
+     * @param <T>       the decoded value type
+     * @return          the decoded value
+     * @see CodecAPI#decodeSelected(FieldSelector, Supplier)
+     */
+    <T> T decodeSelected(FieldSelector selector, Supplier<T> decoder);
+
     /**
      * Lookup a {@code Codec} for a name, and, if one doesn't exist,
      * then create a new one.
@@ -119,6 +159,47 @@ <T> void registerArgMapTypeCtor(
      */
     <T> Codec<T, IN, OUT, CFG> getCodec(Class<T> clazz);
 
+    /**
+     * Eagerly create the {@code Codec}s for the given classes,
+     * along with those for the types of their fields,
+     * so that the first encode or decode of a value doesn't incur the cost of creating them.
+     * @param classes   the classes
+     * @return          the types for which new codecs were created
+     * @throws CodecException if a codec can't be created for one of the classes
+     */
+    Set<Class<?>> prepare(Class<?>... classes);
+
+    /**
+     * Eagerly create the {@code Codec}s for the given classes, as per {@link #prepare(Class[])},
+     * with the codecs for each class being created concurrently.
+     * @param executor  the executor used to create the codecs
+     * @param classes   the classes
+     * @return          the types for which new codecs were created
+     * @throws CodecException if a codec can't be created for one of the classes
+     */
+    Set<Class<?>> prepare(Executor executor, Class<?>... classes);
+
+    /**
+     * Eagerly create the {@code Codec}s for the concrete classes in a package,
+     * along with those for the types of their fields.
+     * Classes for which a codec can't be created,
+     * e.g. because they lack a suitable constructor, are skipped.
+     * @param pkg       the package
+     * @return          the types for which new codecs were created
+     * @throws CodecException if the package can't be scanned, or one of its classes can't be loaded
+     */
+    Set<Class<?>> prepareAll(Package pkg);
+
+    /**
+     * Eagerly create the {@code Codec}s for the concrete classes in a package, as per {@link #prepareAll(Package)},
+     * with the codecs for each class being created concurrently.
+     * @param pkg       the package
+     * @param executor  the executor used to create the codecs
+     * @return          the types for which new codecs were created
+     * @throws CodecException if the package can't be scanned, or one of its classes can't be loaded
+     */
+    Set<Class<?>> prepareAll(Package pkg, Executor executor);
+
 
     <T> Codec<Collection<T>, IN, OUT, CFG> getCollCodec(
             Class<Collection<T>> collType,
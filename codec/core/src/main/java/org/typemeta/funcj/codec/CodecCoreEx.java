@@ -1,6 +1,8 @@
 package org.typemeta.funcj.codec;
 
-import org.typemeta.funcj.codec.utils.ClassKey;
+import org.typemeta.funcj.codec.impl.CodecCoreDelegate;
+import org.typemeta.funcj.codec.utils.*;
+import org.typemeta.funcj.functions.Functions;
 
 import java.lang.reflect.Field;
 import java.util.*;
@@ -14,8 +16,74 @@
  */
 public interface CodecCoreEx<IN, OUT, CFG extends CodecConfig> extends CodecCore<IN, OUT, CFG> {
 
+    /**
+     * Describes the fields of a type which is encoded by a reflection-based object codec.
+     */
+    final class ObjectLayout {
+        /**
+         * The fields, keyed by their encoded names, in the order in which they are encoded.
+         */
+        public final Map<String, Field> fields;
+
+        /**
+         * Indicates whether the fields are accumulated as constructor arguments,
+         * in which case primitive fields are encoded as boxed values.
+         */
+        public final boolean ctorArgs;
+
+        public ObjectLayout(Map<String, Field> fields, boolean ctorArgs) {
+            this.fields = fields;
+            this.ctorArgs = ctorArgs;
+        }
+    }
+
+    /**
+     * Return the {@code CodecCoreEx} which implements a {@link CodecCore}.
+     * @param core      the codec core
+     * @param <IN>      the encoded input type
+     * @param <OUT>     the encoded output type
+     * @param <CFG>     the config type
+     * @return          the {@code CodecCoreEx}
+     * @throws CodecException if the codec core isn't a supported implementation
+     */
+    static <IN, OUT, CFG extends CodecConfig> CodecCoreEx<IN, OUT, CFG> of(CodecCore<IN, OUT, CFG> core) {
+        if (core instanceof CodecCoreEx) {
+            return (CodecCoreEx<IN, OUT, CFG>)core;
+        } else if (core instanceof CodecCoreDelegate) {
+            return ((CodecCoreDelegate<IN, OUT, CFG>)core).delegate();
+        } else {
+            throw new CodecException("Unsupported CodecCore implementation - " + core.getClass());
+        }
+    }
+
     CodecFormat<IN, OUT, CFG> format();
 
+    /**
+     * Return the layout of the fields encoded by the object codec for the given class,
+     * or null if the class isn't encoded by a reflection-based object codec,
+     * e.g. because a custom codec or a type proxy has been registered for it.
+     * @param clazz     the class
+     * @return          the field layout, or null
+     */
+    ObjectLayout getObjectLayout(Class<?> clazz);
+
+    /**
+     * Return a constructor which creates an object from the values of the fields in its {@link ObjectLayout},
+     * in layout order, using the same constructor as the object codec for the class.
+     * @param clazz     the class
+     * @param <T>       the class type
+     * @return          the constructor
+     */
+    <T> ArgArrayTypeCtor<T> getLayoutCtor(Class<T> clazz);
+
+    /**
+     * Return the codec which object codecs use for the values of a field.
+     * Collection and map fields use the element types declared by the field.
+     * @param field     the field
+     * @return          the codec
+     */
+    Codec<?, IN, OUT, CFG> getFieldValueCodec(Field field);
+
     /**
      * Return a {@code NoArgsTypeCtor}.
      * @param clazz     the type for which a {@code NoArgsTypeCtor} is required
@@ -48,6 +116,103 @@ default <T> T decodeDynamicType(IN in) {
         return format().decodeDynamicType(this, in);
     }
 
+    /**
+     * Skip over a value which was encoded along with its dynamic type, if there is one.
+     * @param in        the encoded input stream
+     * @return          true if a dynamically-typed value was skipped
+     */
+    default boolean skipDynamicType(IN in) {
+        return format().skipDynamicType(this, in);
+    }
+
+    /**
+     * Indicates whether values of the given static type are subject to reference tracking.
+     * @param type      the static type
+     * @return          true if values of the type are subject to reference tracking
+     */
+    default boolean isReferenceTracked(Class<?> type) {
+        return config().referenceTracking() && !ReferenceTable.isValueType(type);
+    }
+
+    /**
+     * Encode a non-null value with reference tracking.
+     * If the value has already been encoded then a back-reference is encoded in its place,
+     * otherwise the value is encoded using {@code encoder}.
+     * @param val       the value to encode
+     * @param out       the encoded output stream
+     * @param encoder   the function which encodes the value itself
+     * @param <T>       the value type
+     * @return          the encoded output stream
+     */
+    <T> OUT encodeReference(T val, OUT out, Functions.F<OUT, OUT> encoder);
+
+    /**
+     * Decode a non-null value with reference tracking.
+     * If a back-reference is encountered then the previously decoded value is returned,
+     * otherwise the value is decoded using {@code decoder}.
+     * @param in        the encoded input stream
+     * @param decoder   the function which decodes the value itself
+     * @param <T>       the value type
+     * @return          the decoded value
+     */
+    <T> T decodeReference(IN in, Functions.F<IN, T> decoder);
+
+    /**
+     * Return the field selector for the projected decode in progress on the current thread,
+     * or {@link FieldSelector#ALL} if there is none.
+     * @return          the current field selector
+     */
+    FieldSelector fieldSelector();
+
+    /**
+     * Decode a selected object field, applying the nested field selector to its value.
+     * @param selector  the field selector for the enclosing object
+     * @param field     the field
+     * @param ra        the object builder
+     * @param in        the encoded input stream
+     * @param <T>       the object type
+     * @param <RA>      the object builder type
+     * @return          the object builder
+     */
+    default <T, RA extends ObjectMeta.Builder<T>> RA decodeSelectedField(
+            FieldSelector selector,
+            ObjectMeta.Field<T, IN, OUT, RA> field,
+            RA ra,
+            IN in) {
+        final FieldSelector nested = selector.select(field.name());
+        if (nested == selector) {
+            return field.decodeField(ra, in);
+        } else {
+            return decodeSelected(nested, () -> field.decodeField(ra, in));
+        }
+    }
+
+    /**
+     * Projected decode of an object whose fields are encoded positionally, without delimiters.
+     * Fields which aren't selected are passed over via {@link ObjectMeta.Field#skipField},
+     * which reads past the encoded value without constructing it.
+     * @param objMeta   the object metadata
+     * @param selector  the field selector
+     * @param in        the encoded input stream
+     * @param <T>       the object type
+     * @param <RA>      the object builder type
+     * @return          the decoded object
+     */
+    default <T, RA extends ObjectMeta.Builder<T>> T decodePositionalSelected(
+            ObjectMeta<T, IN, OUT, RA> objMeta,
+            FieldSelector selector,
+            IN in) {
+        final RA ra = objMeta.createBuilder();
+        for (ObjectMeta.Field<T, IN, OUT, RA> field : objMeta) {
+            if (selector.isSelected(field.name())) {
+                decodeSelectedField(selector, field, ra, in);
+            } else {
+                field.skipField(in);
+            }
+        }
+        return ra.construct();
+    }
+
     /**
      * Lookup a {@link Codec} for a name, and, if one doesn't exist,
      * then create a new one using the supplier.
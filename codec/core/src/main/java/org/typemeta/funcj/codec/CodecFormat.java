@@ -1,6 +1,6 @@
 package org.typemeta.funcj.codec;
 
-import org.typemeta.funcj.codec.utils.CodecException;
+import org.typemeta.funcj.codec.utils.*;
 import org.typemeta.funcj.functions.Functions;
 
 import java.util.*;
@@ -54,6 +54,46 @@ default <T> T decodeDynamicType(CodecCoreEx<IN, OUT, CFG> core, IN in) {
 
     <T> T decodeDynamicType(IN in, Functions.F2<String, IN, T> decoder);
 
+    /**
+     * Skip over a value which was encoded along with its dynamic type, if there is one,
+     * using the {@link Codec#skip} method of the codec for the dynamic type.
+     * @param core      the codec core
+     * @param in        the encoded input stream
+     * @return          true if a dynamically-typed value was skipped
+     */
+    default boolean skipDynamicType(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+        final Boolean skipped = decodeDynamicType(
+                in,
+                (name, in2) -> {
+                    core.getCodec(this.config().nameToClass(name)).skip(core, in2);
+                    return Boolean.TRUE;
+                }
+        );
+        return skipped != null;
+    }
+
+    /**
+     * Encode the reference marker for a non-null value, when reference tracking is enabled.
+     * A non-negative id refers to a previously encoded value,
+     * in which case a back-reference is encoded in place of the value.
+     * A negative id indicates the first occurrence of a value, which is then encoded as normal.
+     * @param id        the reference id, or -1 for the first occurrence of a value
+     * @param out       the encoded output stream
+     * @return          the encoded output stream
+     */
+    default OUT encodeReference(int id, OUT out) {
+        throw new NotSupportedException("Reference tracking is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Decode the reference marker for a non-null value, when reference tracking is enabled.
+     * @param in        the encoded input stream
+     * @return          the reference id of a previously decoded value, or -1 if the value itself follows
+     */
+    default int decodeReference(IN in) {
+        throw new NotSupportedException("Reference tracking is not supported by " + getClass().getSimpleName());
+    }
+
     Codec.BooleanCodec<IN, OUT, CFG> booleanCodec();
 
     Codec<boolean[], IN, OUT, CFG> booleanArrayCodec();
@@ -1,8 +1,12 @@
 package org.typemeta.funcj.codec;
 
-import org.typemeta.funcj.codec.utils.CodecException;
+import org.typemeta.funcj.codec.utils.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Simple common API for encoding/decoding values via Java streams.
@@ -51,16 +55,230 @@ default Object decode(IS is) {
         return decode(Object.class, is);
     }
 
+    /**
+     * Decode a value, decoding only the fields selected by {@code selector}.
+     * @param clazz     the static type of the value
+     * @param is        the input
+     * @param selector  the field selector
+     * @param <T>       the decoded value type
+     * @return          the decoded value
+     * @see CodecAPI#decodeSelected(FieldSelector, java.util.function.Supplier)
+     */
+    default <T> T decode(Class<? super T> clazz, IS is, FieldSelector selector) {
+        return decodeSelected(selector, () -> decode(clazz, is));
+    }
+
+    /**
+     * Methods common to codecs which can encode into an {@link OutputStream}
+     * and decode from an {@link InputStream},
+     * regardless of whether they are natively byte or character based.
+     */
+    interface ByteStreams extends CodecAPI {
+
+        /**
+         * Encode a value of type {@code T} into an {@link OutputStream}.
+         * @param clazz     the class of the decoded value
+         * @param value     the value to encode
+         * @param os        the output stream
+         * @param <T>       the decoded value type
+         * @return          the output stream
+         */
+        <T> OutputStream encode(Class<? super T> clazz, T value, OutputStream os);
+
+        /**
+         * Decode a value of type {@code T} from an {@link InputStream}.
+         * @param clazz     the type of the decoded value
+         * @param is        the input stream
+         * @param <T>       the decoded value type
+         * @return          the decoded value
+         */
+        <T> T decode(Class<? super T> clazz, InputStream is);
+
+        /**
+         * Encode a list of values, splitting it into chunks which are encoded concurrently.
+         * @see ChunkedCodecs
+         * @param elemType  the static type of the list elements
+         * @param values    the values to encode
+         * @param os        the output stream
+         * @param executor  the executor on which the chunks are encoded
+         * @param chunkSize the maximum number of values per chunk
+         * @param <T>       the element type
+         * @return          the output stream
+         */
+        default <T> OutputStream encodeParallel(
+                Class<T> elemType,
+                List<T> values,
+                OutputStream os,
+                Executor executor,
+                int chunkSize) {
+            return ChunkedCodecs.encode(this, elemType, values, os, executor, chunkSize);
+        }
+
+        /**
+         * Decode a list of values encoded by {@code encodeParallel},
+         * decoding the chunks concurrently.
+         * @param elemType  the static type of the list elements
+         * @param is        the input stream
+         * @param executor  the executor on which the chunks are decoded
+         * @param <T>       the element type
+         * @return          the decoded values
+         */
+        default <T> List<T> decodeParallel(Class<T> elemType, InputStream is, Executor executor) {
+            return ChunkedCodecs.decode(this, elemType, is, executor);
+        }
+
+        /**
+         * Encode a value into a block-compressed stream,
+         * using the compression level and block size specified by the config.
+         * @see BlockCompression
+         * @param clazz     the class of the decoded value
+         * @param value     the value to encode
+         * @param os        the output stream
+         * @param <T>       the decoded value type
+         * @return          the output stream
+         */
+        default <T> OutputStream encodeCompressed(Class<? super T> clazz, T value, OutputStream os) {
+            return BlockCompression.encode(this, clazz, value, os);
+        }
+
+        /**
+         * Decode a value from a block-compressed stream written by {@code encodeCompressed}.
+         * @param clazz     the type of the decoded value
+         * @param is        the input stream
+         * @param <T>       the decoded value type
+         * @return          the decoded value
+         */
+        default <T> T decodeCompressed(Class<? super T> clazz, InputStream is) {
+            return decode(clazz, new BlockCompression.BlockInputStream(is));
+        }
+
+        /**
+         * Decode a value from a block-compressed stream written by {@code encodeCompressed},
+         * decompressing the blocks concurrently before decoding the value.
+         * @param clazz     the type of the decoded value
+         * @param is        the input stream
+         * @param executor  the executor on which the blocks are decompressed
+         * @param <T>       the decoded value type
+         * @return          the decoded value
+         */
+        default <T> T decodeCompressed(Class<? super T> clazz, InputStream is, Executor executor) {
+            return decode(clazz, BlockCompression.decompress(is, executor));
+        }
+
+        /**
+         * Encode a list of values, splitting it into chunks which are encoded and compressed concurrently,
+         * with each chunk written as a single compressed block.
+         * @see BlockCompression
+         * @param elemType  the static type of the list elements
+         * @param values    the values to encode
+         * @param os        the output stream
+         * @param executor  the executor on which the chunks are encoded
+         * @param chunkSize the maximum number of values per chunk
+         * @param <T>       the element type
+         * @return          the output stream
+         */
+        default <T> OutputStream encodeParallelCompressed(
+                Class<T> elemType,
+                List<T> values,
+                OutputStream os,
+                Executor executor,
+                int chunkSize) {
+            return BlockCompression.encode(this, elemType, values, os, executor, chunkSize);
+        }
+
+        /**
+         * Decode a list of values encoded by {@code encodeParallelCompressed},
+         * decompressing and decoding the blocks concurrently.
+         * @param elemType  the static type of the list elements
+         * @param is        the input stream
+         * @param executor  the executor on which the blocks are decoded
+         * @param <T>       the element type
+         * @return          the decoded values
+         */
+        default <T> List<T> decodeParallelCompressed(Class<T> elemType, InputStream is, Executor executor) {
+            return BlockCompression.decode(this, elemType, is, executor);
+        }
+
+        /**
+         * Create an encoder for a stream of records, to which values are pushed as they are produced.
+         * Each value is encoded as a separate record, on the caller's thread,
+         * and the encoded records are written to the output stream by the encoder's writer thread.
+         * @see RecordStreams
+         * @param clazz     the static type of the values
+         * @param os        the output stream
+         * @param <T>       the value type
+         * @return          the record stream encoder, which must be closed once all the values have been pushed
+         */
+        default <T> RecordStreams.Encoder<T> recordEncoder(Class<T> clazz, OutputStream os) {
+            return RecordStreams.encoder(this, clazz, os);
+        }
+
+        /**
+         * Encode the values produced by an iterator as a stream of records,
+         * overlapping the encoding with writing to the output stream.
+         * @see RecordStreams
+         * @param clazz     the static type of the values
+         * @param values    the values
+         * @param os        the output stream
+         * @param <T>       the value type
+         * @return          the output stream
+         */
+        default <T> OutputStream encodeRecords(Class<T> clazz, Iterator<? extends T> values, OutputStream os) {
+            return RecordStreams.encode(this, clazz, values, os);
+        }
+
+        /**
+         * Encode the values of a {@link Stream} as a stream of records,
+         * overlapping the encoding with writing to the output stream.
+         * @see RecordStreams
+         * @param clazz     the static type of the values
+         * @param values    the values
+         * @param os        the output stream
+         * @param <T>       the value type
+         * @return          the output stream
+         */
+        default <T> OutputStream encodeRecords(Class<T> clazz, Stream<? extends T> values, OutputStream os) {
+            return RecordStreams.encode(this, clazz, values.iterator(), os);
+        }
+
+        /**
+         * Decode a stream of records encoded by {@code encodeRecords} or {@code recordEncoder},
+         * decoding the records concurrently, and passing them to a consumer in their original order.
+         * @see RecordStreams
+         * @param clazz     the static type of the values
+         * @param is        the input stream
+         * @param executor  the executor on which the records are decoded
+         * @param consumer  the consumer of the decoded values, which is called on the caller's thread
+         * @param <T>       the value type
+         * @return          the number of values decoded
+         */
+        default <T> long decodeRecords(
+                Class<T> clazz,
+                InputStream is,
+                Executor executor,
+                Consumer<? super T> consumer) {
+            return RecordStreams.decode(this, clazz, is, executor, consumer);
+        }
+    }
+
     /**
      * Specialisation of {@code CodecAPI} for {@link InputStream} and {@link OutputStream}
      */
-    interface IO extends CodecStrAPI<InputStream, OutputStream> {
+    interface IO extends CodecStrAPI<InputStream, OutputStream>, ByteStreams {
+
+        // Redeclared, as the declarations inherited from CodecStrAPI and ByteStreams are otherwise ambiguous.
+
+        @Override
+        <T> OutputStream encode(Class<? super T> clazz, T value, OutputStream os);
+
+        @Override
+        <T> T decode(Class<? super T> clazz, InputStream is);
     }
 
     /**
      * Specialisation of {@code CodecAPI} for {@link Reader} and {@link Writer}
      */
-    interface RW extends CodecStrAPI<Reader, Writer> {
+    interface RW extends CodecStrAPI<Reader, Writer>, ByteStreams {
 
         /**
          * Encode a value of type {@code T} into an {@link OutputStream}.
@@ -114,5 +332,9 @@ default OutputStream encode(Object value, OutputStream os) {
         default Object decode(InputStream is) {
             return decode(Object.class, is);
         }
+
+        default <T> T decode(Class<? super T> clazz, InputStream is, FieldSelector selector) {
+            return decodeSelected(selector, () -> decode(clazz, is));
+        }
     }
 }
@@ -27,17 +27,13 @@
 
         protected final Field field;
 
-        protected final boolean isAccessible;
-
         protected Impl(Field field) {
             this.field = field;
-            this.isAccessible = Modifier.isFinal(field.getModifiers()) ||
-                    !Modifier.isPublic(field.getModifiers());
-        }
-
-        protected void setAccessible(boolean flag) {
-            if (isAccessible) {
-                field.setAccessible(flag);
+            // The field is made accessible once, rather than around each access,
+            // as toggling it would race when the codec is used concurrently.
+            // Field objects are private copies, so this doesn't leak to other users of the field.
+            if (Modifier.isFinal(field.getModifiers()) || !Modifier.isPublic(field.getModifiers())) {
+                field.setAccessible(true);
             }
         }
     }
@@ -57,18 +53,19 @@ public BooleanFieldCodec(Field field, Codec.BooleanCodec<IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final boolean fieldVal = CodecException.wrap(() -> field.getBoolean(obj));
-            setAccessible(false);
             return codec.encodePrim(fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final boolean fieldVal = codec.decodePrim(in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setBoolean(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skip(core, in);
         }
     }
 
@@ -87,18 +84,19 @@ public BooleanArrayFieldCodec(Field field, Codec<boolean[], IN, OUT, CFG> codec)
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final boolean[] fieldVal = CodecException.wrap(() -> (boolean[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final boolean[] fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -117,18 +115,19 @@ public ByteFieldCodec(Field field, Codec.ByteCodec<IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final byte fieldVal = CodecException.wrap(() -> field.getByte(obj));
-            setAccessible(false);
             return codec.encodePrim(fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final byte fieldVal = codec.decodePrim(in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setByte(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skip(core, in);
         }
     }
 
@@ -147,18 +146,19 @@ public ByteArrayFieldCodec(Field field, Codec<byte[], IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final byte[] fieldVal = CodecException.wrap(() -> (byte[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final byte[] fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -177,18 +177,19 @@ public CharFieldCodec(Field field, Codec.CharCodec<IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final char fieldVal = CodecException.wrap(() -> field.getChar(obj));
-            setAccessible(false);
             return codec.encodePrim(fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final char fieldVal = codec.decodePrim(in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setChar(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skip(core, in);
         }
     }
 
@@ -207,18 +208,19 @@ public CharArrayFieldCodec(Field field, Codec<char[], IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final char[] fieldVal = CodecException.wrap(() -> (char[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final char[] fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -237,18 +239,19 @@ public ShortFieldCodec(Field field, Codec.ShortCodec<IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final short fieldVal = CodecException.wrap(() -> field.getShort(obj));
-            setAccessible(false);
             return codec.encodePrim(fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final short fieldVal = codec.decodePrim(in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setShort(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skip(core, in);
         }
     }
 
@@ -267,18 +270,19 @@ public ShortArrayFieldCodec(Field field, Codec<short[], IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final short[] fieldVal = CodecException.wrap(() -> (short[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final short[] fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -297,17 +301,18 @@ public IntegerFieldCodec(Field field, Codec.IntCodec<IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final int fieldVal = CodecException.wrap(() -> field.getInt(obj));
-            setAccessible(false);
             return codec.encodePrim(fieldVal, out);
         }
 
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final int fieldVal = codec.decodePrim(in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setInt(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skip(core, in);
         }
     }
 
@@ -326,18 +331,19 @@ public IntegerArrayFieldCodec(Field field, Codec<int[], IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final int[] fieldVal = CodecException.wrap(() -> (int[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final int[] fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -356,18 +362,19 @@ public LongFieldCodec(Field field, Codec.LongCodec<IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final long fieldVal = CodecException.wrap(() -> field.getLong(obj));
-            setAccessible(false);
             return codec.encodePrim(fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final long fieldVal = codec.decodePrim(in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setLong(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skip(core, in);
         }
     }
 
@@ -386,18 +393,19 @@ public LongArrayFieldCodec(Field field, Codec<long[], IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final long[] fieldVal = CodecException.wrap(() -> (long[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final long[] fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -416,18 +424,19 @@ public FloatFieldCodec(Field field, Codec.FloatCodec<IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final float fieldVal = CodecException.wrap(() -> field.getFloat(obj));
-            setAccessible(false);
             return codec.encodePrim(fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final float fieldVal = codec.decodePrim(in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setFloat(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skip(core, in);
         }
     }
 
@@ -446,18 +455,19 @@ public FloatArrayFieldCodec(Field field, Codec<float[], IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final float[] fieldVal = CodecException.wrap(() -> (float[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final float[] fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -476,18 +486,19 @@ public DoubleFieldCodec(Field field, Codec.DoubleCodec<IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final double fieldVal = CodecException.wrap(() -> field.getDouble(obj));
-            setAccessible(false);
             return codec.encodePrim(fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final double fieldVal = codec.decodePrim(in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setDouble(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skip(core, in);
         }
     }
 
@@ -506,18 +517,19 @@ public DoubleArrayFieldCodec(Field field, Codec<double[], IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final double[] fieldVal = CodecException.wrap(() -> (double[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
         @Override
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final double[] fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -537,9 +549,7 @@ public ObjectFieldCodec(Field field, Codec<T, IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final T fieldVal = CodecException.wrap(() -> (T) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
@@ -547,9 +557,12 @@ public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final T fieldVal;
             fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -569,10 +582,8 @@ public ObjectArrayFieldCodec(Field field, Codec<T[], IN, OUT, CFG> codec) {
 
         @Override
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
-            setAccessible(true);
             final T[] fieldVal;
             fieldVal = CodecException.wrap(() -> (T[]) field.get(obj));
-            setAccessible(false);
             return codec.encodeWithCheck(core, fieldVal, out);
         }
 
@@ -580,9 +591,12 @@ public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, OUT out) {
         public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
             final T[] fieldVal;
             fieldVal = codec.decodeWithCheck(core, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(obj, fieldVal));
-            setAccessible(false);
+        }
+
+        @Override
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            codec.skipWithCheck(core, in);
         }
     }
 
@@ -602,4 +616,11 @@ public void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in) {
      * @param in        the encoded value
      */
     void decodeField(CodecCoreEx<IN, OUT, CFG> core, Object obj, IN in);
+
+    /**
+     * Skip over an encoded field value, without decoding it.
+     * @param core      the codec core
+     * @param in        the encoded value
+     */
+    void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in);
 }
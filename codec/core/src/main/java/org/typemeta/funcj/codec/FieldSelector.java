@@ -0,0 +1,118 @@
+package org.typemeta.funcj.codec;
+
+import java.util.*;
+
+/**
+ * Selects the subset of object fields to be decoded by a projected decode.
+ * <p>
+ * Fields which aren't selected are skipped, and are left with their default values
+ * (or null, for types constructed via an argument array or map).
+ * Collections, arrays and maps are transparent to a selector,
+ * i.e. the selector for a collection field applies to each of its elements.
+ */
+public interface FieldSelector {
+
+    /**
+     * A selector which selects every field.
+     */
+    FieldSelector ALL = new FieldSelector() {
+        @Override
+        public boolean isSelected(String name) {
+            return true;
+        }
+
+        @Override
+        public FieldSelector select(String name) {
+            return ALL;
+        }
+
+        @Override
+        public String toString() {
+            return "ALL";
+        }
+    };
+
+    /**
+     * A selector which selects no fields.
+     */
+    FieldSelector NONE = new FieldSelector() {
+        @Override
+        public boolean isSelected(String name) {
+            return false;
+        }
+
+        @Override
+        public FieldSelector select(String name) {
+            return NONE;
+        }
+
+        @Override
+        public String toString() {
+            return "NONE";
+        }
+    };
+
+    /**
+     * Create a selector for the given field paths.
+     * <p>
+     * A path is a dot-separated sequence of field names, e.g. {@code "address.city"}.
+     * Selecting a field selects its entire value,
+     * unless the field is also the prefix of a longer path.
+     * @param paths     the field paths
+     * @return          the selector
+     */
+    static FieldSelector of(String... paths) {
+        final Paths root = new Paths();
+        for (String path : paths) {
+            Paths node = root;
+            for (String name : path.split("\\.")) {
+                node = node.children.computeIfAbsent(name, n -> new Paths());
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Determine whether the named field is selected.
+     * @param name      the field name
+     * @return          true if the field is selected
+     */
+    boolean isSelected(String name);
+
+    /**
+     * Return the selector to be applied to the value of the named field.
+     * @param name      the field name
+     * @return          the selector for the field value,
+     *                  or {@link #NONE} if the field isn't selected
+     */
+    FieldSelector select(String name);
+
+    /**
+     * A tree of selected field paths.
+     */
+    final class Paths implements FieldSelector {
+        private final Map<String, Paths> children = new HashMap<>();
+
+        @Override
+        public boolean isSelected(String name) {
+            return children.containsKey(name);
+        }
+
+        @Override
+        public FieldSelector select(String name) {
+            final Paths child = children.get(name);
+            if (child == null) {
+                return NONE;
+            } else if (child.children.isEmpty()) {
+                return ALL;
+            } else {
+                return child;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return children.toString();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.typemeta.funcj.codec;
+
+import org.typemeta.funcj.functions.Functions;
+
+/**
+ * Interface for formats which can capture the encoding of a value as a standalone fragment,
+ * which can subsequently be written as-is to any output stream.
+ * @param <OUT>     the encoded output type
+ * @param <F>       the encoded fragment type
+ */
+public interface FragmentFormat<OUT, F> {
+
+    /**
+     * Capture the output of an encoder as a fragment.
+     * @param encoder   the function which encodes the value
+     * @return          the encoded fragment
+     */
+    F captureFragment(Functions.F<OUT, OUT> encoder);
+
+    /**
+     * Write a previously captured fragment to an output stream.
+     * @param fragment  the encoded fragment
+     * @param out       the encoded output stream
+     * @return          the encoded output stream
+     */
+    OUT writeFragment(F fragment, OUT out);
+}
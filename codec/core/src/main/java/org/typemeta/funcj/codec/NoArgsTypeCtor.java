@@ -1,7 +1,6 @@
 package org.typemeta.funcj.codec;
 
-import org.typemeta.funcj.codec.utils.CodecException;
-import org.typemeta.funcj.functions.FunctionsGenEx.F0;
+import org.typemeta.funcj.codec.utils.*;
 
 import java.lang.reflect.*;
 import java.util.*;
@@ -17,6 +16,8 @@
 public interface NoArgsTypeCtor<T> {
     /**
      * Create a {@code NoArgsTypeCtor} for the specified class.
+     * <p>
+     * The constructor invoker is generated once, via {@link ConstructorInvokers#noArgsCtor(Constructor)}.
      * @param clazz     type descriptor which conveys the type argument
      * @param <T>       the type we want a {@code NoArgsTypeCtor} for
      * @return          an {@code Optional} wrapping a {@code NoArgsTypeCtor} if one exists,
@@ -49,21 +50,7 @@ static <T> NoArgsTypeCtor<T> create(Class<T> clazz) throws CodecException {
                     break;
             }
 
-            final F0<T, ReflectiveOperationException> accCtor;
-            //JDK11: if (!noArgsCtor.canAccess(null)) {
-            if (!noArgsCtor.isAccessible()) {
-                noArgsCtor.setAccessible(true);
-            }
-
-            accCtor = () -> noArgsCtor.newInstance((Object[]) null);
-
-            return () -> {
-                try {
-                    return accCtor.apply();
-                } catch (ReflectiveOperationException ex) {
-                    throw new CodecException("Unable to construct object of type '" + clazz.getName() + "'", ex);
-                }
-            };
+            return ConstructorInvokers.noArgsCtor(noArgsCtor);
         } catch (SecurityException ex) {
             return null;
         }
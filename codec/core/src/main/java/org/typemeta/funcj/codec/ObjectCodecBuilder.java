@@ -1,6 +1,6 @@
 package org.typemeta.funcj.codec;
 
-import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.functions.*;
 
 public class ObjectCodecBuilder {
     public static class FieldCodec<
@@ -11,6 +11,7 @@ public class ObjectCodecBuilder {
     > {
         protected final Functions.F3<CodecCoreEx<IN, OUT, CFG>, T, OUT, OUT> encoder;
         protected final Functions.F2<CodecCoreEx<IN, OUT, CFG>, IN, Object> decoder;
+        protected final SideEffect.F2<CodecCoreEx<IN, OUT, CFG>, IN> skipper;
 
         public <FT> FieldCodec(
                 Functions.F<T, FT> getter,
@@ -18,6 +19,7 @@ public <FT> FieldCodec(
         ) {
             encoder = (core, val, out) -> codec.encodeWithCheck(core, getter.apply(val), out);
             decoder = codec::decodeWithCheck;
+            skipper = codec::skipWithCheck;
         }
 
         public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, T val, OUT out) {
@@ -27,5 +29,9 @@ public OUT encodeField(CodecCoreEx<IN, OUT, CFG> core, T val, OUT out) {
         public Object decodeField(CodecCoreEx<IN, OUT, CFG> core, IN in)  {
             return decoder.apply(core, in);
         }
+
+        public void skipField(CodecCoreEx<IN, OUT, CFG> core, IN in)  {
+            skipper.apply(core, in);
+        }
     }
 }
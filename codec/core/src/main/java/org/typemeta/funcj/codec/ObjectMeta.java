@@ -1,5 +1,7 @@
 package org.typemeta.funcj.codec;
 
+import org.typemeta.funcj.codec.utils.NotSupportedException;
+
 import java.util.stream.*;
 
 /**
@@ -23,6 +25,16 @@
         String name();
         OUT encodeField(T val, OUT out);
         B decodeField(B acc, IN in);
+
+        /**
+         * Skip over an encoded field value, without decoding it.
+         * This is used by projected decodes of formats which can't otherwise skip a field.
+         * @param in        the encoded input stream
+         * @throws NotSupportedException if the field can't be skipped
+         */
+        default void skipField(IN in) {
+            throw new NotSupportedException("Field " + name() + " can't be skipped");
+        }
     }
 
     B createBuilder();
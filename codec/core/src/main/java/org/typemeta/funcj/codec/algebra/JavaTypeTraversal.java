@@ -152,7 +152,7 @@ private T applyAlg(IList<String> path, Class<?> clazz) {
     }
 
     private T applyObject(IList<String> path, Class<?> clazz) {
-        final Map<String, T> fieldTs = new HashMap<>();
+        final Map<String, T> fieldTs = new LinkedHashMap<>();
         Class<?> clazz2 = clazz;
         for (int depth = 0; !clazz2.equals(Object.class); depth++) {
             final Field[] fields = clazz2.getDeclaredFields();
@@ -3,6 +3,7 @@
 import org.typemeta.funcj.codec.CodecStrAPI;
 import org.typemeta.funcj.codec.bytes.ByteTypes.*;
 import org.typemeta.funcj.codec.impl.*;
+import org.typemeta.funcj.codec.utils.CodecMetrics;
 
 import java.io.*;
 
@@ -36,7 +37,17 @@ public ByteCodecCore() {
      * @return          the output stream
      */
     public <T> OutputStream encode(Class<? super T> type, T value, OutputStream os) {
-        encodeImpl(type, value, ByteTypes.outputOf(os));
+        if (metrics().isEnabled()) {
+            final CodecMetrics.CountingOutputStream cos = new CodecMetrics.CountingOutputStream(os);
+            try (final OutStream out = ByteTypes.pooledOutputOf(cos)) {
+                encodeImpl(type, value, out);
+            }
+            metrics().recordOutputSize(type, cos.count());
+        } else {
+            try (final OutStream out = ByteTypes.pooledOutputOf(os)) {
+                encodeImpl(type, value, out);
+            }
+        }
         return os;
     }
 
@@ -49,6 +60,8 @@ public <T> OutputStream encode(Class<? super T> type, T value, OutputStream os)
      */
     @Override
     public <T> T decode(Class<? super T> type, InputStream is) {
-        return decodeImpl(type, ByteTypes.inputOf(is));
+        try (final InStream in = ByteTypes.pooledInputOf(is)) {
+            return decodeImpl(type, in);
+        }
     }
 }
@@ -4,9 +4,11 @@
 import org.typemeta.funcj.codec.bytes.ByteTypes.*;
 import org.typemeta.funcj.codec.impl.CollectionCodec;
 import org.typemeta.funcj.codec.stream.StreamCodecFormat;
+import org.typemeta.funcj.codec.transcode.TranscodeSource;
 import org.typemeta.funcj.functions.Functions;
 import org.typemeta.funcj.util.Folds;
 
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.*;
 import java.util.*;
 
@@ -14,7 +16,8 @@
  * Encoding via byte streams.
  */
 @SuppressWarnings("unchecked")
-public class ByteCodecFormat implements StreamCodecFormat<InStream, OutStream, Config> {
+public class ByteCodecFormat
+        implements StreamCodecFormat<InStream, OutStream, Config>, TranscodeSource<InStream>, FragmentFormat<OutStream, byte[]> {
 
     protected final Config config;
 
@@ -74,6 +77,76 @@ public <T> T decodeDynamicType(InStream in, Functions.F2<String, InStream, T> de
         }
     }
 
+    @Override
+    public OutStream encodeReference(int id, OutStream out) {
+        if (id >= 0) {
+            out.writeBoolean(true);
+            return out.writeInt(id);
+        } else {
+            return out.writeBoolean(false);
+        }
+    }
+
+    @Override
+    public int decodeReference(InStream in) {
+        if (in.readBoolean()) {
+            return in.readInt();
+        } else {
+            return -1;
+        }
+    }
+
+
+    @Override
+    public void readObjectStart(InStream in) {
+    }
+
+    @Override
+    public void readFieldStart(String name, InStream in) {
+    }
+
+    @Override
+    public void readFieldEnd(InStream in) {
+    }
+
+    @Override
+    public void readObjectEnd(InStream in) {
+    }
+
+    @Override
+    public int readArrayStart(InStream in) {
+        return in.readInt();
+    }
+
+    @Override
+    public boolean readArrayHasNext(InStream in) {
+        throw new IllegalStateException("Array size is always known up front");
+    }
+
+    @Override
+    public void readElemStart(InStream in) {
+    }
+
+    @Override
+    public void readElemEnd(InStream in) {
+    }
+
+    @Override
+    public void readArrayEnd(InStream in) {
+    }
+
+    @Override
+    public byte[] captureFragment(Functions.F<OutStream, OutStream> encoder) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        encoder.apply(ByteTypes.outputOf(baos));
+        return baos.toByteArray();
+    }
+
+    @Override
+    public OutStream writeFragment(byte[] fragment, OutStream out) {
+        return out.writeRaw(fragment);
+    }
+
     protected static class BooleanCodec implements Codec.BooleanCodec<InStream, OutStream, Config> {
 
         @Override
@@ -122,6 +195,14 @@ public boolean[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                booleanCodec().decodePrim(in);
+            }
+        }
     };
 
     @Override
@@ -177,6 +258,14 @@ public byte[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in)
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                byteCodec().decodePrim(in);
+            }
+        }
     };
 
     @Override
@@ -232,6 +321,14 @@ public char[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in)
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                charCodec().decodePrim(in);
+            }
+        }
     };
 
     @Override
@@ -287,6 +384,14 @@ public short[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                shortCodec().decodePrim(in);
+            }
+        }
     };
 
     @Override
@@ -342,6 +447,14 @@ public int[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in)
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                intCodec().decodePrim(in);
+            }
+        }
     };
 
     @Override
@@ -397,6 +510,14 @@ public long[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in)
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                longCodec().decodePrim(in);
+            }
+        }
     };
 
     @Override
@@ -452,6 +573,14 @@ public float[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                floatCodec().decodePrim(in);
+            }
+        }
     };
 
     @Override
@@ -507,6 +636,14 @@ public double[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream i
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                doubleCodec().decodePrim(in);
+            }
+        }
     };
 
     @Override
@@ -530,6 +667,14 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, String va
         public String decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
             return in.readString();
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.readInt();
+            for (int i = 0; i < l; ++i) {
+                in.readChar();
+            }
+        }
     }
 
     protected final Codec<String, InStream, OutStream, Config> stringCodec = new StringCodec();
@@ -591,7 +736,7 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, Collectio
             @Override
             public Collection<T> decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
                 final int l = in.readInt();
-                final CollectionBuilder<T> collectionBuilder = getCollectionBuilder(core);
+                final CollectionBuilder<T> collectionBuilder = getCollectionBuilder(core, l);
 
                 for (int i = 0; i < l; ++i) {
                     collectionBuilder.add(elemCodec.decodeWithCheck(core, in));
@@ -599,6 +744,14 @@ public Collection<T> decode(CodecCoreEx<InStream, OutStream, Config> core, InStr
 
                 return collectionBuilder.construct();
             }
+
+            @Override
+            public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+                final int l = in.readInt();
+                for (int i = 0; i < l; ++i) {
+                    elemCodec.skipWithCheck(core, in);
+                }
+            }
         };
     }
 
@@ -634,6 +787,14 @@ public T[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
 
                 return vals;
             }
+
+            @Override
+            public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+                final int l = in.readInt();
+                for (int i = 0; i < l; ++i) {
+                    elemCodec.skipWithCheck(core, in);
+                }
+            }
         };
     }
 
@@ -676,11 +837,23 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, T value,
 
         @Override
         public T decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            return Folds.foldLeft(
-                    (acc, field) -> field.decodeField(acc, in),
-                    objMeta.createBuilder(),
-                    objMeta
-            ).construct();
+            final FieldSelector selector = core.fieldSelector();
+            if (selector == FieldSelector.ALL) {
+                return Folds.foldLeft(
+                        (acc, field) -> field.decodeField(acc, in),
+                        objMeta.createBuilder(),
+                        objMeta
+                ).construct();
+            } else {
+                return core.decodePositionalSelected(objMeta, selector, in);
+            }
+        }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            for (ObjectMeta.Field<T, InStream, OutStream, RA> field : objMeta) {
+                field.skipField(in);
+            }
         }
     }
 
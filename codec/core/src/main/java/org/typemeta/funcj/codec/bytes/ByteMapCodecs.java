@@ -65,6 +65,16 @@ public Map<K, V> decode(CodecCoreEx<InStream, OutStream, Config> core, InStream
 
             return mapProxy.construct();
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = core.format().intCodec().decodePrim(in);
+
+            for (int i = 0; i < l; ++i) {
+                keyCodec.skipWithCheck(core, in);
+                valueCodec.skipWithCheck(core, in);
+            }
+        }
     }
 
     public static class StringMapCodec<V> extends AbstractStringMapCodec<V, InStream, OutStream, Config> {
@@ -125,5 +135,15 @@ public Map<String, V> decode(CodecCoreEx<InStream, OutStream, Config> core, InSt
 
             return mapProxy.construct();
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = core.format().intCodec().decodePrim(in);
+
+            for (int i = 0; i < l; ++i) {
+                core.format().stringCodec().skip(core, in);
+                valueCodec.skipWithCheck(core, in);
+            }
+        }
     }
 }
@@ -25,6 +25,12 @@ public interface InStream extends StreamCodecFormat.Input<InStream> {
      * Interface for classes which implement an output stream of bytes
      */
     public interface OutStream extends StreamCodecFormat.Output<OutStream> {
+        /**
+         * Write previously encoded data, such as a cached encoding of a value, as-is.
+         * @param bytes     the encoded data
+         * @return          this stream
+         */
+        OutStream writeRaw(byte[] bytes);
     }
 
     public static InStream inputOf(InputStream is) {
@@ -42,4 +48,26 @@ public static OutStream outputOf(OutputStream os) {
     public static OutStream outputOf(DataOutput output) {
         return new OutputImpl(output);
     }
+
+    /**
+     * Construct an input stream which reads from an {@link InputStream},
+     * using the pooled input for the current thread where possible.
+     * The stream must be closed after use, to return it to the pool.
+     * @param is        the input stream
+     * @return          the input stream
+     */
+    public static InStream pooledInputOf(InputStream is) {
+        return InputImpl.pooled(is);
+    }
+
+    /**
+     * Construct an output stream which writes to an {@link OutputStream},
+     * using the pooled output for the current thread where possible.
+     * The stream must be closed after use, to return it to the pool.
+     * @param os        the output stream
+     * @return          the output stream
+     */
+    public static OutStream pooledOutputOf(OutputStream os) {
+        return OutputImpl.pooled(os);
+    }
 }
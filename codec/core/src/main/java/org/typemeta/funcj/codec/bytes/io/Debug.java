@@ -67,6 +67,12 @@ public ByteTypes.OutStream writeString(String value) {
             logger.accept("W String: " + value);
             return os.writeString(value);
         }
+
+        @Override
+        public ByteTypes.OutStream writeRaw(byte[] bytes) {
+            logger.accept("W raw: " + bytes.length + " bytes");
+            return os.writeRaw(bytes);
+        }
     }
 
     public static class InputImpl implements ByteTypes.InStream {
@@ -6,10 +6,86 @@
 import java.io.*;
 
 public final class InputImpl implements ByteTypes.InStream {
+
+    /**
+     * A {@link DataInputStream} whose underlying stream can be replaced, so that it can be reused.
+     */
+    private static final class Source extends DataInputStream {
+        Source() {
+            super(null);
+        }
+
+        void reset(InputStream is) {
+            in = is;
+        }
+    }
+
+    /**
+     * Per-thread input, which is reset onto each new input stream rather than re-allocated.
+     * If the pooled instance is already in use (e.g. it wasn't closed)
+     * then a new, unpooled, instance is created instead.
+     */
+    private static final class Pool {
+        InputImpl in;
+        boolean inUse;
+    }
+
+    private static final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+    /**
+     * Construct an input which reads from an {@link InputStream},
+     * using the pooled input for the current thread where possible.
+     * The input is returned to the pool when it is closed.
+     * @param is        the input stream
+     * @return          the input
+     */
+    public static InputImpl pooled(InputStream is) {
+        final Pool pool = pools.get();
+        if (pool.inUse) {
+            return new InputImpl(new DataInputStream(is));
+        } else {
+            if (pool.in == null) {
+                pool.in = new InputImpl(new Source(), pool);
+            }
+
+            pool.inUse = true;
+            return pool.in.reset(is);
+        }
+    }
+
     private final DataInput input;
+    private final Pool pool;
 
-    public InputImpl(DataInput input) {
+    private InputImpl(DataInput input, Pool pool) {
         this.input = input;
+        this.pool = pool;
+    }
+
+    public InputImpl(DataInput input) {
+        this(input, null);
+    }
+
+    /**
+     * Reset this input so that it reads from a new {@link InputStream}, allowing it to be reused.
+     * @param is        the input stream
+     * @return          this input
+     * @throws CodecException if this input wasn't created by {@link #pooled(InputStream)}
+     */
+    public InputImpl reset(InputStream is) {
+        if (!(input instanceof Source)) {
+            throw new CodecException("Input is not resettable");
+        }
+        ((Source)input).reset(is);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null && pool.in == this) {
+            // Release the input stream, so that it isn't retained by the pool.
+            reset(null);
+            pool.inUse = false;
+        }
     }
 
     @Override
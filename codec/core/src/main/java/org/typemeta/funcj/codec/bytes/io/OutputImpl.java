@@ -6,14 +6,87 @@
 import java.io.*;
 
 public final class OutputImpl implements ByteTypes.OutStream {
+
+    /**
+     * A {@link DataOutputStream} whose underlying stream can be replaced, so that it can be reused.
+     */
+    private static final class Sink extends DataOutputStream {
+        Sink() {
+            super(null);
+        }
+
+        void reset(OutputStream os) {
+            out = os;
+            written = 0;
+        }
+    }
+
+    /**
+     * Per-thread output, which is reset onto each new output stream rather than re-allocated.
+     * If the pooled instance is already in use (e.g. it wasn't closed)
+     * then a new, unpooled, instance is created instead.
+     */
+    private static final class Pool {
+        OutputImpl out;
+        boolean inUse;
+    }
+
+    private static final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+    /**
+     * Construct an output which writes to an {@link OutputStream},
+     * using the pooled output for the current thread where possible.
+     * The output is returned to the pool when it is closed.
+     * @param os        the output stream
+     * @return          the output
+     */
+    public static OutputImpl pooled(OutputStream os) {
+        final Pool pool = pools.get();
+        if (pool.inUse) {
+            return new OutputImpl(new DataOutputStream(os));
+        } else {
+            if (pool.out == null) {
+                pool.out = new OutputImpl(new Sink(), pool);
+            }
+
+            pool.inUse = true;
+            return pool.out.reset(os);
+        }
+    }
+
     private final DataOutput output;
+    private final Pool pool;
 
-    public OutputImpl(DataOutput output) {
+    private OutputImpl(DataOutput output, Pool pool) {
         this.output = output;
+        this.pool = pool;
+    }
+
+    public OutputImpl(DataOutput output) {
+        this(output, null);
+    }
+
+    /**
+     * Reset this output so that it writes to a new {@link OutputStream}, allowing it to be reused.
+     * @param os        the output stream
+     * @return          this output
+     * @throws CodecException if this output wasn't created by {@link #pooled(OutputStream)}
+     */
+    public OutputImpl reset(OutputStream os) {
+        if (!(output instanceof Sink)) {
+            throw new CodecException("Output is not resettable");
+        }
+        ((Sink)output).reset(os);
+        return this;
     }
 
     @Override
     public void close() {
+        if (pool != null && pool.out == this) {
+            // Release the output stream, so that it isn't retained by the pool.
+            reset(null);
+            pool.inUse = false;
+        }
     }
 
     @Override
@@ -106,4 +179,14 @@ public OutputImpl writeString(String s) {
             throw new CodecException(ex);
         }
     }
+
+    @Override
+    public OutputImpl writeRaw(byte[] bytes) {
+        try {
+            output.write(bytes);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
 }
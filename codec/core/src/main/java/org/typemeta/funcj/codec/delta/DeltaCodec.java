@@ -0,0 +1,58 @@
+package org.typemeta.funcj.codec.delta;
+
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.utils.CodecException;
+
+/**
+ * Encodes the differences between two versions of a value as a delta,
+ * which can be applied to the older version to recreate the newer one.
+ * <p>
+ * The values are compared field by field, using the same field layout as the object codecs,
+ * and only the fields which have changed are encoded.
+ * Changes to nested objects are encoded as deltas in turn,
+ * while changes to lists are encoded as a single edit, replacing the range of elements which differs.
+ * Any other value which has changed - including a value whose type differs from its static type -
+ * is encoded in full.
+ * <p>
+ * Applying a delta creates new objects for the objects which have changed,
+ * using the same constructors as the object codecs,
+ * and shares the unchanged values with the older version.
+ * The delta is written using the format of the codec core, e.g. as JSON for a JSON codec core.
+ * @param <IN>      the encoded input type
+ * @param <OUT>     the encoded output type
+ */
+public interface DeltaCodec<IN, OUT> {
+
+    /**
+     * Create a {@code DeltaCodec} for the format of a codec core.
+     * @param core      the codec core
+     * @param <IN>      the encoded input type
+     * @param <OUT>     the encoded output type
+     * @return          the new {@code DeltaCodec}
+     * @throws CodecException if reference tracking is enabled for the core
+     */
+    static <IN, OUT> DeltaCodec<IN, OUT> of(CodecCore<IN, OUT, ?> core) {
+        return new DeltaCodecImpl<>(CodecCoreEx.of(core));
+    }
+
+    /**
+     * Encode the differences between two versions of a value.
+     * @param clazz     the static type of the value
+     * @param oldVal    the older version of the value
+     * @param newVal    the newer version of the value
+     * @param out       the encoded output stream
+     * @param <T>       the static type of the value
+     * @return          the encoded output stream
+     */
+    <T> OUT encodeDelta(Class<T> clazz, T oldVal, T newVal, OUT out);
+
+    /**
+     * Decode a delta and apply it to the older version of a value.
+     * @param clazz     the static type of the value
+     * @param oldVal    the older version of the value
+     * @param in        the encoded input stream
+     * @param <T>       the static type of the value
+     * @return          the newer version of the value
+     */
+    <T> T applyDelta(Class<T> clazz, T oldVal, IN in);
+}
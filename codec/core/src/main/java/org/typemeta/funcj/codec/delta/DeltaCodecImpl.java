@@ -0,0 +1,581 @@
+package org.typemeta.funcj.codec.delta;
+
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.utils.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Implementation of {@link DeltaCodec}.
+ * <p>
+ * A delta is computed as a tree of {@link Patch}es, which is encoded using codecs created by the format.
+ * Each patch is encoded as an object with an {@code op} field, which identifies the kind of patch,
+ * followed by a {@code value} field, the content of which depends on the kind.
+ * @param <IN>      the encoded input type
+ * @param <OUT>     the encoded output type
+ * @param <CFG>     the config type
+ */
+@SuppressWarnings("unchecked")
+class DeltaCodecImpl<IN, OUT, CFG extends CodecConfig> implements DeltaCodec<IN, OUT> {
+
+    private static final int SAME = 0;
+    private static final int REPLACE = 1;
+    private static final int FIELDS = 2;
+    private static final int SPLICE = 3;
+
+    /**
+     * A change to a value.
+     */
+    abstract class Patch {
+        abstract int op();
+
+        abstract Object apply(Object oldVal);
+    }
+
+    /**
+     * The value is unchanged.
+     */
+    final class Same extends Patch {
+        @Override
+        int op() {
+            return SAME;
+        }
+
+        @Override
+        Object apply(Object oldVal) {
+            return oldVal;
+        }
+    }
+
+    /**
+     * The value is replaced in full.
+     */
+    final class Replace extends Patch {
+        final Object value;
+
+        Replace(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        int op() {
+            return REPLACE;
+        }
+
+        @Override
+        Object apply(Object oldVal) {
+            return value;
+        }
+    }
+
+    /**
+     * Some of the fields of an object have changed.
+     */
+    final class FieldsPatch extends Patch {
+        final ObjectType objType;
+        final List<FieldPatch> fieldPatches;
+
+        FieldsPatch(ObjectType objType, List<FieldPatch> fieldPatches) {
+            this.objType = objType;
+            this.fieldPatches = fieldPatches;
+        }
+
+        @Override
+        int op() {
+            return FIELDS;
+        }
+
+        @Override
+        Object apply(Object oldVal) {
+            if (oldVal == null || oldVal.getClass() != objType.type) {
+                throw new CodecException(
+                        "Cannot apply a field delta for " + objType.type + " to " + describe(oldVal));
+            }
+
+            final Object[] vals = objType.fieldValues(oldVal);
+            for (FieldPatch fieldPatch : fieldPatches) {
+                vals[fieldPatch.index] = fieldPatch.patch.apply(vals[fieldPatch.index]);
+            }
+
+            return objType.ctor.construct(vals);
+        }
+    }
+
+    /**
+     * A change to a single field of an object.
+     */
+    final class FieldPatch {
+        final int index;
+        final Patch patch;
+
+        FieldPatch(int index, Patch patch) {
+            this.index = index;
+            this.patch = patch;
+        }
+    }
+
+    /**
+     * A range of the elements of a list is replaced.
+     */
+    final class Splice extends Patch {
+        final int start;
+        final int removed;
+        final List<Object> inserted;
+
+        Splice(int start, int removed, List<Object> inserted) {
+            this.start = start;
+            this.removed = removed;
+            this.inserted = inserted;
+        }
+
+        @Override
+        int op() {
+            return SPLICE;
+        }
+
+        @Override
+        Object apply(Object oldVal) {
+            if (!(oldVal instanceof List)) {
+                throw new CodecException("Cannot apply a list delta to " + describe(oldVal));
+            }
+
+            final List<Object> oldList = (List<Object>)oldVal;
+            if (start < 0 || removed < 0 || start + removed > oldList.size()) {
+                throw new CodecException(
+                        "List delta range [" + start + ", " + (start + removed) +
+                                ") is out of bounds for a list of size " + oldList.size());
+            }
+
+            final List<Object> newList = (List<Object>)core.getNoArgsCtor(oldList.getClass()).construct();
+            newList.addAll(oldList.subList(0, start));
+            newList.addAll(inserted);
+            newList.addAll(oldList.subList(start + removed, oldList.size()));
+            return newList;
+        }
+    }
+
+    /**
+     * The static type of a value, along with the codecs for the value and its patches.
+     */
+    private final class Slot {
+        final Class<?> type;
+        final Codec<Object, IN, OUT, CFG> valueCodec;
+
+        // The element type, if the static type is a list.
+        final Class<Object> elemType;
+
+        // Created on first use, as recursive types give rise to cycles.
+        private volatile Codec<Patch, IN, OUT, CFG> patchCodec;
+        private volatile Codec<Splice, IN, OUT, CFG> spliceCodec;
+
+        Slot(Class<?> type, Codec<?, IN, OUT, CFG> valueCodec, Supplier<ReflectionUtils.TypeArgs> typeArgs) {
+            this.type = type;
+            this.valueCodec = (Codec<Object, IN, OUT, CFG>)valueCodec;
+            if (List.class.isAssignableFrom(type)) {
+                final ReflectionUtils.TypeArgs args = typeArgs.get();
+                this.elemType = (Class<Object>)(args.size() == 1 ? args.get(0) : Object.class);
+            } else {
+                this.elemType = null;
+            }
+        }
+
+        Codec<Patch, IN, OUT, CFG> patchCodec() {
+            Codec<Patch, IN, OUT, CFG> codec = patchCodec;
+            if (codec == null) {
+                patchCodec = codec = createPatchCodec();
+            }
+            return codec;
+        }
+
+        private Codec<Patch, IN, OUT, CFG> createPatchCodec() {
+            final class Builder implements ObjectMeta.Builder<Patch> {
+                int op;
+                Patch patch;
+
+                @Override
+                public Patch construct() {
+                    return patch;
+                }
+            }
+
+            final Codec.IntCodec<IN, OUT, CFG> intCodec = core.format().intCodec();
+
+            return new ObjectCodecBuilder<Patch, Builder>(Patch.class, () -> new Builder())
+                    .field("op",
+                            (patch, out) -> intCodec.encodePrim(patch.op(), out),
+                            (bldr, in) -> bldr.op = intCodec.decodePrim(in))
+                    .field("value",
+                            this::encodeValue,
+                            (bldr, in) -> bldr.patch = decodeValue(bldr.op, in))
+                    .build();
+        }
+
+        private OUT encodeValue(Patch patch, OUT out) {
+            switch (patch.op()) {
+                case SAME:
+                    return core.format().encodeNull(null, out).out;
+                case REPLACE:
+                    return valueCodec.encodeWithCheck(core, ((Replace)patch).value, out);
+                case FIELDS: {
+                    final FieldsPatch fieldsPatch = (FieldsPatch)patch;
+                    return fieldsPatch.objType.fieldPatchesCodec().encode(core, fieldsPatch.fieldPatches, out);
+                }
+                case SPLICE:
+                    return spliceCodec().encode(core, (Splice)patch, out);
+                default:
+                    throw new IllegalStateException("Unexpected delta op - " + patch.op());
+            }
+        }
+
+        private Patch decodeValue(int op, IN in) {
+            switch (op) {
+                case SAME:
+                    if (!core.format().decodeNull(in)) {
+                        throw new CodecException("Expected a null value for an unchanged value delta");
+                    }
+                    return same;
+                case REPLACE:
+                    return new Replace(valueCodec.decodeWithCheck(core, in));
+                case FIELDS: {
+                    final ObjectType objType = objectType(type);
+                    if (objType == null) {
+                        throw new CodecException("Field deltas are not supported for " + type);
+                    }
+                    final Collection<FieldPatch> fieldPatches = objType.fieldPatchesCodec().decode(core, in);
+                    return new FieldsPatch(objType, new ArrayList<>(fieldPatches));
+                }
+                case SPLICE:
+                    if (elemType == null) {
+                        throw new CodecException("List deltas are not supported for " + type);
+                    }
+                    return spliceCodec().decode(core, in);
+                default:
+                    throw new CodecException("Unrecognised delta op " + op + " for " + type);
+            }
+        }
+
+        private Codec<Splice, IN, OUT, CFG> spliceCodec() {
+            Codec<Splice, IN, OUT, CFG> codec = spliceCodec;
+            if (codec == null) {
+                spliceCodec = codec = createSpliceCodec();
+            }
+            return codec;
+        }
+
+        private Codec<Splice, IN, OUT, CFG> createSpliceCodec() {
+            final class Builder implements ObjectMeta.Builder<Splice> {
+                int start;
+                int removed;
+                List<Object> inserted;
+
+                @Override
+                public Splice construct() {
+                    return new Splice(start, removed, inserted);
+                }
+            }
+
+            final Codec.IntCodec<IN, OUT, CFG> intCodec = core.format().intCodec();
+            final Codec<Collection<Object>, IN, OUT, CFG> insertedCodec =
+                    core.format().createCollCodec((Class<Collection<Object>>)(Class<?>)ArrayList.class, core.getCodec(elemType));
+
+            return new ObjectCodecBuilder<Splice, Builder>(Splice.class, () -> new Builder())
+                    .field("start",
+                            (splice, out) -> intCodec.encodePrim(splice.start, out),
+                            (bldr, in) -> bldr.start = intCodec.decodePrim(in))
+                    .field("removed",
+                            (splice, out) -> intCodec.encodePrim(splice.removed, out),
+                            (bldr, in) -> bldr.removed = intCodec.decodePrim(in))
+                    .field("inserted",
+                            (splice, out) -> insertedCodec.encode(core, splice.inserted, out),
+                            (bldr, in) -> bldr.inserted = new ArrayList<>(insertedCodec.decode(core, in)))
+                    .build();
+        }
+    }
+
+    /**
+     * A type encoded by a reflection-based object codec.
+     */
+    private final class ObjectType {
+        final Class<?> type;
+        final String[] names;
+        final Field[] fields;
+        final List<Slot> slots;
+        final Map<String, Integer> indices;
+        final ArgArrayTypeCtor<?> ctor;
+
+        // Created on first use, as recursive types give rise to cycles.
+        private volatile Codec<Collection<FieldPatch>, IN, OUT, CFG> fieldPatchesCodec;
+
+        ObjectType(Class<?> type, CodecCoreEx.ObjectLayout layout) {
+            this.type = type;
+
+            final int size = layout.fields.size();
+            this.names = new String[size];
+            this.fields = new Field[size];
+            this.slots = new ArrayList<>(size);
+            this.indices = new HashMap<>(size * 2);
+
+            int i = 0;
+            for (Map.Entry<String, Field> en : layout.fields.entrySet()) {
+                final Field field = en.getValue();
+                // The layout fields are private copies, so they can be left accessible.
+                field.setAccessible(true);
+                names[i] = en.getKey();
+                fields[i] = field;
+                slots.add(new Slot(
+                        field.getType(),
+                        core.getFieldValueCodec(field),
+                        () -> ReflectionUtils.getTypeArgs(field, Collection.class)));
+                indices.put(en.getKey(), i);
+                ++i;
+            }
+
+            this.ctor = core.getLayoutCtor(type);
+        }
+
+        Object[] fieldValues(Object obj) {
+            final Object[] vals = new Object[fields.length];
+            for (int i = 0; i < fields.length; ++i) {
+                final Field field = fields[i];
+                vals[i] = CodecException.wrap(() -> field.get(obj));
+            }
+            return vals;
+        }
+
+        Codec<Collection<FieldPatch>, IN, OUT, CFG> fieldPatchesCodec() {
+            Codec<Collection<FieldPatch>, IN, OUT, CFG> codec = fieldPatchesCodec;
+            if (codec == null) {
+                fieldPatchesCodec = codec = createFieldPatchesCodec();
+            }
+            return codec;
+        }
+
+        private Codec<Collection<FieldPatch>, IN, OUT, CFG> createFieldPatchesCodec() {
+            final class Builder implements ObjectMeta.Builder<FieldPatch> {
+                int index;
+                Patch patch;
+
+                @Override
+                public FieldPatch construct() {
+                    return new FieldPatch(index, patch);
+                }
+            }
+
+            final Codec<String, IN, OUT, CFG> strCodec = core.format().stringCodec();
+
+            final Codec<FieldPatch, IN, OUT, CFG> fieldPatchCodec =
+                    new ObjectCodecBuilder<FieldPatch, Builder>(FieldPatch.class, () -> new Builder())
+                            .field("name",
+                                    (fieldPatch, out) -> strCodec.encode(core, names[fieldPatch.index], out),
+                                    (bldr, in) -> bldr.index = index(strCodec.decode(core, in)))
+                            .field("change",
+                                    (fieldPatch, out) -> slots.get(fieldPatch.index).patchCodec().encode(core, fieldPatch.patch, out),
+                                    (bldr, in) -> bldr.patch = slots.get(bldr.index).patchCodec().decode(core, in))
+                            .build();
+
+            return core.format().createCollCodec((Class<Collection<FieldPatch>>)(Class<?>)ArrayList.class, fieldPatchCodec);
+        }
+
+        private int index(String name) {
+            final Integer index = indices.get(name);
+            if (index == null) {
+                throw new CodecException("Field name '" + name + "' unexpected for type " + type);
+            }
+            return index;
+        }
+    }
+
+    private final CodecCoreEx<IN, OUT, CFG> core;
+
+    private final Patch same = new Same();
+
+    private final ConcurrentMap<Class<?>, Slot> slots = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class<?>, Optional<ObjectType>> objectTypes = new ConcurrentHashMap<>();
+
+    DeltaCodecImpl(CodecCoreEx<IN, OUT, CFG> core) {
+        if (core.config().referenceTracking()) {
+            // Shared references within the delta would never be assigned their reference ids.
+            throw new CodecException("Delta encoding is not supported with reference tracking");
+        }
+
+        this.core = core;
+    }
+
+    @Override
+    public <T> OUT encodeDelta(Class<T> clazz, T oldVal, T newVal, OUT out) {
+        final Slot slot = getSlot(clazz);
+        final Patch patch = diff(slot, oldVal, newVal);
+        return slot.patchCodec().encode(core, patch != null ? patch : same, out);
+    }
+
+    @Override
+    public <T> T applyDelta(Class<T> clazz, T oldVal, IN in) {
+        final Patch patch = getSlot(clazz).patchCodec().decode(core, in);
+        return (T)patch.apply(oldVal);
+    }
+
+    private Slot getSlot(Class<?> clazz) {
+        return slots.computeIfAbsent(
+                clazz,
+                c -> new Slot(c, core.getCodec(c), () -> ReflectionUtils.getTypeArgs(c, Collection.class)));
+    }
+
+    private ObjectType objectType(Class<?> clazz) {
+        return objectTypes.computeIfAbsent(clazz, c -> {
+            if (isObjectType(c)) {
+                final CodecCoreEx.ObjectLayout layout = core.getObjectLayout(c);
+                if (layout != null) {
+                    return Optional.of(new ObjectType(c, layout));
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    private static boolean isObjectType(Class<?> clazz) {
+        final int mods = clazz.getModifiers();
+        return !clazz.isPrimitive() &&
+                !clazz.isArray() &&
+                !clazz.isEnum() &&
+                !ReflectionUtils.isEnumSubType(clazz) &&
+                !Modifier.isInterface(mods) &&
+                !Modifier.isAbstract(mods) &&
+                !Collection.class.isAssignableFrom(clazz) &&
+                !Map.class.isAssignableFrom(clazz) &&
+                !clazz.getName().startsWith("java.lang.");
+    }
+
+    /**
+     * Compute the patch which transforms the old value into the new value,
+     * or null if they are equal.
+     */
+    private Patch diff(Slot slot, Object oldVal, Object newVal) {
+        if (oldVal == newVal) {
+            return null;
+        } else if (oldVal == null || newVal == null) {
+            return new Replace(newVal);
+        }
+
+        // Structural deltas require the decoder to know the type, so the type mustn't vary.
+        final Class<?> clazz = newVal.getClass();
+        if (clazz == oldVal.getClass()) {
+            if (slot.elemType != null && newVal instanceof List) {
+                return diffList((List<?>)oldVal, (List<?>)newVal);
+            } else if (clazz == slot.type) {
+                final ObjectType objType = objectType(clazz);
+                if (objType != null) {
+                    return diffFields(objType, oldVal, newVal);
+                }
+            }
+        }
+
+        return Objects.deepEquals(oldVal, newVal) ? null : new Replace(newVal);
+    }
+
+    private Patch diffFields(ObjectType objType, Object oldVal, Object newVal) {
+        final Object[] oldVals = objType.fieldValues(oldVal);
+        final Object[] newVals = objType.fieldValues(newVal);
+
+        final List<FieldPatch> fieldPatches = new ArrayList<>();
+        for (int i = 0; i < oldVals.length; ++i) {
+            final Patch patch = diff(objType.slots.get(i), oldVals[i], newVals[i]);
+            if (patch != null) {
+                fieldPatches.add(new FieldPatch(i, patch));
+            }
+        }
+
+        return fieldPatches.isEmpty() ? null : new FieldsPatch(objType, fieldPatches);
+    }
+
+    /**
+     * Diff two lists as a single edit, which replaces the range between their common prefix and suffix.
+     */
+    private Patch diffList(List<?> oldList, List<?> newList) {
+        final Object[] oldElems = oldList.toArray();
+        final Object[] newElems = newList.toArray();
+
+        int prefix = 0;
+        while (prefix < oldElems.length &&
+                prefix < newElems.length &&
+                Objects.deepEquals(oldElems[prefix], newElems[prefix])) {
+            ++prefix;
+        }
+
+        if (prefix == oldElems.length && prefix == newElems.length) {
+            return null;
+        }
+
+        int suffix = 0;
+        while (suffix < oldElems.length - prefix &&
+                suffix < newElems.length - prefix &&
+                Objects.deepEquals(oldElems[oldElems.length - 1 - suffix], newElems[newElems.length - 1 - suffix])) {
+            ++suffix;
+        }
+
+        if (prefix == 0 && suffix == 0) {
+            return new Replace(newList);
+        }
+
+        final List<Object> inserted = Arrays.asList(newElems).subList(prefix, newElems.length - suffix);
+        return new Splice(prefix, oldElems.length - prefix - suffix, new ArrayList<>(inserted));
+    }
+
+    private static String describe(Object val) {
+        return val == null ? "null" : "a value of " + val.getClass();
+    }
+
+    /**
+     * Builds an object codec, via the format, from a list of field encoders and decoders.
+     */
+    private final class ObjectCodecBuilder<T, B extends ObjectMeta.Builder<T>> {
+        final Class<T> type;
+        final Supplier<B> builderSupp;
+        final List<ObjectMeta.Field<T, IN, OUT, B>> fields = new ArrayList<>();
+
+        ObjectCodecBuilder(Class<?> type, Supplier<B> builderSupp) {
+            this.type = (Class<T>)type;
+            this.builderSupp = builderSupp;
+        }
+
+        ObjectCodecBuilder<T, B> field(String name, BiFunction<T, OUT, OUT> encoder, BiConsumer<B, IN> decoder) {
+            fields.add(new ObjectMeta.Field<T, IN, OUT, B>() {
+                @Override
+                public String name() {
+                    return name;
+                }
+
+                @Override
+                public OUT encodeField(T val, OUT out) {
+                    return encoder.apply(val, out);
+                }
+
+                @Override
+                public B decodeField(B acc, IN in) {
+                    decoder.accept(acc, in);
+                    return acc;
+                }
+            });
+            return this;
+        }
+
+        Codec<T, IN, OUT, CFG> build() {
+            return core.format().createObjectCodec(
+                    type,
+                    new ObjectMeta<T, IN, OUT, B>() {
+                        @Override
+                        public Iterator<Field<T, IN, OUT, B>> iterator() {
+                            return fields.iterator();
+                        }
+
+                        @Override
+                        public B createBuilder() {
+                            return builderSupp.get();
+                        }
+                    });
+        }
+    }
+}
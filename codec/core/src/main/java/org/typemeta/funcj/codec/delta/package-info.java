@@ -0,0 +1,5 @@
+/**
+ * This package contains classes which encode the differences between two versions of a value,
+ * and apply them to recreate the newer version.
+ */
+package org.typemeta.funcj.codec.delta;
@@ -0,0 +1,71 @@
+package org.typemeta.funcj.codec.impl;
+
+import java.util.*;
+
+/**
+ * A fixed-key map of constructor arguments, backed by an array.
+ * <p>
+ * The key-to-index mapping is shared by all instances for a given type,
+ * so populating a map requires neither hashing on insertion nor per-entry allocation.
+ */
+final class ArgArrayMap extends AbstractMap<String, Object> {
+
+    /**
+     * The keys and key-to-index mapping for a given type.
+     */
+    static final class Keys {
+        final String[] names;
+        final Map<String, Integer> indices;
+
+        Keys(Collection<String> names) {
+            this.names = names.toArray(new String[0]);
+            this.indices = new HashMap<>(this.names.length * 2);
+            for (int i = 0; i < this.names.length; ++i) {
+                indices.put(this.names[i], i);
+            }
+        }
+    }
+
+    private static final Object ABSENT = new Object();
+
+    private final Keys keys;
+    private final Object[] values;
+
+    ArgArrayMap(Keys keys) {
+        this.keys = keys;
+        this.values = new Object[keys.names.length];
+        Arrays.fill(values, ABSENT);
+    }
+
+    void set(int index, Object value) {
+        values[index] = value;
+    }
+
+    @Override
+    public Object get(Object key) {
+        final Integer index = keys.indices.get(key);
+        if (index == null) {
+            return null;
+        } else {
+            final Object value = values[index];
+            return value == ABSENT ? null : value;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        final Integer index = keys.indices.get(key);
+        return index != null && values[index] != ABSENT;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        final Set<Entry<String, Object>> entries = new LinkedHashSet<>();
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] != ABSENT) {
+                entries.add(new SimpleImmutableEntry<>(keys.names[i], values[i]));
+            }
+        }
+        return Collections.unmodifiableSet(entries);
+    }
+}
@@ -1,10 +1,12 @@
 package org.typemeta.funcj.codec.impl;
 
 import org.typemeta.funcj.codec.CodecConfig;
+import org.typemeta.funcj.codec.utils.BlockCompression;
 import org.typemeta.funcj.codec.utils.CodecException;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.zip.Deflater;
 
 /**
  * Base class for {@link CodecConfig} implementations.
@@ -40,12 +42,26 @@ public class CodecConfigImpl implements CodecConfig {
         protected final Map<Class<?>, Class<?>> typeProxyRegistry =
                 new TreeMap<>(Comparator.comparing(Class::getName));
 
+        /**
+         * A map that associates a class with the maximum size of its encoded value cache.
+         */
+        protected final Map<Class<?>, Integer> encodedValueCacheSizes =
+                new TreeMap<>(Comparator.comparing(Class::getName));
+
         protected boolean dynamicTypeTags = true;
 
         protected boolean failOnNoTypeConstructor = true;
 
         protected boolean failOnUnrecognisedFields = true;
 
+        protected boolean referenceTracking = false;
+
+        protected boolean collectMetrics = false;
+
+        protected int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+        protected int compressionBlockSize = BlockCompression.DEFAULT_BLOCK_SIZE;
+
         @Override
         public B registerAllowedPackage(Package pkg) {
             allowedPackages.add(pkg);
@@ -95,6 +111,47 @@ public B failOnUnrecognisedFields(boolean enable) {
             failOnUnrecognisedFields = enable;
             return (B)this;
         }
+
+        @Override
+        public B referenceTracking(boolean enable) {
+            referenceTracking = enable;
+            return (B)this;
+        }
+
+        @Override
+        public B collectMetrics(boolean enable) {
+            collectMetrics = enable;
+            return (B)this;
+        }
+
+        @Override
+        public B registerEncodedValueCache(Class<?> clazz, int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("Maximum size must be positive - " + maxSize);
+            }
+            encodedValueCacheSizes.put(clazz, maxSize);
+            return (B)this;
+        }
+
+        @Override
+        public B compressionLevel(int level) {
+            if ((level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) &&
+                    level != Deflater.DEFAULT_COMPRESSION &&
+                    level != Deflater.NO_COMPRESSION) {
+                throw new IllegalArgumentException("Invalid compression level - " + level);
+            }
+            compressionLevel = level;
+            return (B)this;
+        }
+
+        @Override
+        public B compressionBlockSize(int blockSize) {
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("Block size must be positive - " + blockSize);
+            }
+            compressionBlockSize = blockSize;
+            return (B)this;
+        }
     }
 
     protected final Set<Package> allowedPackages;
@@ -113,12 +170,25 @@ public B failOnUnrecognisedFields(boolean enable) {
      */
     protected final Map<Class<?>, Class<?>> typeProxyRegistry;
 
+    /**
+     * A map that associates a class with the maximum size of its encoded value cache.
+     */
+    protected final Map<Class<?>, Integer> encodedValueCacheSizes;
+
     protected boolean dynamicTypeTags;
 
     protected boolean failOnNoTypeConstructor;
 
     protected boolean failOnUnrecognisedFields;
 
+    protected boolean referenceTracking;
+
+    protected boolean collectMetrics;
+
+    protected int compressionLevel;
+
+    protected int compressionBlockSize;
+
     protected CodecConfigImpl() {
         this.allowedPackages = new TreeSet<>(Comparator.comparing(Package::getName));;
         this.allowedClasses = new TreeSet<>(Comparator.comparing(Class::getName));
@@ -126,9 +196,14 @@ protected CodecConfigImpl() {
         this.nameToClassMap = new HashMap<>();
         this.defaultCollectionTypes = new TreeMap<>(Comparator.comparing(Class::getName));
         this.typeProxyRegistry = new TreeMap<>(Comparator.comparing(Class::getName));
+        this.encodedValueCacheSizes = new TreeMap<>(Comparator.comparing(Class::getName));
         this.dynamicTypeTags = true;
         this.failOnNoTypeConstructor = true;
         this.failOnUnrecognisedFields = true;
+        this.referenceTracking = false;
+        this.collectMetrics = false;
+        this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+        this.compressionBlockSize = BlockCompression.DEFAULT_BLOCK_SIZE;
     }
 
     protected CodecConfigImpl(AbstractBuilder<? extends Builder, ? extends CodecConfig> builder) {
@@ -138,9 +213,14 @@ protected CodecConfigImpl(AbstractBuilder<? extends Builder, ? extends CodecConf
         this.nameToClassMap = builder.nameToClassMap;
         this.defaultCollectionTypes = builder.defaultCollectionTypes;
         this.typeProxyRegistry = builder.typeProxyRegistry;
+        this.encodedValueCacheSizes = builder.encodedValueCacheSizes;
         this.dynamicTypeTags = builder.dynamicTypeTags;
         this.failOnNoTypeConstructor = builder.failOnNoTypeConstructor;
         this.failOnUnrecognisedFields = builder.failOnUnrecognisedFields;
+        this.referenceTracking = builder.referenceTracking;
+        this.collectMetrics = builder.collectMetrics;
+        this.compressionLevel = builder.compressionLevel;
+        this.compressionBlockSize = builder.compressionBlockSize;
     }
 
     @Override
@@ -263,4 +343,29 @@ public boolean failOnNoTypeConstructor() {
     public boolean failOnUnrecognisedFields() {
         return failOnUnrecognisedFields;
     }
+
+    @Override
+    public boolean referenceTracking() {
+        return referenceTracking;
+    }
+
+    @Override
+    public boolean collectMetrics() {
+        return collectMetrics;
+    }
+
+    @Override
+    public int encodedValueCacheSize(Class<?> clazz) {
+        return encodedValueCacheSizes.getOrDefault(clazz, 0);
+    }
+
+    @Override
+    public int compressionLevel() {
+        return compressionLevel;
+    }
+
+    @Override
+    public int compressionBlockSize() {
+        return compressionBlockSize;
+    }
 }
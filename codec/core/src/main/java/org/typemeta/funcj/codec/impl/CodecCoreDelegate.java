@@ -1,9 +1,12 @@
 package org.typemeta.funcj.codec.impl;
 
 import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.utils.*;
 import org.typemeta.funcj.functions.Functions;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 public class CodecCoreDelegate<IN, OUT, CFG extends CodecConfig>
         implements CodecCore<IN, OUT, CFG> {
@@ -14,11 +17,28 @@ public CodecCoreDelegate(CodecCoreEx<IN, OUT, CFG> delegate) {
         this.delegate = delegate;
     }
 
+    /**
+     * @return          the underlying {@link CodecCoreEx} implementation
+     */
+    public CodecCoreEx<IN, OUT, CFG> delegate() {
+        return delegate;
+    }
+
     @Override
     public CFG config() {
         return delegate.config();
     }
 
+    @Override
+    public CodecMetrics metrics() {
+        return delegate.metrics();
+    }
+
+    @Override
+    public EncodedValueCache<?> encodedValueCache(Class<?> clazz) {
+        return delegate.encodedValueCache(clazz);
+    }
+
     @Override
     public <T> void registerCodec(Class<? extends T> clazz, Codec<T, IN, OUT, CFG> codec) {
         delegate.registerCodec(clazz, codec);
@@ -64,11 +84,36 @@ public <T> T decodeImpl(Class<? super T> clazz, IN in) {
         return delegate.decodeImpl(clazz, in);
     }
 
+    @Override
+    public <T> T decodeSelected(FieldSelector selector, Supplier<T> decoder) {
+        return delegate.decodeSelected(selector, decoder);
+    }
+
     @Override
     public <T> Codec<T, IN, OUT, CFG> getCodec(Class<T> clazz) {
         return delegate.getCodec(clazz);
     }
 
+    @Override
+    public Set<Class<?>> prepare(Class<?>... classes) {
+        return delegate.prepare(classes);
+    }
+
+    @Override
+    public Set<Class<?>> prepare(Executor executor, Class<?>... classes) {
+        return delegate.prepare(executor, classes);
+    }
+
+    @Override
+    public Set<Class<?>> prepareAll(Package pkg) {
+        return delegate.prepareAll(pkg);
+    }
+
+    @Override
+    public Set<Class<?>> prepareAll(Package pkg, Executor executor) {
+        return delegate.prepareAll(pkg, executor);
+    }
+
     @Override
     public <T> Codec<Collection<T>, IN, OUT, CFG> getCollCodec(
             Class<Collection<T>> collType,
@@ -7,6 +7,7 @@
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static java.util.stream.Collectors.toList;
@@ -35,10 +36,51 @@
 
     protected final ConcurrentMap<ClassKey<?>, ArgMapTypeCtor<?>> argMapCtorRegistry = new ConcurrentHashMap<>();
 
+    /**
+     * The classes for which a codec has been explicitly registered.
+     */
+    protected final Set<ClassKey<?>> registeredTypes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The reference tracking state for the encode or decode operation in progress on the current thread.
+     */
+    protected final ThreadLocal<ReferenceTable> referenceTables = new ThreadLocal<>();
+
+    /**
+     * The field selector for the projected decode in progress on the current thread.
+     */
+    protected final ThreadLocal<FieldSelector> fieldSelectors = new ThreadLocal<>();
+
+    /**
+     * The types of the codecs created by the {@link #prepare} or {@link #prepareAll} call
+     * in progress on the current thread.
+     */
+    protected final ThreadLocal<Set<Class<?>>> preparedTypes = new ThreadLocal<>();
+
+    /**
+     * The number of codecs being constructed by the current thread,
+     * i.e. the depth of the nested {@link #getCodec(ClassKey, Supplier)} calls.
+     */
+    protected final ThreadLocal<int[]> creationDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * The number of projected decodes in progress across all threads,
+     * which allows {@link #fieldSelector()} to skip the thread-local lookup when there are none.
+     */
+    protected final AtomicInteger activeSelections = new AtomicInteger();
+
     protected final CodecFormat<IN, OUT, CFG> format;
 
+    protected final CodecMetrics metrics;
+
+    /**
+     * A map that associates a class with its encoded value cache.
+     */
+    protected final ConcurrentMap<Class<?>, EncodedValueCache<?>> encodedValueCaches = new ConcurrentHashMap<>();
+
     public CodecCoreImpl(CodecFormat<IN, OUT, CFG> format) {
         this.format = format;
+        this.metrics = new CodecMetrics(format.config().collectMetrics());
     }
 
     @Override
@@ -51,11 +93,45 @@ public CFG config() {
         return format.config();
     }
 
+    @Override
+    public CodecMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public EncodedValueCache<?> encodedValueCache(Class<?> clazz) {
+        return encodedValueCaches.get(clazz);
+    }
+
+    /**
+     * Wrap a codec with an encoded value cache, if one has been registered for the class.
+     * @param clazz     the class
+     * @param codec     the codec
+     * @param <T>       the codec value type
+     * @return          the caching codec, or the original codec if no cache has been registered
+     */
+    protected <T> Codec<T, IN, OUT, CFG> cacheEncodedValues(Class<?> clazz, Codec<T, IN, OUT, CFG> codec) {
+        final int maxSize = config().encodedValueCacheSize(clazz);
+        if (maxSize == 0) {
+            return codec;
+        } else if (config().referenceTracking()) {
+            throw new CodecException("Encoded value caching is not supported with reference tracking");
+        } else if (!(format instanceof FragmentFormat)) {
+            throw new CodecException(
+                    "Format " + format.getClass().getSimpleName() + " doesn't support encoded value caching");
+        } else {
+            final EncodedValueCache<Object> cache = new EncodedValueCache<>(maxSize);
+            encodedValueCaches.put(clazz, cache);
+            return cache.wrap(codec, (FragmentFormat<OUT, Object>)format);
+        }
+    }
+
     @Override
     public <T> void registerCodec(Class<? extends T> clazz, Codec<T, IN, OUT, CFG> codec) {
         config().checkClassIsAllowed(clazz);
         synchronized (codecRegistry) {
-            codecRegistry.put(ClassKey.valueOf(clazz), codec);
+            codecRegistry.put(ClassKey.valueOf(clazz), metrics.instrument(cacheEncodedValues(clazz, codec)));
+            registeredTypes.add(ClassKey.valueOf(clazz));
         }
     }
 
@@ -117,12 +193,97 @@ public <T> void registerArgMapTypeCtor(Class<? extends T> clazz, ArgMapTypeCtor<
 
     @Override
     public <T> OUT encodeImpl(Class<? super T> clazz, T val, OUT out) {
-        return getCodec(clazz).encodeWithCheck(this, val, out);
+        if (config().referenceTracking() && referenceTables.get() == null) {
+            referenceTables.set(new ReferenceTable());
+            try {
+                return getCodec(clazz).encodeWithCheck(this, val, out);
+            } finally {
+                referenceTables.remove();
+            }
+        } else {
+            return getCodec(clazz).encodeWithCheck(this, val, out);
+        }
     }
 
     @Override
     public <T> T decodeImpl(Class<? super T> clazz, IN in) {
-        return (T)getCodec(clazz).decodeWithCheck(this, in);
+        if (config().referenceTracking() && referenceTables.get() == null) {
+            referenceTables.set(new ReferenceTable());
+            try {
+                return (T)getCodec(clazz).decodeWithCheck(this, in);
+            } finally {
+                referenceTables.remove();
+            }
+        } else {
+            return (T)getCodec(clazz).decodeWithCheck(this, in);
+        }
+    }
+
+    @Override
+    public <T> T decodeSelected(FieldSelector selector, Supplier<T> decoder) {
+        if (config().referenceTracking()) {
+            // Skipped values would never be assigned their reference ids.
+            throw new CodecException("Field projection is not supported with reference tracking");
+        }
+
+        final FieldSelector prev = fieldSelectors.get();
+        fieldSelectors.set(selector);
+        activeSelections.incrementAndGet();
+        try {
+            return decoder.get();
+        } finally {
+            activeSelections.decrementAndGet();
+            if (prev == null) {
+                fieldSelectors.remove();
+            } else {
+                fieldSelectors.set(prev);
+            }
+        }
+    }
+
+    @Override
+    public FieldSelector fieldSelector() {
+        if (activeSelections.get() == 0) {
+            return FieldSelector.ALL;
+        } else {
+            final FieldSelector selector = fieldSelectors.get();
+            return selector == null ? FieldSelector.ALL : selector;
+        }
+    }
+
+    protected ReferenceTable referenceTable() {
+        final ReferenceTable refs = referenceTables.get();
+        if (refs == null) {
+            throw new CodecException("Reference tracking is only supported within an encode or decode operation");
+        }
+        return refs;
+    }
+
+    @Override
+    public <T> OUT encodeReference(T val, OUT out, Functions.F<OUT, OUT> encoder) {
+        final ReferenceTable refs = referenceTable();
+        final int id = refs.encodeStart(val);
+        if (id >= 0) {
+            return format.encodeReference(id, out);
+        } else {
+            final OUT out2 = encoder.apply(format.encodeReference(id, out));
+            refs.encodeEnd(val);
+            return out2;
+        }
+    }
+
+    @Override
+    public <T> T decodeReference(IN in, Functions.F<IN, T> decoder) {
+        final ReferenceTable refs = referenceTable();
+        final int id = format.decodeReference(in);
+        if (id >= 0) {
+            return (T)refs.decodedValue(id);
+        } else {
+            final int slot = refs.decodeStart();
+            final T val = decoder.apply(in);
+            refs.decodeEnd(slot, val);
+            return val;
+        }
     }
 
     @Override
@@ -170,32 +331,204 @@ public <T> Codec<T, IN, OUT, CFG> getCodec(Class<T> clazz) {
         );
     }
 
+    @Override
+    public Set<Class<?>> prepare(Class<?>... classes) {
+        return preparing(() -> {
+            for (Class<?> clazz : classes) {
+                prepareClass(clazz);
+            }
+        });
+    }
+
+    @Override
+    public Set<Class<?>> prepare(Executor executor, Class<?>... classes) {
+        return preparingConcurrently(
+                executor,
+                Arrays.asList(classes),
+                clazz -> preparing(() -> prepareClass(clazz)));
+    }
+
+    @Override
+    public Set<Class<?>> prepareAll(Package pkg) {
+        final List<Class<?>> classes = findConcreteClasses(pkg);
+        return preparing(() -> {
+            for (Class<?> clazz : classes) {
+                prepareClassIfPossible(clazz);
+            }
+        });
+    }
+
+    @Override
+    public Set<Class<?>> prepareAll(Package pkg, Executor executor) {
+        return preparingConcurrently(
+                executor,
+                findConcreteClasses(pkg),
+                clazz -> preparing(() -> prepareClassIfPossible(clazz)));
+    }
+
+    /**
+     * Create the codec for a class, wrapping any failure in a {@link CodecException}.
+     * @param clazz     the class
+     */
+    protected void prepareClass(Class<?> clazz) {
+        try {
+            getCodec(clazz);
+        } catch (CodecException ex) {
+            throw ex;
+        } catch (RuntimeException | LinkageError ex) {
+            throw new CodecException("Unable to create a codec for " + clazz, ex);
+        }
+    }
+
+    /**
+     * Create the codec for a class, skipping the class if a codec can't be created for it.
+     * @param clazz     the class
+     */
+    protected void prepareClassIfPossible(Class<?> clazz) {
+        try {
+            getCodec(clazz);
+        } catch (RuntimeException | LinkageError ex) {
+            // Skip classes for which a codec can't be created.
+        }
+    }
+
+    /**
+     * Find the concrete classes in a package.
+     * @param pkg       the package
+     * @return          the concrete classes
+     */
+    protected List<Class<?>> findConcreteClasses(Package pkg) {
+        final ClassLoader ctxLoader = Thread.currentThread().getContextClassLoader();
+        final ClassLoader loader = ctxLoader != null ? ctxLoader : getClass().getClassLoader();
+
+        final List<Class<?>> classes = new ArrayList<>();
+        for (Class<?> clazz : PackageScanner.findClasses(pkg, loader)) {
+            if (!clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers())) {
+                classes.add(clazz);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Run a preparation for each of a list of classes concurrently,
+     * and combine the types of the codecs they create.
+     * Each preparation collects the types on the thread it runs on.
+     * @param executor  the executor used to run the preparations
+     * @param classes   the classes
+     * @param prep      the preparation for a single class
+     * @return          the types of the codecs created by the preparations
+     */
+    protected Set<Class<?>> preparingConcurrently(
+            Executor executor,
+            List<Class<?>> classes,
+            Functions.F<Class<?>, Set<Class<?>>> prep) {
+        final List<CompletableFuture<Set<Class<?>>>> futures = new ArrayList<>(classes.size());
+        for (Class<?> clazz : classes) {
+            futures.add(CompletableFuture.supplyAsync(() -> prep.apply(clazz), executor));
+        }
+
+        final Set<Class<?>> types = new TreeSet<>(Comparator.comparing(Class::getName));
+        for (Set<Class<?>> prepared : ChunkedCodecs.join(futures)) {
+            types.addAll(prepared);
+        }
+
+        // Report the types to any preparation in progress on this thread.
+        final Set<Class<?>> outer = preparedTypes.get();
+        if (outer != null) {
+            outer.addAll(types);
+        }
+
+        return types;
+    }
+
+    /**
+     * Run a preparation, collecting the types of the codecs it creates.
+     * Codecs are created on the thread which requires them,
+     * so the types collected are exactly those created by this preparation,
+     * regardless of any codecs created concurrently by other threads.
+     * @param prep      the preparation
+     * @return          the types of the codecs created by the preparation
+     */
+    protected Set<Class<?>> preparing(Runnable prep) {
+        final Set<Class<?>> outer = preparedTypes.get();
+        final Set<Class<?>> types = new TreeSet<>(Comparator.comparing(Class::getName));
+        preparedTypes.set(types);
+        try {
+            prep.run();
+        } finally {
+            if (outer == null) {
+                preparedTypes.remove();
+            } else {
+                outer.addAll(types);
+                preparedTypes.set(outer);
+            }
+        }
+        return types;
+    }
+
     @Override
     public <T> Codec<T, IN, OUT, CFG> getCodec(
             ClassKey<?> key,
             Supplier<Codec<T, IN, OUT, CFG>> codecSupp
     ) {
         // First attempt, without locking.
-        if (codecRegistry.containsKey(key)) {
-            return (Codec<T, IN, OUT, CFG>)codecRegistry.get(key);
+        // An uninitialised CodecRef is either a recursive reference to a codec being constructed
+        // by this thread, or a codec being constructed by another thread.
+        // Either way it can be returned, as using it waits until it has been initialised.
+        final Codec<?, IN, OUT, CFG> codec = codecRegistry.get(key);
+        if (codec != null) {
+            metrics.recordCacheHit();
+            return (Codec<T, IN, OUT, CFG>)codec;
         } else {
-            final CodecRef<T, IN, OUT, CFG> codecRef;
-            // Lock and try again.
-            synchronized(codecRegistry) {
-                if (codecRegistry.containsKey(key)) {
-                    return (Codec<T, IN, OUT, CFG>) codecRegistry.get(key);
-                } else {
-                    // Ok, it's definitely not there, so add a CodecRef
-                    // (in case the class has a recursive self-reference).
-                    codecRef = new CodecRef<>();
-                    codecRegistry.put(key, codecRef);
+            // Hold the lock on the CodecRef until it's initialised,
+            // so that other threads which use it in the meantime wait for the real Codec,
+            // while codecs for other types can still be constructed concurrently.
+            final CodecRef<T, IN, OUT, CFG> codecRef = new CodecRef<>();
+            synchronized(codecRef) {
+                // Lock the registry and try again.
+                synchronized(codecRegistry) {
+                    final Codec<?, IN, OUT, CFG> existing = codecRegistry.get(key);
+                    if (existing != null) {
+                        metrics.recordCacheHit();
+                        return (Codec<T, IN, OUT, CFG>)existing;
+                    } else {
+                        // Ok, it's definitely not there, so add the CodecRef
+                        // (in case the class has a recursive self-reference).
+                        codecRegistry.put(key, codecRef);
+                    }
+                }
+
+                // Creation time is only recorded for the outermost codec,
+                // as it includes the time taken to create any nested codecs.
+                final int[] depth = creationDepth.get();
+                final boolean outermost = depth[0]++ == 0;
+                final long start = System.nanoTime();
+
+                final Codec<T, IN, OUT, CFG> newCodec;
+                try {
+                    // Initialise the CodecRef, and overwrite the registry entry with the real Codec.
+                    newCodec = codecRef.setIfUninitialised(() -> {
+                        final Codec<T, IN, OUT, CFG> created = codecSupp.get();
+                        return metrics.instrument(cacheEncodedValues(created.type(), created));
+                    });
+                    codecRegistry.put(key, newCodec);
+                } catch (RuntimeException ex) {
+                    codecRegistry.remove(key, codecRef);
+                    throw ex;
+                } finally {
+                    --depth[0];
                 }
-            }
 
-            // Initialise the CodecRef, and overwrite the registry entry with the real Codec.
-            codecRegistry.put(key, codecRef.setIfUninitialised(codecSupp::get));
+                metrics.recordCacheMiss(outermost ? System.nanoTime() - start : 0);
 
-            return (Codec<T, IN, OUT, CFG>)codecRegistry.get(key);
+                final Set<Class<?>> prepared = preparedTypes.get();
+                if (prepared != null) {
+                    prepared.add(newCodec.type());
+                }
+
+                return newCodec;
+            }
         }
     }
 
@@ -406,12 +739,28 @@ public <T> Codec<T, IN, OUT, CFG> createObjectCodec(Class<T> clazz) {
             if (ctor2 != null) {
                 return createObjectCodecWithArgMap(clazz, ctor2);
             } else {
-                final NoArgsTypeCtor<T> ctor3 = getNoArgsCtor(clazz);
-                return createObjectCodec(clazz, ctor3);
+                if (!hasNoArgsCtor(clazz)) {
+                    // Immutable types may have a constructor which accepts every field.
+                    final Map<String, Field> fields = getObjectFields(clazz);
+                    final ArgArrayTypeCtor<T> ctor3 =
+                            ConstructorInvokers.fieldsCtor(clazz, new ArrayList<>(fields.values()));
+                    if (ctor3 != null) {
+                        return createObjectCodecWithArgArray(clazz, buildFieldCodecs(fields), ctor3);
+                    }
+                }
+
+                final NoArgsTypeCtor<T> ctor4 = getNoArgsCtor(clazz);
+                return createObjectCodec(clazz, ctor4);
             }
         }
     }
 
+    protected boolean hasNoArgsCtor(Class<?> clazz) {
+        return noArgsCtorRegistry.containsKey(ClassKey.valueOf(clazz)) ||
+                Arrays.stream(clazz.getDeclaredConstructors())
+                        .anyMatch(ctor -> ctor.getParameterCount() == 0);
+    }
+
     @Override
     public <T> Codec<T, IN, OUT, CFG> createObjectCodec(Class<T> clazz, NoArgsTypeCtor<T> ctor) {
         final Map<String, FieldCodec<IN, OUT, CFG>> fieldCodecs = new LinkedHashMap<>();
@@ -470,6 +819,11 @@ public BuilderImpl decodeField(BuilderImpl acc, IN in) {
                                     codec.decodeField(CodecCoreImpl.this, acc.val, in);
                                     return acc;
                                 }
+
+                                @Override
+                                public void skipField(IN in) {
+                                    codec.skipField(CodecCoreImpl.this, in);
+                                }
                             };
                         }).collect(toList());
 
@@ -489,23 +843,100 @@ public BuilderImpl createBuilder() {
         );
     }
 
-    protected <T> Map<String, ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG>> buildFieldCodecs(Class<T> clazz) {
-        final Map<String, ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG>> fieldCodecs = new LinkedHashMap<>();
+    @Override
+    public ObjectLayout getObjectLayout(Class<?> clazz) {
+        if (registeredTypes.contains(ClassKey.valueOf(clazz)) || config().mapToProxy(clazz) != clazz) {
+            return null;
+        }
+
+        // Mirrors the choice of constructor made by createObjectCodec(Class).
+        final Map<String, Field> fields = getObjectFields(clazz);
+        final boolean ctorArgs =
+                getArgArrayCtor(clazz) != null ||
+                        getArgMapTypeCtor(clazz) != null ||
+                        (!hasNoArgsCtor(clazz) &&
+                                ConstructorInvokers.fieldsCtor(clazz, new ArrayList<>(fields.values())) != null);
+
+        return new ObjectLayout(Collections.unmodifiableMap(fields), ctorArgs);
+    }
+
+    @Override
+    public <T> ArgArrayTypeCtor<T> getLayoutCtor(Class<T> clazz) {
+        // Mirrors the choice of constructor made by createObjectCodec(Class).
+        final ArgArrayTypeCtor<T> ctor = getArgArrayCtor(clazz);
+        if (ctor != null) {
+            return ctor;
+        }
+
+        final Map<String, Field> fields = getObjectFields(clazz);
+        final ArgMapTypeCtor<T> ctor2 = getArgMapTypeCtor(clazz);
+        if (ctor2 != null) {
+            final ArgArrayMap.Keys keys = new ArgArrayMap.Keys(fields.keySet());
+            return args -> {
+                final ArgArrayMap argMap = new ArgArrayMap(keys);
+                for (int i = 0; i < args.length; ++i) {
+                    argMap.set(i, args[i]);
+                }
+                return ctor2.construct(argMap);
+            };
+        }
+
+        if (!hasNoArgsCtor(clazz)) {
+            final ArgArrayTypeCtor<T> ctor3 = ConstructorInvokers.fieldsCtor(clazz, new ArrayList<>(fields.values()));
+            if (ctor3 != null) {
+                return ctor3;
+            }
+        }
+
+        final NoArgsTypeCtor<T> ctor4 = getNoArgsCtor(clazz);
+
+        // The fields are private copies, so they can be left accessible.
+        final Field[] fieldArr = fields.values().toArray(new Field[0]);
+        for (Field field : fieldArr) {
+            field.setAccessible(true);
+        }
+
+        return args -> {
+            final T val = ctor4.construct();
+            for (int i = 0; i < fieldArr.length; ++i) {
+                final Field field = fieldArr[i];
+                final Object arg = args[i];
+                CodecException.wrap(() -> field.set(val, arg));
+            }
+            return val;
+        };
+    }
+
+    protected Map<String, Field> getObjectFields(Class<?> clazz) {
+        final Map<String, Field> fields = new LinkedHashMap<>();
         Class<?> clazz2 = clazz;
         for (int depth = 0; !clazz2.equals(Object.class); depth++) {
-            final Field[] fields = clazz2.getDeclaredFields();
-            for (Field field : fields) {
+            for (Field field : clazz2.getDeclaredFields()) {
                 final int fm = field.getModifiers();
                 if (!Modifier.isStatic(fm) && !Modifier.isTransient(fm)) {
-                    final String fieldName = config().getFieldName(field, depth, fieldCodecs.keySet());
-                    final Codec<?, IN, OUT, CFG> codec = createCodec(field.getType());
-                    final ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG> fcodec = createFieldCodec(field, codec);
-                    fieldCodecs.put(fieldName, fcodec);
+                    final String fieldName = config().getFieldName(field, depth, fields.keySet());
+                    fields.put(fieldName, field);
                 }
             }
             clazz2 = clazz2.getSuperclass();
         }
 
+        return fields;
+    }
+
+    protected <T> Map<String, ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG>> buildFieldCodecs(Class<T> clazz) {
+        return buildFieldCodecs(getObjectFields(clazz));
+    }
+
+    protected <T> Map<String, ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG>> buildFieldCodecs(
+            Map<String, Field> fields) {
+        final Map<String, ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG>> fieldCodecs = new LinkedHashMap<>();
+        fields.forEach((fieldName, field) -> {
+            final ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG> fcodec =
+                    createFieldCodec(field, getFieldValueCodec(field));
+            fieldCodecs.put(fieldName, fcodec);
+        });
+
         return fieldCodecs;
     }
 
@@ -521,11 +952,13 @@ public <T> Codec<T, IN, OUT, CFG> createObjectCodecWithArgMap(
             Map<String, ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG>> fieldCodecs,
             ArgMapTypeCtor<T> ctor
     ) {
+        final ArgArrayMap.Keys keys = new ArgArrayMap.Keys(fieldCodecs.keySet());
+
         final class BuilderImpl implements ObjectMeta.Builder<T> {
-            final Map<String, Object> ctorArgs;
+            final ArgArrayMap ctorArgs;
 
             BuilderImpl() {
-                this.ctorArgs = new HashMap<>();
+                this.ctorArgs = new ArgArrayMap(keys);
             }
 
             @Override
@@ -534,29 +967,33 @@ public T construct() {
             }
         }
 
-        final List<ObjectMeta.Field<T, IN, OUT, BuilderImpl>> fieldMetas =
-                fieldCodecs.entrySet().stream()
-                        .map(en -> {
-                            final String name = en.getKey();
-                            final ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG> codec = en.getValue();
-                            return new ObjectMeta.Field<T, IN, OUT, BuilderImpl>() {
-                                @Override
-                                public String name() {
-                                    return name;
-                                }
+        final List<ObjectMeta.Field<T, IN, OUT, BuilderImpl>> fieldMetas = new ArrayList<>(fieldCodecs.size());
+        fieldCodecs.forEach((name, codec) -> {
+            // Resolve the argument index now, rather than per decoded value.
+            final int index = fieldMetas.size();
+            fieldMetas.add(new ObjectMeta.Field<T, IN, OUT, BuilderImpl>() {
+                @Override
+                public String name() {
+                    return name;
+                }
 
-                                @Override
-                                public OUT encodeField(T val, OUT out) {
-                                    return codec.encodeField(CodecCoreImpl.this, val, out);
-                                }
+                @Override
+                public OUT encodeField(T val, OUT out) {
+                    return codec.encodeField(CodecCoreImpl.this, val, out);
+                }
 
-                                @Override
-                                public BuilderImpl decodeField(BuilderImpl acc, IN in) {
-                                    acc.ctorArgs.put(name, codec.decodeField(CodecCoreImpl.this, in));
-                                    return acc;
-                                }
-                            };
-                        }).collect(toList());
+                @Override
+                public BuilderImpl decodeField(BuilderImpl acc, IN in) {
+                    acc.ctorArgs.set(index, codec.decodeField(CodecCoreImpl.this, in));
+                    return acc;
+                }
+
+                @Override
+                public void skipField(IN in) {
+                    codec.skipField(CodecCoreImpl.this, in);
+                }
+            });
+        });
 
         return format().createObjectCodec(
                 clazz,
@@ -591,7 +1028,6 @@ public <T> Codec<T, IN, OUT, CFG> createObjectCodecWithArgArray(
     ) {
         final class BuilderImpl implements ObjectMeta.Builder<T> {
             final Object[] ctorArgs;
-            int i = 0;
 
             BuilderImpl() {
                 this.ctorArgs = new Object[fieldCodecs.size()];
@@ -603,29 +1039,33 @@ public T construct() {
             }
         }
 
-        final List<ObjectMeta.Field<T, IN, OUT, BuilderImpl>> fieldMetas =
-                fieldCodecs.entrySet().stream()
-                        .map(en -> {
-                            final String name = en.getKey();
-                            final ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG> codec = en.getValue();
-                            return new ObjectMeta.Field<T, IN, OUT, BuilderImpl>() {
-                                @Override
-                                public String name() {
-                                    return name;
-                                }
+        final List<ObjectMeta.Field<T, IN, OUT, BuilderImpl>> fieldMetas = new ArrayList<>(fieldCodecs.size());
+        fieldCodecs.forEach((name, codec) -> {
+            // Resolve the argument position now, so that fields may be decoded in any order.
+            final int index = fieldMetas.size();
+            fieldMetas.add(new ObjectMeta.Field<T, IN, OUT, BuilderImpl>() {
+                @Override
+                public String name() {
+                    return name;
+                }
 
-                                @Override
-                                public OUT encodeField(T val, OUT out) {
-                                    return codec.encodeField(CodecCoreImpl.this, val, out);
-                                }
+                @Override
+                public OUT encodeField(T val, OUT out) {
+                    return codec.encodeField(CodecCoreImpl.this, val, out);
+                }
 
-                                @Override
-                                public BuilderImpl decodeField(BuilderImpl acc, IN in) {
-                                    acc.ctorArgs[acc.i++] = codec.decodeField(CodecCoreImpl.this, in);
-                                    return acc;
-                                }
-                            };
-                        }).collect(toList());
+                @Override
+                public BuilderImpl decodeField(BuilderImpl acc, IN in) {
+                    acc.ctorArgs[index] = codec.decodeField(CodecCoreImpl.this, in);
+                    return acc;
+                }
+
+                @Override
+                public void skipField(IN in) {
+                    codec.skipField(CodecCoreImpl.this, in);
+                }
+            });
+        });
 
         return format().createObjectCodec(
                 clazz,
@@ -647,13 +1087,10 @@ protected <T, FT> ObjectCodecBuilder.FieldCodec<T, IN, OUT, CFG> createFieldCode
             Field field,
             Codec<FT, IN, OUT, CFG> codec
     ) {
+        // Made accessible once, as toggling it around each access would race under concurrent use.
+        field.setAccessible(true);
         return new ObjectCodecBuilder.FieldCodec<>(
-                t -> CodecException.wrap(() -> {
-                    field.setAccessible(true);
-                    final FT fv = (FT)field.get(t);
-                    field.setAccessible(false);
-                    return fv;
-                }),
+                t -> CodecException.wrap(() -> (FT)field.get(t)),
                 codec
         );
     }
@@ -704,43 +1141,51 @@ public FieldCodec<IN, OUT, CFG> createFieldCodec(Field field) {
                 return new FieldCodec.ObjectArrayFieldCodec<>(field, codec);
             }
         } else {
-            final Codec<?, IN, OUT, CFG> codec;
-
-            if (clazz.isEnum() ||
-                    clazz.equals(Boolean.class) ||
-                    clazz.equals(Byte.class) ||
-                    clazz.equals(Character.class) ||
-                    clazz.equals(Short.class) ||
-                    clazz.equals(Integer.class) ||
-                    clazz.equals(Long.class) ||
-                    clazz.equals(Float.class) ||
-                    clazz.equals(Double.class) ||
-                    clazz.equals(String.class)) {
-                codec = getCodec(clazz);
-            } else if (Map.class.isAssignableFrom(clazz)) {
-                final ReflectionUtils.TypeArgs typeArgs = ReflectionUtils.getTypeArgs(field, Map.class);
-                if (typeArgs.size() == 2) {
-                    final Class<?> keyType = typeArgs.get(0);
-                    final Class<?> valueType = typeArgs.get(1);
-                    codec = (Codec<?, IN, OUT, CFG>) getMapCodec((Class)clazz, keyType, valueType);
-                } else {
-                    codec = (Codec<?, IN, OUT, CFG>) getMapCodec((Class)clazz, Object.class, Object.class);
-                }
-            } else if (Collection.class.isAssignableFrom(clazz)) {
-                final Codec<Object, IN, OUT, CFG> elemCodec;
-                final ReflectionUtils.TypeArgs typeArgs = ReflectionUtils.getTypeArgs(field, Collection.class);
-                if (typeArgs.size() == 1) {
-                    final Class<Object> elemType = (Class<Object>) typeArgs.get(0);
-                    elemCodec = getCodec(elemType);
-                } else {
-                    elemCodec = getCodec(Object.class);
-                }
-                codec = getCollCodec((Class<Collection<Object>>) clazz, elemCodec);
+            return new FieldCodec.ObjectFieldCodec<>(field, getFieldValueCodec(field));
+        }
+    }
+
+    @Override
+    public Codec<?, IN, OUT, CFG> getFieldValueCodec(Field field) {
+        final Class<?> clazz = field.getType();
+        final Codec<?, IN, OUT, CFG> codec;
+
+        if (clazz.isPrimitive()) {
+            codec = createCodec(clazz);
+        } else if (clazz.isEnum() ||
+                clazz.equals(Boolean.class) ||
+                clazz.equals(Byte.class) ||
+                clazz.equals(Character.class) ||
+                clazz.equals(Short.class) ||
+                clazz.equals(Integer.class) ||
+                clazz.equals(Long.class) ||
+                clazz.equals(Float.class) ||
+                clazz.equals(Double.class) ||
+                clazz.equals(String.class)) {
+            codec = getCodec(clazz);
+        } else if (Map.class.isAssignableFrom(clazz)) {
+            final ReflectionUtils.TypeArgs typeArgs = ReflectionUtils.getTypeArgs(field, Map.class);
+            if (typeArgs.size() == 2) {
+                final Class<?> keyType = typeArgs.get(0);
+                final Class<?> valueType = typeArgs.get(1);
+                codec = (Codec<?, IN, OUT, CFG>) getMapCodec((Class)clazz, keyType, valueType);
             } else {
-                codec = getCodec(clazz);
+                codec = (Codec<?, IN, OUT, CFG>) getMapCodec((Class)clazz, Object.class, Object.class);
             }
-
-            return new FieldCodec.ObjectFieldCodec<>(field, codec);
+        } else if (Collection.class.isAssignableFrom(clazz)) {
+            final Codec<Object, IN, OUT, CFG> elemCodec;
+            final ReflectionUtils.TypeArgs typeArgs = ReflectionUtils.getTypeArgs(field, Collection.class);
+            if (typeArgs.size() == 1) {
+                final Class<Object> elemType = (Class<Object>) typeArgs.get(0);
+                elemCodec = getCodec(elemType);
+            } else {
+                elemCodec = getCodec(Object.class);
+            }
+            codec = getCollCodec((Class<Collection<Object>>) clazz, elemCodec);
+        } else {
+            codec = getCodec(clazz);
         }
+
+        return codec;
     }
 }
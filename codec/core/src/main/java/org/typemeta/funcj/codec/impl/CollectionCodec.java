@@ -1,6 +1,7 @@
 package org.typemeta.funcj.codec.impl;
 
 import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.utils.CodecException;
 
 import java.lang.reflect.Array;
 import java.util.*;
@@ -83,6 +84,28 @@ public Collection<T> decodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
         }
     }
 
+    @Override
+    public void skipWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+        if (!core.format().decodeNull(in)) {
+            final Boolean skipped = core.format().decodeDynamicType(
+                    in,
+                    (type, in2) -> {
+                        getCodec(core, core.config().nameToClass(type)).skip(core, in2);
+                        return Boolean.TRUE;
+                    }
+            );
+
+            if (skipped == null) {
+                final Class<Collection<T>> dynClass = core.config().getDefaultCollectionType(type());
+                if (dynClass != null) {
+                    getCodec(core, dynClass).skip(core, in);
+                } else {
+                    skip(core, in);
+                }
+            }
+        }
+    }
+
     protected CollectionBuilder<T> getCollectionBuilder(CodecCoreEx<IN, OUT, CFG> core) {
         final ArgArrayTypeCtor<Collection<T>> argArrCtor = core.getArgArrayCtor(collType);
         if (argArrCtor != null) {
@@ -93,6 +116,41 @@ protected CollectionBuilder<T> getCollectionBuilder(CodecCoreEx<IN, OUT, CFG> co
         }
     }
 
+    /**
+     * The maximum capacity allocated up-front by a sized collection builder.
+     * The size is typically read from the encoded input, so it can't be trusted
+     * to be an accurate, or even a sane, number of elements.
+     */
+    protected static final int MAX_INITIAL_CAPACITY = 1024;
+
+    /**
+     * Variant of {@link #getCollectionBuilder(CodecCoreEx)} for use by formats
+     * which know the number of elements before decoding them.
+     * The builder allocates the capacity required up-front, up to {@link #MAX_INITIAL_CAPACITY},
+     * and grows as needed beyond that.
+     * @param core      the codec core
+     * @param size      the number of elements to be added to the builder
+     * @return          the collection builder
+     * @throws CodecException if the size is negative
+     */
+    protected CollectionBuilder<T> getCollectionBuilder(CodecCoreEx<IN, OUT, CFG> core, int size) {
+        if (size < 0) {
+            throw new CodecException("Collection size is negative - " + size);
+        }
+
+        final ArgArrayTypeCtor<Collection<T>> argArrCtor = core.getArgArrayCtor(collType);
+        if (argArrCtor != null) {
+            return new SizedArgsCollectionBuilder<T>(elemCodec.type(), size, argArrCtor);
+        } else {
+            final NoArgsTypeCtor<Collection<T>> noaCtor = core.getNoArgsCtor(collType);
+            final Collection<T> coll = noaCtor.construct();
+            if (coll instanceof ArrayList) {
+                ((ArrayList<T>)coll).ensureCapacity(Math.min(size, MAX_INITIAL_CAPACITY));
+            }
+            return new DirectCollectionBuilder<T>(coll);
+        }
+    }
+
     protected interface CollectionBuilder<T> {
         void add(T elem);
         Collection<T> construct();
@@ -142,4 +200,44 @@ public Collection<T> construct() {
             return argArrCtor.construct(arr);
         }
     }
+
+    /**
+     * A {@link CollectionBuilder} which accumulates the elements
+     * directly into the argument array for the {@link ArgArrayTypeCtor}.
+     * The array is pre-sized for the expected number of elements,
+     * up to {@link #MAX_INITIAL_CAPACITY}, and grows as needed beyond that.
+     * @param <T>       the element type of the collection
+     */
+    protected static class SizedArgsCollectionBuilder<T> implements CollectionBuilder<T> {
+        T[] args;
+        final ArgArrayTypeCtor<Collection<T>> argArrCtor;
+        int i = 0;
+
+        @SuppressWarnings("unchecked")
+        public SizedArgsCollectionBuilder(
+                Class<T> elemType,
+                int size,
+                ArgArrayTypeCtor<Collection<T>> argArrCtor
+        ) {
+            this.args = (T[]) Array.newInstance(elemType, Math.min(size, MAX_INITIAL_CAPACITY));
+            this.argArrCtor = argArrCtor;
+        }
+
+        @Override
+        public void add(T elem) {
+            if (i == args.length) {
+                if (args.length >= Integer.MAX_VALUE / 2) {
+                    throw new CodecException("Collection too large");
+                }
+                args = Arrays.copyOf(args, Math.max(args.length * 2, 16));
+            }
+
+            args[i++] = elem;
+        }
+
+        @Override
+        public Collection<T> construct() {
+            return argArrCtor.construct(i == args.length ? args : Arrays.copyOf(args, i));
+        }
+    }
 }
@@ -81,6 +81,28 @@ public Map<K, V> decodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             }
         }
 
+        @Override
+        public void skipWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            if (!core.format().decodeNull(in)) {
+                final Boolean skipped = core.format().decodeDynamicType(
+                        in,
+                        (type, in2) -> {
+                            getCodec(core, core.config().nameToClass(type)).skip(core, in2);
+                            return Boolean.TRUE;
+                        }
+                );
+
+                if (skipped == null) {
+                    final Class<Map<K, V>> dynClass = core.config().getDefaultCollectionType(type());
+                    if (dynClass != null) {
+                        getCodec(core, dynClass).skip(core, in);
+                    } else {
+                        skip(core, in);
+                    }
+                }
+            }
+        }
+
         protected MapProxy<K, V> getMapProxy(CodecCoreEx<IN, OUT, CFG> core) {
             final ArgArrayTypeCtor<Map<K, V>> argArrCtor = core.getArgArrayCtor(mapType);
             if (argArrCtor != null) {
@@ -165,6 +187,28 @@ public Map<String, V> decodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
             }
         }
 
+        @Override
+        public void skipWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            if (!core.format().decodeNull(in)) {
+                final Boolean skipped = core.format().decodeDynamicType(
+                        in,
+                        (type, in2) -> {
+                            getCodec(core, core.config().nameToClass(type)).skip(core, in2);
+                            return Boolean.TRUE;
+                        }
+                );
+
+                if (skipped == null) {
+                    final Class<Map<String, V>> dynClass = core.config().getDefaultCollectionType(type());
+                    if (dynClass != null) {
+                        getCodec(core, dynClass).skip(core, in);
+                    } else {
+                        skip(core, in);
+                    }
+                }
+            }
+        }
+
         protected MapProxy<String, V> getMapProxy(CodecCoreEx<IN, OUT, CFG> core) {
             final ArgArrayTypeCtor<Map<String, V>> argArrCtor = core.getArgArrayCtor(mapType);
             if (argArrCtor != null) {
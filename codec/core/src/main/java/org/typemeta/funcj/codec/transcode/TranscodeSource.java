@@ -0,0 +1,71 @@
+package org.typemeta.funcj.codec.transcode;
+
+/**
+ * Pull-style access to the structure of encoded objects and collections,
+ * which allows a {@link Transcoder} to read a value piecemeal,
+ * without decoding it into a Java object.
+ * <p>
+ * Implemented by {@link org.typemeta.funcj.codec.CodecFormat} implementations
+ * which can act as the source of a transcoding.
+ * @param <IN>      the encoded input type
+ */
+public interface TranscodeSource<IN> {
+
+    /**
+     * Read the start of an encoded object.
+     * @param in        the encoded input stream
+     */
+    void readObjectStart(IN in);
+
+    /**
+     * Read the start of the named field, which must be the next field of the current object.
+     * @param name      the field name
+     * @param in        the encoded input stream
+     */
+    void readFieldStart(String name, IN in);
+
+    /**
+     * Read the end of the current field.
+     * @param in        the encoded input stream
+     */
+    void readFieldEnd(IN in);
+
+    /**
+     * Read the end of the current object.
+     * @param in        the encoded input stream
+     */
+    void readObjectEnd(IN in);
+
+    /**
+     * Read the start of an encoded collection or array.
+     * @param in        the encoded input stream
+     * @return          the number of elements, or -1 if the number isn't known up front
+     */
+    int readArrayStart(IN in);
+
+    /**
+     * Determine whether another element follows.
+     * Only called if the number of elements wasn't known up front.
+     * @param in        the encoded input stream
+     * @return          true if another element follows
+     */
+    boolean readArrayHasNext(IN in);
+
+    /**
+     * Read the start of the next element of the current collection or array.
+     * @param in        the encoded input stream
+     */
+    void readElemStart(IN in);
+
+    /**
+     * Read the end of the current element.
+     * @param in        the encoded input stream
+     */
+    void readElemEnd(IN in);
+
+    /**
+     * Read the end of the current collection or array.
+     * @param in        the encoded input stream
+     */
+    void readArrayEnd(IN in);
+}
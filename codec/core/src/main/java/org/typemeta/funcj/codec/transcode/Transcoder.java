@@ -0,0 +1,50 @@
+package org.typemeta.funcj.codec.transcode;
+
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.utils.CodecException;
+
+/**
+ * Transcodes encoded values from one format to another, e.g. from MessagePack to JSON,
+ * by reading from the source format's input stream and writing straight to the target format's output stream.
+ * <p>
+ * The transcoding is driven by the static type of the value.
+ * Objects, collections and arrays are transcoded piecemeal,
+ * so that only the scalar values they contain are ever decoded.
+ * Values whose encoding depends on their runtime type - polymorphic values,
+ * maps and types with custom codecs - are decoded and re-encoded individually.
+ * <p>
+ * The source format must implement {@link TranscodeSource},
+ * and its object fields must appear in the order in which the codecs encode them.
+ * Where the source format doesn't record the size of a collection up front (e.g. JSON)
+ * and the target format requires it (e.g. byte streams),
+ * the elements of that collection are decoded before being encoded.
+ * @param <IN>      the source encoded input type
+ * @param <OUT>     the target encoded output type
+ */
+public interface Transcoder<IN, OUT> {
+
+    /**
+     * Create a {@code Transcoder} from the format of the {@code source} core
+     * to the format of the {@code target} core.
+     * @param source    the codec core for the source format
+     * @param target    the codec core for the target format
+     * @param <IN>      the source encoded input type
+     * @param <OUT>     the target encoded output type
+     * @return          the new {@code Transcoder}
+     * @throws CodecException if the source format doesn't support transcoding,
+     *                  or if reference tracking is enabled for either core
+     */
+    static <IN, OUT> Transcoder<IN, OUT> of(CodecCore<IN, ?, ?> source, CodecCore<?, OUT, ?> target) {
+        return new TranscoderImpl<>(CodecCoreEx.of(source), CodecCoreEx.of(target));
+    }
+
+    /**
+     * Transcode a value of type {@code T}.
+     * @param clazz     the static type of the value
+     * @param in        the source input stream
+     * @param out       the target output stream
+     * @param <T>       the static type of the value
+     * @return          the target output stream
+     */
+    <T> OUT transcode(Class<T> clazz, IN in, OUT out);
+}
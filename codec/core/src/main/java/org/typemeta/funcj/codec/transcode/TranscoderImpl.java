@@ -0,0 +1,458 @@
+package org.typemeta.funcj.codec.transcode;
+
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.utils.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Implementation of {@link Transcoder}.
+ * <p>
+ * The transcoding of each type is represented by a {@link Node}.
+ * Nodes for objects and collections write the target structure using codecs created by the target format,
+ * whose fields and elements delegate to the corresponding nodes,
+ * and read the source structure via the {@link TranscodeSource} methods of the source format.
+ * The value which is passed to the target codecs is a {@link Cursor} over the source input stream.
+ * @param <IN1>     the source encoded input type
+ * @param <OUT1>    the source encoded output type
+ * @param <CFG1>    the source config type
+ * @param <IN2>     the target encoded input type
+ * @param <OUT2>    the target encoded output type
+ * @param <CFG2>    the target config type
+ */
+@SuppressWarnings("unchecked")
+class TranscoderImpl<IN1, OUT1, CFG1 extends CodecConfig, IN2, OUT2, CFG2 extends CodecConfig>
+        implements Transcoder<IN1, OUT2> {
+
+    /**
+     * Holds the source input stream,
+     * and stands in for the value being transcoded when passed to the target codecs.
+     * @param <IN>      the source encoded input type
+     */
+    static final class Cursor<IN> {
+        final IN in;
+
+        Cursor(IN in) {
+            this.in = in;
+        }
+    }
+
+    /**
+     * The transcoding for a type, including the null and dynamic type markers that precede a value.
+     * @param <IN>      the source encoded input type
+     * @param <OUT>     the target encoded output type
+     */
+    interface Node<IN, OUT> {
+        OUT transcode(Cursor<IN> cursor, OUT out);
+    }
+
+    private final CodecCoreEx<IN1, OUT1, CFG1> src;
+    private final TranscodeSource<IN1> srcStruct;
+    private final CodecCoreEx<IN2, OUT2, CFG2> dst;
+
+    /**
+     * A codec whose type matches that of the cursor,
+     * used to write the dynamic type marker for a value of its static type.
+     */
+    private final Codec<Cursor<IN1>, IN2, OUT2, CFG2> cursorCodec = new UnsupportedCodec<>(Cursor.class);
+
+    private final ConcurrentMap<Class<?>, Node<IN1, OUT2>> nodes = new ConcurrentHashMap<>();
+
+    TranscoderImpl(CodecCoreEx<IN1, OUT1, CFG1> src, CodecCoreEx<IN2, OUT2, CFG2> dst) {
+        if (!(src.format() instanceof TranscodeSource)) {
+            throw new CodecException(
+                    "Format " + src.format().getClass().getSimpleName() + " can't be used as a transcoding source");
+        } else if (src.config().referenceTracking() || dst.config().referenceTracking()) {
+            // Transcoded values would never be assigned their reference ids.
+            throw new CodecException("Transcoding is not supported with reference tracking");
+        }
+
+        this.src = src;
+        this.srcStruct = (TranscodeSource<IN1>)src.format();
+        this.dst = dst;
+    }
+
+    @Override
+    public <T> OUT2 transcode(Class<T> clazz, IN1 in, OUT2 out) {
+        return getNode(clazz).transcode(new Cursor<>(in), out);
+    }
+
+    private Node<IN1, OUT2> getNode(Class<?> clazz) {
+        final Node<IN1, OUT2> node = nodes.get(clazz);
+        if (node != null) {
+            return node;
+        } else {
+            final Node<IN1, OUT2> newNode = createNode(clazz);
+            final Node<IN1, OUT2> prev = nodes.putIfAbsent(clazz, newNode);
+            return prev != null ? prev : newNode;
+        }
+    }
+
+    private Node<IN1, OUT2> createNode(Class<?> clazz) {
+        if (clazz.isArray() && !clazz.getComponentType().isPrimitive()) {
+            return new ArrayNode(clazz, clazz.getComponentType());
+        } else if (Map.class.isAssignableFrom(clazz)) {
+            return leafNode(src.getCodec(clazz), dst.getCodec(clazz));
+        } else if (Collection.class.isAssignableFrom(clazz)) {
+            final ReflectionUtils.TypeArgs typeArgs = ReflectionUtils.getTypeArgs(clazz, Collection.class);
+            return new ArrayNode(null, typeArgs.size() == 1 ? typeArgs.get(0) : Object.class);
+        } else if (isObjectType(clazz)) {
+            final CodecCoreEx.ObjectLayout srcLayout = src.getObjectLayout(clazz);
+            final CodecCoreEx.ObjectLayout dstLayout = dst.getObjectLayout(clazz);
+            if (srcLayout != null &&
+                    dstLayout != null &&
+                    new ArrayList<>(srcLayout.fields.values()).equals(new ArrayList<>(dstLayout.fields.values()))) {
+                return new ObjectNode(clazz, srcLayout, dstLayout);
+            }
+        }
+
+        return leafNode(src.getCodec(clazz), dst.getCodec(clazz));
+    }
+
+    private static boolean isObjectType(Class<?> clazz) {
+        final int mods = clazz.getModifiers();
+        return !clazz.isPrimitive() &&
+                !clazz.isArray() &&
+                !clazz.isEnum() &&
+                !ReflectionUtils.isEnumSubType(clazz) &&
+                !Modifier.isInterface(mods) &&
+                !Modifier.isAbstract(mods) &&
+                !clazz.getName().startsWith("java.lang.");
+    }
+
+    private Node<IN1, OUT2> getFieldNode(Field field, boolean srcBoxed, boolean dstBoxed) {
+        final Class<?> clazz = field.getType();
+        if (clazz.isPrimitive()) {
+            if (!srcBoxed && !dstBoxed) {
+                return primNode(clazz);
+            } else {
+                final Codec<Object, IN1, OUT1, CFG1> srcCodec = src.createCodec((Class<Object>)clazz);
+                final Codec<Object, IN2, OUT2, CFG2> dstCodec = dst.createCodec((Class<Object>)clazz);
+                return (cursor, out) -> {
+                    final Object val = srcBoxed ?
+                            srcCodec.decodeWithCheck(src, cursor.in) :
+                            srcCodec.decode(src, cursor.in);
+                    return dstBoxed ?
+                            dstCodec.encodeWithCheck(dst, val, out) :
+                            dstCodec.encode(dst, val, out);
+                };
+            }
+        } else if (Map.class.isAssignableFrom(clazz)) {
+            final ReflectionUtils.TypeArgs typeArgs = ReflectionUtils.getTypeArgs(field, Map.class);
+            final Class<Object> keyType = (Class<Object>)(typeArgs.size() == 2 ? typeArgs.get(0) : Object.class);
+            final Class<Object> valueType = (Class<Object>)(typeArgs.size() == 2 ? typeArgs.get(1) : Object.class);
+            return leafNode(
+                    src.getMapCodec((Class<Map<Object, Object>>)clazz, keyType, valueType),
+                    dst.getMapCodec((Class<Map<Object, Object>>)clazz, keyType, valueType));
+        } else if (Collection.class.isAssignableFrom(clazz)) {
+            final ReflectionUtils.TypeArgs typeArgs = ReflectionUtils.getTypeArgs(field, Collection.class);
+            return new ArrayNode(null, typeArgs.size() == 1 ? typeArgs.get(0) : Object.class);
+        } else {
+            return getNode(clazz);
+        }
+    }
+
+    private Node<IN1, OUT2> primNode(Class<?> clazz) {
+        final CodecFormat<IN1, OUT1, CFG1> srcFmt = src.format();
+        final CodecFormat<IN2, OUT2, CFG2> dstFmt = dst.format();
+        if (clazz.equals(boolean.class)) {
+            final Codec.BooleanCodec<IN1, OUT1, CFG1> srcCodec = srcFmt.booleanCodec();
+            final Codec.BooleanCodec<IN2, OUT2, CFG2> dstCodec = dstFmt.booleanCodec();
+            return (cursor, out) -> dstCodec.encodePrim(srcCodec.decodePrim(cursor.in), out);
+        } else if (clazz.equals(byte.class)) {
+            final Codec.ByteCodec<IN1, OUT1, CFG1> srcCodec = srcFmt.byteCodec();
+            final Codec.ByteCodec<IN2, OUT2, CFG2> dstCodec = dstFmt.byteCodec();
+            return (cursor, out) -> dstCodec.encodePrim(srcCodec.decodePrim(cursor.in), out);
+        } else if (clazz.equals(char.class)) {
+            final Codec.CharCodec<IN1, OUT1, CFG1> srcCodec = srcFmt.charCodec();
+            final Codec.CharCodec<IN2, OUT2, CFG2> dstCodec = dstFmt.charCodec();
+            return (cursor, out) -> dstCodec.encodePrim(srcCodec.decodePrim(cursor.in), out);
+        } else if (clazz.equals(short.class)) {
+            final Codec.ShortCodec<IN1, OUT1, CFG1> srcCodec = srcFmt.shortCodec();
+            final Codec.ShortCodec<IN2, OUT2, CFG2> dstCodec = dstFmt.shortCodec();
+            return (cursor, out) -> dstCodec.encodePrim(srcCodec.decodePrim(cursor.in), out);
+        } else if (clazz.equals(int.class)) {
+            final Codec.IntCodec<IN1, OUT1, CFG1> srcCodec = srcFmt.intCodec();
+            final Codec.IntCodec<IN2, OUT2, CFG2> dstCodec = dstFmt.intCodec();
+            return (cursor, out) -> dstCodec.encodePrim(srcCodec.decodePrim(cursor.in), out);
+        } else if (clazz.equals(long.class)) {
+            final Codec.LongCodec<IN1, OUT1, CFG1> srcCodec = srcFmt.longCodec();
+            final Codec.LongCodec<IN2, OUT2, CFG2> dstCodec = dstFmt.longCodec();
+            return (cursor, out) -> dstCodec.encodePrim(srcCodec.decodePrim(cursor.in), out);
+        } else if (clazz.equals(float.class)) {
+            final Codec.FloatCodec<IN1, OUT1, CFG1> srcCodec = srcFmt.floatCodec();
+            final Codec.FloatCodec<IN2, OUT2, CFG2> dstCodec = dstFmt.floatCodec();
+            return (cursor, out) -> dstCodec.encodePrim(srcCodec.decodePrim(cursor.in), out);
+        } else if (clazz.equals(double.class)) {
+            final Codec.DoubleCodec<IN1, OUT1, CFG1> srcCodec = srcFmt.doubleCodec();
+            final Codec.DoubleCodec<IN2, OUT2, CFG2> dstCodec = dstFmt.doubleCodec();
+            return (cursor, out) -> dstCodec.encodePrim(srcCodec.decodePrim(cursor.in), out);
+        } else {
+            throw new IllegalStateException("Unexpected primitive type - " + clazz);
+        }
+    }
+
+    /**
+     * A node which decodes the value and then encodes it.
+     */
+    private Node<IN1, OUT2> leafNode(Codec<?, IN1, OUT1, CFG1> srcCodec, Codec<?, IN2, OUT2, CFG2> dstCodec) {
+        final Codec<Object, IN1, OUT1, CFG1> srcCodec2 = (Codec<Object, IN1, OUT1, CFG1>)srcCodec;
+        final Codec<Object, IN2, OUT2, CFG2> dstCodec2 = (Codec<Object, IN2, OUT2, CFG2>)dstCodec;
+        return (cursor, out) -> dstCodec2.encodeWithCheck(dst, srcCodec2.decodeWithCheck(src, cursor.in), out);
+    }
+
+    /**
+     * Write the markers which precede a non-null value of the static type in the target format.
+     */
+    private OUT2 writeStaticTypeMarkers(Cursor<IN1> cursor, boolean isFinal, OUT2 out) {
+        final OUT2 out2 = dst.format().encodeNull(cursor, out).out;
+        if (isFinal) {
+            return out2;
+        } else {
+            return dst.format().encodeDynamicType(dst, cursorCodec, cursor, out2, type -> cursorCodec).out;
+        }
+    }
+
+    private final class ObjectNode implements Node<IN1, OUT2> {
+        private final Class<Object> type;
+        private final boolean isFinal;
+        private final CodecCoreEx.ObjectLayout srcLayout;
+        private final CodecCoreEx.ObjectLayout dstLayout;
+
+        // Created on first use, as the field nodes may refer back to this one.
+        private volatile Codec<Cursor<IN1>, IN2, OUT2, CFG2> dstCodec;
+
+        ObjectNode(Class<?> type, CodecCoreEx.ObjectLayout srcLayout, CodecCoreEx.ObjectLayout dstLayout) {
+            this.type = (Class<Object>)type;
+            this.isFinal = Modifier.isFinal(type.getModifiers());
+            this.srcLayout = srcLayout;
+            this.dstLayout = dstLayout;
+        }
+
+        @Override
+        public OUT2 transcode(Cursor<IN1> cursor, OUT2 out) {
+            final IN1 in = cursor.in;
+            if (src.format().decodeNull(in)) {
+                return dst.format().encodeNull(null, out).out;
+            }
+
+            if (!isFinal) {
+                final Object value = src.decodeDynamicType(in);
+                if (value != null) {
+                    // The encoding of a subtype is only known once decoded.
+                    return dst.getCodec(type).encodeWithCheck(dst, value, out);
+                }
+            }
+
+            final OUT2 out2 = writeStaticTypeMarkers(cursor, isFinal, out);
+            srcStruct.readObjectStart(in);
+            final OUT2 out3 = getCodec().encode(dst, cursor, out2);
+            srcStruct.readObjectEnd(in);
+            return out3;
+        }
+
+        private Codec<Cursor<IN1>, IN2, OUT2, CFG2> getCodec() {
+            Codec<Cursor<IN1>, IN2, OUT2, CFG2> codec = dstCodec;
+            if (codec == null) {
+                dstCodec = codec = createCodec();
+            }
+            return codec;
+        }
+
+        private Codec<Cursor<IN1>, IN2, OUT2, CFG2> createCodec() {
+            final Map<Field, String> srcNames = new HashMap<>();
+            srcLayout.fields.forEach((name, field) -> srcNames.put(field, name));
+
+            final List<ObjectMeta.Field<Cursor<IN1>, IN2, OUT2, ObjectMeta.Builder<Cursor<IN1>>>> fieldMetas =
+                    new ArrayList<>();
+            dstLayout.fields.forEach((name, field) -> {
+                final String srcName = srcNames.get(field);
+                final Node<IN1, OUT2> node = getFieldNode(field, srcLayout.ctorArgs, dstLayout.ctorArgs);
+                fieldMetas.add(new ObjectMeta.Field<Cursor<IN1>, IN2, OUT2, ObjectMeta.Builder<Cursor<IN1>>>() {
+                    @Override
+                    public String name() {
+                        return name;
+                    }
+
+                    @Override
+                    public OUT2 encodeField(Cursor<IN1> cursor, OUT2 out) {
+                        srcStruct.readFieldStart(srcName, cursor.in);
+                        final OUT2 out2 = node.transcode(cursor, out);
+                        srcStruct.readFieldEnd(cursor.in);
+                        return out2;
+                    }
+
+                    @Override
+                    public ObjectMeta.Builder<Cursor<IN1>> decodeField(ObjectMeta.Builder<Cursor<IN1>> acc, IN2 in) {
+                        throw new NotSupportedException();
+                    }
+                });
+            });
+
+            return dst.format().createObjectCodec(
+                    (Class<Cursor<IN1>>)(Class<?>)type,
+                    new ObjectMeta<Cursor<IN1>, IN2, OUT2, ObjectMeta.Builder<Cursor<IN1>>>() {
+                        @Override
+                        public Iterator<Field<Cursor<IN1>, IN2, OUT2, Builder<Cursor<IN1>>>> iterator() {
+                            return fieldMetas.iterator();
+                        }
+
+                        @Override
+                        public Builder<Cursor<IN1>> createBuilder() {
+                            throw new NotSupportedException();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * A node for collections and object arrays, which the formats encode identically.
+     */
+    private final class ArrayNode implements Node<IN1, OUT2> {
+        private final Class<Object> arrType;
+        private final Node<IN1, OUT2> elemNode;
+        private final Codec<Object, IN1, OUT1, CFG1> srcElemCodec;
+        private final Codec<Object, IN2, OUT2, CFG2> dstElemCodec;
+        private final Codec<Collection<Object>, IN2, OUT2, CFG2> dstCodec;
+
+        /**
+         * @param arrType   the array type, or null for a collection
+         * @param elemType  the element type
+         */
+        ArrayNode(Class<?> arrType, Class<?> elemType) {
+            this.arrType = (Class<Object>)arrType;
+            this.elemNode = getNode(elemType);
+            this.srcElemCodec = src.getCodec((Class<Object>)elemType);
+            this.dstElemCodec = dst.getCodec((Class<Object>)elemType);
+            this.dstCodec = dst.format().createCollCodec(
+                    (Class<Collection<Object>>)(Class<?>)Collection.class,
+                    new ElemCodec());
+        }
+
+        @Override
+        public OUT2 transcode(Cursor<IN1> cursor, OUT2 out) {
+            if (src.format().decodeNull(cursor.in)) {
+                return dst.format().encodeNull(null, out).out;
+            }
+
+            final OUT2 dynOut = src.format().decodeDynamicType(cursor.in, (typeName, in) -> {
+                if (arrType == null) {
+                    // The collection implementation type doesn't affect the encoding of the elements.
+                    return transcodeElems(cursor, out);
+                } else {
+                    final Object value = src.getCodec(src.config().nameToClass(typeName)).decode(src, in);
+                    return dst.getCodec(arrType).encodeWithCheck(dst, value, out);
+                }
+            });
+
+            return dynOut != null ? dynOut : transcodeElems(cursor, out);
+        }
+
+        private OUT2 transcodeElems(Cursor<IN1> cursor, OUT2 out) {
+            final OUT2 out2 = writeStaticTypeMarkers(cursor, false, out);
+            final int size = srcStruct.readArrayStart(cursor.in);
+            final OUT2 out3 = dstCodec.encode(dst, new Elements(cursor, size), out2);
+            srcStruct.readArrayEnd(cursor.in);
+            return out3;
+        }
+
+        /**
+         * The elements of the source collection, presented to the target codec.
+         * Each element is the cursor, unless the target requires the size of a collection
+         * which the source doesn't provide up front, in which case the elements are decoded.
+         */
+        private final class Elements extends AbstractCollection<Object> {
+            private final Cursor<IN1> cursor;
+            private int size;
+            private List<Object> decoded;
+
+            Elements(Cursor<IN1> cursor, int size) {
+                this.cursor = cursor;
+                this.size = size;
+            }
+
+            @Override
+            public int size() {
+                if (size == -1) {
+                    decoded = new ArrayList<>();
+                    while (srcStruct.readArrayHasNext(cursor.in)) {
+                        srcStruct.readElemStart(cursor.in);
+                        decoded.add(srcElemCodec.decodeWithCheck(src, cursor.in));
+                        srcStruct.readElemEnd(cursor.in);
+                    }
+                    size = decoded.size();
+                }
+                return size;
+            }
+
+            @Override
+            public Iterator<Object> iterator() {
+                if (decoded != null) {
+                    return decoded.iterator();
+                } else {
+                    return new Iterator<Object>() {
+                        int i = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return size == -1 ? srcStruct.readArrayHasNext(cursor.in) : i < size;
+                        }
+
+                        @Override
+                        public Object next() {
+                            ++i;
+                            return cursor;
+                        }
+                    };
+                }
+            }
+        }
+
+        private final class ElemCodec extends UnsupportedCodec<Object> {
+            ElemCodec() {
+                super(Object.class);
+            }
+
+            @Override
+            public OUT2 encodeWithCheck(CodecCoreEx<IN2, OUT2, CFG2> core, Object value, OUT2 out) {
+                if (value instanceof Cursor) {
+                    final Cursor<IN1> cursor = (Cursor<IN1>)value;
+                    srcStruct.readElemStart(cursor.in);
+                    final OUT2 out2 = elemNode.transcode(cursor, out);
+                    srcStruct.readElemEnd(cursor.in);
+                    return out2;
+                } else {
+                    return dstElemCodec.encodeWithCheck(core, value, out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Base class for the target codecs which are only used for their type, or for encoding with checks.
+     */
+    private class UnsupportedCodec<T> implements Codec<T, IN2, OUT2, CFG2> {
+        private final Class<T> type;
+
+        UnsupportedCodec(Class<?> type) {
+            this.type = (Class<T>)type;
+        }
+
+        @Override
+        public Class<T> type() {
+            return type;
+        }
+
+        @Override
+        public OUT2 encode(CodecCoreEx<IN2, OUT2, CFG2> core, T value, OUT2 out) {
+            throw new NotSupportedException();
+        }
+
+        @Override
+        public T decode(CodecCoreEx<IN2, OUT2, CFG2> core, IN2 in) {
+            throw new NotSupportedException();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains classes which transcode values from one encoding format to another.
+ */
+package org.typemeta.funcj.codec.transcode;
@@ -0,0 +1,769 @@
+package org.typemeta.funcj.codec.utils;
+
+import org.typemeta.funcj.codec.CodecStrAPI;
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.functions.SideEffect;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * Support for block-compressed encodings.
+ * <p>
+ * The data is split into blocks, each of which is compressed independently using {@link Deflater},
+ * so that blocks can be decompressed - and, where each block holds a separately encoded chunk of values,
+ * decoded - concurrently.
+ * The stream layout is as follows:
+ * <pre>
+ *     int              magic number
+ *     per block:
+ *         int          the uncompressed length of the block, which is always positive
+ *         int          the compressed length of the block
+ *         byte[]       the compressed block data
+ *     int              zero, marking the end of the blocks
+ *     int              number of blocks, N
+ *     int[N][2]        the block index - the uncompressed and compressed lengths of each block
+ *     long             the stream offset of the number of blocks
+ * </pre>
+ * The trailing offset allows the block index of a file to be located via {@link #readIndex(RandomAccessFile)}
+ * without reading the blocks.
+ * <p>
+ * {@code Deflater} and {@code Inflater} instances hold native memory,
+ * so each is released via {@code end()} as soon as it is no longer needed.
+ * A {@link BlockOutputStream} or {@link BlockInputStream} reuses a single instance across its blocks,
+ * which is released when the stream is finished or closed, or once the end of the blocks has been read.
+ * The concurrent methods use a separate instance for each block.
+ */
+@SuppressWarnings("unchecked")
+public abstract class BlockCompression {
+
+    /**
+     * The default uncompressed block size.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private static final int MAGIC = 0x464A4243;
+
+    /**
+     * A reusable {@code Deflater}, along with its output buffer.
+     */
+    private static final class Compressor {
+        final Deflater deflater;
+        byte[] buf = new byte[1024];
+        int length;
+
+        Compressor(int level) {
+            this.deflater = new Deflater(level, true);
+        }
+
+        Compressor compress(byte[] data, int len) {
+            deflater.reset();
+            deflater.setInput(data, 0, len);
+            deflater.finish();
+
+            length = 0;
+            while (!deflater.finished()) {
+                if (length == buf.length) {
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                }
+                length += deflater.deflate(buf, length, buf.length - length);
+            }
+
+            return this;
+        }
+
+        void end() {
+            deflater.end();
+        }
+    }
+
+    private static byte[] compress(byte[] data, int level) {
+        final Compressor comp = new Compressor(level);
+        try {
+            return Arrays.copyOf(comp.compress(data, data.length).buf, comp.length);
+        } finally {
+            comp.end();
+        }
+    }
+
+    private static void inflate(byte[] comp, int compLen, byte[] dest, int rawLen) {
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflate(inflater, comp, compLen, dest, rawLen);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void inflate(Inflater inflater, byte[] comp, int compLen, byte[] dest, int rawLen) {
+        inflater.reset();
+        inflater.setInput(comp, 0, compLen);
+
+        try {
+            int n = 0;
+            while (n < rawLen) {
+                final int k = inflater.inflate(dest, n, rawLen - n);
+                if (k == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new CodecException(
+                            "Compressed block is truncated - expected " + rawLen + " bytes but got " + n);
+                }
+                n += k;
+            }
+        } catch (DataFormatException ex) {
+            throw new CodecException("Compressed block is corrupt", ex);
+        }
+    }
+
+    private static void checkLevel(int level) {
+        if ((level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) &&
+                level != Deflater.DEFAULT_COMPRESSION &&
+                level != Deflater.NO_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level - " + level);
+        }
+    }
+
+    private static void readMagic(DataInputStream dis) throws IOException {
+        final int magic = dis.readInt();
+        if (magic != MAGIC) {
+            throw new CodecException("Not a block-compressed stream - unexpected magic number " +
+                    Integer.toHexString(magic));
+        }
+    }
+
+    private static void checkBlockHeader(int rawLen, int compLen) {
+        if (rawLen < 0 || compLen < 0) {
+            throw new CodecException("Compressed block header is corrupt - lengths " + rawLen + ", " + compLen);
+        }
+    }
+
+    /**
+     * An {@link OutputStream} which block-compresses the data written to it.
+     * The data is buffered until a full block is available, which is then compressed and written as a whole.
+     * {@link #finish()} must be called, or the stream closed, to write the final block and the block index,
+     * and to release the {@code Deflater}.
+     */
+    public static class BlockOutputStream extends FilterOutputStream {
+
+        private final DataOutputStream dos;
+        private final Compressor compressor;
+        private final byte[] block;
+        private int count;
+
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final DataOutputStream indexDos = new DataOutputStream(index);
+        private int numBlocks;
+
+        // The number of bytes written to the underlying stream.
+        private long written;
+
+        private boolean started;
+        private boolean finished;
+
+        /**
+         * Construct a {@code BlockOutputStream}.
+         * @param os        the underlying output stream
+         * @param level     the compression level, as per {@link Deflater#setLevel(int)}
+         * @param blockSize the uncompressed block size
+         */
+        public BlockOutputStream(OutputStream os, int level, int blockSize) {
+            super(os);
+            checkLevel(level);
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("Block size must be positive - " + blockSize);
+            }
+
+            this.dos = new DataOutputStream(os);
+            this.compressor = new Compressor(level);
+            this.block = new byte[blockSize];
+        }
+
+        /**
+         * Construct a {@code BlockOutputStream} with the default compression level and block size.
+         * @param os        the underlying output stream
+         */
+        public BlockOutputStream(OutputStream os) {
+            this(os, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkNotFinished();
+            block[count++] = (byte)b;
+            if (count == block.length) {
+                writeBlock();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkNotFinished();
+            while (len > 0) {
+                final int n = Math.min(len, block.length - count);
+                System.arraycopy(b, off, block, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if (count == block.length) {
+                    writeBlock();
+                }
+            }
+        }
+
+        /**
+         * Flush the underlying stream.
+         * Buffered data is not written until a block is full, as this would fragment the blocks.
+         * @throws IOException if the underlying stream fails
+         */
+        @Override
+        public void flush() throws IOException {
+            dos.flush();
+        }
+
+        /**
+         * Write the remaining buffered data and the block index, and flush the underlying stream,
+         * without closing it.
+         * The {@code Deflater} is released, even if writing fails, after which nothing more can be written.
+         * @throws IOException if the underlying stream fails
+         */
+        public void finish() throws IOException {
+            if (!finished) {
+                try {
+                    writeStart();
+                    if (count > 0) {
+                        writeBlock();
+                    }
+
+                    dos.writeInt(0);
+                    dos.writeInt(numBlocks);
+                    index.writeTo(dos);
+                    dos.writeLong(written + 4);
+                    dos.flush();
+                } finally {
+                    finished = true;
+                    compressor.end();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                finish();
+            } finally {
+                dos.close();
+            }
+        }
+
+        private void checkNotFinished() throws IOException {
+            if (finished) {
+                throw new IOException("Block-compressed stream has been finished");
+            }
+        }
+
+        private void writeStart() throws IOException {
+            if (!started) {
+                dos.writeInt(MAGIC);
+                written = 4;
+                started = true;
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            writeStart();
+
+            final Compressor comp = compressor.compress(block, count);
+            dos.writeInt(count);
+            dos.writeInt(comp.length);
+            dos.write(comp.buf, 0, comp.length);
+
+            written += 8 + comp.length;
+
+            indexDos.writeInt(count);
+            indexDos.writeInt(comp.length);
+            ++numBlocks;
+
+            count = 0;
+        }
+    }
+
+    /**
+     * An {@link InputStream} which decompresses a block-compressed stream,
+     * as written by {@link BlockOutputStream}.
+     * The end of this stream corresponds to the end of the block-compressed data,
+     * following which the underlying stream is positioned after the block index.
+     * The {@code Inflater} is released once the end of the blocks has been read, or the stream is closed.
+     */
+    public static class BlockInputStream extends FilterInputStream {
+
+        private final DataInputStream dis;
+        private final Inflater inflater = new Inflater(true);
+        private byte[] comp = new byte[0];
+        private byte[] block = new byte[0];
+        private int count;
+        private int pos;
+        private int numBlocks;
+
+        private boolean started;
+        private boolean ended;
+
+        /**
+         * Construct a {@code BlockInputStream}.
+         * @param is        the underlying input stream
+         */
+        public BlockInputStream(InputStream is) {
+            super(is);
+            this.dis = new DataInputStream(is);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pos == count && !readBlock()) {
+                return -1;
+            } else {
+                return block[pos++] & 0xff;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            } else if (pos == count && !readBlock()) {
+                return -1;
+            } else {
+                final int n = Math.min(len, count - pos);
+                System.arraycopy(block, pos, b, off, n);
+                pos += n;
+                return n;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n && (pos < count || readBlock())) {
+                final int k = (int)Math.min(n - skipped, count - pos);
+                pos += k;
+                skipped += k;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return count - pos;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                inflater.end();
+            } finally {
+                super.close();
+            }
+        }
+
+        private boolean readBlock() throws IOException {
+            if (ended) {
+                return false;
+            }
+
+            if (!started) {
+                readMagic(dis);
+                started = true;
+            }
+
+            final int rawLen = dis.readInt();
+            if (rawLen == 0) {
+                ended = true;
+                inflater.end();
+                readIndex();
+                return false;
+            }
+
+            final int compLen = dis.readInt();
+            checkBlockHeader(rawLen, compLen);
+
+            if (comp.length < compLen) {
+                comp = new byte[compLen];
+            }
+            dis.readFully(comp, 0, compLen);
+
+            if (block.length < rawLen) {
+                block = new byte[rawLen];
+            }
+            inflate(inflater, comp, compLen, block, rawLen);
+
+            count = rawLen;
+            pos = 0;
+            ++numBlocks;
+            return true;
+        }
+
+        private void readIndex() throws IOException {
+            final int n = dis.readInt();
+            if (n != numBlocks) {
+                throw new CodecException("Block index is corrupt - expected " + numBlocks + " blocks but got " + n);
+            }
+
+            for (int i = 0; i < n * 2; ++i) {
+                dis.readInt();
+            }
+
+            dis.readLong();
+        }
+    }
+
+    /**
+     * The location of a block within a block-compressed stream.
+     */
+    public static final class Block {
+        /**
+         * The stream offset of the block data.
+         */
+        public final long offset;
+
+        /**
+         * The uncompressed length of the block.
+         */
+        public final int rawLength;
+
+        /**
+         * The compressed length of the block.
+         */
+        public final int compressedLength;
+
+        Block(long offset, int rawLength, int compressedLength) {
+            this.offset = offset;
+            this.rawLength = rawLength;
+            this.compressedLength = compressedLength;
+        }
+
+        @Override
+        public String toString() {
+            return "Block{" +
+                    "offset=" + offset +
+                    ", rawLength=" + rawLength +
+                    ", compressedLength=" + compressedLength +
+                    '}';
+        }
+    }
+
+    /**
+     * Read the block index of a block-compressed file.
+     * @param file      the file
+     * @return          the blocks, in order
+     */
+    public static List<Block> readIndex(RandomAccessFile file) {
+        try {
+            file.seek(0);
+            if (file.readInt() != MAGIC) {
+                throw new CodecException("Not a block-compressed file");
+            }
+
+            file.seek(file.length() - 8);
+            file.seek(file.readLong());
+
+            final int n = file.readInt();
+            final List<Block> blocks = new ArrayList<>(n);
+            long offset = 4;
+            for (int i = 0; i < n; ++i) {
+                final int rawLen = file.readInt();
+                final int compLen = file.readInt();
+                checkBlockHeader(rawLen, compLen);
+                blocks.add(new Block(offset + 8, rawLen, compLen));
+                offset += 8 + compLen;
+            }
+
+            return blocks;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Read and decompress a single block of a block-compressed file.
+     * @param file      the file
+     * @param block     the block, as returned by {@link #readIndex(RandomAccessFile)}
+     * @return          the decompressed block data
+     */
+    public static byte[] readBlock(RandomAccessFile file, Block block) {
+        try {
+            final byte[] comp = new byte[block.compressedLength];
+            file.seek(block.offset);
+            file.readFully(comp);
+
+            final byte[] raw = new byte[block.rawLength];
+            inflate(comp, comp.length, raw, raw.length);
+            return raw;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Decompress a block-compressed stream, decompressing the blocks concurrently.
+     * The entire stream is decompressed before this method returns.
+     * @param is        the input stream from which the block-compressed data is read
+     * @param executor  the executor on which the blocks are decompressed
+     * @return          an input stream of the decompressed data
+     */
+    public static InputStream decompress(InputStream is, Executor executor) {
+        final List<byte[]> blocks = ChunkedCodecs.join(readBlocks(is, executor, raw -> raw));
+
+        final Vector<InputStream> streams = new Vector<>(blocks.size());
+        for (byte[] block : blocks) {
+            streams.add(new ByteArrayInputStream(block));
+        }
+
+        return new SequenceInputStream(streams.elements());
+    }
+
+    /**
+     * Encode a value into a block-compressed stream,
+     * using the compression level and block size specified by the codec config.
+     * @param codec     the codec used to encode the value
+     * @param clazz     the class of the decoded value
+     * @param value     the value to encode
+     * @param os        the output stream to which the block-compressed encoding is written
+     * @param <T>       the decoded value type
+     * @return          the output stream
+     */
+    public static <T> OutputStream encode(
+            CodecStrAPI.ByteStreams codec,
+            Class<? super T> clazz,
+            T value,
+            OutputStream os) {
+        try {
+            final BlockOutputStream bos = new BlockOutputStream(
+                    os,
+                    codec.config().compressionLevel(),
+                    codec.config().compressionBlockSize());
+            codec.encode(clazz, value, bos);
+            bos.finish();
+            return os;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Encode a list of values in chunks, concurrently, with each chunk compressed as a single block,
+     * using a codec to encode each chunk, and the compression level specified by the codec config.
+     * @param codec     the codec used to encode each chunk
+     * @param elemType  the static type of the list elements
+     * @param values    the values to encode
+     * @param os        the output stream to which the block-compressed encoding is written
+     * @param executor  the executor on which the chunks are encoded
+     * @param chunkSize the maximum number of values per chunk
+     * @param <T>       the element type
+     * @return          the output stream
+     */
+    public static <T> OutputStream encode(
+            CodecStrAPI.ByteStreams codec,
+            Class<T> elemType,
+            List<T> values,
+            OutputStream os,
+            Executor executor,
+            int chunkSize) {
+        final Class<T[]> arrType = ChunkedCodecs.arrayType(elemType);
+        return encode(
+                elemType,
+                values,
+                os,
+                executor,
+                chunkSize,
+                codec.config().compressionLevel(),
+                (arr, out) -> codec.encode(arrType, arr, out));
+    }
+
+    /**
+     * Decode a block-compressed encoding written by
+     * {@link #encode(CodecStrAPI.ByteStreams, Class, List, OutputStream, Executor, int)},
+     * decompressing and decoding the blocks concurrently using a codec.
+     * @param codec     the codec used to decode each chunk
+     * @param elemType  the static type of the list elements
+     * @param is        the input stream from which the block-compressed encoding is read
+     * @param executor  the executor on which the blocks are decoded
+     * @param <T>       the element type
+     * @return          the decoded values, in their original order
+     */
+    public static <T> List<T> decode(
+            CodecStrAPI.ByteStreams codec,
+            Class<T> elemType,
+            InputStream is,
+            Executor executor) {
+        final Class<T[]> arrType = ChunkedCodecs.arrayType(elemType);
+        return decode(is, executor, in -> codec.decode(arrType, in));
+    }
+
+    /**
+     * Encode a list of values in chunks, concurrently, with each chunk compressed as a single block.
+     * As each block holds a complete encoding, the blocks can be decoded concurrently
+     * via {@link #decode(InputStream, Executor, Functions.F)}.
+     * @param elemType  the static type of the list elements
+     * @param values    the values to encode
+     * @param os        the output stream to which the block-compressed encoding is written
+     * @param executor  the executor on which the chunks are encoded
+     * @param chunkSize the maximum number of values per chunk
+     * @param level     the compression level, as per {@link Deflater#setLevel(int)}
+     * @param encoder   encodes a single chunk, as an array, into an output stream
+     * @param <T>       the element type
+     * @return          the output stream
+     */
+    public static <T> OutputStream encode(
+            Class<T> elemType,
+            List<T> values,
+            OutputStream os,
+            Executor executor,
+            int chunkSize,
+            int level,
+            SideEffect.F2<T[], OutputStream> encoder) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive - " + chunkSize);
+        }
+        checkLevel(level);
+
+        final int size = values.size();
+        final int numChunks = (size + chunkSize - 1) / chunkSize;
+
+        final List<CompletableFuture<byte[][]>> futures = new ArrayList<>(numChunks);
+        for (int i = 0; i < numChunks; ++i) {
+            final List<T> chunk = values.subList(i * chunkSize, Math.min(size, (i + 1) * chunkSize));
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                final T[] arr = chunk.toArray((T[])Array.newInstance(elemType, chunk.size()));
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                encoder.apply(arr, baos);
+                final byte[] raw = baos.toByteArray();
+                return new byte[][]{raw, compress(raw, level)};
+            }, executor));
+        }
+
+        final List<byte[][]> chunks = ChunkedCodecs.join(futures);
+
+        try {
+            final DataOutputStream dos = new DataOutputStream(os);
+            dos.writeInt(MAGIC);
+
+            // Empty chunks would be mistaken for the end marker, so are omitted.
+            int numBlocks = 0;
+            long written = 4;
+            for (byte[][] chunk : chunks) {
+                if (chunk[0].length > 0) {
+                    dos.writeInt(chunk[0].length);
+                    dos.writeInt(chunk[1].length);
+                    dos.write(chunk[1]);
+                    written += 8 + chunk[1].length;
+                    ++numBlocks;
+                }
+            }
+
+            final long indexOffset = written + 4;
+            dos.writeInt(0);
+            dos.writeInt(numBlocks);
+            for (byte[][] chunk : chunks) {
+                if (chunk[0].length > 0) {
+                    dos.writeInt(chunk[0].length);
+                    dos.writeInt(chunk[1].length);
+                }
+            }
+            dos.writeLong(indexOffset);
+            dos.flush();
+            return os;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Decode a block-compressed encoding written by
+     * {@link #encode(Class, List, OutputStream, Executor, int, int, SideEffect.F2)},
+     * decompressing and decoding the blocks concurrently.
+     * @param is        the input stream from which the block-compressed encoding is read
+     * @param executor  the executor on which the blocks are decoded
+     * @param decoder   decodes a single chunk, as an array, from an input stream
+     * @param <T>       the element type
+     * @return          the decoded values, in their original order
+     */
+    public static <T> List<T> decode(
+            InputStream is,
+            Executor executor,
+            Functions.F<InputStream, T[]> decoder) {
+        final List<T[]> chunks = ChunkedCodecs.join(
+                readBlocks(is, executor, raw -> decoder.apply(new ByteArrayInputStream(raw))));
+
+        int size = 0;
+        for (T[] chunk : chunks) {
+            size += chunk.length;
+        }
+
+        final List<T> values = new ArrayList<>(size);
+        for (T[] chunk : chunks) {
+            values.addAll(Arrays.asList(chunk));
+        }
+
+        return values;
+    }
+
+    /**
+     * Read the blocks of a block-compressed stream,
+     * and submit each one to be decompressed and processed concurrently.
+     */
+    private static <R> List<CompletableFuture<R>> readBlocks(
+            InputStream is,
+            Executor executor,
+            Functions.F<byte[], R> process) {
+        try {
+            final DataInputStream dis = new DataInputStream(is);
+            readMagic(dis);
+
+            final List<CompletableFuture<R>> futures = new ArrayList<>();
+            for (int rawLen; (rawLen = dis.readInt()) != 0; ) {
+                final int compLen = dis.readInt();
+                checkBlockHeader(rawLen, compLen);
+
+                final byte[] comp = new byte[compLen];
+                dis.readFully(comp);
+
+                final int len = rawLen;
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    final byte[] raw = new byte[len];
+                    inflate(comp, comp.length, raw, len);
+                    return process.apply(raw);
+                }, executor));
+            }
+
+            final int n = dis.readInt();
+            if (n != futures.size()) {
+                throw new CodecException(
+                        "Block index is corrupt - expected " + futures.size() + " blocks but got " + n);
+            }
+
+            for (int i = 0; i < n * 2; ++i) {
+                dis.readInt();
+            }
+            dis.readLong();
+
+            return futures;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.typemeta.funcj.codec.utils;
+
+import org.typemeta.funcj.codec.CodecStrAPI;
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.functions.SideEffect;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Support for encoding and decoding large lists in parallel.
+ * <p>
+ * The list is split into chunks, each of which is encoded concurrently as an array,
+ * into a separate buffer.
+ * The buffers are then written out, preceded by a chunk index:
+ * <pre>
+ *     int              number of chunks, N
+ *     int[N]           the byte length of each chunk
+ *     byte[]...        the encoded chunks, in order
+ * </pre>
+ * The decoder reads the index, and then decodes the chunks concurrently.
+ */
+public abstract class ChunkedCodecs {
+
+    /**
+     * The maximum number of index entries, or chunk bytes, allocated before the data has been read,
+     * so that a corrupt index can't cause an excessive allocation.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+    /**
+     * Encode a list of values in chunks, concurrently, using a codec to encode each chunk.
+     * @param codec     the codec used to encode each chunk
+     * @param elemType  the static type of the list elements
+     * @param values    the values to encode
+     * @param os        the output stream to which the chunked encoding is written
+     * @param executor  the executor on which the chunks are encoded
+     * @param chunkSize the maximum number of values per chunk
+     * @param <T>       the element type
+     * @return          the output stream
+     */
+    public static <T> OutputStream encode(
+            CodecStrAPI.ByteStreams codec,
+            Class<T> elemType,
+            List<T> values,
+            OutputStream os,
+            Executor executor,
+            int chunkSize) {
+        final Class<T[]> arrType = arrayType(elemType);
+        return encode(elemType, values, os, executor, chunkSize, (arr, out) -> codec.encode(arrType, arr, out));
+    }
+
+    /**
+     * Decode a chunked encoding, decoding the chunks concurrently using a codec.
+     * @param codec     the codec used to decode each chunk
+     * @param elemType  the static type of the list elements
+     * @param is        the input stream from which the chunked encoding is read
+     * @param executor  the executor on which the chunks are decoded
+     * @param <T>       the element type
+     * @return          the decoded values, in their original order
+     */
+    public static <T> List<T> decode(
+            CodecStrAPI.ByteStreams codec,
+            Class<T> elemType,
+            InputStream is,
+            Executor executor) {
+        final Class<T[]> arrType = arrayType(elemType);
+        return decode(is, executor, in -> codec.decode(arrType, in));
+    }
+
+    /**
+     * Encode a list of values in chunks, concurrently.
+     * @param elemType  the static type of the list elements
+     * @param values    the values to encode
+     * @param os        the output stream to which the chunked encoding is written
+     * @param executor  the executor on which the chunks are encoded
+     * @param chunkSize the maximum number of values per chunk
+     * @param encoder   encodes a single chunk, as an array, into an output stream
+     * @param <T>       the element type
+     * @return          the output stream
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> OutputStream encode(
+            Class<T> elemType,
+            List<T> values,
+            OutputStream os,
+            Executor executor,
+            int chunkSize,
+            SideEffect.F2<T[], OutputStream> encoder) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive - " + chunkSize);
+        }
+
+        final int size = values.size();
+        final int numChunks = (size + chunkSize - 1) / chunkSize;
+
+        final List<CompletableFuture<byte[]>> futures = new ArrayList<>(numChunks);
+        for (int i = 0; i < numChunks; ++i) {
+            final List<T> chunk = values.subList(i * chunkSize, Math.min(size, (i + 1) * chunkSize));
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                final T[] arr = chunk.toArray((T[])Array.newInstance(elemType, chunk.size()));
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                encoder.apply(arr, baos);
+                return baos.toByteArray();
+            }, executor));
+        }
+
+        final List<byte[]> chunks = join(futures);
+
+        try {
+            final DataOutputStream dos = new DataOutputStream(os);
+            dos.writeInt(numChunks);
+            for (byte[] chunk : chunks) {
+                dos.writeInt(chunk.length);
+            }
+            for (byte[] chunk : chunks) {
+                dos.write(chunk);
+            }
+            dos.flush();
+            return os;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Decode a chunked encoding, decoding the chunks concurrently.
+     * @param is        the input stream from which the chunked encoding is read
+     * @param executor  the executor on which the chunks are decoded
+     * @param decoder   decodes a single chunk, as an array, from an input stream
+     * @param <T>       the element type
+     * @return          the decoded values, in their original order
+     * @throws CodecException if the chunk index is invalid
+     */
+    public static <T> List<T> decode(
+            InputStream is,
+            Executor executor,
+            Functions.F<InputStream, T[]> decoder) {
+        final List<CompletableFuture<T[]>> futures;
+        try {
+            final DataInputStream dis = new DataInputStream(is);
+            final int numChunks = dis.readInt();
+            if (numChunks < 0) {
+                throw new CodecException("Invalid chunk count " + numChunks);
+            }
+
+            final List<Integer> lengths = new ArrayList<>(Math.min(numChunks, MAX_INITIAL_CAPACITY));
+            for (int i = 0; i < numChunks; ++i) {
+                final int length = dis.readInt();
+                if (length < 0) {
+                    throw new CodecException("Invalid length " + length + " for chunk " + i);
+                }
+                lengths.add(length);
+            }
+
+            futures = new ArrayList<>(lengths.size());
+            for (int length : lengths) {
+                final byte[] chunk = readChunk(dis, length);
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> decoder.apply(new ByteArrayInputStream(chunk)),
+                        executor));
+            }
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+
+        final List<T[]> chunks = join(futures);
+
+        int size = 0;
+        for (T[] chunk : chunks) {
+            size += chunk.length;
+        }
+
+        final List<T> values = new ArrayList<>(size);
+        for (T[] chunk : chunks) {
+            values.addAll(Arrays.asList(chunk));
+        }
+
+        return values;
+    }
+
+    /**
+     * Read a chunk, growing the buffer as the data is read.
+     * @param dis       the input stream from which the chunk is read
+     * @param length    the length of the chunk
+     * @return          the chunk
+     * @throws IOException if the chunk can't be read
+     */
+    private static byte[] readChunk(DataInputStream dis, int length) throws IOException {
+        byte[] chunk = new byte[Math.min(length, MAX_INITIAL_CAPACITY)];
+        dis.readFully(chunk);
+        while (chunk.length < length) {
+            final int n = chunk.length;
+            chunk = Arrays.copyOf(chunk, (int)Math.min(length, n * 2L));
+            dis.readFully(chunk, n, chunk.length - n);
+        }
+        return chunk;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Class<T[]> arrayType(Class<T> elemType) {
+        return (Class<T[]>)Array.newInstance(elemType, 0).getClass();
+    }
+
+    /**
+     * Wait for a list of futures to complete, and return their results.
+     * @param futures   the futures
+     * @param <R>       the result type
+     * @return          the results, in the same order as the futures
+     * @throws CodecException if any of the futures failed
+     */
+    public static <R> List<R> join(List<CompletableFuture<R>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof CodecException) {
+                throw (CodecException)cause;
+            } else {
+                throw new CodecException(cause);
+            }
+        }
+
+        final List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,343 @@
+package org.typemeta.funcj.codec.utils;
+
+import org.typemeta.funcj.codec.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-type encode and decode metrics, and codec cache statistics, for a codec core.
+ * <p>
+ * Metrics are only collected if enabled via {@link CodecConfig#collectMetrics()}.
+ * Timings are inclusive, i.e. the time spent encoding a value includes the time
+ * spent encoding its fields.
+ */
+public class CodecMetrics {
+
+    /**
+     * An immutable snapshot of the metrics for a single type.
+     */
+    public static final class TypeMetrics {
+        public final Class<?> type;
+        public final long encodeCount;
+        public final long encodeNanos;
+        public final long decodeCount;
+        public final long decodeNanos;
+        public final long outputSize;
+
+        public TypeMetrics(
+                Class<?> type,
+                long encodeCount,
+                long encodeNanos,
+                long decodeCount,
+                long decodeNanos,
+                long outputSize) {
+            this.type = type;
+            this.encodeCount = encodeCount;
+            this.encodeNanos = encodeNanos;
+            this.decodeCount = decodeCount;
+            this.decodeNanos = decodeNanos;
+            this.outputSize = outputSize;
+        }
+
+        @Override
+        public String toString() {
+            return "TypeMetrics{" +
+                    "type=" + type.getName() +
+                    ", encodeCount=" + encodeCount +
+                    ", encodeNanos=" + encodeNanos +
+                    ", decodeCount=" + decodeCount +
+                    ", decodeNanos=" + decodeNanos +
+                    ", outputSize=" + outputSize +
+                    '}';
+        }
+    }
+
+    /**
+     * An immutable snapshot of all the metrics.
+     */
+    public static final class Snapshot {
+        public final Map<Class<?>, TypeMetrics> types;
+        public final long cacheHits;
+        public final long cacheMisses;
+        public final long creationNanos;
+
+        public Snapshot(
+                Map<Class<?>, TypeMetrics> types,
+                long cacheHits,
+                long cacheMisses,
+                long creationNanos) {
+            this.types = Collections.unmodifiableMap(types);
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+            this.creationNanos = creationNanos;
+        }
+
+        /**
+         * @return          the proportion of codec lookups which were satisfied by the cache
+         */
+        public double cacheHitRate() {
+            final long total = cacheHits + cacheMisses;
+            return total == 0 ? 0.0 : (double)cacheHits / total;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "cacheHits=" + cacheHits +
+                    ", cacheMisses=" + cacheMisses +
+                    ", creationNanos=" + creationNanos +
+                    ", types=" + types.values() +
+                    '}';
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder encodeCount = new LongAdder();
+        final LongAdder encodeNanos = new LongAdder();
+        final LongAdder decodeCount = new LongAdder();
+        final LongAdder decodeNanos = new LongAdder();
+        final LongAdder outputSize = new LongAdder();
+
+        void recordEncode(long nanos) {
+            encodeCount.increment();
+            encodeNanos.add(nanos);
+        }
+
+        void recordDecode(long nanos) {
+            decodeCount.increment();
+            decodeNanos.add(nanos);
+        }
+
+        TypeMetrics snapshot(Class<?> type) {
+            return new TypeMetrics(
+                    type,
+                    encodeCount.sum(),
+                    encodeNanos.sum(),
+                    decodeCount.sum(),
+                    decodeNanos.sum(),
+                    outputSize.sum());
+        }
+    }
+
+    /**
+     * A {@link Codec} which records metrics for each invocation of the codec it wraps.
+     */
+    private static final class MetricsCodec<T, IN, OUT, CFG extends CodecConfig>
+            implements Codec<T, IN, OUT, CFG> {
+
+        private final Codec<T, IN, OUT, CFG> codec;
+        private final Counters counters;
+
+        private MetricsCodec(Codec<T, IN, OUT, CFG> codec, Counters counters) {
+            this.codec = codec;
+            this.counters = counters;
+        }
+
+        @Override
+        public Class<T> type() {
+            return codec.type();
+        }
+
+        @Override
+        public OUT encode(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
+            final long start = System.nanoTime();
+            try {
+                return codec.encode(core, value, out);
+            } finally {
+                counters.recordEncode(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public T decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            final long start = System.nanoTime();
+            try {
+                return codec.decode(core, in);
+            } finally {
+                counters.recordDecode(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public OUT encodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
+            final long start = System.nanoTime();
+            try {
+                return codec.encodeWithCheck(core, value, out);
+            } finally {
+                counters.recordEncode(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public T decodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            final long start = System.nanoTime();
+            try {
+                return codec.decodeWithCheck(core, in);
+            } finally {
+                counters.recordDecode(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * An {@link OutputStream} which counts the bytes written to it.
+     */
+    public static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        public CountingOutputStream(OutputStream os) {
+            super(os);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            ++count;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * A {@link Writer} which counts the chars written to it.
+     */
+    public static final class CountingWriter extends FilterWriter {
+        private long count;
+
+        public CountingWriter(Writer writer) {
+            super(writer);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            out.write(c);
+            ++count;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            out.write(cbuf, off, len);
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            out.write(str, off, len);
+            count += len;
+        }
+    }
+
+    private final boolean enabled;
+
+    private final ConcurrentMap<Class<?>, Counters> counters = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private final LongAdder creationNanos = new LongAdder();
+
+    public CodecMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return          true if metrics are being collected
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private Counters counters(Class<?> type) {
+        return counters.computeIfAbsent(type, t -> new Counters());
+    }
+
+    /**
+     * Wrap a codec so that its invocations are recorded, if metrics are enabled.
+     * @param codec     the codec
+     * @param <T>       the raw type to be encoded/decoded
+     * @param <IN>      the encoded input type
+     * @param <OUT>     the encoded output type
+     * @param <CFG>     the config type
+     * @return          the instrumented codec, or the original codec if metrics are disabled
+     */
+    public <T, IN, OUT, CFG extends CodecConfig> Codec<T, IN, OUT, CFG> instrument(Codec<T, IN, OUT, CFG> codec) {
+        if (!enabled || codec instanceof MetricsCodec) {
+            return codec;
+        } else {
+            return new MetricsCodec<>(codec, counters(codec.type()));
+        }
+    }
+
+    /**
+     * Record a codec lookup which was satisfied by the cache.
+     */
+    public void recordCacheHit() {
+        if (enabled) {
+            cacheHits.increment();
+        }
+    }
+
+    /**
+     * Record a codec lookup which required a new codec to be created.
+     * @param nanos     the time taken to create the codec
+     */
+    public void recordCacheMiss(long nanos) {
+        if (enabled) {
+            cacheMisses.increment();
+            creationNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Record the size of the encoded output for a top-level value.
+     * @param type      the static type of the value
+     * @param size      the size of the encoded data, in bytes or chars
+     */
+    public void recordOutputSize(Class<?> type, long size) {
+        if (enabled) {
+            counters(type).outputSize.add(size);
+        }
+    }
+
+    /**
+     * Take a snapshot of the current metrics.
+     * @return          the snapshot
+     */
+    public Snapshot snapshot() {
+        final Map<Class<?>, TypeMetrics> types = new TreeMap<>(Comparator.comparing(Class::getName));
+        counters.forEach((type, ctrs) -> types.put(type, ctrs.snapshot(type)));
+        return new Snapshot(types, cacheHits.sum(), cacheMisses.sum(), creationNanos.sum());
+    }
+
+    /**
+     * Reset all the metrics.
+     */
+    public void reset() {
+        counters.values().forEach(ctrs -> {
+            ctrs.encodeCount.reset();
+            ctrs.encodeNanos.reset();
+            ctrs.decodeCount.reset();
+            ctrs.decodeNanos.reset();
+            ctrs.outputSize.reset();
+        });
+        cacheHits.reset();
+        cacheMisses.reset();
+        creationNanos.reset();
+    }
+}
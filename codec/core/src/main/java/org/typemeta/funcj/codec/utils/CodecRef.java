@@ -80,19 +80,64 @@ public Codec<T, IN, OUT, CFG> get() {
         return impl;
     }
 
+    /**
+     * Indicates whether this reference has been initialised.
+     * @return          true if this reference has been initialised
+     */
+    public boolean isInitialised() {
+        return impl != Uninitialised.INSTANCE;
+    }
+
+    /**
+     * Return the codec, waiting for it to be initialised if another thread is currently initialising it.
+     * @return          the codec
+     */
+    private Codec<T, IN, OUT, CFG> impl() {
+        final Codec<T, IN, OUT, CFG> impl = this.impl;
+        if (impl != Uninitialised.INSTANCE) {
+            return impl;
+        } else {
+            synchronized(this) {
+                return this.impl;
+            }
+        }
+    }
 
     @Override
     public Class<T> type() {
-        return impl.type();
+        return impl().type();
     }
 
     @Override
     public OUT encode(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
-        return impl.encode(core, value, out);
+        return impl().encode(core, value, out);
     }
 
     @Override
     public T decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
-        return impl.decode(core, in);
+        return impl().decode(core, in);
+    }
+
+    /**
+     * Delegates to the referenced codec, so that a value is encoded the same way
+     * whether it is reached directly or via this reference.
+     * <p>
+     * Before 0.6.17 this reference used the default {@link Codec#encodeWithCheck},
+     * so nested values of a recursive final type were preceded by a dynamic type marker
+     * which top-level values weren't. The bytes and MessagePack formats encode this marker,
+     * so such data encoded by earlier versions can't be decoded by this version.
+     */
+    @Override
+    public OUT encodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
+        return impl().encodeWithCheck(core, value, out);
+    }
+
+    /**
+     * Delegates to the referenced codec.
+     * @see #encodeWithCheck(CodecCoreEx, Object, Object)
+     */
+    @Override
+    public T decodeWithCheck(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+        return impl().decodeWithCheck(core, in);
     }
 }
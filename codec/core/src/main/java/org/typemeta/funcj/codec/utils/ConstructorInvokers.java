@@ -0,0 +1,219 @@
+package org.typemeta.funcj.codec.utils;
+
+import org.typemeta.funcj.codec.*;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Utility methods for generating constructor invokers via {@link MethodHandles}.
+ * <p>
+ * The invokers are generated once per type, when the codec is built,
+ * so that constructing a decoded value avoids the reflective overhead of
+ * {@link Constructor#newInstance(Object...)}.
+ */
+@SuppressWarnings("unchecked")
+public abstract class ConstructorInvokers {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodHandle OR_DEFAULT;
+
+    static {
+        try {
+            OR_DEFAULT = LOOKUP.findStatic(
+                    ConstructorInvokers.class,
+                    "orDefault",
+                    MethodType.methodType(Object.class, Object.class, Object.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    /**
+     * Create a {@link NoArgsTypeCtor} which invokes the given no-args constructor.
+     * <p>
+     * If the constructor is publicly accessible then a {@link LambdaMetafactory} is used
+     * to implement {@code NoArgsTypeCtor} directly, making construction equivalent to {@code new}.
+     * Otherwise the constructor is invoked via a {@link MethodHandle}.
+     * @param ctor      the no-args constructor
+     * @param <T>       the type of value to be constructed
+     * @return          the {@code NoArgsTypeCtor}
+     */
+    public static <T> NoArgsTypeCtor<T> noArgsCtor(Constructor<T> ctor) {
+        final Class<T> clazz = ctor.getDeclaringClass();
+
+        if (isPublic(ctor) && isVisible(clazz)) {
+            try {
+                final CallSite site = LambdaMetafactory.metafactory(
+                        LOOKUP,
+                        "construct",
+                        MethodType.methodType(NoArgsTypeCtor.class),
+                        MethodType.methodType(Object.class),
+                        LOOKUP.unreflectConstructor(ctor),
+                        MethodType.methodType(clazz));
+                return (NoArgsTypeCtor<T>)site.getTarget().invoke();
+            } catch (Throwable ex) {
+                // Fall back to a method handle.
+            }
+        }
+
+        final MethodHandle mh = unreflect(ctor).asType(MethodType.methodType(Object.class));
+
+        return () -> {
+            try {
+                final Object obj = (Object)mh.invokeExact();
+                return (T)obj;
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new CodecException("Unable to construct object of type '" + clazz.getName() + "'", ex);
+            }
+        };
+    }
+
+    /**
+     * Create an {@link ArgArrayTypeCtor} which invokes the given constructor.
+     * <p>
+     * The mapping from the argument array to the constructor parameters is resolved here,
+     * so that construction doesn't require any intermediate allocation.
+     * Null arguments for primitive parameters, e.g. for fields skipped by a projected decode,
+     * are replaced with the default value for the primitive type.
+     * @param ctor      the constructor
+     * @param argIndices for each constructor parameter, the index of its value in the argument array
+     * @param argCount  the length of the argument array
+     * @param <T>       the type of value to be constructed
+     * @return          the {@code ArgArrayTypeCtor}
+     */
+    public static <T> ArgArrayTypeCtor<T> argArrayCtor(Constructor<T> ctor, int[] argIndices, int argCount) {
+        final Class<T> clazz = ctor.getDeclaringClass();
+
+        final Class<?>[] paramTypes = ctor.getParameterTypes();
+        MethodHandle ctorMh = unreflect(ctor).asType(MethodType.genericMethodType(paramTypes.length));
+        for (int i = 0; i < paramTypes.length; ++i) {
+            if (paramTypes[i].isPrimitive()) {
+                final Object dflt = Array.get(Array.newInstance(paramTypes[i], 1), 0);
+                ctorMh = MethodHandles.filterArguments(ctorMh, i, MethodHandles.insertArguments(OR_DEFAULT, 1, dflt));
+            }
+        }
+
+        final MethodHandle mh =
+                MethodHandles.permuteArguments(
+                        ctorMh,
+                        MethodType.genericMethodType(argCount),
+                        argIndices
+                ).asSpreader(Object[].class, argCount);
+
+        return args -> {
+            try {
+                final Object obj = (Object)mh.invokeExact(args);
+                return (T)obj;
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new CodecException("Unable to construct object of type '" + clazz.getName() + "'", ex);
+            }
+        };
+    }
+
+    /**
+     * Look for a constructor whose parameters correspond to the given fields,
+     * and create an {@link ArgArrayTypeCtor} which accepts the field values,
+     * in the order of {@code fields}.
+     * <p>
+     * Parameters are matched to fields by name and type, so the constructor parameter names
+     * must be available, i.e. the class must have been compiled with {@code -parameters}.
+     * Without them no constructor is matched, as matching by position would silently swap
+     * fields of the same type, e.g. where a subclass and its superclass each declare one.
+     * @param clazz     the class to be constructed
+     * @param fields    the fields, in the order of the argument array
+     * @param <T>       the type of value to be constructed
+     * @return          the {@code ArgArrayTypeCtor}, or null if no matching constructor exists
+     */
+    public static <T> ArgArrayTypeCtor<T> fieldsCtor(Class<T> clazz, List<Field> fields) {
+        final int n = fields.size();
+        if (n == 0) {
+            return null;
+        }
+
+        for (Constructor<?> ctor : clazz.getDeclaredConstructors()) {
+            if (ctor.getParameterCount() == n && !ctor.isSynthetic()) {
+                final int[] argIndices = matchParameters(ctor.getParameters(), fields);
+                if (argIndices != null) {
+                    try {
+                        return argArrayCtor((Constructor<T>)ctor, argIndices, n);
+                    } catch (RuntimeException ex) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static int[] matchParameters(Parameter[] params, List<Field> fields) {
+        final int n = params.length;
+        final int[] argIndices = new int[n];
+
+        if (!Arrays.stream(params).allMatch(Parameter::isNamePresent)) {
+            return null;
+        }
+
+        final Map<String, Integer> fieldIndices = new HashMap<>();
+        for (int i = 0; i < n; ++i) {
+            fieldIndices.put(fields.get(i).getName(), i);
+        }
+
+        for (int i = 0; i < n; ++i) {
+            final Integer index = fieldIndices.remove(params[i].getName());
+            if (index == null || !fields.get(index).getType().equals(params[i].getType())) {
+                return null;
+            }
+            argIndices[i] = index;
+        }
+
+        return argIndices;
+    }
+
+    private static Object orDefault(Object value, Object dflt) {
+        return value != null ? value : dflt;
+    }
+
+    private static MethodHandle unreflect(Constructor<?> ctor) {
+        //JDK11: if (!ctor.canAccess(null)) {
+        if (!ctor.isAccessible()) {
+            ctor.setAccessible(true);
+        }
+
+        try {
+            return LOOKUP.unreflectConstructor(ctor);
+        } catch (IllegalAccessException ex) {
+            throw new CodecException("Unable to access constructor for '" + ctor.getDeclaringClass().getName() + "'", ex);
+        }
+    }
+
+    private static boolean isPublic(Constructor<?> ctor) {
+        if (!Modifier.isPublic(ctor.getModifiers())) {
+            return false;
+        }
+
+        for (Class<?> clazz = ctor.getDeclaringClass(); clazz != null; clazz = clazz.getEnclosingClass()) {
+            if (!Modifier.isPublic(clazz.getModifiers())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        // The generated lambda class resolves the target class via our class loader.
+        try {
+            return Class.forName(clazz.getName(), false, ConstructorInvokers.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package org.typemeta.funcj.codec.utils;
+
+import org.typemeta.funcj.codec.*;
+
+import java.lang.ref.*;
+import java.util.*;
+
+/**
+ * A bounded cache of the encoded forms of values of a single type,
+ * keyed on the identity of the values.
+ * <p>
+ * Caches are only created for types registered via
+ * {@link CodecConfig.Builder#registerEncodedValueCache(Class, int)},
+ * which should be immutable.
+ * Values are held weakly, so a cached entry is discarded once its value is no longer in use elsewhere,
+ * and the least recently used entry is evicted once the cache exceeds its maximum size.
+ * @param <F>       the encoded fragment type
+ */
+public class EncodedValueCache<F> {
+
+    /**
+     * A weak reference to a value which compares by identity.
+     */
+    private static final class Key extends WeakReference<Object> {
+        private final int hash;
+
+        Key(Object value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.hash = System.identityHashCode(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object rhs) {
+            if (this == rhs) {
+                return true;
+            } else if (!(rhs instanceof Key)) {
+                return false;
+            } else {
+                final Object value = get();
+                return value != null && value == ((Key)rhs).get();
+            }
+        }
+    }
+
+    /**
+     * A {@link Codec} which writes cached fragments in place of encoding the value.
+     */
+    private static class CachingCodec<T, IN, OUT, CFG extends CodecConfig, F>
+            implements Codec<T, IN, OUT, CFG> {
+
+        private final Codec<T, IN, OUT, CFG> codec;
+        private final FragmentFormat<OUT, F> format;
+        private final EncodedValueCache<F> cache;
+
+        private CachingCodec(Codec<T, IN, OUT, CFG> codec, FragmentFormat<OUT, F> format, EncodedValueCache<F> cache) {
+            this.codec = codec;
+            this.format = format;
+            this.cache = cache;
+        }
+
+        @Override
+        public Class<T> type() {
+            return codec.type();
+        }
+
+        @Override
+        public OUT encode(CodecCoreEx<IN, OUT, CFG> core, T value, OUT out) {
+            F fragment = cache.get(value);
+            if (fragment == null) {
+                fragment = format.captureFragment(out2 -> codec.encode(core, value, out2));
+                cache.put(value, fragment);
+            }
+            return format.writeFragment(fragment, out);
+        }
+
+        @Override
+        public T decode(CodecCoreEx<IN, OUT, CFG> core, IN in) {
+            return codec.decode(core, in);
+        }
+    }
+
+    /**
+     * A {@code CachingCodec} for a {@link Codec.FinalCodec},
+     * which ensures the null and dynamic type markers are unchanged.
+     */
+    private static final class FinalCachingCodec<T, IN, OUT, CFG extends CodecConfig, F>
+            extends CachingCodec<T, IN, OUT, CFG, F>
+            implements Codec.FinalCodec<T, IN, OUT, CFG> {
+
+        private FinalCachingCodec(
+                Codec<T, IN, OUT, CFG> codec,
+                FragmentFormat<OUT, F> format,
+                EncodedValueCache<F> cache) {
+            super(codec, format, cache);
+        }
+    }
+
+    private final int maxSize;
+
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    private final LinkedHashMap<Key, F> entries;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    /**
+     * Construct a cache.
+     * @param maxSize   the maximum number of entries
+     */
+    public EncodedValueCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive - " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<Key, F>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, F> eldest) {
+                if (size() > EncodedValueCache.this.maxSize) {
+                    ++evictions;
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        };
+    }
+
+    /**
+     * Wrap a codec so that the encoded forms of the values it encodes are cached in this cache.
+     * Only the value itself is cached - the null and dynamic type markers which precede it are not.
+     * @param codec     the codec
+     * @param format    the format which captures and writes the encoded fragments
+     * @param <T>       the raw type to be encoded/decoded
+     * @param <IN>      the encoded input type
+     * @param <OUT>     the encoded output type
+     * @param <CFG>     the config type
+     * @return          the caching codec
+     */
+    public <T, IN, OUT, CFG extends CodecConfig> Codec<T, IN, OUT, CFG> wrap(
+            Codec<T, IN, OUT, CFG> codec,
+            FragmentFormat<OUT, F> format) {
+        if (codec instanceof Codec.FinalCodec) {
+            return new FinalCachingCodec<>(codec, format, this);
+        } else {
+            return new CachingCodec<>(codec, format, this);
+        }
+    }
+
+    private synchronized F get(Object value) {
+        expunge();
+        final F fragment = entries.get(new Key(value, null));
+        if (fragment == null) {
+            ++misses;
+        } else {
+            ++hits;
+        }
+        return fragment;
+    }
+
+    private synchronized void put(Object value, F fragment) {
+        expunge();
+        entries.put(new Key(value, queue), fragment);
+    }
+
+    /**
+     * Remove the entries whose values have been garbage collected.
+     */
+    private void expunge() {
+        for (Reference<?> ref; (ref = queue.poll()) != null; ) {
+            entries.remove(ref);
+        }
+    }
+
+    /**
+     * @return          the maximum number of entries
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return          the current number of entries
+     */
+    public synchronized int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * @return          the number of encodes which were satisfied by the cache
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return          the number of encodes which were not satisfied by the cache
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @return          the number of entries evicted due to the size bound
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        expunge();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "EncodedValueCache{" +
+                "maxSize=" + maxSize +
+                ", size=" + entries.size() +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+}
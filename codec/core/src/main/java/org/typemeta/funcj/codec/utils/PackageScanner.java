@@ -0,0 +1,110 @@
+package org.typemeta.funcj.codec.utils;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.jar.*;
+
+/**
+ * Utility for finding the classes in a package, by scanning the class path.
+ * Supports classes loaded from directories and jar files.
+ */
+public abstract class PackageScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * Find the top-level and member classes in the given package.
+     * Sub-packages are not included.
+     * Anonymous, local and synthetic classes are excluded.
+     * @param pkg       the package
+     * @param loader    the class loader used to locate and load the classes
+     * @return          the classes, sorted by name
+     * @throws CodecException if the package can't be scanned, or one of its classes can't be loaded
+     */
+    public static List<Class<?>> findClasses(Package pkg, ClassLoader loader) {
+        final String pkgName = pkg.getName();
+        final String path = pkgName.replace('.', '/');
+
+        final SortedSet<String> classNames = new TreeSet<>();
+        try {
+            final Enumeration<URL> urls = loader.getResources(path);
+            while (urls.hasMoreElements()) {
+                final URL url = urls.nextElement();
+                switch (url.getProtocol()) {
+                    case "file":
+                        scanDirectory(new File(url.toURI()), pkgName, classNames);
+                        break;
+                    case "jar":
+                        scanJar((JarURLConnection)url.openConnection(), path, pkgName, classNames);
+                        break;
+                    default:
+                        throw new CodecException("Unsupported class path URL - " + url);
+                }
+            }
+        } catch (CodecException ex) {
+            throw ex;
+        } catch (IOException | URISyntaxException | RuntimeException ex) {
+            throw new CodecException("Unable to scan package " + pkgName, ex);
+        }
+
+        final List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            final Class<?> clazz;
+            try {
+                clazz = Class.forName(className, false, loader);
+            } catch (ClassNotFoundException | LinkageError | RuntimeException ex) {
+                throw new CodecException("Unable to load class " + className, ex);
+            }
+
+            if (!clazz.isAnonymousClass() && !clazz.isLocalClass() && !clazz.isSynthetic()) {
+                classes.add(clazz);
+            }
+        }
+
+        return classes;
+    }
+
+    private static void scanDirectory(File dir, String pkgName, Set<String> classNames) {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                final String name = file.getName();
+                if (file.isFile() && isClassFile(name)) {
+                    classNames.add(pkgName + '.' + stripSuffix(name));
+                }
+            }
+        }
+    }
+
+    private static void scanJar(
+            JarURLConnection conn,
+            String path,
+            String pkgName,
+            Set<String> classNames) throws IOException {
+        conn.setUseCaches(false);
+        try (JarFile jar = conn.getJarFile()) {
+            final String prefix = path + '/';
+            final Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                final String entryName = entries.nextElement().getName();
+                if (entryName.startsWith(prefix)) {
+                    final String name = entryName.substring(prefix.length());
+                    if (name.indexOf('/') == -1 && isClassFile(name)) {
+                        classNames.add(pkgName + '.' + stripSuffix(name));
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(CLASS_SUFFIX) &&
+                !name.equals("package-info.class") &&
+                !name.equals("module-info.class");
+    }
+
+    private static String stripSuffix(String name) {
+        return name.substring(0, name.length() - CLASS_SUFFIX.length());
+    }
+}
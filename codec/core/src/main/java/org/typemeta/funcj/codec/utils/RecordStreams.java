@@ -0,0 +1,446 @@
+package org.typemeta.funcj.codec.utils;
+
+import org.typemeta.funcj.codec.CodecStrAPI;
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.functions.SideEffect;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Support for encoding and decoding streams of records,
+ * where encoding overlaps with writing, and decoding with reading, within bounded memory.
+ * <p>
+ * Each record is a separately encoded value.
+ * The encoder encodes records on the producer's thread into a bounded ring of buffers,
+ * which are drained to the output stream by a writer thread.
+ * Each encoder has its own writer thread, rather than running the writer on a caller-supplied executor,
+ * as the writer blocks for the lifetime of the encoder -
+ * on a direct executor it would block the producer, and on a bounded pool it could starve other tasks.
+ * The producer blocks while all the buffers are awaiting the writer, which applies backpressure.
+ * The decoder reads the buffers on the consumer's thread and decodes them concurrently,
+ * with a bounded number of buffers in flight, delivering the records to the consumer in their original order.
+ * The stream layout is as follows:
+ * <pre>
+ *     per buffer:
+ *         int          the length of the buffer, which is always positive
+ *         per record:
+ *             int      the length of the record
+ *             byte[]   the encoded record
+ *     int              zero, marking the end of the stream
+ * </pre>
+ */
+public abstract class RecordStreams {
+
+    /**
+     * The default buffer size - a buffer is written once it holds at least this many bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The default number of buffers, which bounds the buffers awaiting the writer,
+     * and the buffers being decoded.
+     */
+    public static final int DEFAULT_BUFFER_COUNT = 4;
+
+    /**
+     * A reusable buffer of length-prefixed records.
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        private int start;
+
+        RecordBuffer(int size) {
+            super(size);
+        }
+
+        void startRecord() {
+            start = count;
+            write(0);
+            write(0);
+            write(0);
+            write(0);
+        }
+
+        void endRecord() {
+            final int len = count - start - 4;
+            buf[start] = (byte)(len >>> 24);
+            buf[start + 1] = (byte)(len >>> 16);
+            buf[start + 2] = (byte)(len >>> 8);
+            buf[start + 3] = (byte)len;
+        }
+
+        void abortRecord() {
+            count = start;
+        }
+    }
+
+    // Markers which end the writer, with and without writing the end of the stream.
+    private static final RecordBuffer END = new RecordBuffer(0);
+    private static final RecordBuffer ABORT = new RecordBuffer(0);
+
+    private static CodecException interrupted(InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return new CodecException("Interrupted while awaiting a record stream buffer", ex);
+    }
+
+    private static CodecException unwrap(Throwable ex) {
+        final Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof CodecException) {
+            return (CodecException)cause;
+        } else {
+            return new CodecException(cause);
+        }
+    }
+
+    /**
+     * A record stream encoder, to which values are pushed as they are produced.
+     * {@link #close()} must be called once all the values have been pushed,
+     * to write the remaining records and the end of the stream, and to await the writer,
+     * or {@link #abort()} if the values can't be produced, as otherwise the writer never finishes.
+     * An encoder should only be used from one thread at a time.
+     * @param <T>       the record type
+     */
+    public static final class Encoder<T> implements Consumer<T>, AutoCloseable {
+
+        private final SideEffect.F2<T, OutputStream> encoder;
+        private final int bufferSize;
+        private final BlockingQueue<RecordBuffer> free;
+        private final BlockingQueue<RecordBuffer> full;
+        private final CompletableFuture<Void> writer;
+        private RecordBuffer current;
+        private long count;
+        private boolean closed;
+
+        private Encoder(
+                OutputStream os,
+                int bufferSize,
+                int bufferCount,
+                SideEffect.F2<T, OutputStream> encoder) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException("Buffer size must be positive - " + bufferSize);
+            } else if (bufferCount <= 0) {
+                throw new IllegalArgumentException("Buffer count must be positive - " + bufferCount);
+            }
+
+            this.encoder = encoder;
+            this.bufferSize = bufferSize;
+            this.free = new ArrayBlockingQueue<>(bufferCount);
+            // Room for every buffer, plus the end marker, so that handing off a buffer never blocks.
+            this.full = new ArrayBlockingQueue<>(bufferCount + 1);
+
+            for (int i = 1; i < bufferCount; ++i) {
+                free.add(new RecordBuffer(bufferSize));
+            }
+            this.current = new RecordBuffer(bufferSize);
+
+            final DataOutputStream dos = new DataOutputStream(os);
+            this.writer = new CompletableFuture<>();
+            final Thread thread = new Thread(() -> {
+                try {
+                    drain(dos);
+                    writer.complete(null);
+                } catch (Throwable ex) {
+                    writer.completeExceptionally(ex);
+                }
+            }, "record-stream-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void drain(DataOutputStream dos) {
+            try {
+                for (RecordBuffer buf; (buf = full.take()) != END; ) {
+                    if (buf == ABORT) {
+                        dos.flush();
+                        return;
+                    }
+                    dos.writeInt(buf.size());
+                    buf.writeTo(dos);
+                    buf.reset();
+                    free.add(buf);
+                }
+
+                dos.writeInt(0);
+                dos.flush();
+            } catch (IOException ex) {
+                throw new CodecException(ex);
+            } catch (InterruptedException ex) {
+                throw interrupted(ex);
+            }
+        }
+
+        /**
+         * Encode a value as a record.
+         * If the current buffer is full then it is handed to the writer,
+         * and this method blocks until a free buffer is available.
+         * @param value     the value
+         */
+        @Override
+        public void accept(T value) {
+            if (closed) {
+                throw new IllegalStateException("Record stream encoder has been closed");
+            }
+
+            current.startRecord();
+            try {
+                encoder.apply(value, current);
+            } catch (RuntimeException ex) {
+                current.abortRecord();
+                throw ex;
+            }
+            current.endRecord();
+            ++count;
+
+            if (current.size() >= bufferSize) {
+                full.add(current);
+                current = takeFree();
+            }
+        }
+
+        private RecordBuffer takeFree() {
+            try {
+                for (;;) {
+                    final RecordBuffer buf = free.poll(100, TimeUnit.MILLISECONDS);
+                    if (buf != null) {
+                        return buf;
+                    } else if (writer.isDone()) {
+                        // The writer has failed, so no buffers will be freed.
+                        writer.join();
+                        throw new CodecException("Record stream writer has terminated");
+                    }
+                }
+            } catch (CompletionException ex) {
+                throw unwrap(ex);
+            } catch (InterruptedException ex) {
+                throw interrupted(ex);
+            }
+        }
+
+        /**
+         * @return          the number of records encoded so far
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Write the remaining records and the end of the stream, and wait for the writer to finish.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                if (current.size() > 0) {
+                    full.add(current);
+                }
+                full.add(END);
+
+                try {
+                    writer.join();
+                } catch (CompletionException ex) {
+                    throw unwrap(ex);
+                }
+            }
+        }
+
+        /**
+         * Abandon the stream, following a failure to produce the values.
+         * The records already handed to the writer are written, but the end of the stream is not,
+         * so that decoding the stream fails rather than silently yielding a partial stream.
+         */
+        public void abort() {
+            if (!closed) {
+                closed = true;
+                full.add(ABORT);
+                writer.exceptionally(ex -> null).join();
+            }
+        }
+    }
+
+    /**
+     * Create a record stream encoder.
+     * @param os        the output stream to which the records are written
+     * @param bufferSize the size at which a buffer is handed to the writer
+     * @param bufferCount the number of buffers
+     * @param encoder   encodes a single record into an output stream
+     * @param <T>       the record type
+     * @return          the encoder
+     */
+    public static <T> Encoder<T> encoder(
+            OutputStream os,
+            int bufferSize,
+            int bufferCount,
+            SideEffect.F2<T, OutputStream> encoder) {
+        return new Encoder<>(os, bufferSize, bufferCount, encoder);
+    }
+
+    /**
+     * Create a record stream encoder which uses a codec to encode each record,
+     * with the default buffer size and count.
+     * @param codec     the codec used to encode each record
+     * @param clazz     the static type of the records
+     * @param os        the output stream to which the records are written
+     * @param <T>       the record type
+     * @return          the encoder
+     */
+    public static <T> Encoder<T> encoder(CodecStrAPI.ByteStreams codec, Class<T> clazz, OutputStream os) {
+        return encoder(os, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT, (value, out) -> codec.encode(clazz, value, out));
+    }
+
+    /**
+     * Encode the values produced by an iterator as a record stream.
+     * @param values    the values
+     * @param os        the output stream to which the records are written
+     * @param bufferSize the size at which a buffer is handed to the writer
+     * @param bufferCount the number of buffers
+     * @param encoder   encodes a single record into an output stream
+     * @param <T>       the record type
+     * @return          the output stream
+     */
+    public static <T> OutputStream encode(
+            Iterator<? extends T> values,
+            OutputStream os,
+            int bufferSize,
+            int bufferCount,
+            SideEffect.F2<T, OutputStream> encoder) {
+        return encode(values, encoder(os, bufferSize, bufferCount, encoder), os);
+    }
+
+    /**
+     * Encode the values produced by an iterator as a record stream,
+     * using a codec to encode each record, with the default buffer size and count.
+     * @param codec     the codec used to encode each record
+     * @param clazz     the static type of the records
+     * @param values    the values
+     * @param os        the output stream to which the records are written
+     * @param <T>       the record type
+     * @return          the output stream
+     */
+    public static <T> OutputStream encode(
+            CodecStrAPI.ByteStreams codec,
+            Class<T> clazz,
+            Iterator<? extends T> values,
+            OutputStream os) {
+        return encode(values, encoder(codec, clazz, os), os);
+    }
+
+    private static <T> OutputStream encode(Iterator<? extends T> values, Encoder<T> enc, OutputStream os) {
+        try {
+            values.forEachRemaining(enc);
+        } catch (RuntimeException | Error ex) {
+            enc.abort();
+            throw ex;
+        }
+        enc.close();
+        return os;
+    }
+
+    /**
+     * Decode a record stream, decoding the buffers concurrently,
+     * and pass the records to a consumer in their original order.
+     * This method returns once the end of the stream has been reached and all the records consumed.
+     * @param is        the input stream from which the records are read
+     * @param executor  the executor on which the buffers are decoded
+     * @param bufferCount the maximum number of buffers being decoded at once
+     * @param decoder   decodes a single record from an input stream
+     * @param consumer  the consumer of the decoded records, which is called on the calling thread
+     * @param <T>       the record type
+     * @return          the number of records
+     */
+    public static <T> long decode(
+            InputStream is,
+            Executor executor,
+            int bufferCount,
+            Functions.F<InputStream, T> decoder,
+            Consumer<? super T> consumer) {
+        if (bufferCount <= 0) {
+            throw new IllegalArgumentException("Buffer count must be positive - " + bufferCount);
+        }
+
+        final DataInputStream dis = new DataInputStream(is);
+        final Deque<CompletableFuture<List<T>>> inFlight = new ArrayDeque<>(bufferCount);
+        long count = 0;
+
+        try {
+            for (int len; (len = dis.readInt()) != 0; ) {
+                if (len < 0) {
+                    throw new CodecException("Record stream buffer length is corrupt - " + len);
+                }
+
+                final byte[] buf = new byte[len];
+                dis.readFully(buf);
+
+                if (inFlight.size() == bufferCount) {
+                    count += consume(inFlight.removeFirst(), consumer);
+                }
+
+                inFlight.addLast(CompletableFuture.supplyAsync(() -> decodeBuffer(buf, decoder), executor));
+            }
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+
+        while (!inFlight.isEmpty()) {
+            count += consume(inFlight.removeFirst(), consumer);
+        }
+
+        return count;
+    }
+
+    /**
+     * Decode a record stream, using a codec to decode each record, with the default buffer count.
+     * @param codec     the codec used to decode each record
+     * @param clazz     the static type of the records
+     * @param is        the input stream from which the records are read
+     * @param executor  the executor on which the buffers are decoded
+     * @param consumer  the consumer of the decoded records, which is called on the calling thread
+     * @param <T>       the record type
+     * @return          the number of records
+     */
+    public static <T> long decode(
+            CodecStrAPI.ByteStreams codec,
+            Class<T> clazz,
+            InputStream is,
+            Executor executor,
+            Consumer<? super T> consumer) {
+        return decode(is, executor, DEFAULT_BUFFER_COUNT, in -> codec.decode(clazz, in), consumer);
+    }
+
+    private static <T> List<T> decodeBuffer(byte[] buf, Functions.F<InputStream, T> decoder) {
+        final List<T> records = new ArrayList<>();
+        int pos = 0;
+        while (pos < buf.length) {
+            if (buf.length - pos < 4) {
+                throw new CodecException("Record stream buffer is truncated");
+            }
+
+            final int len = ((buf[pos] & 0xff) << 24) |
+                    ((buf[pos + 1] & 0xff) << 16) |
+                    ((buf[pos + 2] & 0xff) << 8) |
+                    (buf[pos + 3] & 0xff);
+            pos += 4;
+
+            if (len < 0 || len > buf.length - pos) {
+                throw new CodecException("Record length is corrupt - " + len);
+            }
+
+            records.add(decoder.apply(new ByteArrayInputStream(buf, pos, len)));
+            pos += len;
+        }
+        return records;
+    }
+
+    private static <T> int consume(CompletableFuture<List<T>> future, Consumer<? super T> consumer) {
+        final List<T> records;
+        try {
+            records = future.join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex);
+        }
+
+        records.forEach(consumer);
+        return records.size();
+    }
+}
@@ -0,0 +1,102 @@
+package org.typemeta.funcj.codec.utils;
+
+import java.util.*;
+
+/**
+ * The state used to track shared references during a single encode or decode operation.
+ * <p>
+ * When encoding, each tracked value is assigned an id, in the order in which the values are first
+ * encountered. When decoding, the values are assigned to slots in the same order,
+ * allowing back-references to be resolved.
+ */
+public class ReferenceTable {
+
+    /**
+     * Indicates whether values of the given static type are immutable leaf values,
+     * which aren't worth tracking.
+     * @param type      the static type
+     * @return          true if values of the type should not be tracked
+     */
+    public static boolean isValueType(Class<?> type) {
+        return type.isPrimitive() ||
+                type.isEnum() ||
+                type == String.class ||
+                type == Boolean.class ||
+                type == Character.class ||
+                (Number.class.isAssignableFrom(type) && type.getName().startsWith("java.lang."));
+    }
+
+    private static final Object PENDING = new Object();
+
+    private final Map<Object, Integer> encodedIds = new IdentityHashMap<>();
+
+    private final Set<Object> encoding = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final List<Object> decodedValues = new ArrayList<>();
+
+    /**
+     * Look up a value which is about to be encoded.
+     * If the value hasn't been encountered before then it's assigned the next id.
+     * @param value     the value
+     * @return          the id of the previously encoded value, or -1 if this is the first occurrence
+     */
+    public int encodeStart(Object value) {
+        final Integer id = encodedIds.get(value);
+        if (id != null) {
+            if (encoding.contains(value)) {
+                throw new CodecException(
+                        "Cyclic reference to value of type " + value.getClass().getName() +
+                                " - reference tracking only supports acyclic object graphs");
+            }
+            return id;
+        } else {
+            encodedIds.put(value, encodedIds.size());
+            encoding.add(value);
+            return -1;
+        }
+    }
+
+    /**
+     * Indicate that a value, first encountered via {@link #encodeStart(Object)}, has been encoded.
+     * @param value     the value
+     */
+    public void encodeEnd(Object value) {
+        encoding.remove(value);
+    }
+
+    /**
+     * Reserve the slot for a value which is about to be decoded.
+     * @return          the slot
+     */
+    public int decodeStart() {
+        decodedValues.add(PENDING);
+        return decodedValues.size() - 1;
+    }
+
+    /**
+     * Fill the slot reserved by {@link #decodeStart()} with the decoded value.
+     * @param slot      the slot
+     * @param value     the decoded value
+     */
+    public void decodeEnd(int slot, Object value) {
+        decodedValues.set(slot, value);
+    }
+
+    /**
+     * Resolve a back-reference to a previously decoded value.
+     * @param id        the reference id
+     * @return          the value
+     */
+    public Object decodedValue(int id) {
+        if (id >= decodedValues.size()) {
+            throw new CodecException("Reference id " + id + " is out of range");
+        }
+
+        final Object value = decodedValues.get(id);
+        if (value == PENDING) {
+            throw new CodecException("Reference id " + id + " refers to a value which hasn't been fully decoded");
+        }
+
+        return value;
+    }
+}
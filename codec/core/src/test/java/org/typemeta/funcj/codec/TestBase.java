@@ -188,6 +188,17 @@ public void testStaticCtor() throws Exception {
         roundTrip(StaticCtor.create(true), StaticCtor.class);
     }
 
+    @Test
+    public void testImmutable() throws Exception {
+        roundTrip(new Immutable("abc", 12, new double[]{1.2, -3.4}, LocalDate.of(2019, 4, 19)), Immutable.class);
+    }
+
+    @Test
+    public void testImmutableSubclass() throws Exception {
+        // The fields have the same type, so only their names distinguish the constructor parameters.
+        roundTrip(new ImmutableSub(1, 2), ImmutableSub.class);
+    }
+
     @Test
     public void testRecursive() throws Exception {
         final Recursive rec = new Recursive(null, 0);
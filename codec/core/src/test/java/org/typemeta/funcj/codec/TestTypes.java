@@ -5,6 +5,7 @@
 import java.math.*;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.typemeta.funcj.codec.TestDataUtils.*;
 
@@ -1222,5 +1223,219 @@ private ShouldFail() {
             this.simpleType = null;
         }
     }
-}
 
+    public static final class Shared {
+        public final String name;
+        public final double[] values;
+
+        public Shared(String name, double[] values) {
+            this.name = name;
+            this.values = values;
+        }
+
+        private Shared() {
+            this(null, null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Shared that = (Shared) o;
+            return Objects.equals(name, that.name) &&
+                    Arrays.equals(values, that.values);
+        }
+    }
+
+    public static class SharedRefs {
+        public final Shared a;
+        public final Shared b;
+        public final SomeInterface c;
+        public final SomeInterface d;
+        public final Shared[] arr;
+
+        public SharedRefs(Init init) {
+            this.a = new Shared("shared", new double[]{1.2, 3.4, 5.6});
+            this.b = a;
+            this.c = new SomeClass("some");
+            this.d = c;
+            this.arr = new Shared[]{a, null, b, new Shared("other", new double[0])};
+        }
+
+        private SharedRefs() {
+            this.a = null;
+            this.b = null;
+            this.c = null;
+            this.d = null;
+            this.arr = null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final SharedRefs that = (SharedRefs) o;
+            return Objects.equals(a, that.a) &&
+                    Objects.equals(b, that.b) &&
+                    Objects.equals(c, that.c) &&
+                    Objects.equals(d, that.d) &&
+                    Arrays.equals(arr, that.arr);
+        }
+    }
+
+    public static class Cyclic {
+        public Cyclic next;
+    }
+
+    public static final class Immutable {
+        public final String name;
+        public final int count;
+        public final double[] values;
+        public final LocalDate date;
+
+        public Immutable(String name, int count, double[] values, LocalDate date) {
+            this.name = name;
+            this.count = count;
+            this.values = values;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Immutable that = (Immutable) o;
+            return count == that.count &&
+                    Objects.equals(name, that.name) &&
+                    Arrays.equals(values, that.values) &&
+                    Objects.equals(date, that.date);
+        }
+    }
+
+    public static final class Document {
+        public final String title;
+        public final List<String> lines;
+        public final Immutable meta;
+
+        public Document(String title, List<String> lines, Immutable meta) {
+            this.title = title;
+            this.lines = lines;
+            this.meta = meta;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Document that = (Document) o;
+            return Objects.equals(title, that.title) &&
+                    Objects.equals(lines, that.lines) &&
+                    Objects.equals(meta, that.meta);
+        }
+
+        @Override
+        public String toString() {
+            return "Document{" +
+                    "title=" + title +
+                    ", lines=" + lines +
+                    '}';
+        }
+    }
+
+    public static class ImmutableBase {
+        public final int x;
+
+        public ImmutableBase(int x) {
+            this.x = x;
+        }
+    }
+
+    public static final class ImmutableSub extends ImmutableBase {
+        public final int y;
+
+        public ImmutableSub(int x, int y) {
+            super(x);
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final ImmutableSub that = (ImmutableSub) o;
+            return x == that.x && y == that.y;
+        }
+
+        @Override
+        public String toString() {
+            return "ImmutableSub{x=" + x + ", y=" + y + "}";
+        }
+    }
+
+    /**
+     * A type which counts how many instances have been constructed,
+     * which allows tests to check that projected decodes don't construct skipped values.
+     */
+    public static final class Counted {
+        public static final AtomicInteger constructed = new AtomicInteger();
+
+        public final String label;
+        public final double[] values;
+
+        private Counted() {
+            this(null, null);
+        }
+
+        public Counted(String label, double[] values) {
+            constructed.incrementAndGet();
+            this.label = label;
+            this.values = values;
+        }
+    }
+
+    public static final class Projected {
+        public int id;
+        public Counted single;
+        public List<Counted> list;
+        public Map<String, Counted> map;
+        public Map<Integer, Counted> intMap;
+        public Counted[] arr;
+        public Object dyn;
+        public int[] ints;
+        public String name;
+
+        public static Projected create() {
+            final Projected val = new Projected();
+            val.id = 42;
+            val.single = new Counted("single", new double[]{1.0});
+            val.list = new ArrayList<>(Arrays.asList(new Counted("a", null), null, new Counted("b", new double[0])));
+            val.map = new TreeMap<>(Collections.singletonMap("k", new Counted("v", new double[]{2.0})));
+            val.intMap = new HashMap<>(Collections.singletonMap(7, new Counted("seven", null)));
+            val.arr = new Counted[]{new Counted("x", null), null};
+            val.dyn = new Counted("dyn", new double[]{3.0, 4.0});
+            val.ints = new int[]{1, 2, 3};
+            val.name = "last";
+            return val;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.typemeta.funcj.codec.bytes;
+
+import org.junit.*;
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.utils.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.Deflater;
+
+public class BlockCompressedBytesCodecTest extends TestBase {
+
+    @Override
+    protected <T> void roundTrip(T val, Class<T> clazz) {
+        // Use a small block size, so that values span several blocks.
+        final ByteConfig.Builder cfgBldr = ByteConfig.builder()
+                .compressionLevel(Deflater.BEST_SPEED)
+                .compressionBlockSize(64);
+        final ByteCodecCore codec = prepareCodecCore(cfgBldr, Codecs::byteCodec);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encodeCompressed(clazz, val, baos);
+
+        final byte[] ba = baos.toByteArray();
+
+        if (printData()) {
+            System.out.println(TestDataUtils.printHexBinary(ba));
+        }
+
+        if (printSizes()) {
+            System.out.println("Encoded block-compressed byte stream " + clazz.getSimpleName() + " data size = " + ba.length + " bytes");
+        }
+
+        final T val2 = codec.decodeCompressed(clazz, new ByteArrayInputStream(ba));
+
+        if (!printData() && !val.equals(val2)) {
+            System.out.println(TestDataUtils.printHexBinary(ba));
+        }
+
+        Assert.assertEquals(val, val2);
+    }
+
+    private static List<TestTypes.IntegerData> testValues() {
+        final List<TestTypes.IntegerData> vals = new ArrayList<>();
+        for (int i = 0; i < 50; ++i) {
+            vals.add(new TestTypes.IntegerData(TestTypes.Init.INIT));
+        }
+        return vals;
+    }
+
+    @Test
+    public void testParallelDecompression() {
+        final ByteCodecCore codec = prepareCodecCore(
+                ByteConfig.builder().compressionBlockSize(256),
+                Codecs::byteCodec);
+
+        final List<TestTypes.IntegerData> vals = testValues();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            codec.encodeCompressed(List.class, vals, baos);
+
+            final List<?> vals2 = codec.decodeCompressed(
+                    List.class,
+                    new ByteArrayInputStream(baos.toByteArray()),
+                    executor);
+
+            Assert.assertEquals(vals, vals2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelEncodeCompressed() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final List<TestTypes.IntegerData> vals = testValues();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            codec.encodeParallelCompressed(TestTypes.IntegerData.class, vals, baos, executor, 8);
+
+            final ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+            codec.encodeParallel(TestTypes.IntegerData.class, vals, uncompressed, executor, 8);
+            Assert.assertTrue(baos.size() < uncompressed.size());
+
+            final List<TestTypes.IntegerData> vals2 = codec.decodeParallelCompressed(
+                    TestTypes.IntegerData.class,
+                    new ByteArrayInputStream(baos.toByteArray()),
+                    executor);
+
+            Assert.assertEquals(vals, vals2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBlockIndex() throws IOException {
+        final ByteCodecCore codec = prepareCodecCore(
+                ByteConfig.builder().compressionBlockSize(100),
+                Codecs::byteCodec);
+
+        final List<TestTypes.IntegerData> vals = testValues();
+
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        codec.encode(List.class, vals, raw);
+
+        final File file = File.createTempFile("BlockCompressedBytesCodecTest", ".bin");
+        try {
+            try (OutputStream os = new FileOutputStream(file)) {
+                codec.encodeCompressed(List.class, vals, os);
+            }
+
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                final List<BlockCompression.Block> blocks = BlockCompression.readIndex(raf);
+                Assert.assertEquals((raw.size() + 99) / 100, blocks.size());
+
+                final ByteArrayOutputStream data = new ByteArrayOutputStream();
+                for (BlockCompression.Block block : blocks) {
+                    data.write(BlockCompression.readBlock(raf, block));
+                }
+
+                Assert.assertArrayEquals(raw.toByteArray(), data.toByteArray());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testStreamsUsableAfterRelease() throws IOException {
+        final byte[] raw = new byte[1000];
+        for (int i = 0; i < raw.length; ++i) {
+            raw[i] = (byte)(i % 7);
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final BlockCompression.BlockOutputStream bos = new BlockCompression.BlockOutputStream(baos, Deflater.BEST_SPEED, 300);
+        bos.write(raw);
+        bos.finish();
+        bos.finish();
+        bos.close();
+
+        try {
+            bos.write(0);
+            Assert.fail("Expected an IOException");
+        } catch (IOException ex) {
+            // Expected - the stream has been finished, and its Deflater released.
+        }
+
+        final BlockCompression.BlockInputStream bis =
+                new BlockCompression.BlockInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        final byte[] raw2 = new byte[raw.length];
+        new DataInputStream(bis).readFully(raw2);
+        Assert.assertArrayEquals(raw, raw2);
+
+        // The Inflater has been released once the end of the blocks is reached.
+        Assert.assertEquals(-1, bis.read());
+        Assert.assertEquals(-1, bis.read());
+        bis.close();
+        bis.close();
+    }
+
+    @Test(expected = CodecException.class)
+    public void testRejectsUncompressedData() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.IntegerData.class, new TestTypes.IntegerData(TestTypes.Init.INIT), baos);
+
+        codec.decodeCompressed(TestTypes.IntegerData.class, new ByteArrayInputStream(baos.toByteArray()));
+    }
+}
@@ -1,9 +1,14 @@
 package org.typemeta.funcj.codec.bytes;
 
-import org.junit.Assert;
+import org.junit.*;
 import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.delta.DeltaCodec;
+import org.typemeta.funcj.codec.misc.SimpleType;
+import org.typemeta.funcj.codec.utils.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 public class BytesCodecTest extends TestBase {
 
@@ -35,4 +40,716 @@ protected <T> void roundTrip(T val, Class<T> clazz) {
 
         Assert.assertEquals(val, val2);
     }
+
+    @Test
+    public void testParallelRoundTrip() throws Exception {
+        final ByteConfig.Builder cfgBldr = ByteConfig.builder();
+        final ByteCodecCore codec = prepareCodecCore(cfgBldr, Codecs::byteCodec);
+
+        final List<TestTypes.IntegerData> vals = new ArrayList<>();
+        for (int i = 0; i < 25; ++i) {
+            vals.add(i % 2 == 0 ? new TestTypes.IntegerData() : new TestTypes.IntegerData(TestTypes.Init.INIT));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            codec.encodeParallel(TestTypes.IntegerData.class, vals, baos, executor, 4);
+
+            final ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+            final List<TestTypes.IntegerData> vals2 =
+                    codec.decodeParallel(TestTypes.IntegerData.class, bais, executor);
+
+            Assert.assertEquals(vals, vals2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void decodeParallelIndex(int... index) throws IOException {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DataOutputStream dos = new DataOutputStream(baos);
+        for (int i : index) {
+            dos.writeInt(i);
+        }
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            codec.decodeParallel(TestTypes.IntegerData.class, new ByteArrayInputStream(baos.toByteArray()), executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = CodecException.class)
+    public void testParallelNegativeChunkCountRejected() throws IOException {
+        decodeParallelIndex(-1);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testParallelNegativeChunkLengthRejected() throws IOException {
+        decodeParallelIndex(2, 10, -10);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testParallelTruncatedChunkIndexRejected() throws IOException {
+        decodeParallelIndex(Integer.MAX_VALUE, 10);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testParallelTruncatedChunkRejected() throws IOException {
+        decodeParallelIndex(1, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testParallelFirstUse() throws Exception {
+        final List<TestTypes.Custom> vals = new ArrayList<>();
+        for (int i = 0; i < 16; ++i) {
+            vals.add(new TestTypes.Custom(TestTypes.Init.INIT));
+        }
+
+        // A fresh core for each iteration, so the chunks race to construct the codecs they share.
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 20; ++i) {
+                final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                codec.encodeParallel(TestTypes.Custom.class, vals, baos, executor, 1);
+
+                final ByteCodecCore codec2 = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+                final List<TestTypes.Custom> vals2 = codec2.decodeParallel(
+                        TestTypes.Custom.class,
+                        new ByteArrayInputStream(baos.toByteArray()),
+                        executor);
+
+                Assert.assertEquals(vals, vals2);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentRoundTrip() throws Exception {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final TestTypes.Custom val = new TestTypes.Custom(TestTypes.Init.INIT);
+
+        // Every thread accesses the private fields reflectively through the same field codecs.
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<TestTypes.Custom>> results = new ArrayList<>();
+            for (int i = 0; i < 2000; ++i) {
+                results.add(executor.submit(() -> {
+                    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    codec.encode(TestTypes.Custom.class, val, baos);
+                    return codec.decode(TestTypes.Custom.class, new ByteArrayInputStream(baos.toByteArray()));
+                }));
+            }
+
+            for (Future<TestTypes.Custom> result : results) {
+                Assert.assertEquals(val, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testReferenceTracking() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder().referenceTracking(true), Codecs::byteCodec);
+        final ByteCodecCore untrackedCodec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final TestTypes.SharedRefs val = new TestTypes.SharedRefs(TestTypes.Init.INIT);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.SharedRefs.class, val, baos);
+        final ByteArrayOutputStream untracked = new ByteArrayOutputStream();
+        untrackedCodec.encode(TestTypes.SharedRefs.class, val, untracked);
+
+        final TestTypes.SharedRefs val2 = codec.decode(TestTypes.SharedRefs.class, new ByteArrayInputStream(baos.toByteArray()));
+
+        Assert.assertEquals(val, val2);
+        Assert.assertSame(val2.a, val2.b);
+        Assert.assertSame(val2.c, val2.d);
+        Assert.assertSame(val2.a, val2.arr[0]);
+        Assert.assertSame(val2.a, val2.arr[2]);
+        Assert.assertTrue(baos.size() < untracked.size());
+    }
+
+    @Test(expected = CodecException.class)
+    public void testReferenceTrackingRejectsCycles() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder().referenceTracking(true), Codecs::byteCodec);
+
+        final TestTypes.Cyclic val = new TestTypes.Cyclic();
+        val.next = new TestTypes.Cyclic();
+        val.next.next = val;
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Cyclic.class, val, baos);
+    }
+
+    @Test
+    public void testMetrics() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder().collectMetrics(true), Codecs::byteCodec);
+
+        final TestTypes.SharedRefs val = new TestTypes.SharedRefs(TestTypes.Init.INIT);
+
+        long size = 0;
+        for (int i = 0; i < 2; ++i) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            codec.encode(TestTypes.SharedRefs.class, val, baos);
+            size += baos.size();
+            codec.decode(TestTypes.SharedRefs.class, new ByteArrayInputStream(baos.toByteArray()));
+        }
+
+        final CodecMetrics.Snapshot snapshot = codec.metrics().snapshot();
+        final CodecMetrics.TypeMetrics refsMetrics = snapshot.types.get(TestTypes.SharedRefs.class);
+        Assert.assertEquals(2, refsMetrics.encodeCount);
+        Assert.assertEquals(2, refsMetrics.decodeCount);
+        Assert.assertEquals(size, refsMetrics.outputSize);
+
+        // Two fields and four array elements (including a null) per round trip.
+        final CodecMetrics.TypeMetrics sharedMetrics = snapshot.types.get(TestTypes.Shared.class);
+        Assert.assertEquals(12, sharedMetrics.encodeCount);
+        Assert.assertEquals(12, sharedMetrics.decodeCount);
+
+        Assert.assertTrue(snapshot.cacheMisses > 0);
+        Assert.assertTrue(snapshot.cacheHits > 0);
+
+        codec.metrics().reset();
+        Assert.assertEquals(0, codec.metrics().snapshot().types.get(TestTypes.SharedRefs.class).encodeCount);
+    }
+
+    @Test
+    public void testMetricsDisabled() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.SharedRefs.class, new TestTypes.SharedRefs(TestTypes.Init.INIT), baos);
+
+        final CodecMetrics.Snapshot snapshot = codec.metrics().snapshot();
+        Assert.assertTrue(snapshot.types.isEmpty());
+        Assert.assertEquals(0, snapshot.cacheHits + snapshot.cacheMisses);
+    }
+
+    @Test
+    public void testPrepare() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final Set<Class<?>> types = codec.prepare(TestTypes.SharedRefs.class);
+        Assert.assertTrue(types.contains(TestTypes.SharedRefs.class));
+        Assert.assertTrue(types.contains(TestTypes.Shared.class));
+        Assert.assertTrue(types.contains(TestTypes.Shared[].class));
+
+        Assert.assertTrue(codec.prepare(TestTypes.SharedRefs.class).isEmpty());
+    }
+
+    @Test
+    public void testParallelPrepare() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Set<Class<?>> types = codec.prepare(
+                    executor,
+                    TestTypes.IntegerData.class,
+                    TestTypes.Recursive.class,
+                    TestTypes.SharedRefs.class,
+                    TestTypes.Immutable.class);
+            Assert.assertTrue(types.contains(TestTypes.IntegerData.class));
+            Assert.assertTrue(types.contains(TestTypes.Recursive.class));
+            Assert.assertTrue(types.contains(TestTypes.SharedRefs.class));
+            Assert.assertTrue(types.contains(TestTypes.Shared.class));
+            Assert.assertTrue(types.contains(TestTypes.Immutable.class));
+
+            Assert.assertTrue(codec.prepare(executor, TestTypes.SharedRefs.class).isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = CodecException.class)
+    public void testParallelPrepareFailure() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Not in an allowed package.
+            codec.prepare(executor, TestTypes.IntegerData.class, java.io.File.class);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentPrepare() throws Exception {
+        final Class<?>[] classes = {
+                TestTypes.IntegerData.class,
+                TestTypes.Recursive.class,
+                TestTypes.SharedRefs.class,
+                TestTypes.Immutable.class
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(classes.length);
+        try {
+            for (int i = 0; i < 20; ++i) {
+                final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+                final CountDownLatch start = new CountDownLatch(1);
+
+                final List<Future<Set<Class<?>>>> results = new ArrayList<>();
+                for (Class<?> clazz : classes) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return codec.prepare(clazz);
+                    }));
+                }
+                start.countDown();
+
+                // Each codec is created by exactly one of the threads,
+                // so each type is reported by exactly one prepare call.
+                final Set<Class<?>> all = new HashSet<>();
+                int total = 0;
+                for (Future<Set<Class<?>>> result : results) {
+                    final Set<Class<?>> types = result.get();
+                    all.addAll(types);
+                    total += types.size();
+                }
+                Assert.assertEquals(all.size(), total);
+                Assert.assertTrue(all.containsAll(Arrays.asList(classes)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPrepareAll() {
+        final ByteConfig.Builder cfgBldr = ByteConfig.builder();
+        cfgBldr.registerAllowedPackage(SimpleType.class.getPackage());
+        final ByteCodecCore codec = prepareCodecCore(cfgBldr, Codecs::byteCodec);
+
+        final Set<Class<?>> types = codec.prepareAll(SimpleType.class.getPackage());
+        Assert.assertTrue(types.contains(SimpleType.class));
+    }
+
+    @Test
+    public void testParallelPrepareAll() {
+        final ByteConfig.Builder cfgBldr = ByteConfig.builder();
+        cfgBldr.registerAllowedPackage(SimpleType.class.getPackage());
+        final ByteCodecCore codec = prepareCodecCore(cfgBldr, Codecs::byteCodec);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Set<Class<?>> types = codec.prepareAll(SimpleType.class.getPackage(), executor);
+            Assert.assertTrue(types.contains(SimpleType.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFieldSelector() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final TestTypes.Recursive rec = new TestTypes.Recursive(new TestTypes.Recursive(null, 0), 1);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Recursive.class, rec, out);
+
+        final TestTypes.Recursive rec2 =
+                codec.decode(TestTypes.Recursive.class, new ByteArrayInputStream(out.toByteArray()), FieldSelector.of("next.id"));
+
+        Assert.assertEquals(new TestTypes.Recursive(new TestTypes.Recursive(null, 0), -1), rec2);
+
+        final TestTypes.Immutable imm = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        final ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Immutable.class, imm, out2);
+
+        final TestTypes.Immutable imm2 =
+                codec.decode(TestTypes.Immutable.class, new ByteArrayInputStream(out2.toByteArray()), FieldSelector.of("name", "values"));
+
+        Assert.assertEquals(new TestTypes.Immutable("abc", 0, new double[]{1.2}, null), imm2);
+    }
+
+    @Test
+    public void testFieldSelectorSkipsUnselected() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final TestTypes.Projected val = TestTypes.Projected.create();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Projected.class, val, out);
+
+        final int constructed = TestTypes.Counted.constructed.get();
+
+        final TestTypes.Projected val2 =
+                codec.decode(TestTypes.Projected.class, new ByteArrayInputStream(out.toByteArray()), FieldSelector.of("id", "name"));
+
+        Assert.assertEquals(constructed, TestTypes.Counted.constructed.get());
+        Assert.assertEquals(val.id, val2.id);
+        Assert.assertEquals(val.name, val2.name);
+        Assert.assertNull(val2.single);
+        Assert.assertNull(val2.list);
+        Assert.assertNull(val2.dyn);
+
+        final TestTypes.Projected val3 =
+                codec.decode(TestTypes.Projected.class, new ByteArrayInputStream(out.toByteArray()), FieldSelector.of("single.label", "name"));
+
+        Assert.assertEquals(constructed + 1, TestTypes.Counted.constructed.get());
+        Assert.assertEquals(val.single.label, val3.single.label);
+        Assert.assertNull(val3.single.values);
+        Assert.assertEquals(val.name, val3.name);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testFieldSelectorRejectsReferenceTracking() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder().referenceTracking(true), Codecs::byteCodec);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Shared.class, new TestTypes.Shared("abc", null), out);
+
+        codec.decode(TestTypes.Shared.class, new ByteArrayInputStream(out.toByteArray()), FieldSelector.of("name"));
+    }
+
+    @Test
+    public void testEncodedValueCache() {
+        final ByteCodecCore codec = prepareCodecCore(
+                ByteConfig.builder().registerEncodedValueCache(TestTypes.Immutable.class, 16),
+                Codecs::byteCodec);
+        final ByteCodecCore uncachedCodec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final TestTypes.Immutable imm = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        final TestTypes.Immutable imm2 = new TestTypes.Immutable("def", 34, new double[]{5.6}, null);
+        final TestTypes.Immutable[] arr = {imm, imm2, imm, null, imm2};
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Immutable[].class, arr, out);
+
+        final ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        uncachedCodec.encode(TestTypes.Immutable[].class, arr, out2);
+
+        Assert.assertArrayEquals(out2.toByteArray(), out.toByteArray());
+        Assert.assertArrayEquals(
+                arr,
+                codec.decode(TestTypes.Immutable[].class, new ByteArrayInputStream(out.toByteArray())));
+
+        final EncodedValueCache<?> cache = codec.encodedValueCache(TestTypes.Immutable.class);
+        Assert.assertEquals(2, cache.misses());
+        Assert.assertEquals(2, cache.hits());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEncodedValueCacheEviction() {
+        final ByteCodecCore codec = prepareCodecCore(
+                ByteConfig.builder().registerEncodedValueCache(TestTypes.Immutable.class, 1),
+                Codecs::byteCodec);
+
+        final TestTypes.Immutable imm = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        final TestTypes.Immutable imm2 = new TestTypes.Immutable("def", 34, new double[]{5.6}, null);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Immutable[].class, new TestTypes.Immutable[]{imm, imm2, imm}, out);
+
+        final EncodedValueCache<?> cache = codec.encodedValueCache(TestTypes.Immutable.class);
+        Assert.assertEquals(3, cache.misses());
+        Assert.assertEquals(0, cache.hits());
+        Assert.assertEquals(2, cache.evictions());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test(expected = CodecException.class)
+    public void testEncodedValueCacheRejectsReferenceTracking() {
+        final ByteCodecCore codec = prepareCodecCore(
+                ByteConfig.builder()
+                        .registerEncodedValueCache(TestTypes.Immutable.class, 16)
+                        .referenceTracking(true),
+                Codecs::byteCodec);
+
+        final TestTypes.Immutable imm = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        codec.encode(TestTypes.Immutable.class, imm, new ByteArrayOutputStream());
+    }
+
+    private static <T> byte[] encodeDelta(DeltaCodec<ByteTypes.InStream, ByteTypes.OutStream> deltaCodec, Class<T> clazz, T oldVal, T newVal) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        deltaCodec.encodeDelta(clazz, oldVal, newVal, ByteTypes.outputOf(baos));
+        return baos.toByteArray();
+    }
+
+    private static <T> T applyDelta(DeltaCodec<ByteTypes.InStream, ByteTypes.OutStream> deltaCodec, Class<T> clazz, T oldVal, byte[] delta) {
+        return deltaCodec.applyDelta(clazz, oldVal, ByteTypes.inputOf(new ByteArrayInputStream(delta)));
+    }
+
+    @Test
+    public void testDelta() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+        final DeltaCodec<ByteTypes.InStream, ByteTypes.OutStream> deltaCodec = DeltaCodec.of(codec);
+
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            lines.add("line " + i);
+        }
+        final TestTypes.Immutable meta = new TestTypes.Immutable("abc", 12, new double[]{1.2, 3.4}, null);
+        final TestTypes.Document doc = new TestTypes.Document("title", lines, meta);
+
+        final List<String> lines2 = new ArrayList<>(lines);
+        lines2.set(50, "changed");
+        lines2.add(51, "inserted");
+        final TestTypes.Document doc2 = new TestTypes.Document(
+                "title",
+                lines2,
+                new TestTypes.Immutable("abc", 13, new double[]{1.2, 3.4}, null));
+
+        final byte[] delta = encodeDelta(deltaCodec, TestTypes.Document.class, doc, doc2);
+
+        final ByteArrayOutputStream full = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Document.class, doc2, full);
+        Assert.assertTrue(delta.length * 10 < full.size());
+
+        final TestTypes.Document doc3 = applyDelta(deltaCodec, TestTypes.Document.class, doc, delta);
+        Assert.assertEquals(doc2, doc3);
+        Assert.assertSame(doc.title, doc3.title);
+        Assert.assertSame(doc.meta.values, doc3.meta.values);
+
+        final byte[] noDelta = encodeDelta(deltaCodec, TestTypes.Document.class, doc, doc);
+        Assert.assertSame(doc, applyDelta(deltaCodec, TestTypes.Document.class, doc, noDelta));
+
+        final byte[] nullDelta = encodeDelta(deltaCodec, TestTypes.Document.class, null, doc2);
+        Assert.assertEquals(doc2, applyDelta(deltaCodec, TestTypes.Document.class, null, nullDelta));
+    }
+
+    @Test
+    public void testDeltaRecursive() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+        final DeltaCodec<ByteTypes.InStream, ByteTypes.OutStream> deltaCodec = DeltaCodec.of(codec);
+
+        final TestTypes.Recursive tail = new TestTypes.Recursive(null, 3);
+        final TestTypes.Recursive rec = new TestTypes.Recursive(new TestTypes.Recursive(tail, 2), 1);
+        final TestTypes.Recursive rec2 = new TestTypes.Recursive(new TestTypes.Recursive(tail, 4), 1);
+
+        final byte[] delta = encodeDelta(deltaCodec, TestTypes.Recursive.class, rec, rec2);
+        Assert.assertEquals(rec2, applyDelta(deltaCodec, TestTypes.Recursive.class, rec, delta));
+    }
+
+    @Test(expected = CodecException.class)
+    public void testDeltaRejectsReferenceTracking() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder().referenceTracking(true), Codecs::byteCodec);
+        DeltaCodec.of(codec);
+    }
+
+    @Test
+    public void testRecordStream() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final List<TestTypes.IntegerData> vals = new ArrayList<>();
+        for (int i = 0; i < 2000; ++i) {
+            vals.add(i % 2 == 0 ? new TestTypes.IntegerData() : new TestTypes.IntegerData(TestTypes.Init.INIT));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            codec.encodeRecords(TestTypes.IntegerData.class, vals.stream(), baos);
+
+            final List<TestTypes.IntegerData> vals2 = new ArrayList<>();
+            final long count = codec.decodeRecords(
+                    TestTypes.IntegerData.class,
+                    new ByteArrayInputStream(baos.toByteArray()),
+                    executor,
+                    vals2::add);
+
+            Assert.assertEquals(vals.size(), count);
+            Assert.assertEquals(vals, vals2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRecordStreamDirectExecutor() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final List<String> vals = new ArrayList<>();
+        for (int i = 0; i < 20000; ++i) {
+            vals.add("value " + i);
+        }
+
+        // Enough records to fill every buffer, which must not stall the producer.
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encodeRecords(String.class, vals.iterator(), baos);
+        Assert.assertTrue(baos.size() > RecordStreams.DEFAULT_BUFFER_SIZE * RecordStreams.DEFAULT_BUFFER_COUNT);
+
+        final List<String> vals2 = new ArrayList<>();
+        final long count = codec.decodeRecords(
+                String.class,
+                new ByteArrayInputStream(baos.toByteArray()),
+                Runnable::run,
+                vals2::add);
+
+        Assert.assertEquals(vals.size(), count);
+        Assert.assertEquals(vals, vals2);
+    }
+
+    @Test
+    public void testRecordStreamBackpressure() throws Exception {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        // An output stream which blocks until released, to stall the writer.
+        final OutputStream os = new FilterOutputStream(baos) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    throw new InterruptedIOException();
+                }
+                out.write(b, off, len);
+            }
+        };
+
+        try {
+            final RecordStreams.Encoder<String> enc = RecordStreams.encoder(
+                    os,
+                    16,
+                    2,
+                    (value, out) -> codec.encode(String.class, value, out));
+
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < 100; ++i) {
+                    enc.accept("value " + i);
+                }
+                enc.close();
+            });
+            producer.start();
+
+            // The producer fills both buffers then blocks, as the writer is stalled.
+            Thread.sleep(200);
+            Assert.assertTrue(producer.isAlive());
+            Assert.assertTrue(enc.count() < 100);
+
+            release.countDown();
+            producer.join(10000);
+            Assert.assertFalse(producer.isAlive());
+
+            final List<String> vals = new ArrayList<>();
+            codec.decodeRecords(String.class, new ByteArrayInputStream(baos.toByteArray()), executor, vals::add);
+            Assert.assertEquals(100, vals.size());
+            Assert.assertEquals("value 99", vals.get(99));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPooledStreams() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        // The pooled stream for the current thread is reused by each encode and decode.
+        for (int i = 0; i < 10; ++i) {
+            final TestTypes.IntegerData val = new TestTypes.IntegerData(TestTypes.Init.INIT);
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            codec.encode(TestTypes.IntegerData.class, val, baos);
+            Assert.assertEquals(
+                    val,
+                    codec.decode(TestTypes.IntegerData.class, new ByteArrayInputStream(baos.toByteArray())));
+        }
+
+        // A stream taken while the pooled stream is in use is a separate, unpooled, stream.
+        final ByteArrayOutputStream baos1 = new ByteArrayOutputStream();
+        final ByteArrayOutputStream baos2 = new ByteArrayOutputStream();
+        try (ByteTypes.OutStream out1 = ByteTypes.pooledOutputOf(baos1)) {
+            out1.writeString("outer");
+            codec.encode(String.class, "inner", baos2);
+            out1.writeString("outer");
+        }
+        Assert.assertEquals("inner", codec.decode(String.class, new ByteArrayInputStream(baos2.toByteArray())));
+
+        try (ByteTypes.InStream in = ByteTypes.pooledInputOf(new ByteArrayInputStream(baos1.toByteArray()))) {
+            Assert.assertEquals("outer", in.readString());
+            Assert.assertEquals("outer", in.readString());
+        }
+    }
+
+    @Test
+    public void testSizedCollectionBuilder() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        // Arrays.asList is constructed via an arg-array constructor, which uses the sized builder.
+        final List<String> vals = new ArrayList<>();
+        for (int i = 0; i < 3000; ++i) {
+            vals.add("s" + i);
+        }
+
+        for (List<String> val : Arrays.asList(Arrays.asList("a", "b"), Arrays.asList(vals.toArray(new String[0])), vals)) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            codec.encode(List.class, val, baos);
+            Assert.assertEquals(val, codec.decode(List.class, new ByteArrayInputStream(baos.toByteArray())));
+        }
+    }
+
+    @Test
+    public void testSizedCollectionBuilderRejectsCorruptSize() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        for (List<String> val : Arrays.asList(Arrays.asList("a", "b"), new ArrayList<>(Arrays.asList("a", "b")))) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            codec.encode(List.class, val, baos);
+
+            // Replace the length prefix with a huge size, which must not be allocated up-front.
+            final byte[] bytes = baos.toByteArray();
+            int pos = -1;
+            for (int i = 0; i + 4 <= bytes.length; ++i) {
+                if (bytes[i] == 0 && bytes[i + 1] == 0 && bytes[i + 2] == 0 && bytes[i + 3] == 2) {
+                    pos = i;
+                    break;
+                }
+            }
+            Assert.assertNotEquals(-1, pos);
+
+            for (int size : new int[]{Integer.MAX_VALUE, -1}) {
+                bytes[pos] = (byte)(size >>> 24);
+                bytes[pos + 1] = (byte)(size >>> 16);
+                bytes[pos + 2] = (byte)(size >>> 8);
+                bytes[pos + 3] = (byte)size;
+
+                try {
+                    codec.decode(List.class, new ByteArrayInputStream(bytes));
+                    Assert.fail("Expected a CodecException");
+                } catch (CodecException ex) {
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFieldsCtorRequiresParameterNames() throws Exception {
+        // JDK classes are compiled without parameter names, so the constructor must not be matched by position.
+        final Class<?> clazz = AbstractMap.SimpleImmutableEntry.class;
+        final List<java.lang.reflect.Field> fields =
+                Arrays.asList(clazz.getDeclaredField("key"), clazz.getDeclaredField("value"));
+
+        Assert.assertNull(ConstructorInvokers.fieldsCtor(clazz, fields));
+    }
+
+    @Test
+    public void testRecursiveFinalTypeEncoding() {
+        final ByteCodecCore codec = prepareCodecCore(ByteConfig.builder(), Codecs::byteCodec);
+
+        final TestTypes.Recursive val = new TestTypes.Recursive(new TestTypes.Recursive(null, 1), 2);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Recursive.class, val, baos);
+
+        // The nested value has a null marker, like the outer value, but no dynamic type marker.
+        Assert.assertEquals("0000010000000100000002", TestDataUtils.printHexBinary(baos.toByteArray()));
+
+        final TestTypes.Recursive val2 = codec.decode(TestTypes.Recursive.class, new ByteArrayInputStream(baos.toByteArray()));
+        Assert.assertEquals(val, val2);
+    }
 }
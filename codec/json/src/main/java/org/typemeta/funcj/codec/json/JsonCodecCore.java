@@ -3,6 +3,7 @@
 import org.typemeta.funcj.codec.CodecStrAPI;
 import org.typemeta.funcj.codec.impl.*;
 import org.typemeta.funcj.codec.json.JsonTypes.*;
+import org.typemeta.funcj.codec.utils.CodecMetrics;
 
 import java.io.*;
 
@@ -27,12 +28,24 @@ public JsonCodecCore() {
 
     @Override
     public <T> Writer encode(Class<? super T> type, T value, Writer writer) {
-        encodeImpl(type, value, JsonTypes.outputOf(writer));
+        if (metrics().isEnabled()) {
+            final CodecMetrics.CountingWriter cw = new CodecMetrics.CountingWriter(writer);
+            try (final OutStream out = JsonTypes.pooledOutputOf(cw)) {
+                encodeImpl(type, value, out);
+            }
+            metrics().recordOutputSize(type, cw.count());
+        } else {
+            try (final OutStream out = JsonTypes.pooledOutputOf(writer)) {
+                encodeImpl(type, value, out);
+            }
+        }
         return writer;
     }
 
     @Override
     public <T> T decode(Class<? super T> type, Reader reader) {
-        return decodeImpl(type, JsonTypes.inputOf(reader));
+        try (final InStream in = JsonTypes.pooledInputOf(reader)) {
+            return decodeImpl(type, in);
+        }
     }
 }
@@ -4,10 +4,12 @@
 import org.typemeta.funcj.codec.impl.CollectionCodec;
 import org.typemeta.funcj.codec.json.JsonTypes.*;
 import org.typemeta.funcj.codec.stream.StreamCodecFormat;
+import org.typemeta.funcj.codec.transcode.TranscodeSource;
 import org.typemeta.funcj.codec.utils.CodecException;
 import org.typemeta.funcj.functions.Functions;
 import org.typemeta.funcj.json.parser.JsonEvent;
 
+import java.io.StringWriter;
 import java.lang.reflect.*;
 import java.util.*;
 
@@ -17,7 +19,8 @@
  * Encoding via JSON streams.
  */
 @SuppressWarnings("unchecked")
-public class JsonCodecFormat implements StreamCodecFormat<InStream, OutStream, Config> {
+public class JsonCodecFormat
+        implements StreamCodecFormat<InStream, OutStream, Config>, TranscodeSource<InStream>, FragmentFormat<OutStream, String> {
 
     protected final Config config;
 
@@ -113,6 +116,241 @@ public <T> T decodeDynamicType(InStream in, Functions.F2<String, InStream, T> de
         return null;
     }
 
+    @Override
+    public OutStream encodeReference(int id, OutStream out) {
+        if (id >= 0) {
+            return out.startObject()
+                    .writeField(config.referenceFieldName())
+                    .writeInt(id)
+                    .endObject();
+        } else {
+            return out;
+        }
+    }
+
+    @Override
+    public int decodeReference(InStream in) {
+        if (in.notEOF() && in.currentEventType() == JsonEvent.Type.OBJECT_START) {
+            final String refFieldName = config.referenceFieldName();
+            final JsonEvent next = in.event(1);
+            if (next.type() == JsonEvent.Type.FIELD_NAME &&
+                    ((JsonEvent.FieldName)next).value.equals(refFieldName)) {
+                in.startObject();
+                in.readFieldName(refFieldName);
+                final int id = in.readInt();
+                in.endObject();
+                return id;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Per-thread scratch arrays, used when decoding primitive arrays.
+     * JSON arrays carry no length, so elements are accumulated into the scratch array,
+     * which is retained between calls, and then copied once into an array of the exact size.
+     * Primitive element decoders never re-enter the array codecs,
+     * so a single scratch array per element type and thread suffices.
+     */
+    protected static final class ScratchArrays {
+        /**
+         * Scratch arrays larger than this are not retained,
+         * to avoid pinning memory after decoding an unusually large array.
+         */
+        private static final int MAX_RETAINED_SIZE = 1 << 16;
+
+        private static final ThreadLocal<ScratchArrays> SCRATCH = ThreadLocal.withInitial(ScratchArrays::new);
+
+        static ScratchArrays get() {
+            return SCRATCH.get();
+        }
+
+        boolean[] booleans;
+
+        byte[] bytes;
+
+        char[] chars;
+
+        short[] shorts;
+
+        int[] ints;
+
+        long[] longs;
+
+        float[] floats;
+
+        double[] doubles;
+
+        boolean[] booleans(int defSize) {
+            if (booleans == null) {
+                booleans = new boolean[defSize];
+            }
+            return booleans;
+        }
+
+        byte[] bytes(int defSize) {
+            if (bytes == null) {
+                bytes = new byte[defSize];
+            }
+            return bytes;
+        }
+
+        char[] chars(int defSize) {
+            if (chars == null) {
+                chars = new char[defSize];
+            }
+            return chars;
+        }
+
+        short[] shorts(int defSize) {
+            if (shorts == null) {
+                shorts = new short[defSize];
+            }
+            return shorts;
+        }
+
+        int[] ints(int defSize) {
+            if (ints == null) {
+                ints = new int[defSize];
+            }
+            return ints;
+        }
+
+        long[] longs(int defSize) {
+            if (longs == null) {
+                longs = new long[defSize];
+            }
+            return longs;
+        }
+
+        float[] floats(int defSize) {
+            if (floats == null) {
+                floats = new float[defSize];
+            }
+            return floats;
+        }
+
+        double[] doubles(int defSize) {
+            if (doubles == null) {
+                doubles = new double[defSize];
+            }
+            return doubles;
+        }
+
+        boolean[] release(boolean[] arr, int size) {
+            if (arr.length > MAX_RETAINED_SIZE) {
+                booleans = null;
+            }
+            return Arrays.copyOf(arr, size);
+        }
+
+        byte[] release(byte[] arr, int size) {
+            if (arr.length > MAX_RETAINED_SIZE) {
+                bytes = null;
+            }
+            return Arrays.copyOf(arr, size);
+        }
+
+        char[] release(char[] arr, int size) {
+            if (arr.length > MAX_RETAINED_SIZE) {
+                chars = null;
+            }
+            return Arrays.copyOf(arr, size);
+        }
+
+        short[] release(short[] arr, int size) {
+            if (arr.length > MAX_RETAINED_SIZE) {
+                shorts = null;
+            }
+            return Arrays.copyOf(arr, size);
+        }
+
+        int[] release(int[] arr, int size) {
+            if (arr.length > MAX_RETAINED_SIZE) {
+                ints = null;
+            }
+            return Arrays.copyOf(arr, size);
+        }
+
+        long[] release(long[] arr, int size) {
+            if (arr.length > MAX_RETAINED_SIZE) {
+                longs = null;
+            }
+            return Arrays.copyOf(arr, size);
+        }
+
+        float[] release(float[] arr, int size) {
+            if (arr.length > MAX_RETAINED_SIZE) {
+                floats = null;
+            }
+            return Arrays.copyOf(arr, size);
+        }
+
+        double[] release(double[] arr, int size) {
+            if (arr.length > MAX_RETAINED_SIZE) {
+                doubles = null;
+            }
+            return Arrays.copyOf(arr, size);
+        }
+    }
+
+
+    @Override
+    public void readObjectStart(InStream in) {
+        in.startObject();
+    }
+
+    @Override
+    public void readFieldStart(String name, InStream in) {
+        in.readFieldName(name);
+    }
+
+    @Override
+    public void readFieldEnd(InStream in) {
+    }
+
+    @Override
+    public void readObjectEnd(InStream in) {
+        in.endObject();
+    }
+
+    @Override
+    public int readArrayStart(InStream in) {
+        in.startArray();
+        return -1;
+    }
+
+    @Override
+    public boolean readArrayHasNext(InStream in) {
+        return in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END;
+    }
+
+    @Override
+    public void readElemStart(InStream in) {
+    }
+
+    @Override
+    public void readElemEnd(InStream in) {
+    }
+
+    @Override
+    public void readArrayEnd(InStream in) {
+        in.endArray();
+    }
+
+    @Override
+    public String captureFragment(Functions.F<OutStream, OutStream> encoder) {
+        final StringWriter sw = new StringWriter();
+        encoder.apply(JsonTypes.outputOf(sw));
+        return sw.toString();
+    }
+
+    @Override
+    public OutStream writeFragment(String fragment, OutStream out) {
+        return out.writeRaw(fragment);
+    }
+
     protected static class BooleanCodec implements Codec.BooleanCodec<InStream, OutStream, Config> {
 
         @Override
@@ -152,17 +390,18 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, boolean[]
 
         @Override
         public boolean[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            boolean[] arr = new boolean[config.defaultArraySize()];
+            final ScratchArrays scratch = ScratchArrays.get();
+            boolean[] arr = scratch.booleans(config.defaultArraySize());
             in.startArray();
             int i = 0;
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, config().resizeArray(arr.length));
+                    arr = scratch.booleans = Arrays.copyOf(arr, config().resizeArray(arr.length));
                 }
                 arr[i++] = booleanCodec().decodePrim(in);
             }
             in.endArray();
-            return Arrays.copyOf(arr, i);
+            return scratch.release(arr, i);
         }
     };
 
@@ -210,17 +449,18 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, byte[] va
 
         @Override
         public byte[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            byte[] arr = new byte[config.defaultArraySize()];
+            final ScratchArrays scratch = ScratchArrays.get();
+            byte[] arr = scratch.bytes(config.defaultArraySize());
             in.startArray();
             int i = 0;
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, config().resizeArray(arr.length));
+                    arr = scratch.bytes = Arrays.copyOf(arr, config().resizeArray(arr.length));
                 }
                 arr[i++] = byteCodec().decodePrim(in);
             }
             in.endArray();
-            return Arrays.copyOf(arr, i);
+            return scratch.release(arr, i);
         }
     };
 
@@ -268,17 +508,18 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, char[] va
 
         @Override
         public char[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            char[] arr = new char[config.defaultArraySize()];
+            final ScratchArrays scratch = ScratchArrays.get();
+            char[] arr = scratch.chars(config.defaultArraySize());
             in.startArray();
             int i = 0;
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, config().resizeArray(arr.length));
+                    arr = scratch.chars = Arrays.copyOf(arr, config().resizeArray(arr.length));
                 }
                 arr[i++] = charCodec().decodePrim(in);
             }
             in.endArray();
-            return Arrays.copyOf(arr, i);
+            return scratch.release(arr, i);
         }
     };
 
@@ -326,17 +567,18 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, short[] v
 
         @Override
         public short[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            short[] arr = new short[config.defaultArraySize()];
+            final ScratchArrays scratch = ScratchArrays.get();
+            short[] arr = scratch.shorts(config.defaultArraySize());
             in.startArray();
             int i = 0;
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, config().resizeArray(arr.length));
+                    arr = scratch.shorts = Arrays.copyOf(arr, config().resizeArray(arr.length));
                 }
                 arr[i++] = shortCodec().decodePrim(in);
             }
             in.endArray();
-            return Arrays.copyOf(arr, i);
+            return scratch.release(arr, i);
         }
     };
 
@@ -384,17 +626,18 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, int[] val
 
         @Override
         public int[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            int[] arr = new int[config.defaultArraySize()];
+            final ScratchArrays scratch = ScratchArrays.get();
+            int[] arr = scratch.ints(config.defaultArraySize());
             in.startArray();
             int i = 0;
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, config().resizeArray(arr.length));
+                    arr = scratch.ints = Arrays.copyOf(arr, config().resizeArray(arr.length));
                 }
                 arr[i++] = intCodec().decodePrim(in);
             }
             in.endArray();
-            return Arrays.copyOf(arr, i);
+            return scratch.release(arr, i);
         }
     };
 
@@ -442,17 +685,18 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, long[] va
 
         @Override
         public long[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            long[] arr = new long[config.defaultArraySize()];
+            final ScratchArrays scratch = ScratchArrays.get();
+            long[] arr = scratch.longs(config.defaultArraySize());
             in.startArray();
             int i = 0;
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, config().resizeArray(arr.length));
+                    arr = scratch.longs = Arrays.copyOf(arr, config().resizeArray(arr.length));
                 }
                 arr[i++] = longCodec().decodePrim(in);
             }
             in.endArray();
-            return Arrays.copyOf(arr, i);
+            return scratch.release(arr, i);
         }
     };
 
@@ -500,17 +744,18 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, float[] v
 
         @Override
         public float[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            float[] arr = new float[config.defaultArraySize()];
+            final ScratchArrays scratch = ScratchArrays.get();
+            float[] arr = scratch.floats(config.defaultArraySize());
             in.startArray();
             int i = 0;
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, config().resizeArray(arr.length));
+                    arr = scratch.floats = Arrays.copyOf(arr, config().resizeArray(arr.length));
                 }
                 arr[i++] = floatCodec().decodePrim(in);
             }
             in.endArray();
-            return Arrays.copyOf(arr, i);
+            return scratch.release(arr, i);
         }
     };
 
@@ -558,17 +803,18 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, double[]
 
         @Override
         public double[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            double[] arr = new double[config.defaultArraySize()];
+            final ScratchArrays scratch = ScratchArrays.get();
+            double[] arr = scratch.doubles(config.defaultArraySize());
             in.startArray();
             int i = 0;
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, config().resizeArray(arr.length));
+                    arr = scratch.doubles = Arrays.copyOf(arr, config().resizeArray(arr.length));
                 }
                 arr[i++] = doubleCodec().decodePrim(in);
             }
             in.endArray();
-            return Arrays.copyOf(arr, i);
+            return scratch.release(arr, i);
         }
     };
 
@@ -742,6 +988,7 @@ public T decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
             final Set<String> expNames = fields.keySet();
             final Set<String> actNames = new HashSet<>();
             final RA ra = objMeta.createBuilder();
+            final FieldSelector selector = core.fieldSelector();
 
             while (in.notEOF() && in.currentEventType() != JsonEvent.Type.OBJECT_END) {
                 final String name = in.readFieldName();
@@ -759,11 +1006,19 @@ public T decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
                                     " at location " + in.location());
                 } else {
                     actNames.add(name);
-                    fields.get(name).decodeField(ra, in);
+                    if (selector == FieldSelector.ALL) {
+                        fields.get(name).decodeField(ra, in);
+                    } else if (selector.isSelected(name)) {
+                        core.decodeSelectedField(selector, fields.get(name), ra, in);
+                    } else {
+                        in.skipNode();
+                    }
                 }
             }
 
-            checkFields(type, expNames, actNames);
+            if (selector == FieldSelector.ALL) {
+                checkFields(type, expNames, actNames);
+            }
 
             in.endObject();
 
@@ -39,4 +39,9 @@ public String keyFieldName() {
     public String valueFieldName() {
         return "@value";
     }
+
+    @Override
+    public String referenceFieldName() {
+        return "@ref";
+    }
 }
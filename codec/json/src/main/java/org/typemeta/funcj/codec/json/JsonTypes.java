@@ -21,6 +21,8 @@ public interface Config extends CodecConfig {
         String keyFieldName();
 
         String valueFieldName();
+
+        String referenceFieldName();
     }
 
     /**
@@ -70,6 +72,13 @@ public interface OutStream extends StreamCodecFormat.Output<OutStream> {
 
         OutStream startArray();
         OutStream endArray();
+
+        /**
+         * Write a previously encoded JSON value, such as a cached encoding of a value, as-is.
+         * @param json      the encoded JSON value
+         * @return          this stream
+         */
+        OutStream writeRaw(String json);
     }
 
     private static final int MAX_PARSER_LOOKAHEAD = 3;
@@ -81,4 +90,26 @@ public static JsonStreamParser inputOf(Reader reader) {
     public static JsonGenerator outputOf(Writer writer) {
         return new JsonGenerator(writer);
     }
+
+    /**
+     * Construct an input stream which reads from a {@link Reader},
+     * using the pooled parser for the current thread where possible.
+     * The stream must be closed after use, to return it to the pool.
+     * @param reader    the reader
+     * @return          the input stream
+     */
+    public static JsonStreamParser pooledInputOf(Reader reader) {
+        return JsonStreamParser.pooled(reader, MAX_PARSER_LOOKAHEAD);
+    }
+
+    /**
+     * Construct an output stream which writes to a {@link Writer},
+     * using the pooled generator for the current thread where possible.
+     * The stream must be closed after use, to return it to the pool.
+     * @param writer    the writer
+     * @return          the output stream
+     */
+    public static JsonGenerator pooledOutputOf(Writer writer) {
+        return JsonGenerator.pooled(writer);
+    }
 }
@@ -9,12 +9,75 @@
 
 public class JsonGenerator implements JsonTypes.OutStream {
 
-    private final Writer writer;
+    /**
+     * Per-thread generator, which is reset onto each new writer rather than re-allocated.
+     * If the pooled instance is already in use (e.g. it wasn't closed)
+     * then a new, unpooled, instance is created instead.
+     */
+    private static final class Pool {
+        JsonGenerator gen;
+        boolean inUse;
+    }
+
+    private static final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+    /**
+     * Construct a generator which writes to a {@link Writer},
+     * using the pooled generator for the current thread where possible.
+     * The generator is returned to the pool when it is closed.
+     * @param writer    the writer
+     * @return          the generator
+     */
+    public static JsonGenerator pooled(Writer writer) {
+        final Pool pool = pools.get();
+        if (pool.inUse) {
+            return new JsonGenerator(writer);
+        } else {
+            if (pool.gen == null) {
+                pool.gen = new JsonGenerator(writer, pool);
+            } else {
+                pool.gen.reset(writer);
+            }
+
+            pool.inUse = true;
+            return pool.gen;
+        }
+    }
+
+    private Writer writer;
 
     private boolean pendingComma = false;
 
+    private final Pool pool;
+
+    private JsonGenerator(Writer writer, Pool pool) {
+        this.writer = writer;
+        this.pool = pool;
+    }
+
     public JsonGenerator(Writer writer) {
+        this(writer, null);
+    }
+
+    /**
+     * Reset this generator so that it writes to a new {@link Writer},
+     * allowing the generator to be reused.
+     * @param writer    the writer
+     * @return          this generator
+     */
+    public JsonGenerator reset(Writer writer) {
         this.writer = writer;
+        this.pendingComma = false;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null && pool.gen == this) {
+            // Release the writer, so that it isn't retained by the pool.
+            reset(null);
+            pool.inUse = false;
+        }
     }
 
     private JsonGenerator writeUnquotedString(String value) {
@@ -213,4 +276,13 @@ public JsonGenerator endArray() {
         pendingComma = true;
         return writeUnquotedString(']');
     }
+
+    @Override
+    public JsonGenerator writeRaw(String json) {
+        if (pendingComma) {
+            writeComma();
+        }
+        pendingComma = true;
+        return writeUnquotedString(json);
+    }
 }
@@ -25,23 +25,85 @@ enum State {
         END
     }
 
+    /**
+     * Per-thread parser, which is reset onto each new reader rather than re-allocated.
+     * If the pooled instance is already in use (e.g. it wasn't closed)
+     * then a new, unpooled, instance is created instead.
+     */
+    private static final class Pool {
+        JsonStreamParser parser;
+        boolean inUse;
+    }
+
+    private static final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+    /**
+     * Construct a parser which reads from a {@link Reader},
+     * using the pooled parser for the current thread where possible.
+     * The parser is returned to the pool when it is closed.
+     * @param reader    the reader
+     * @param lookAhead the maximum lookahead
+     * @return          the parser
+     */
+    public static JsonStreamParser pooled(Reader reader, int lookAhead) {
+        final Pool pool = pools.get();
+        if (pool.inUse) {
+            return new JsonStreamParser(reader, lookAhead);
+        } else {
+            if (pool.parser == null || pool.parser.eventBuffer.length != lookAhead) {
+                pool.parser = new JsonStreamParser(new JsonTokeniser(reader), lookAhead, pool);
+            } else {
+                pool.parser.reset(reader);
+            }
+
+            pool.inUse = true;
+            return pool.parser;
+        }
+    }
+
     private final JsonTokeniser tokeniser;
     private int bufferPos = 0;
     private final JsonEvent[] eventBuffer;
     private final List<State> stateStack = new ArrayList<>();
     private State state = null;
+    private final Pool pool;
 
-    private JsonStreamParser(JsonTokeniser tokeniser, int lookAhead) {
+    private JsonStreamParser(JsonTokeniser tokeniser, int lookAhead, Pool pool) {
         this.tokeniser = tokeniser;
         this.eventBuffer = new JsonEvent[lookAhead];
+        this.pool = pool;
     }
 
     public JsonStreamParser(Reader reader, int lookAhead) {
-        this(new JsonTokeniser(reader), lookAhead);
+        this(new JsonTokeniser(reader), lookAhead, null);
     }
 
     public JsonStreamParser(Reader reader) {
-        this(new JsonTokeniser(reader), 1);
+        this(new JsonTokeniser(reader), 1, null);
+    }
+
+    /**
+     * Reset this parser so that it reads from a new {@link Reader},
+     * allowing the parser to be reused.
+     * @param reader    the reader
+     * @return          this parser
+     */
+    public JsonStreamParser reset(Reader reader) {
+        tokeniser.reset(reader);
+        bufferPos = 0;
+        Arrays.fill(eventBuffer, null);
+        stateStack.clear();
+        state = null;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null && pool.parser == this) {
+            // Release the reader, so that it isn't retained by the pool.
+            reset(null);
+            pool.inUse = false;
+        }
     }
 
     private CodecException raiseError(String msg) {
@@ -141,8 +203,29 @@ public JsonEvent event(int ahead) {
         return pullEventsIntoBuffer(ahead);
     }
 
+    /**
+     * Skip over the current node, which must be a value.
+     * If the node is an object field value, and no events have been read ahead,
+     * then the value is skipped by the tokeniser, without creating any events.
+     */
     @Override
     public void skipNode() {
+        if (eventBuffer[bufferPos] == null && (state == State.OBJECT_COLON || state == State.OBJECT_VALUE)) {
+            if (state == State.OBJECT_COLON) {
+                final JsonEvent event = tokeniser.getNextEvent();
+                if (event.type() != JsonEvent.Type.COLON) {
+                    throw unexpectedToken(event);
+                }
+            }
+
+            tokeniser.skipValue();
+            state = State.OBJECT_COMMA;
+        } else {
+            skipNodeEvents();
+        }
+    }
+
+    private void skipNodeEvents() {
         int depth = stateStack.size();
         while (true) {
             switch (currentEventType().type()) {
@@ -605,7 +605,7 @@ public JsValue encode(CodecCoreEx<JsValue, JsValue, Config> core, Collection<T>
             public Collection<T> decode(CodecCoreEx<JsValue, JsValue, Config> core, JsValue in) {
                 final JsArray jsa = in.asArray();
 
-                final CollectionBuilder<T> collectionBuilder = getCollectionBuilder(core);
+                final CollectionBuilder<T> collectionBuilder = getCollectionBuilder(core, jsa.size());
 
                 for (int i = 0; i < jsa.size(); ++i) {
                     collectionBuilder.add(elemCodec.decodeWithCheck(core, jsa.get(i)));
@@ -702,6 +702,7 @@ public T decode(CodecCoreEx<JsValue, JsValue, Config> core, JsValue in) {
             final Set<String> expNames = fields.keySet();
             final Set<String> actNames = new HashSet<>();
             final RA ra = objMeta.createBuilder();
+            final FieldSelector selector = core.fieldSelector();
 
             jso.forEach(field -> {
                 final String name = field.name();
@@ -717,7 +718,11 @@ public T decode(CodecCoreEx<JsValue, JsValue, Config> core, JsValue in) {
                     );
                 } else {
                     actNames.add(name);
-                    fields.get(name).decodeField(ra, field.value());
+                    if (selector == FieldSelector.ALL) {
+                        fields.get(name).decodeField(ra, field.value());
+                    } else if (selector.isSelected(name)) {
+                        core.decodeSelectedField(selector, fields.get(name), ra, field.value());
+                    }
                 }
             });
 
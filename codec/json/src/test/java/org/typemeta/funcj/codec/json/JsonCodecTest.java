@@ -2,8 +2,12 @@
 
 import org.junit.*;
 import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.delta.DeltaCodec;
+import org.typemeta.funcj.codec.utils.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 public class JsonCodecTest extends TestBase {
 
@@ -56,4 +60,240 @@ public void testDontFailOnUnrecognisedFields() {
 
         Assert.assertEquals(val, val2);
     }
+
+    @Test
+    public void testReferenceTracking() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder().referenceTracking(true), Codecs::jsonCodec);
+        final JsonCodecCore untrackedCodec = prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+
+        final TestTypes.SharedRefs val = new TestTypes.SharedRefs(TestTypes.Init.INIT);
+
+        final StringWriter sw = new StringWriter();
+        codec.encode(TestTypes.SharedRefs.class, val, sw);
+        final StringWriter untracked = new StringWriter();
+        untrackedCodec.encode(TestTypes.SharedRefs.class, val, untracked);
+
+        final TestTypes.SharedRefs val2 = codec.decode(TestTypes.SharedRefs.class, new StringReader(sw.toString()));
+
+        Assert.assertEquals(val, val2);
+        Assert.assertSame(val2.a, val2.b);
+        Assert.assertSame(val2.c, val2.d);
+        Assert.assertSame(val2.a, val2.arr[0]);
+        Assert.assertSame(val2.a, val2.arr[2]);
+        Assert.assertTrue(sw.toString().length() < untracked.toString().length());
+    }
+
+    @Test(expected = CodecException.class)
+    public void testReferenceTrackingRejectsCycles() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder().referenceTracking(true), Codecs::jsonCodec);
+
+        final TestTypes.Cyclic val = new TestTypes.Cyclic();
+        val.next = new TestTypes.Cyclic();
+        val.next.next = val;
+
+        final StringWriter sw = new StringWriter();
+        codec.encode(TestTypes.Cyclic.class, val, sw);
+    }
+
+    @Test
+    public void testImmutableFieldOrder() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+
+        final TestTypes.Immutable val = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+
+        final String raw = "{\"values\": [1.2], \"count\": 12, \"date\": null, \"name\": \"abc\"}";
+
+        final TestTypes.Immutable val2 = codec.decode(TestTypes.Immutable.class, new StringReader(raw));
+
+        Assert.assertEquals(val, val2);
+    }
+
+    @Test
+    public void testArgArrayTypeCtor() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+        codec.registerArgArrayCtor(
+                TestTypes.Shared.class,
+                ArgArrayTypeCtor.create(TestTypes.Shared.class, String.class, double[].class));
+
+        final TestTypes.Shared val = new TestTypes.Shared("abc", new double[]{1.2, 3.4});
+
+        final StringWriter sw = new StringWriter();
+        codec.encode(TestTypes.Shared.class, val, sw);
+
+        final TestTypes.Shared val2 = codec.decode(TestTypes.Shared.class, new StringReader(sw.toString()));
+
+        Assert.assertEquals(val, val2);
+    }
+
+    @Test
+    public void testFieldSelector() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+
+        final TestTypes.Recursive rec = new TestTypes.Recursive(new TestTypes.Recursive(null, 0), 1);
+        final StringWriter out = new StringWriter();
+        codec.encode(TestTypes.Recursive.class, rec, out);
+
+        final TestTypes.Recursive rec2 =
+                codec.decode(TestTypes.Recursive.class, new StringReader(out.toString()), FieldSelector.of("next.id"));
+
+        Assert.assertEquals(new TestTypes.Recursive(new TestTypes.Recursive(null, 0), -1), rec2);
+
+        final TestTypes.Immutable imm = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        final StringWriter out2 = new StringWriter();
+        codec.encode(TestTypes.Immutable.class, imm, out2);
+
+        final TestTypes.Immutable imm2 =
+                codec.decode(TestTypes.Immutable.class, new StringReader(out2.toString()), FieldSelector.of("name", "values"));
+
+        Assert.assertEquals(new TestTypes.Immutable("abc", 0, new double[]{1.2}, null), imm2);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testFieldSelectorRejectsReferenceTracking() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder().referenceTracking(true), Codecs::jsonCodec);
+
+        final StringWriter out = new StringWriter();
+        codec.encode(TestTypes.Shared.class, new TestTypes.Shared("abc", null), out);
+
+        codec.decode(TestTypes.Shared.class, new StringReader(out.toString()), FieldSelector.of("name"));
+    }
+
+    @Test
+    public void testEncodedValueCache() {
+        final JsonCodecCore codec = prepareCodecCore(
+                JsonConfig.builder().registerEncodedValueCache(TestTypes.Immutable.class, 16),
+                Codecs::jsonCodec);
+        final JsonCodecCore uncachedCodec = prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+
+        final TestTypes.Immutable imm = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        final TestTypes.Immutable imm2 = new TestTypes.Immutable("def", 34, new double[]{5.6}, null);
+        final TestTypes.Immutable[] arr = {imm, imm2, imm, null, imm2};
+
+        final StringWriter out = new StringWriter();
+        codec.encode(TestTypes.Immutable[].class, arr, out);
+
+        final StringWriter out2 = new StringWriter();
+        uncachedCodec.encode(TestTypes.Immutable[].class, arr, out2);
+
+        Assert.assertEquals(out2.toString(), out.toString());
+        Assert.assertArrayEquals(arr, codec.decode(TestTypes.Immutable[].class, new StringReader(out.toString())));
+
+        final EncodedValueCache<?> cache = codec.encodedValueCache(TestTypes.Immutable.class);
+        Assert.assertEquals(2, cache.misses());
+        Assert.assertEquals(2, cache.hits());
+    }
+
+    @Test
+    public void testDelta() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+        final DeltaCodec<JsonTypes.InStream, JsonTypes.OutStream> deltaCodec = DeltaCodec.of(codec);
+
+        final TestTypes.Immutable meta = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        final TestTypes.Document doc = new TestTypes.Document("title", new ArrayList<>(Arrays.asList("a", "b", "c", "d")), meta);
+        final TestTypes.Document doc2 = new TestTypes.Document(
+                "title",
+                new ArrayList<>(Arrays.asList("a", "x", "d")),
+                new TestTypes.Immutable("def", 12, new double[]{1.2}, null));
+
+        final StringWriter sw = new StringWriter();
+        deltaCodec.encodeDelta(TestTypes.Document.class, doc, doc2, JsonTypes.outputOf(sw));
+
+        final TestTypes.Document doc3 = deltaCodec.applyDelta(
+                TestTypes.Document.class,
+                doc,
+                JsonTypes.inputOf(new StringReader(sw.toString())));
+        Assert.assertEquals(doc2, doc3);
+        Assert.assertFalse(sw.toString().contains("title"));
+    }
+
+    @Test
+    public void testBlockCompressed() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder().compressionBlockSize(128), Codecs::jsonCodec);
+
+        final TestTypes.IntegerData val = new TestTypes.IntegerData(TestTypes.Init.INIT);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encodeCompressed(TestTypes.IntegerData.class, val, baos);
+
+        final StringWriter sw = new StringWriter();
+        codec.encode(TestTypes.IntegerData.class, val, sw);
+        Assert.assertTrue(baos.size() < sw.toString().length());
+
+        Assert.assertEquals(
+                val,
+                codec.decodeCompressed(TestTypes.IntegerData.class, new ByteArrayInputStream(baos.toByteArray())));
+    }
+
+    @Test
+    public void testRecordStream() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+
+        final List<TestTypes.IntegerData> vals = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            vals.add(new TestTypes.IntegerData(TestTypes.Init.INIT));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (RecordStreams.Encoder<TestTypes.IntegerData> enc =
+                         codec.recordEncoder(TestTypes.IntegerData.class, baos)) {
+                vals.forEach(enc);
+            }
+
+            final List<TestTypes.IntegerData> vals2 = new ArrayList<>();
+            codec.decodeRecords(
+                    TestTypes.IntegerData.class,
+                    new ByteArrayInputStream(baos.toByteArray()),
+                    executor,
+                    vals2::add);
+
+            Assert.assertEquals(vals, vals2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPooledStreams() {
+        final JsonCodecCore codec = prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+
+        // The pooled parser and generator for the current thread are reset for each decode and encode.
+        for (int i = 0; i < 10; ++i) {
+            final TestTypes.IntegerData val = new TestTypes.IntegerData(TestTypes.Init.INIT);
+            final StringWriter sw = new StringWriter();
+            codec.encode(TestTypes.IntegerData.class, val, sw);
+            Assert.assertEquals(val, codec.decode(TestTypes.IntegerData.class, new StringReader(sw.toString())));
+        }
+
+        // A failed decode leaves no state behind in the pooled parser.
+        try {
+            codec.decode(TestTypes.IntegerData.class, new StringReader("{\"x\": [1, "));
+            Assert.fail("Expected a failure");
+        } catch (RuntimeException ex) {
+        }
+
+        Assert.assertEquals("abc", codec.decode(String.class, new StringReader("\"abc\"")));
+    }
+
+    @Test
+    public void testSkipUnrecognisedFields() {
+        final JsonCodecCore codec = prepareCodecCore(
+                JsonConfig.builder().failOnUnrecognisedFields(false),
+                Codecs::jsonCodec);
+
+        final TestTypes.Custom val = new TestTypes.Custom(TestTypes.Init.INIT);
+
+        final StringWriter sw = new StringWriter();
+        codec.encode(TestTypes.Custom.class, val, sw);
+
+        // Unrecognised values containing escaped quotes and brackets within strings, and nested values.
+        final String raw = sw.toString().replace(
+                "\"flag\"",
+                "\"a\" : \"x\\\"}]\\\\\", " +
+                        "\"b\":[1, -2.5e3, [true, false, null], {\"c\": \"{[\"}], " +
+                        "\"d\" : 123 , \"e\":null, \"f\":{}, \"flag\"");
+
+        Assert.assertEquals(val, codec.decode(TestTypes.Custom.class, new StringReader(raw)));
+    }
 }
@@ -0,0 +1,85 @@
+package org.typemeta.funcj.codec.json;
+
+import org.junit.*;
+import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.bytes.*;
+import org.typemeta.funcj.codec.transcode.Transcoder;
+import org.typemeta.funcj.codec.utils.CodecException;
+
+import java.io.*;
+import java.time.LocalDate;
+
+public class JsonTranscoderTest extends TestBase {
+
+    private static ByteCodecCore byteCodec() {
+        return prepareCodecCore(ByteConfig.builder(), org.typemeta.funcj.codec.Codecs::byteCodec);
+    }
+
+    private static JsonCodecCore jsonCodec() {
+        return prepareCodecCore(JsonConfig.builder(), Codecs::jsonCodec);
+    }
+
+    @Override
+    protected <T> void roundTrip(T val, Class<T> clazz) {
+        final ByteCodecCore byteCodec = byteCodec();
+        final JsonCodecCore jsonCodec = jsonCodec();
+
+        // Bytes to JSON.
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byteCodec.encode(clazz, val, baos);
+
+        final StringWriter sw = new StringWriter();
+        Transcoder.of(byteCodec, jsonCodec).transcode(
+                clazz,
+                ByteTypes.inputOf(new ByteArrayInputStream(baos.toByteArray())),
+                JsonTypes.outputOf(sw));
+
+        if (printData()) {
+            System.out.println(sw);
+        }
+
+        Assert.assertEquals(val, jsonCodec.decode(clazz, new StringReader(sw.toString())));
+
+        // JSON to bytes.
+        final StringWriter sw2 = new StringWriter();
+        jsonCodec.encode(clazz, val, sw2);
+
+        final ByteArrayOutputStream baos2 = new ByteArrayOutputStream();
+        Transcoder.of(jsonCodec, byteCodec).transcode(
+                clazz,
+                JsonTypes.inputOf(new StringReader(sw2.toString())),
+                ByteTypes.outputOf(baos2));
+
+        Assert.assertEquals(val, byteCodec.decode(clazz, new ByteArrayInputStream(baos2.toByteArray())));
+    }
+
+    @Test
+    public void testTranscodedMatchesEncoded() {
+        final ByteCodecCore byteCodec = byteCodec();
+        final JsonCodecCore jsonCodec = jsonCodec();
+
+        final TestTypes.Immutable val =
+                new TestTypes.Immutable("abc", 12, new double[]{1.2, -3.4}, LocalDate.of(2019, 4, 19));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byteCodec.encode(TestTypes.Immutable.class, val, baos);
+
+        final StringWriter sw = new StringWriter();
+        Transcoder.of(byteCodec, jsonCodec).transcode(
+                TestTypes.Immutable.class,
+                ByteTypes.inputOf(new ByteArrayInputStream(baos.toByteArray())),
+                JsonTypes.outputOf(sw));
+
+        final StringWriter sw2 = new StringWriter();
+        jsonCodec.encode(TestTypes.Immutable.class, val, sw2);
+
+        Assert.assertEquals(sw2.toString(), sw.toString());
+    }
+
+    @Test(expected = CodecException.class)
+    public void testRejectsReferenceTracking() {
+        final JsonCodecCore jsonCodec =
+                prepareCodecCore(JsonConfig.builder().referenceTracking(true), Codecs::jsonCodec);
+        Transcoder.of(byteCodec(), jsonCodec);
+    }
+}
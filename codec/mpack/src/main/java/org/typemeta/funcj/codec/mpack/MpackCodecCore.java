@@ -3,8 +3,11 @@
 import org.typemeta.funcj.codec.CodecStrAPI;
 import org.typemeta.funcj.codec.impl.*;
 import org.typemeta.funcj.codec.mpack.MpackTypes.*;
+import org.typemeta.funcj.codec.mpack.io.OutputImpl;
+import org.typemeta.funcj.codec.utils.CodecMetrics;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 
 /**
  * Interface for classes which implement an encoding via MessagePack.
@@ -37,9 +40,18 @@ public MpackCodecCore() {
      */
     @Override
     public <T> OutputStream encode(Class<? super T> type, T value, OutputStream os) {
-        try (final OutStream out = MpackTypes.outputOf(os)) {
-            encodeImpl(type, value, out);
+        if (metrics().isEnabled()) {
+            final CodecMetrics.CountingOutputStream cos = new CodecMetrics.CountingOutputStream(os);
+            try (final OutStream out = MpackTypes.outputOf(cos)) {
+                encodeImpl(type, value, out);
+            }
+            metrics().recordOutputSize(type, cos.count());
             return os;
+        } else {
+            try (final OutStream out = MpackTypes.outputOf(os)) {
+                encodeImpl(type, value, out);
+                return os;
+            }
         }
     }
 
@@ -56,4 +68,48 @@ public <T> T decode(Class<? super T> type, InputStream is) {
             return decodeImpl(type, in);
         }
     }
+
+    /**
+     * Encode the given value into byte data and return the results as a byte array.
+     * The static type determines whether type information is written to recover the value's
+     * dynamic type.
+     * @param type      the static type of the value
+     * @param value     the value to be encoded
+     * @param <T>       the static type of the value
+     * @return          the byte data
+     */
+    public <T> byte[] encode(Class<? super T> type, T value) {
+        try (final OutputImpl out = OutputImpl.outputOfBuffer()) {
+            encodeImpl(type, value, out);
+            final byte[] bytes = out.toByteArray();
+            metrics().recordOutputSize(type, bytes.length);
+            return bytes;
+        }
+    }
+
+    /**
+     * Decode a value by reading byte data from the given byte array.
+     * @param type      the static type of the value to be decoded.
+     * @param bytes     the byte data
+     * @param <T>       the static type of the value
+     * @return          the decoded value
+     */
+    public <T> T decode(Class<? super T> type, byte[] bytes) {
+        try (final InStream in = MpackTypes.inputOf(bytes)) {
+            return decodeImpl(type, in);
+        }
+    }
+
+    /**
+     * Decode a value by reading byte data from the given {@link ByteBuffer}.
+     * @param type      the static type of the value to be decoded.
+     * @param buf       the byte buffer
+     * @param <T>       the static type of the value
+     * @return          the decoded value
+     */
+    public <T> T decode(Class<? super T> type, ByteBuffer buf) {
+        try (final InStream in = MpackTypes.inputOf(buf)) {
+            return decodeImpl(type, in);
+        }
+    }
 }
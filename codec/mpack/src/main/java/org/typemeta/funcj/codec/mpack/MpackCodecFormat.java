@@ -3,7 +3,9 @@
 import org.typemeta.funcj.codec.*;
 import org.typemeta.funcj.codec.impl.CollectionCodec;
 import org.typemeta.funcj.codec.mpack.MpackTypes.*;
+import org.typemeta.funcj.codec.mpack.io.OutputImpl;
 import org.typemeta.funcj.codec.stream.StreamCodecFormat;
+import org.typemeta.funcj.codec.transcode.TranscodeSource;
 import org.typemeta.funcj.functions.Functions;
 import org.typemeta.funcj.util.Folds;
 
@@ -15,7 +17,7 @@
  */
 @SuppressWarnings("unchecked")
 public class MpackCodecFormat
-        implements StreamCodecFormat<InStream, OutStream, Config> {
+        implements StreamCodecFormat<InStream, OutStream, Config>, TranscodeSource<InStream>, FragmentFormat<OutStream, byte[]> {
 
     protected final Config config;
 
@@ -75,6 +77,77 @@ public <T> T decodeDynamicType(InStream in, Functions.F2<String, InStream, T> de
         }
     }
 
+    @Override
+    public OutStream encodeReference(int id, OutStream out) {
+        if (id >= 0) {
+            out.writeBoolean(true);
+            return out.writeInt(id);
+        } else {
+            return out.writeBoolean(false);
+        }
+    }
+
+    @Override
+    public int decodeReference(InStream in) {
+        if (in.readBoolean()) {
+            return in.readInt();
+        } else {
+            return -1;
+        }
+    }
+
+
+    @Override
+    public void readObjectStart(InStream in) {
+    }
+
+    @Override
+    public void readFieldStart(String name, InStream in) {
+    }
+
+    @Override
+    public void readFieldEnd(InStream in) {
+    }
+
+    @Override
+    public void readObjectEnd(InStream in) {
+    }
+
+    @Override
+    public int readArrayStart(InStream in) {
+        return in.startArray();
+    }
+
+    @Override
+    public boolean readArrayHasNext(InStream in) {
+        throw new IllegalStateException("Array size is always known up front");
+    }
+
+    @Override
+    public void readElemStart(InStream in) {
+    }
+
+    @Override
+    public void readElemEnd(InStream in) {
+    }
+
+    @Override
+    public void readArrayEnd(InStream in) {
+    }
+
+    @Override
+    public byte[] captureFragment(Functions.F<OutStream, OutStream> encoder) {
+        try (final OutputImpl out = OutputImpl.outputOfBuffer()) {
+            encoder.apply(out);
+            return out.toByteArray();
+        }
+    }
+
+    @Override
+    public OutStream writeFragment(byte[] fragment, OutStream out) {
+        return out.writeRaw(fragment);
+    }
+
     protected static class BooleanCodec implements Codec.BooleanCodec<InStream, OutStream, Config> {
 
         @Override
@@ -123,6 +196,11 @@ public boolean[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     };
 
     @Override
@@ -160,24 +238,22 @@ public Class<byte[]> type() {
 
         @Override
         public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, byte[] value, OutStream out) {
-            out.startArray(value.length);
-            for (byte val : value) {
-                byteCodec().encodePrim(val, out);
-            }
-            return out;
+            return out.startBinary(value.length)
+                    .writePayload(value, 0, value.length);
         }
 
         @Override
         public byte[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            final int l = in.startArray();
+            final int l = in.startBinary();
             final byte[] vals = new byte[l];
-
-            for (int i = 0; i < l; ++i) {
-                vals[i] = byteCodec().decodePrim(in);
-            }
-
+            in.readPayload(vals, 0, l);
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     };
 
     @Override
@@ -233,6 +309,11 @@ public char[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in)
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     };
 
     @Override
@@ -288,6 +369,11 @@ public short[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     };
 
     @Override
@@ -343,6 +429,11 @@ public int[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in)
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     };
 
     @Override
@@ -398,6 +489,11 @@ public long[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in)
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     };
 
     @Override
@@ -453,6 +549,11 @@ public float[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     };
 
     @Override
@@ -508,6 +609,11 @@ public double[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream i
 
             return vals;
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     };
 
     @Override
@@ -531,6 +637,11 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, String va
         public String decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
             return in.readString();
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            in.skipValue();
+        }
     }
 
     protected final Codec<String, InStream, OutStream, Config> stringCodec = new StringCodec();
@@ -597,7 +708,7 @@ public OutStream encode(
             @Override
             public Collection<T> decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
                 final int l = in.startArray();
-                final CollectionBuilder<T> collectionBuilder = getCollectionBuilder(core);
+                final CollectionBuilder<T> collectionBuilder = getCollectionBuilder(core, l);
 
                 for (int i = 0; i < l; ++i) {
                     collectionBuilder.add(elemCodec.decodeWithCheck(core, in));
@@ -605,6 +716,14 @@ public Collection<T> decode(CodecCoreEx<InStream, OutStream, Config> core, InStr
 
                 return collectionBuilder.construct();
             }
+
+            @Override
+            public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+                final int l = in.startArray();
+                for (int i = 0; i < l; ++i) {
+                    elemCodec.skipWithCheck(core, in);
+                }
+            }
         };
     }
 
@@ -645,6 +764,14 @@ public T[] decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
 
                 return vals;
             }
+
+            @Override
+            public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+                final int l = in.startArray();
+                for (int i = 0; i < l; ++i) {
+                    elemCodec.skipWithCheck(core, in);
+                }
+            }
         };
     }
 
@@ -691,11 +818,23 @@ public OutStream encode(
 
         @Override
         public T decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            return Folds.foldLeft(
-                    (acc, field) -> field.decodeField(acc, in),
-                    objMeta.createBuilder(),
-                    objMeta
-            ).construct();
+            final FieldSelector selector = core.fieldSelector();
+            if (selector == FieldSelector.ALL) {
+                return Folds.foldLeft(
+                        (acc, field) -> field.decodeField(acc, in),
+                        objMeta.createBuilder(),
+                        objMeta
+                ).construct();
+            } else {
+                return core.decodePositionalSelected(objMeta, selector, in);
+            }
+        }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            for (ObjectMeta.Field<T, InStream, OutStream, RA> field : objMeta) {
+                field.skipField(in);
+            }
         }
     }
 
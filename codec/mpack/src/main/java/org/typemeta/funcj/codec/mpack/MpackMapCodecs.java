@@ -67,6 +67,16 @@ public Map<K, V> decode(CodecCoreEx<InStream, OutStream, Config> core, InStream
 
             return mapProxy.construct();
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.startMap();
+
+            for (int i = 0; i < l; ++i) {
+                keyCodec.skipWithCheck(core, in);
+                valueCodec.skipWithCheck(core, in);
+            }
+        }
     }
 
     public static class StringMapCodec<V> extends AbstractStringMapCodec<V, InStream, OutStream, Config> {
@@ -127,5 +137,15 @@ public Map<String, V> decode(CodecCoreEx<InStream, OutStream, Config> core, InSt
 
             return mapProxy.construct();
         }
+
+        @Override
+        public void skip(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
+            final int l = in.startMap();
+
+            for (int i = 0; i < l; ++i) {
+                in.skipValue();
+                valueCodec.skipWithCheck(core, in);
+            }
+        }
     }
 }
@@ -1,12 +1,12 @@
 package org.typemeta.funcj.codec.mpack;
 
-import org.msgpack.core.MessagePack;
 import org.typemeta.funcj.codec.CodecConfig;
 import org.typemeta.funcj.codec.mpack.io.*;
 import org.typemeta.funcj.codec.stream.StreamCodecFormat;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 
 public abstract class MpackTypes {
 
@@ -26,6 +26,41 @@ public interface InStream extends StreamCodecFormat.Input<InStream> {
         int startMap();
 
         BigInteger readBigInteger();
+
+        /**
+         * Read a binary header.
+         * @return          the length of the binary payload that follows
+         */
+        int startBinary();
+
+        /**
+         * Read a string header.
+         * @return          the length, in UTF-8 bytes, of the string payload that follows
+         */
+        int startRawString();
+
+        /**
+         * Read payload bytes, following a binary or string header, into the caller's buffer.
+         * @param dst       the destination buffer
+         * @param off       the offset into the buffer
+         * @param len       the number of bytes to read
+         * @return          this stream
+         */
+        InStream readPayload(byte[] dst, int off, int len);
+
+        /**
+         * Skip over the next MessagePack value, including any nested values,
+         * without decoding it.
+         * @return          this stream
+         */
+        InStream skipValue();
+
+        /**
+         * Skip over the next {@code count} MessagePack values, without decoding them.
+         * @param count     the number of values to skip
+         * @return          this stream
+         */
+        InStream skipValues(int count);
     }
 
     /**
@@ -37,14 +72,51 @@ public interface OutStream extends StreamCodecFormat.Output<OutStream> {
         OutStream startMap(int size);
 
         OutStream writeBigInteger(BigInteger value);
+
+        /**
+         * Write a binary header.
+         * @param len       the length of the binary payload that follows
+         * @return          this stream
+         */
+        OutStream startBinary(int len);
+
+        /**
+         * Write a string header.
+         * @param len       the length, in UTF-8 bytes, of the string payload that follows
+         * @return          this stream
+         */
+        OutStream startRawString(int len);
+
+        /**
+         * Write payload bytes, following a binary or string header, from the caller's buffer.
+         * @param src       the source buffer
+         * @param off       the offset into the buffer
+         * @param len       the number of bytes to write
+         * @return          this stream
+         */
+        OutStream writePayload(byte[] src, int off, int len);
+
+        /**
+         * Write previously encoded MessagePack values, such as a cached encoding of a value, as-is.
+         * @param bytes     the encoded data
+         * @return          this stream
+         */
+        OutStream writeRaw(byte[] bytes);
     }
 
     public static InStream inputOf(InputStream is) {
-        return new InputImpl(MessagePack.newDefaultUnpacker(is));
+        return InputImpl.inputOf(is);
     }
 
+    public static InStream inputOf(byte[] bytes) {
+        return InputImpl.inputOf(bytes);
+    }
+
+    public static InStream inputOf(ByteBuffer buf) {
+        return InputImpl.inputOf(buf);
+    }
 
     public static OutStream outputOf(OutputStream os) {
-        return new OutputImpl(MessagePack.newDefaultPacker(os));
+        return OutputImpl.outputOf(os);
     }
 }
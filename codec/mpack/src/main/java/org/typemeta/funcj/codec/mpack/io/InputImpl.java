@@ -1,18 +1,121 @@
 package org.typemeta.funcj.codec.mpack.io;
 
-import org.msgpack.core.MessageUnpacker;
+import org.msgpack.core.*;
+import org.msgpack.core.buffer.*;
 import org.typemeta.funcj.codec.mpack.MpackTypes;
 import org.typemeta.funcj.codec.utils.CodecException;
 
-import java.io.IOException;
+import java.io.*;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 
 public class InputImpl implements MpackTypes.InStream {
 
+    /**
+     * Per-thread unpacker, along with the buffer inputs it reads from.
+     * These are reset onto each new source rather than re-allocated.
+     * If the pooled instance is already in use (e.g. it wasn't closed)
+     * then a new, unpooled, instance is created instead.
+     */
+    private static final class Pool {
+        InputStreamBufferInput streamIn;
+        ArrayBufferInput arrayIn;
+        ByteBufferInput byteBufIn;
+        InputImpl in;
+        boolean inUse;
+
+        InputImpl acquire(MessageBufferInput bufIn) {
+            try {
+                if (in == null) {
+                    in = new InputImpl(MessagePack.DEFAULT_UNPACKER_CONFIG.newUnpacker(bufIn), this);
+                } else {
+                    in.mu.reset(bufIn);
+                }
+            } catch (IOException ex) {
+                throw new CodecException(ex);
+            }
+
+            inUse = true;
+            return in;
+        }
+    }
+
+    private static final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+    /**
+     * Construct an input stream which reads from a {@link InputStream},
+     * using the pooled unpacker for the current thread where possible.
+     * @param is        the input stream
+     * @return          the input stream
+     */
+    public static InputImpl inputOf(InputStream is) {
+        final Pool pool = pools.get();
+        if (pool.inUse) {
+            return new InputImpl(MessagePack.newDefaultUnpacker(is));
+        } else {
+            if (pool.streamIn == null) {
+                pool.streamIn = new InputStreamBufferInput(is);
+            } else {
+                try {
+                    pool.streamIn.reset(is);
+                } catch (IOException ex) {
+                    throw new CodecException(ex);
+                }
+            }
+            return pool.acquire(pool.streamIn);
+        }
+    }
+
+    /**
+     * Construct an input stream which reads from a byte array,
+     * using the pooled unpacker for the current thread where possible.
+     * @param bytes     the byte array
+     * @return          the input stream
+     */
+    public static InputImpl inputOf(byte[] bytes) {
+        final Pool pool = pools.get();
+        if (pool.inUse) {
+            return new InputImpl(MessagePack.newDefaultUnpacker(bytes));
+        } else {
+            if (pool.arrayIn == null) {
+                pool.arrayIn = new ArrayBufferInput(bytes);
+            } else {
+                pool.arrayIn.reset(bytes);
+            }
+            return pool.acquire(pool.arrayIn);
+        }
+    }
+
+    /**
+     * Construct an input stream which reads from a {@link ByteBuffer},
+     * using the pooled unpacker for the current thread where possible.
+     * @param buf       the byte buffer
+     * @return          the input stream
+     */
+    public static InputImpl inputOf(ByteBuffer buf) {
+        final Pool pool = pools.get();
+        if (pool.inUse) {
+            return new InputImpl(MessagePack.newDefaultUnpacker(buf));
+        } else {
+            if (pool.byteBufIn == null) {
+                pool.byteBufIn = new ByteBufferInput(buf);
+            } else {
+                pool.byteBufIn.reset(buf);
+            }
+            return pool.acquire(pool.byteBufIn);
+        }
+    }
+
     private final MessageUnpacker mu;
+    private final Pool pool;
 
-    public InputImpl(MessageUnpacker msgUnpkr) {
+    private InputImpl(MessageUnpacker msgUnpkr, Pool pool) {
         this.mu = msgUnpkr;
+        this.pool = pool;
+    }
+
+    public InputImpl(MessageUnpacker msgUnpkr) {
+        this(msgUnpkr, null);
     }
 
     @Override
@@ -21,6 +124,10 @@ public void close() {
             mu.close();
         } catch (IOException ex) {
             throw new CodecException(ex);
+        } finally {
+            if (pool != null) {
+                pool.inUse = false;
+            }
         }
     }
 
@@ -131,4 +238,52 @@ public BigInteger readBigInteger() {
             throw new CodecException(ex);
         }
     }
+
+    @Override
+    public int startBinary() {
+        try {
+            return mu.unpackBinaryHeader();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public int startRawString() {
+        try {
+            return mu.unpackRawStringHeader();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public MpackTypes.InStream readPayload(byte[] dst, int off, int len) {
+        try {
+            mu.readPayload(dst, off, len);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public MpackTypes.InStream skipValue() {
+        try {
+            mu.skipValue();
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public MpackTypes.InStream skipValues(int count) {
+        try {
+            mu.skipValue(count);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
 }
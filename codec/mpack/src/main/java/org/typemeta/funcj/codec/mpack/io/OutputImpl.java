@@ -1,18 +1,92 @@
 package org.typemeta.funcj.codec.mpack.io;
 
-import org.msgpack.core.MessagePacker;
+import org.msgpack.core.*;
+import org.msgpack.core.buffer.OutputStreamBufferOutput;
 import org.typemeta.funcj.codec.mpack.MpackTypes;
 import org.typemeta.funcj.codec.utils.CodecException;
 
-import java.io.IOException;
+import java.io.*;
 import java.math.BigInteger;
 
 public class OutputImpl implements MpackTypes.OutStream {
 
+    /**
+     * Per-thread packers, which are reset onto each new destination rather than re-allocated.
+     * If a pooled instance is already in use (e.g. it wasn't closed)
+     * then a new, unpooled, instance is created instead.
+     */
+    private static final class Pool {
+        OutputStreamBufferOutput streamBuf;
+        OutputImpl streamOut;
+        boolean streamInUse;
+
+        OutputImpl bufferOut;
+        boolean bufferInUse;
+    }
+
+    private static final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+    /**
+     * Construct an output stream which writes to an {@link OutputStream},
+     * using the pooled packer for the current thread where possible.
+     * @param os        the output stream
+     * @return          the output stream
+     */
+    public static OutputImpl outputOf(OutputStream os) {
+        final Pool pool = pools.get();
+        if (pool.streamInUse) {
+            return new OutputImpl(MessagePack.newDefaultPacker(os));
+        } else {
+            try {
+                if (pool.streamOut == null) {
+                    pool.streamBuf = new OutputStreamBufferOutput(os);
+                    final MessagePacker mp = MessagePack.DEFAULT_PACKER_CONFIG.newPacker(pool.streamBuf);
+                    pool.streamOut = new OutputImpl(mp, () -> pool.streamInUse = false);
+                } else {
+                    pool.streamBuf.reset(os);
+                    pool.streamOut.mp.reset(pool.streamBuf);
+                }
+            } catch (IOException ex) {
+                throw new CodecException(ex);
+            }
+
+            pool.streamInUse = true;
+            return pool.streamOut;
+        }
+    }
+
+    /**
+     * Construct an output stream which writes to an in-memory buffer,
+     * the contents of which can be retrieved via {@link #toByteArray()}.
+     * The pooled buffer for the current thread is used where possible.
+     * @return          the output stream
+     */
+    public static OutputImpl outputOfBuffer() {
+        final Pool pool = pools.get();
+        if (pool.bufferInUse) {
+            return new OutputImpl(MessagePack.newDefaultBufferPacker());
+        } else {
+            if (pool.bufferOut == null) {
+                pool.bufferOut = new OutputImpl(MessagePack.newDefaultBufferPacker(), () -> pool.bufferInUse = false);
+            } else {
+                ((MessageBufferPacker)pool.bufferOut.mp).clear();
+            }
+
+            pool.bufferInUse = true;
+            return pool.bufferOut;
+        }
+    }
+
     private final MessagePacker mp;
+    private final Runnable release;
 
-    public OutputImpl(MessagePacker mp) {
+    private OutputImpl(MessagePacker mp, Runnable release) {
         this.mp = mp;
+        this.release = release;
+    }
+
+    public OutputImpl(MessagePacker mp) {
+        this(mp, null);
     }
 
     @Override
@@ -21,6 +95,23 @@ public void close() {
             mp.close();
         } catch (IOException ex) {
             throw new CodecException(ex);
+        } finally {
+            if (release != null) {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * Return the data written so far, if this output stream writes to an in-memory buffer.
+     * @return          the written data
+     * @throws CodecException if this output stream doesn't write to a buffer
+     */
+    public byte[] toByteArray() {
+        if (mp instanceof MessageBufferPacker) {
+            return ((MessageBufferPacker)mp).toByteArray();
+        } else {
+            throw new CodecException("Output stream is not backed by a buffer");
         }
     }
 
@@ -143,4 +234,44 @@ public MpackTypes.OutStream writeBigInteger(BigInteger value) {
             throw new CodecException(ex);
         }
     }
+
+    @Override
+    public MpackTypes.OutStream startBinary(int len) {
+        try {
+            mp.packBinaryHeader(len);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public MpackTypes.OutStream startRawString(int len) {
+        try {
+            mp.packRawStringHeader(len);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public MpackTypes.OutStream writePayload(byte[] src, int off, int len) {
+        try {
+            mp.writePayload(src, off, len);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public MpackTypes.OutStream writeRaw(byte[] bytes) {
+        try {
+            mp.writePayload(bytes);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
 }
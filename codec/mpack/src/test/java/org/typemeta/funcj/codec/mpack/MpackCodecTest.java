@@ -1,9 +1,11 @@
 package org.typemeta.funcj.codec.mpack;
 
-import org.junit.Assert;
+import org.junit.*;
 import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.utils.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 
 public class MpackCodecTest extends TestBase {
 
@@ -35,4 +37,153 @@ protected <T> void roundTrip(T val, Class<T> clazz) {
 
         Assert.assertEquals(val, val2);
     }
+
+    @Test
+    public void testByteArrayRoundTrip() {
+        final MpackCodecCore codec = prepareCodecCore(MpackConfig.builder(), Codecs::mpackCodec);
+
+        final TestTypes.Custom val = new TestTypes.Custom(TestTypes.Init.INIT);
+
+        // Repeat to exercise the reuse of the pooled packer and unpacker.
+        for (int i = 0; i < 3; ++i) {
+            final byte[] ba = codec.encode(TestTypes.Custom.class, val);
+            Assert.assertEquals(val, codec.decode(TestTypes.Custom.class, ba));
+            Assert.assertEquals(val, codec.decode(TestTypes.Custom.class, ByteBuffer.wrap(ba)));
+        }
+    }
+
+    @Test
+    public void testReferenceTracking() {
+        final MpackCodecCore codec = prepareCodecCore(MpackConfig.builder().referenceTracking(true), Codecs::mpackCodec);
+        final MpackCodecCore untrackedCodec = prepareCodecCore(MpackConfig.builder(), Codecs::mpackCodec);
+
+        final TestTypes.SharedRefs val = new TestTypes.SharedRefs(TestTypes.Init.INIT);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.SharedRefs.class, val, baos);
+        final ByteArrayOutputStream untracked = new ByteArrayOutputStream();
+        untrackedCodec.encode(TestTypes.SharedRefs.class, val, untracked);
+
+        final TestTypes.SharedRefs val2 = codec.decode(TestTypes.SharedRefs.class, new ByteArrayInputStream(baos.toByteArray()));
+
+        Assert.assertEquals(val, val2);
+        Assert.assertSame(val2.a, val2.b);
+        Assert.assertSame(val2.c, val2.d);
+        Assert.assertSame(val2.a, val2.arr[0]);
+        Assert.assertSame(val2.a, val2.arr[2]);
+        Assert.assertTrue(baos.size() < untracked.size());
+    }
+
+    @Test(expected = CodecException.class)
+    public void testReferenceTrackingRejectsCycles() {
+        final MpackCodecCore codec = prepareCodecCore(MpackConfig.builder().referenceTracking(true), Codecs::mpackCodec);
+
+        final TestTypes.Cyclic val = new TestTypes.Cyclic();
+        val.next = new TestTypes.Cyclic();
+        val.next.next = val;
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Cyclic.class, val, baos);
+    }
+
+    @Test
+    public void testFieldSelector() {
+        final MpackCodecCore codec = prepareCodecCore(MpackConfig.builder(), Codecs::mpackCodec);
+
+        final TestTypes.Recursive rec = new TestTypes.Recursive(new TestTypes.Recursive(null, 0), 1);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Recursive.class, rec, out);
+
+        final TestTypes.Recursive rec2 =
+                codec.decode(TestTypes.Recursive.class, new ByteArrayInputStream(out.toByteArray()), FieldSelector.of("next.id"));
+
+        Assert.assertEquals(new TestTypes.Recursive(new TestTypes.Recursive(null, 0), -1), rec2);
+
+        final TestTypes.Immutable imm = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        final ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Immutable.class, imm, out2);
+
+        final TestTypes.Immutable imm2 =
+                codec.decode(TestTypes.Immutable.class, new ByteArrayInputStream(out2.toByteArray()), FieldSelector.of("name", "values"));
+
+        Assert.assertEquals(new TestTypes.Immutable("abc", 0, new double[]{1.2}, null), imm2);
+    }
+
+    @Test
+    public void testFieldSelectorSkipsUnselected() {
+        final MpackCodecCore codec = prepareCodecCore(MpackConfig.builder(), Codecs::mpackCodec);
+
+        final TestTypes.Projected val = TestTypes.Projected.create();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Projected.class, val, out);
+
+        final int constructed = TestTypes.Counted.constructed.get();
+
+        final TestTypes.Projected val2 =
+                codec.decode(TestTypes.Projected.class, new ByteArrayInputStream(out.toByteArray()), FieldSelector.of("id", "name"));
+
+        Assert.assertEquals(constructed, TestTypes.Counted.constructed.get());
+        Assert.assertEquals(val.id, val2.id);
+        Assert.assertEquals(val.name, val2.name);
+        Assert.assertNull(val2.single);
+        Assert.assertNull(val2.list);
+        Assert.assertNull(val2.dyn);
+
+        final TestTypes.Projected val3 =
+                codec.decode(TestTypes.Projected.class, new ByteArrayInputStream(out.toByteArray()), FieldSelector.of("single.label", "name"));
+
+        Assert.assertEquals(constructed + 1, TestTypes.Counted.constructed.get());
+        Assert.assertEquals(val.single.label, val3.single.label);
+        Assert.assertNull(val3.single.values);
+        Assert.assertEquals(val.name, val3.name);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testFieldSelectorRejectsReferenceTracking() {
+        final MpackCodecCore codec = prepareCodecCore(MpackConfig.builder().referenceTracking(true), Codecs::mpackCodec);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Shared.class, new TestTypes.Shared("abc", null), out);
+
+        codec.decode(TestTypes.Shared.class, new ByteArrayInputStream(out.toByteArray()), FieldSelector.of("name"));
+    }
+
+    @Test
+    public void testEncodedValueCache() {
+        final MpackCodecCore codec = prepareCodecCore(
+                MpackConfig.builder().registerEncodedValueCache(TestTypes.Immutable.class, 16),
+                Codecs::mpackCodec);
+        final MpackCodecCore uncachedCodec = prepareCodecCore(MpackConfig.builder(), Codecs::mpackCodec);
+
+        final TestTypes.Immutable imm = new TestTypes.Immutable("abc", 12, new double[]{1.2}, null);
+        final TestTypes.Immutable imm2 = new TestTypes.Immutable("def", 34, new double[]{5.6}, null);
+        final TestTypes.Immutable[] arr = {imm, imm2, imm, null, imm2};
+
+        final byte[] data = codec.encode(TestTypes.Immutable[].class, arr);
+
+        Assert.assertArrayEquals(uncachedCodec.encode(TestTypes.Immutable[].class, arr), data);
+        Assert.assertArrayEquals(arr, codec.decode(TestTypes.Immutable[].class, data));
+
+        final EncodedValueCache<?> cache = codec.encodedValueCache(TestTypes.Immutable.class);
+        Assert.assertEquals(2, cache.misses());
+        Assert.assertEquals(2, cache.hits());
+    }
+
+    @Test
+    public void testSkipValue() {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (MpackTypes.OutStream out = MpackTypes.outputOf(baos)) {
+            out.writeInt(1);
+            out.startArray(2);
+            out.writeString("a");
+            out.startMap(1).writeString("b").writeBoolean(true);
+            out.writeString("skip");
+            out.writeString("keep");
+        }
+
+        try (MpackTypes.InStream in = MpackTypes.inputOf(baos.toByteArray())) {
+            in.skipValue().skipValue().skipValues(1);
+            Assert.assertEquals("keep", in.readString());
+        }
+    }
 }
@@ -3,6 +3,7 @@
 import org.typemeta.funcj.codec.*;
 import org.typemeta.funcj.codec.impl.CollectionCodec;
 import org.typemeta.funcj.codec.stream.StreamCodecFormat;
+import org.typemeta.funcj.codec.transcode.TranscodeSource;
 import org.typemeta.funcj.codec.utils.CodecException;
 import org.typemeta.funcj.codec.xml.XmlTypes.*;
 import org.typemeta.funcj.functions.Functions;
@@ -16,7 +17,8 @@
  * Encoding via XML streams.
  */
 @SuppressWarnings("unchecked")
-public class XmlCodecFormat implements StreamCodecFormat<InStream, OutStream, Config> {
+public class XmlCodecFormat
+        implements StreamCodecFormat<InStream, OutStream, Config>, TranscodeSource<InStream> {
 
     protected final Config config;
 
@@ -83,6 +85,49 @@ public <T> T decodeDynamicType(InStream in, Functions.F2<String, InStream, T> de
         }
     }
 
+
+    @Override
+    public void readObjectStart(InStream in) {
+    }
+
+    @Override
+    public void readFieldStart(String name, InStream in) {
+        in.startElement(name);
+    }
+
+    @Override
+    public void readFieldEnd(InStream in) {
+        in.endElement();
+    }
+
+    @Override
+    public void readObjectEnd(InStream in) {
+    }
+
+    @Override
+    public int readArrayStart(InStream in) {
+        return -1;
+    }
+
+    @Override
+    public boolean readArrayHasNext(InStream in) {
+        return in.hasNext() && in.type().equals(InStream.Type.START_ELEMENT);
+    }
+
+    @Override
+    public void readElemStart(InStream in) {
+        in.startElement(config.entryElemName());
+    }
+
+    @Override
+    public void readElemEnd(InStream in) {
+        in.endElement();
+    }
+
+    @Override
+    public void readArrayEnd(InStream in) {
+    }
+
     protected static class BooleanCodec implements Codec.BooleanCodec<InStream, OutStream, Config> {
 
         @Override
@@ -721,6 +766,14 @@ public <T, RA extends ObjectMeta.Builder<T>> Codec<T, InStream, OutStream, Confi
         private final ObjectMeta<T, InStream, OutStream, RA> objMeta;
         private final Map<String, ObjectMeta.Field<T, InStream, OutStream, RA>> fields;
 
+        /**
+         * The fields in encoding order, and a map from field name to position,
+         * which allows decoding to match elements against the next expected field
+         * before falling back to a lookup.
+         */
+        private final List<ObjectMeta.Field<T, InStream, OutStream, RA>> fieldList;
+        private final Map<String, Integer> fieldIndices;
+
         private ObjectCodec(
                 Class<T> type,
                 ObjectMeta<T, InStream, OutStream, RA> objMeta) {
@@ -731,6 +784,12 @@ private ObjectCodec(
                             ObjectMeta.Field::name,
                             f -> f
                     ));
+            this.fieldList = new ArrayList<>();
+            this.fieldIndices = new HashMap<>();
+            for (ObjectMeta.Field<T, InStream, OutStream, RA> field : objMeta) {
+                fieldIndices.put(field.name(), fieldList.size());
+                fieldList.add(field);
+            }
         }
 
         @Override
@@ -750,13 +809,22 @@ public OutStream encode(CodecCoreEx<InStream, OutStream, Config> core, T value,
 
         @Override
         public T decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
-            final Set<String> expNames = fields.keySet();
-            final Set<String> actNames = new HashSet<>();
+            final boolean[] seen = new boolean[fieldList.size()];
+            int numSeen = 0;
+            int nextIdx = 0;
             final RA ra = objMeta.createBuilder();
+            final FieldSelector selector = core.fieldSelector();
 
             while (in.hasNext() && in.type().equals(InStream.Type.START_ELEMENT)) {
                 final String name = in.startElement();
-                if (!expNames.contains(name)) {
+                final int idx;
+                if (nextIdx < fieldList.size() && fieldList.get(nextIdx).name().equals(name)) {
+                    idx = nextIdx;
+                } else {
+                    idx = fieldIndices.getOrDefault(name, -1);
+                }
+
+                if (idx == -1) {
                     if (config().failOnUnrecognisedFields()) {
                         throw new CodecException(
                                 "Field name '" + name + "' unexpected for type " + type +
@@ -765,18 +833,34 @@ public T decode(CodecCoreEx<InStream, OutStream, Config> core, InStream in) {
                         in.skipNode();
                         in.endElement();
                     }
-                } else if (actNames.contains(name)) {
+                } else if (seen[idx]) {
                     throw new CodecException(
                             "Duplicate field name '" + name + "' for type " + type +
                                     " at location " + in.location());
                 } else {
-                    actNames.add(name);
-                    fields.get(name).decodeField(ra, in);
+                    seen[idx] = true;
+                    ++numSeen;
+                    nextIdx = idx + 1;
+                    if (selector == FieldSelector.ALL) {
+                        fieldList.get(idx).decodeField(ra, in);
+                    } else if (selector.isSelected(name)) {
+                        core.decodeSelectedField(selector, fieldList.get(idx), ra, in);
+                    } else {
+                        in.skipNode();
+                    }
                     in.endElement();
                 }
             }
 
-            checkFields(type, expNames, actNames);
+            if (numSeen != fieldList.size() && selector == FieldSelector.ALL) {
+                final Set<String> actNames = new HashSet<>();
+                for (int i = 0; i < fieldList.size(); ++i) {
+                    if (seen[i]) {
+                        actNames.add(fieldList.get(i).name());
+                    }
+                }
+                checkFields(type, fields.keySet(), actNames);
+            }
 
             return ra.construct();
         }
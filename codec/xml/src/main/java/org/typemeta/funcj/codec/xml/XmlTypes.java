@@ -62,6 +62,10 @@ interface AttributeMap {
 
         Type type();
 
+        /**
+         * Skip the remaining content of the current element, including any nested elements,
+         * leaving the stream positioned at the element's end.
+         */
         void skipNode();
 
         void startDocument();
@@ -21,9 +21,7 @@ public static XmlTypes.InStream inputOf(XMLStreamReader reader) {
 
     public static XmlTypes.InStream inputOf(Reader reader, String rootElemName) {
         try {
-            final XMLInputFactory xmlInFact = XMLInputFactory.newFactory();
-            xmlInFact.setProperty(XMLInputFactory.IS_COALESCING, true);
-            final XMLStreamReader xrdr = xmlInFact.createXMLStreamReader(reader);
+            final XMLStreamReader xrdr = XmlUtils.inputFactory().createXMLStreamReader(reader);
             return inputOf(xrdr, rootElemName);
         } catch (XMLStreamException ex) {
             throw new CodecException(ex);
@@ -32,9 +30,7 @@ public static XmlTypes.InStream inputOf(Reader reader, String rootElemName) {
 
     public static XmlTypes.InStream inputOf(InputStream os, String rootElemName) {
         try {
-            final XMLInputFactory xmlInFact = XMLInputFactory.newFactory();
-            xmlInFact.setProperty(XMLInputFactory.IS_COALESCING, true);
-            final XMLStreamReader xrdr = xmlInFact.createXMLStreamReader(os);
+            final XMLStreamReader xrdr = XmlUtils.inputFactory().createXMLStreamReader(os);
             return inputOf(xrdr, rootElemName);
         } catch (XMLStreamException ex) {
             throw new CodecException(ex);
@@ -48,36 +44,64 @@ public static XmlTypes.InStream inputOf(XMLStreamReader xrdr, String rootElemNam
         return in;
     }
 
+    /**
+     * Attribute map for the current element.
+     * Attributes are copied out of the reader into reusable arrays,
+     * and only when the element actually has attributes,
+     * which avoids any per-element allocation in the common case.
+     */
     protected static class AttributeMapImpl implements AttributeMap {
-        protected final Map<String, String> attrMap = new TreeMap<>();
+        protected String[] names = new String[4];
+        protected String[] values = new String[4];
+        protected int size = 0;
 
         void load(XMLStreamReader rdr) {
-            attrMap.clear();
-            final int numAtrrs = rdr.getAttributeCount();
-            if (numAtrrs > 0) {
-                for (int i = 0; i < numAtrrs; ++i) {
-                    final String name = rdr.getAttributeLocalName(i);
-                    final String value = rdr.getAttributeValue(i);
-                    attrMap.put(name, value);
+            clear();
+            final int numAttrs = rdr.getAttributeCount();
+            if (numAttrs > 0) {
+                if (numAttrs > names.length) {
+                    names = new String[numAttrs];
+                    values = new String[numAttrs];
+                }
+
+                for (int i = 0; i < numAttrs; ++i) {
+                    names[i] = rdr.getAttributeLocalName(i);
+                    values[i] = rdr.getAttributeValue(i);
                 }
+
+                size = numAttrs;
             }
         }
 
         void clear() {
-            attrMap.clear();
+            if (size > 0) {
+                Arrays.fill(names, 0, size, null);
+                Arrays.fill(values, 0, size, null);
+                size = 0;
+            }
+        }
+
+        protected int indexOf(String name) {
+            for (int i = 0; i < size; ++i) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
         }
 
         public boolean hasName(String name) {
-            return attrMap.containsKey(name);
+            return indexOf(name) != -1;
         }
 
         public String getValue(String name) {
-            return attrMap.get(name);
+            final int i = indexOf(name);
+            return i == -1 ? null : values[i];
         }
 
         public boolean nameHasValue(String name, String value) {
-            return attrMap.containsKey(name) &&
-                    attrMap.get(name).equals(value);
+            final int i = indexOf(name);
+            return i != -1 && values[i].equals(value);
         }
     }
 
@@ -163,28 +187,32 @@ public Type type() {
         }
     }
 
+    /**
+     * Skip by tracking the element depth over the raw reader events,
+     * without loading the attributes of, or mapping the events for, the skipped elements.
+     */
     @Override
     public void skipNode() {
-        int depth = 0;
-        while (true) {
-            switch (type()) {
-                case START_ELEMENT:
-                    ++depth;
-                    break;
-                case END_ELEMENT:
-                    --depth;
-                    if (depth == 0) {
-                        next();
-                        return;
-                    }
-                    break;
-                case CHARACTERS:
-                case OTHER:
-                    break;
-                default:
-                    throw new CodecException("Unexpected event " + type() + " at location " + location());
+        try {
+            int depth = 0;
+            for (int event = rdr.getEventType(); ; event = rdr.next()) {
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        ++depth;
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (depth == 0) {
+                            attrMap.clear();
+                            return;
+                        }
+                        --depth;
+                        break;
+                    case XMLStreamConstants.END_DOCUMENT:
+                        throw new CodecException("Unexpected event " + Type.END_DOCUMENT + " at location " + location());
+                }
             }
-            next();
+        } catch (XMLStreamException ex) {
+            throw new CodecException(ex);
         }
     }
 
@@ -244,20 +272,86 @@ public void endElement() {
         }
     }
 
-    private String readText() {
-        if (rdr.getEventType() == XMLStreamConstants.CHARACTERS) {
-            final String text = rdr.getText();
-            next();
-            return text;
-        } else {
+    private void checkText() {
+        if (rdr.getEventType() != XMLStreamConstants.CHARACTERS) {
             throw new CodecException("CharacterData expected at " + rdr.getLocation());
         }
     }
 
+    private String readText() {
+        checkText();
+        final String text = rdr.getText();
+        next();
+        return text;
+    }
+
+    /**
+     * Parse an integral value directly from the reader's text buffer,
+     * without creating an intermediate {@code String}.
+     */
+    private long readIntegral(long min, long max) {
+        checkText();
+        final char[] chars = rdr.getTextCharacters();
+        final int start = rdr.getTextStart();
+        final int len = rdr.getTextLength();
+        final long value = parseLong(chars, start, len, min, max);
+        next();
+        return value;
+    }
+
+    private static NumberFormatException numberFormatException(char[] chars, int start, int len) {
+        return new NumberFormatException("For input string: \"" + new String(chars, start, len) + "\"");
+    }
+
+    static long parseLong(char[] chars, int start, int len, long min, long max) {
+        if (len == 0) {
+            throw numberFormatException(chars, start, len);
+        }
+
+        final int end = start + len;
+        int i = start;
+
+        boolean neg = false;
+        final char c0 = chars[i];
+        if (c0 == '-' || c0 == '+') {
+            neg = c0 == '-';
+            if (++i == end) {
+                throw numberFormatException(chars, start, len);
+            }
+        }
+
+        // Accumulate negatively, as the negative range is the larger of the two.
+        final long limit = neg ? min : -max;
+        final long multMin = limit / 10;
+        long result = 0;
+        for (; i < end; ++i) {
+            final int digit = Character.digit(chars[i], 10);
+            if (digit < 0 || result < multMin) {
+                throw numberFormatException(chars, start, len);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(chars, start, len);
+            }
+            result -= digit;
+        }
+
+        return neg ? result : -result;
+    }
 
     @Override
     public boolean readBoolean() {
-        return Boolean.parseBoolean(readText());
+        checkText();
+        final char[] chars = rdr.getTextCharacters();
+        final int start = rdr.getTextStart();
+        final boolean value =
+                rdr.getTextLength() == 4 &&
+                        Character.toLowerCase(chars[start]) == 't' &&
+                        Character.toLowerCase(chars[start + 1]) == 'r' &&
+                        Character.toLowerCase(chars[start + 2]) == 'u' &&
+                        Character.toLowerCase(chars[start + 3]) == 'e';
+        next();
+        return value;
     }
 
     @Override
@@ -267,27 +361,33 @@ public String readString() {
 
     @Override
     public char readChar() {
-        return readText().charAt(0);
+        checkText();
+        if (rdr.getTextLength() == 0) {
+            throw new CodecException("Empty character data at " + rdr.getLocation());
+        }
+        final char value = rdr.getTextCharacters()[rdr.getTextStart()];
+        next();
+        return value;
     }
 
     @Override
     public byte readByte() {
-        return Byte.parseByte(readText());
+        return (byte)readIntegral(Byte.MIN_VALUE, Byte.MAX_VALUE);
     }
 
     @Override
     public short readShort() {
-        return Short.parseShort(readText());
+        return (short)readIntegral(Short.MIN_VALUE, Short.MAX_VALUE);
     }
 
     @Override
     public int readInt() {
-        return Integer.parseInt(readText());
+        return (int)readIntegral(Integer.MIN_VALUE, Integer.MAX_VALUE);
     }
 
     @Override
     public long readLong() {
-        return Long.parseLong(readText());
+        return readIntegral(Long.MIN_VALUE, Long.MAX_VALUE);
     }
 
     @Override
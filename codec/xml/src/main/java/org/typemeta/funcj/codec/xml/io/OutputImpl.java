@@ -20,9 +20,7 @@ public static XmlTypes.OutStream outputOf(XMLStreamWriter writer) {
 
     public static OutputImpl outputOf(Writer writer, String rootElemName) {
         try {
-            final XMLOutputFactory xmlOutFact = XMLOutputFactory.newInstance();
-            xmlOutFact.setProperty("escapeCharacters", true);
-            final XMLStreamWriter xwtr = xmlOutFact.createXMLStreamWriter(writer);
+            final XMLStreamWriter xwtr = XmlUtils.outputFactory().createXMLStreamWriter(writer);
             return outputOf(xwtr, rootElemName);
         } catch (XMLStreamException ex) {
             throw new CodecException(ex);
@@ -31,9 +29,7 @@ public static OutputImpl outputOf(Writer writer, String rootElemName) {
 
     public static OutputImpl outputOf(OutputStream os, String rootElemName) {
         try {
-            final XMLOutputFactory xmlOutFact = XMLOutputFactory.newInstance();
-            xmlOutFact.setProperty("escapeCharacters", true);
-            final XMLStreamWriter xwtr = xmlOutFact.createXMLStreamWriter(os);
+            final XMLStreamWriter xwtr = XmlUtils.outputFactory().createXMLStreamWriter(os);
             return outputOf(xwtr, rootElemName);
         } catch (XMLStreamException ex) {
             throw new CodecException(ex);
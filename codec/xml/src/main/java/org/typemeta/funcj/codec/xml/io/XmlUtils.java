@@ -1,6 +1,48 @@
 package org.typemeta.funcj.codec.xml.io;
 
+import javax.xml.stream.*;
+
 public abstract class XmlUtils {
+
+    /**
+     * Shared StAX input factory.
+     * Factory lookup and configuration is relatively expensive, so it's done once.
+     * The factory is not modified after initialisation, which makes it safe to share across threads.
+     */
+    private static final XMLInputFactory inputFactory;
+
+    /**
+     * Shared StAX output factory.
+     * @see #inputFactory
+     */
+    private static final XMLOutputFactory outputFactory;
+
+    static {
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        outputFactory = XMLOutputFactory.newInstance();
+        outputFactory.setProperty("escapeCharacters", true);
+    }
+
+    /**
+     * Return the shared, pre-configured {@link XMLInputFactory}.
+     * The factory must not be reconfigured by the caller.
+     * @return          the shared {@code XMLInputFactory}
+     */
+    public static XMLInputFactory inputFactory() {
+        return inputFactory;
+    }
+
+    /**
+     * Return the shared, pre-configured {@link XMLOutputFactory}.
+     * The factory must not be reconfigured by the caller.
+     * @return          the shared {@code XMLOutputFactory}
+     */
+    public static XMLOutputFactory outputFactory() {
+        return outputFactory;
+    }
+
     public static String escapeTextChar(String text) {
         int s = 0;
         StringBuilder sb = null;
@@ -4,28 +4,34 @@
 import org.typemeta.funcj.codec.impl.*;
 import org.typemeta.funcj.codec.utils.CodecException;
 import org.typemeta.funcj.codec.xmlnode.XmlNodeTypes.Config;
-import org.w3c.dom.*;
-import org.xml.sax.SAXException;
+import org.w3c.dom.Element;
 
-import javax.xml.parsers.*;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.stream.*;
 import java.io.*;
 
 /**
  * Interface for classes which implement an encoding via XML.
+ * <p>
+ * Values are always encoded into a DOM {@link Element} first.
+ * The stream-based {@code encode} methods then serialise that element by walking it
+ * and writing to an {@link XMLStreamWriter}, rather than through a JAXP {@code Transformer},
+ * but the per-value DOM tree is still allocated.
+ * For DOM-free output use {@link org.typemeta.funcj.codec.xml.XmlCodecCore},
+ * which writes the same element and attribute layout directly via StAX.
  */
 public class XmlNodeCodecCore
         extends CodecCoreDelegate<Element, Element, Config>
         implements CodecStrAPI.IO {
 
-    public static final DocumentBuilder docBuilder;
-
-    static {
-        try {
-            docBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-        } catch (ParserConfigurationException ex) {
-            throw new RuntimeException(ex);
-        }
-    }
+    /**
+     * A shared {@link DocumentBuilder}, which is no longer used by this class.
+     * @deprecated {@code DocumentBuilder} instances aren't thread-safe,
+     * so this builder must not be used concurrently.
+     * Use {@link XmlUtils#documentBuilder()}, which returns a builder for the current thread.
+     */
+    @Deprecated
+    public static final DocumentBuilder docBuilder = XmlUtils.createDocumentBuilder();
 
     public XmlNodeCodecCore(XmlNodeCodecFormat format) {
         super(new CodecCoreImpl<>(format));
@@ -51,10 +57,9 @@ public XmlNodeCodecCore() {
      * @return          the writer
      */
     public <T> Writer encode(Class<? super T> type, T value, Writer writer, String rootElemName) {
-        final Document doc = docBuilder.newDocument();
-        final Element out = doc.createElement(rootElemName);
+        final Element out = XmlUtils.newRootElement(rootElemName);
         encodeImpl(type, value, out);
-        return XmlUtils.write(doc, writer, true);
+        return XmlUtils.write(out.getOwnerDocument(), writer, true);
     }
 
     /**
@@ -68,10 +73,9 @@ public <T> Writer encode(Class<? super T> type, T value, Writer writer, String r
      * @return          the writer
      */
     public <T> Writer encode(Class<? super T> type, T value, Writer writer) {
-        final Document doc = docBuilder.newDocument();
-        final Element out = doc.createElement(config().defaultRootElemName(type));
+        final Element out = XmlUtils.newRootElement(config().defaultRootElemName(type));
         encodeImpl(type, value, out);
-        return XmlUtils.write(doc, writer, true);
+        return XmlUtils.write(out.getOwnerDocument(), writer, true);
     }
 
     /**
@@ -86,10 +90,9 @@ public <T> Writer encode(Class<? super T> type, T value, Writer writer) {
      * @return          the output stream
      */
     public <T> OutputStream encode(Class<? super T> type, T value, OutputStream os, String rootElemName) {
-        final Document doc = docBuilder.newDocument();
-        final Element out = doc.createElement(rootElemName);
+        final Element out = XmlUtils.newRootElement(rootElemName);
         encodeImpl(type, value, out);
-        return XmlUtils.write(doc, os, true);
+        return XmlUtils.write(out.getOwnerDocument(), os, true);
     }
 
     /**
@@ -108,6 +111,32 @@ public <T> OutputStream encode(Class<? super T> type, T value, OutputStream os)
     }
 
 
+    /**
+     * Encode the given value into a DOM element and then write it to the {@link XMLStreamWriter}.
+     * Only the root element is written, which allows many values to be written
+     * into a single document.
+     * Each call still builds a DOM tree for the value;
+     * only the serialisation step avoids the JAXP {@code Transformer}.
+     * The static type determines whether type information is written to recover the value's
+     * dynamic type.
+     * @param type      the static type of the value
+     * @param value     the value to be encoded
+     * @param xsw       the stream writer to which the XML is written
+     * @param rootElemName the name of the root element under which the output data is written
+     * @param <T>       the static type of the value
+     * @return          the stream writer
+     */
+    public <T> XMLStreamWriter encode(Class<? super T> type, T value, XMLStreamWriter xsw, String rootElemName) {
+        final Element out = XmlUtils.newRootElement(rootElemName);
+        encodeImpl(type, value, out);
+        try {
+            XmlUtils.write(out, xsw, false);
+            return xsw;
+        } catch (XMLStreamException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
     /**
      * Encode the given value into XML and write the results to the {@link Writer} object.
      * @param value     the value to be encoded
@@ -129,19 +158,14 @@ public <T> Writer encode(T value, Writer writer, String rootElemName) {
      * @return          the decoded value
      */
     public <T> T decode(Class<? super T> type, InputStream is, String rootElemName) {
-        try {
-            final Document doc = docBuilder.parse(is);
-            final Element elem = doc.getDocumentElement();
-            if (elem.getNodeName().equals(rootElemName)) {
-                return decodeImpl(type, elem);
-            } else {
-                throw new CodecException(
-                        "Root expected to have name " + rootElemName +
-                                " but was " + elem.getNodeName()
-                );
-            }
-        } catch (SAXException|IOException ex) {
-            throw new CodecException(ex);
+        final Element elem = XmlUtils.parse(is).getDocumentElement();
+        if (elem.getNodeName().equals(rootElemName)) {
+            return decodeImpl(type, elem);
+        } else {
+            throw new CodecException(
+                    "Root expected to have name " + rootElemName +
+                            " but was " + elem.getNodeName()
+            );
         }
     }
 
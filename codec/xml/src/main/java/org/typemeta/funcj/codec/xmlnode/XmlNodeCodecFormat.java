@@ -130,17 +130,18 @@ public boolean[] decode(CodecCoreEx<Element, Element, Config> core, Element in)
             final int l = nodes.getLength();
             final boolean[] vals = new boolean[l];
 
+            int n = 0;
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     final Element elem = (Element) node;
                     if (elem.getTagName().equals(entryName)) {
-                        vals[i] = booleanCodec().decode(core, elem);
+                        vals[n++] = booleanCodec().decode(core, elem);
                     }
                 }
             }
 
-            return vals;
+            return n == l ? vals : Arrays.copyOf(vals, n);
         }
     };
 
@@ -193,17 +194,18 @@ public byte[] decode(CodecCoreEx<Element, Element, Config> core, Element in) {
             final int l = nodes.getLength();
             final byte[] vals = new byte[l];
 
+            int n = 0;
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     final Element elem = (Element) node;
                     if (elem.getTagName().equals(entryName)) {
-                        vals[i] = byteCodec().decode(core, elem);
+                        vals[n++] = byteCodec().decode(core, elem);
                     }
                 }
             }
 
-            return vals;
+            return n == l ? vals : Arrays.copyOf(vals, n);
         }
     };
 
@@ -256,17 +258,18 @@ public char[] decode(CodecCoreEx<Element, Element, Config> core, Element in) {
             final int l = nodes.getLength();
             final char[] vals = new char[l];
 
+            int n = 0;
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     final Element elem = (Element) node;
                     if (elem.getTagName().equals(entryName)) {
-                        vals[i] = charCodec().decode(core, elem);
+                        vals[n++] = charCodec().decode(core, elem);
                     }
                 }
             }
 
-            return vals;
+            return n == l ? vals : Arrays.copyOf(vals, n);
         }
     };
 
@@ -319,17 +322,18 @@ public short[] decode(CodecCoreEx<Element, Element, Config> core, Element in) {
             final int l = nodes.getLength();
             final short[] vals = new short[l];
 
+            int n = 0;
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     final Element elem = (Element) node;
                     if (elem.getTagName().equals(entryName)) {
-                        vals[i] = shortCodec().decode(core, elem);
+                        vals[n++] = shortCodec().decode(core, elem);
                     }
                 }
             }
 
-            return vals;
+            return n == l ? vals : Arrays.copyOf(vals, n);
         }
     };
 
@@ -382,17 +386,18 @@ public int[] decode(CodecCoreEx<Element, Element, Config> core, Element in) {
             final int l = nodes.getLength();
             final int[] vals = new int[l];
 
+            int n = 0;
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     final Element elem = (Element) node;
                     if (elem.getTagName().equals(entryName)) {
-                        vals[i] = intCodec().decode(core, elem);
+                        vals[n++] = intCodec().decode(core, elem);
                     }
                 }
             }
 
-            return vals;
+            return n == l ? vals : Arrays.copyOf(vals, n);
         }
     };
 
@@ -445,17 +450,18 @@ public long[] decode(CodecCoreEx<Element, Element, Config> core, Element in) {
             final int l = nodes.getLength();
             final long[] vals = new long[l];
 
+            int n = 0;
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     final Element elem = (Element) node;
                     if (elem.getTagName().equals(entryName)) {
-                        vals[i] = longCodec().decode(core, elem);
+                        vals[n++] = longCodec().decode(core, elem);
                     }
                 }
             }
 
-            return vals;
+            return n == l ? vals : Arrays.copyOf(vals, n);
         }
     };
 
@@ -508,17 +514,18 @@ public float[] decode(CodecCoreEx<Element, Element, Config> core, Element in) {
             final int l = nodes.getLength();
             final float[] vals = new float[l];
 
+            int n = 0;
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     final Element elem = (Element) node;
                     if (elem.getTagName().equals(entryName)) {
-                        vals[i] = floatCodec().decode(core, elem);
+                        vals[n++] = floatCodec().decode(core, elem);
                     }
                 }
             }
 
-            return vals;
+            return n == l ? vals : Arrays.copyOf(vals, n);
         }
     };
 
@@ -570,17 +577,18 @@ public double[] decode(CodecCoreEx<Element, Element, Config> core, Element in) {
             final int l = nodes.getLength();
             final double[] vals = new double[l];
 
+            int n = 0;
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     final Element elem = (Element) node;
                     if (elem.getTagName().equals(entryName)) {
-                        vals[i] = doubleCodec().decode(core, elem);
+                        vals[n++] = doubleCodec().decode(core, elem);
                     }
                 }
             }
 
-            return vals;
+            return n == l ? vals : Arrays.copyOf(vals, n);
         }
     };
 
@@ -714,17 +722,18 @@ public T[] decode(CodecCoreEx<Element, Element, Config> core, Element in) {
                 final int l = nodes.getLength();
                 final T[] arr = (T[]) Array.newInstance(elemCodec.type(), l);
 
+                int n = 0;
                 for (int i = 0; i < l; ++i) {
                     final Node node = nodes.item(i);
                     if (node.getNodeType() == Node.ELEMENT_NODE) {
                         final Element elem = (Element) node;
                         if (elem.getTagName().equals(config().entryElemName())) {
-                            arr[i] = elemCodec.decodeWithCheck(core, elem);
+                            arr[n++] = elemCodec.decodeWithCheck(core, elem);
                         }
                     }
                 }
 
-                return arr;
+                return n == l ? arr : Arrays.copyOf(arr, n);
             }
         };
     }
@@ -781,6 +790,7 @@ public T decode(CodecCoreEx<Element, Element, Config> core, Element in) {
             final Set<String> expNames = fields.keySet();
             final Set<String> actNames = new HashSet<>();
             final RA ra = objMeta.createBuilder();
+            final FieldSelector selector = core.fieldSelector();
 
             for (int i = 0; i < l; ++i) {
                 final Node node = nodes.item(i);
@@ -795,12 +805,18 @@ public T decode(CodecCoreEx<Element, Element, Config> core, Element in) {
                         throw new CodecException("Duplicate field name '" + name + "' for type " + type);
                     } else {
                         actNames.add(name);
-                        fields.get(name).decodeField(ra, elem);
+                        if (selector == FieldSelector.ALL) {
+                            fields.get(name).decodeField(ra, elem);
+                        } else if (selector.isSelected(name)) {
+                            core.decodeSelectedField(selector, fields.get(name), ra, elem);
+                        }
                     }
                 }
             }
 
-            checkFields(type, expNames, actNames);
+            if (selector == FieldSelector.ALL) {
+                checkFields(type, expNames, actNames);
+            }
 
             return ra.construct();
         }
@@ -48,10 +48,13 @@ public Map<K, V> decode(CodecCoreEx<Element, Element, Config> core, Element in)
             final MapProxy<K, V> mapProxy = getMapProxy(core);
 
             for (int i = 0; i < l; ++i) {
-                final Element elem = (Element)nodes.item(i);
-                final K key = keyCodec.decodeWithCheck(core, XmlUtils.firstChildElement(elem, keyName));
-                final V value = valueCodec.decodeWithCheck(core, XmlUtils.firstChildElement(elem, valueName));
-                mapProxy.put(key, value);
+                final Node node = nodes.item(i);
+                if (node.getNodeType() == Node.ELEMENT_NODE) {
+                    final Element elem = (Element)node;
+                    final K key = keyCodec.decodeWithCheck(core, XmlUtils.firstChildElement(elem, keyName));
+                    final V value = valueCodec.decodeWithCheck(core, XmlUtils.firstChildElement(elem, valueName));
+                    mapProxy.put(key, value);
+                }
             }
 
             return mapProxy.construct();
@@ -84,10 +87,13 @@ public Map<String, V> decode(CodecCoreEx<Element, Element, Config> core, Element
             final int l = nodes.getLength();
 
             for (int i = 0; i < l; ++i) {
-                final Element childElem = (Element) nodes.item(i);
-                final String key = childElem.getNodeName();
-                final V val = valueCodec.decodeWithCheck(core, childElem);
-                mapProxy.put(key, val);
+                final Node node = nodes.item(i);
+                if (node.getNodeType() == Node.ELEMENT_NODE) {
+                    final Element childElem = (Element) node;
+                    final String key = childElem.getNodeName();
+                    final V val = valueCodec.decodeWithCheck(core, childElem);
+                    mapProxy.put(key, val);
+                }
             }
 
             return mapProxy.construct();
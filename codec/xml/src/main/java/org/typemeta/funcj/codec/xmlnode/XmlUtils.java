@@ -2,7 +2,10 @@
 
 import org.typemeta.funcj.codec.utils.CodecException;
 import org.w3c.dom.*;
+import org.xml.sax.SAXException;
 
+import javax.xml.parsers.*;
+import javax.xml.stream.*;
 import javax.xml.transform.*;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
@@ -10,38 +13,288 @@
 import java.util.Optional;
 
 public abstract class XmlUtils {
-    public static Writer write(Node node, Writer writer, boolean pretty) throws CodecException {
-        try {
-            final Transformer tf = TransformerFactory.newInstance().newTransformer();
-            tf.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            if (pretty) {
-                tf.setOutputProperty(OutputKeys.INDENT, "yes");
-                tf.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+
+    /**
+     * Shared factories.
+     * Factory lookup is relatively expensive, so it's done once.
+     * The factories themselves are not thread-safe,
+     * so access to them is synchronised, which is fine as they are only used
+     * to create the per-thread builders and transformers below.
+     */
+    private static final DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
+
+    private static final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    /**
+     * Shared StAX output factory, used to serialise DOM nodes without going through a {@link Transformer}.
+     * The factory is not modified after initialisation, which makes it safe to share across threads.
+     */
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+
+    private static final String INDENT = "    ";
+
+    /**
+     * {@link DocumentBuilder} and {@link Transformer} instances are not thread-safe,
+     * but may be reused by the same thread, so each thread has its own.
+     */
+    private static final ThreadLocal<DocumentBuilder> docBuilder =
+            ThreadLocal.withInitial(XmlUtils::createDocumentBuilder);
+
+    private static final ThreadLocal<Transformer> compactTransformer =
+            ThreadLocal.withInitial(() -> createTransformer(false));
+
+    private static final ThreadLocal<Transformer> prettyTransformer =
+            ThreadLocal.withInitial(() -> createTransformer(true));
+
+    static DocumentBuilder createDocumentBuilder() {
+        synchronized (docBuilderFactory) {
+            try {
+                return docBuilderFactory.newDocumentBuilder();
+            } catch (ParserConfigurationException ex) {
+                throw new CodecException(ex);
             }
+        }
+    }
+
+    private static Transformer createTransformer(boolean pretty) {
+        final Transformer tf;
+        synchronized (transformerFactory) {
+            try {
+                tf = transformerFactory.newTransformer();
+            } catch (TransformerConfigurationException ex) {
+                throw new CodecException(ex);
+            }
+        }
+
+        tf.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        if (pretty) {
+            tf.setOutputProperty(OutputKeys.INDENT, "yes");
+            tf.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+        }
+
+        return tf;
+    }
 
-            tf.transform(new DOMSource(node), new StreamResult(writer));
+    /**
+     * Return the {@link DocumentBuilder} for the current thread.
+     * The builder must not be shared with other threads.
+     * @return          the {@code DocumentBuilder} for the current thread
+     */
+    public static DocumentBuilder documentBuilder() {
+        final DocumentBuilder db = docBuilder.get();
+        db.reset();
+        return db;
+    }
+
+    /**
+     * Create a new, empty, {@link Document}.
+     * @return          the new {@code Document}
+     */
+    public static Document newDocument() {
+        return documentBuilder().newDocument();
+    }
+
+    /**
+     * Create a new {@link Document} with a root element of the given name.
+     * @param rootElemName the name of the root element
+     * @return          the root element
+     */
+    public static Element newRootElement(String rootElemName) {
+        final Document doc = newDocument();
+        final Element root = doc.createElement(rootElemName);
+        doc.appendChild(root);
+        return root;
+    }
+
+    /**
+     * Parse an XML document from an {@link InputStream}.
+     * @param is        the input stream
+     * @return          the parsed {@code Document}
+     * @throws CodecException if the XML can't be parsed
+     */
+    public static Document parse(InputStream is) throws CodecException {
+        try {
+            return documentBuilder().parse(is);
+        } catch (SAXException | IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    private static Transformer transformer(boolean pretty) {
+        return pretty ? prettyTransformer.get() : compactTransformer.get();
+    }
+
+    /**
+     * Serialise a node to a {@link Writer} using the JAXP identity {@link Transformer}.
+     * @param node      the node to serialise
+     * @param writer    the writer
+     * @param pretty    whether to indent the output
+     * @return          the writer
+     * @throws CodecException if the node can't be serialised
+     */
+    public static Writer transform(Node node, Writer writer, boolean pretty) throws CodecException {
+        try {
+            transformer(pretty).transform(new DOMSource(node), new StreamResult(writer));
             return writer;
         } catch (TransformerException ex) {
             throw new CodecException(ex);
         }
     }
 
-    public static OutputStream write(Node node, OutputStream os, boolean pretty) throws CodecException {
+    /**
+     * Serialise a node to an {@link OutputStream} using the JAXP identity {@link Transformer}.
+     * @param node      the node to serialise
+     * @param os        the output stream
+     * @param pretty    whether to indent the output
+     * @return          the output stream
+     * @throws CodecException if the node can't be serialised
+     */
+    public static OutputStream transform(Node node, OutputStream os, boolean pretty) throws CodecException {
         try {
-            final Transformer tf = TransformerFactory.newInstance().newTransformer();
-            tf.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            if (pretty) {
-                tf.setOutputProperty(OutputKeys.INDENT, "yes");
-                tf.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-            }
-
-            tf.transform(new DOMSource(node), new StreamResult(os));
+            transformer(pretty).transform(new DOMSource(node), new StreamResult(os));
             return os;
         } catch (TransformerException ex) {
             throw new CodecException(ex);
         }
     }
 
+    /**
+     * Serialise a node to a {@link Writer}.
+     * The node is streamed directly to an {@link XMLStreamWriter},
+     * which avoids the cost of the JAXP identity transform.
+     * @param node      the node to serialise
+     * @param writer    the writer
+     * @param pretty    whether to indent the output
+     * @return          the writer
+     * @throws CodecException if the node can't be serialised
+     */
+    public static Writer write(Node node, Writer writer, boolean pretty) throws CodecException {
+        try {
+            final XMLStreamWriter xsw = outputFactory.createXMLStreamWriter(writer);
+            writeDocument(node, xsw, pretty);
+            return writer;
+        } catch (XMLStreamException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Serialise a node to an {@link OutputStream}, as UTF-8.
+     * @see #write(Node, Writer, boolean)
+     * @param node      the node to serialise
+     * @param os        the output stream
+     * @param pretty    whether to indent the output
+     * @return          the output stream
+     * @throws CodecException if the node can't be serialised
+     */
+    public static OutputStream write(Node node, OutputStream os, boolean pretty) throws CodecException {
+        try {
+            final XMLStreamWriter xsw = outputFactory.createXMLStreamWriter(os, "UTF-8");
+            writeDocument(node, xsw, pretty);
+            return os;
+        } catch (XMLStreamException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    private static void writeDocument(Node node, XMLStreamWriter xsw, boolean pretty) throws XMLStreamException {
+        xsw.writeStartDocument("UTF-8", "1.0");
+        if (pretty) {
+            xsw.writeCharacters("\n");
+        }
+        write(node, xsw, pretty);
+        xsw.writeEndDocument();
+        xsw.flush();
+        xsw.close();
+    }
+
+    /**
+     * Stream a node, and all of its descendants, to an {@link XMLStreamWriter}.
+     * The writer is neither flushed nor closed.
+     * @param node      the node to serialise
+     * @param xsw       the stream writer
+     * @param pretty    whether to indent element-only content
+     * @throws XMLStreamException if the stream writer fails
+     */
+    public static void write(Node node, XMLStreamWriter xsw, boolean pretty) throws XMLStreamException {
+        writeNode(node, xsw, pretty ? 0 : -1);
+    }
+
+    private static void writeNode(Node node, XMLStreamWriter xsw, int depth) throws XMLStreamException {
+        switch (node.getNodeType()) {
+            case Node.DOCUMENT_NODE:
+                for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                    writeNode(child, xsw, depth);
+                }
+                break;
+            case Node.ELEMENT_NODE:
+                writeElement((Element) node, xsw, depth);
+                break;
+            case Node.TEXT_NODE:
+                xsw.writeCharacters(((Text) node).getData());
+                break;
+            case Node.CDATA_SECTION_NODE:
+                xsw.writeCData(((CDATASection) node).getData());
+                break;
+            case Node.COMMENT_NODE:
+                xsw.writeComment(((Comment) node).getData());
+                break;
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                final ProcessingInstruction pi = (ProcessingInstruction) node;
+                xsw.writeProcessingInstruction(pi.getTarget(), pi.getData());
+                break;
+            default:
+                throw new CodecException("Unsupported node type " + node.getNodeType());
+        }
+    }
+
+    private static void writeElement(Element elem, XMLStreamWriter xsw, int depth) throws XMLStreamException {
+        final Node first = elem.getFirstChild();
+        if (first == null) {
+            xsw.writeEmptyElement(elem.getTagName());
+        } else {
+            xsw.writeStartElement(elem.getTagName());
+        }
+
+        final NamedNodeMap attrs = elem.getAttributes();
+        for (int i = 0, n = attrs.getLength(); i < n; ++i) {
+            final Node attr = attrs.item(i);
+            xsw.writeAttribute(attr.getNodeName(), attr.getNodeValue());
+        }
+
+        if (first != null) {
+            final boolean indent = depth >= 0 && hasOnlyElementChildren(elem);
+            for (Node child = first; child != null; child = child.getNextSibling()) {
+                if (indent) {
+                    writeIndent(xsw, depth + 1);
+                }
+                writeNode(child, xsw, depth < 0 ? depth : depth + 1);
+            }
+
+            if (indent) {
+                writeIndent(xsw, depth);
+            }
+
+            xsw.writeEndElement();
+        }
+    }
+
+    private static boolean hasOnlyElementChildren(Element elem) {
+        for (Node child = elem.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeIndent(XMLStreamWriter xsw, int depth) throws XMLStreamException {
+        xsw.writeCharacters("\n");
+        for (int i = 0; i < depth; ++i) {
+            xsw.writeCharacters(INDENT);
+        }
+    }
+
     public static Element addElement(Element parent, String name) {
         final Document doc = parent.getOwnerDocument();
         final Element elem = doc.createElement(name);
@@ -38,7 +38,7 @@ protected <T> void roundTrip(T val, Class<T> clazz) throws IOException {
 
             Assert.assertEquals(val, val2);
         } catch (Exception ex) {
-            final Path path  = FileSystems.getDefault().getPath("out.xml");
+            final Path path = Files.createTempFile("out", ".xml");
             System.out.println("Saving file to " + path);
             Files.write(path, baos.toByteArray());
             if (!printData()) {
@@ -73,4 +73,23 @@ public void testDontFailOnUnrecognisedFields() {
 
         Assert.assertEquals(val, val2);
     }
+
+    @Test
+    public void testSkipUnrecognisedFields() {
+        final XmlCodecCore codec = prepareCodecCore(
+                XmlConfig.builder().failOnUnrecognisedFields(false),
+                Codecs::xmlCodec);
+
+        final TestTypes.Custom val = new TestTypes.Custom(TestTypes.Init.INIT);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.Custom.class, val, baos);
+
+        // Unrecognised fields with text content, several nested elements, and no content.
+        final String data = baos.toString().replace(
+                "<flag>true</flag>",
+                "<flag>true</flag><a>text</a><b><c><d>1</d></c><e x=\"1\"/>text</b><f/>");
+
+        Assert.assertEquals(val, codec.decode(TestTypes.Custom.class, new ByteArrayInputStream(data.getBytes())));
+    }
 }
@@ -0,0 +1,99 @@
+package org.typemeta.funcj.codec.xml.io;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class InputImplTest {
+    private static long parseLong(String s, long min, long max) {
+        // Embed the text in a larger buffer, to check the offset and length are respected.
+        final char[] chars = ("9" + s + "9").toCharArray();
+        return InputImpl.parseLong(chars, 1, s.length(), min, max);
+    }
+
+    private static void checkValid(String s) {
+        assertEquals(Long.parseLong(s), parseLong(s, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    private static void checkInvalid(String s, long min, long max) {
+        try {
+            parseLong(s, min, max);
+            fail("Expected a NumberFormatException for \"" + s + "\"");
+        } catch (NumberFormatException ex) {
+            assertTrue(ex.getMessage().contains("\"" + s + "\""));
+        }
+    }
+
+    private static void checkInvalid(String s) {
+        checkInvalid(s, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private static boolean readBoolean(String text) {
+        return InputImpl.inputOf(new StringReader("<b>" + text + "</b>"), "b").readBoolean();
+    }
+
+    @Test
+    public void testParseLong() {
+        checkValid("0");
+        checkValid("-0");
+        checkValid("+0");
+        checkValid("7");
+        checkValid("-7");
+        checkValid("+7");
+        checkValid("0012");
+        checkValid("1234567890123");
+        checkValid("-1234567890123");
+        checkValid(Long.toString(Long.MAX_VALUE));
+        checkValid(Long.toString(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void testParseLongOverflow() {
+        checkInvalid("9223372036854775808");
+        checkInvalid("-9223372036854775809");
+        checkInvalid("10000000000000000000");
+        checkInvalid("-10000000000000000000");
+    }
+
+    @Test
+    public void testParseLongRange() {
+        assertEquals(Integer.MAX_VALUE, parseLong("2147483647", Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(Integer.MIN_VALUE, parseLong("-2147483648", Integer.MIN_VALUE, Integer.MAX_VALUE));
+        checkInvalid("2147483648", Integer.MIN_VALUE, Integer.MAX_VALUE);
+        checkInvalid("-2147483649", Integer.MIN_VALUE, Integer.MAX_VALUE);
+        checkInvalid("128", Byte.MIN_VALUE, Byte.MAX_VALUE);
+        checkInvalid("-129", Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    @Test
+    public void testParseLongMalformed() {
+        checkInvalid("");
+        checkInvalid("-");
+        checkInvalid("+");
+        checkInvalid("--1");
+        checkInvalid("+-1");
+        checkInvalid("1-");
+        checkInvalid("1.0");
+        checkInvalid("0x10");
+        checkInvalid("abc");
+        checkInvalid(" 1");
+        checkInvalid("1 ");
+        checkInvalid("\t1\n");
+    }
+
+    @Test
+    public void testReadBoolean() {
+        assertTrue(readBoolean("true"));
+        assertTrue(readBoolean("TRUE"));
+        assertTrue(readBoolean("tRuE"));
+        assertFalse(readBoolean("false"));
+        assertFalse(readBoolean("tru"));
+        assertFalse(readBoolean("truee"));
+        assertFalse(readBoolean("yes"));
+        assertFalse(readBoolean("1"));
+        assertFalse(readBoolean(" true"));
+        assertFalse(readBoolean("true "));
+    }
+}
@@ -2,11 +2,14 @@
 
 import org.junit.*;
 import org.typemeta.funcj.codec.*;
+import org.typemeta.funcj.codec.xml.*;
 import org.typemeta.funcj.codec.xml.Codecs;
 import org.w3c.dom.*;
 
 import javax.xml.parsers.*;
-import java.io.StringWriter;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 public class XmlNodeCodecTest extends TestBase {
 
@@ -70,4 +73,162 @@ public void testDontFailOnUnrecognisedFields() {
 
         Assert.assertEquals(val, val2);
     }
+
+    @Test
+    public void testConcurrentStreamRoundTrip() throws Exception {
+        final XmlNodeCodecCore codec =
+                prepareCodecCore(
+                        new XmlNodeConfig.Builder(),
+                        Codecs::xmlNodeCodec
+                );
+
+        final TestTypes.Custom val = new TestTypes.Custom(TestTypes.Init.INIT);
+
+        final ExecutorService exec = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<TestTypes.Custom>> results = new ArrayList<>();
+            for (int i = 0; i < 16; ++i) {
+                results.add(exec.submit(() -> {
+                    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    codec.encode(TestTypes.Custom.class, val, baos);
+                    final ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+                    return codec.decode(TestTypes.Custom.class, bais);
+                }));
+            }
+
+            for (Future<TestTypes.Custom> result : results) {
+                Assert.assertEquals(val, result.get());
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    public void testStreamWriterMatchesTransformer() throws Exception {
+        final XmlNodeCodecCore codec =
+                prepareCodecCore(
+                        new XmlNodeConfig.Builder(),
+                        Codecs::xmlNodeCodec
+                );
+
+        final TestTypes.Custom val = new TestTypes.Custom(TestTypes.Init.INIT);
+
+        final Element out = XmlUtils.newRootElement("Custom");
+        codec.encodeImpl(TestTypes.Custom.class, val, out);
+
+        final String streamed = XmlUtils.write(out, new StringWriter(), false).toString();
+        final String transformed = XmlUtils.transform(out, new StringWriter(), false).toString();
+
+        final Document doc = docBuilder.parse(new ByteArrayInputStream(streamed.getBytes("UTF-8")));
+        final Document doc2 = docBuilder.parse(new ByteArrayInputStream(transformed.getBytes("UTF-8")));
+
+        Assert.assertTrue(doc.getDocumentElement().isEqualNode(doc2.getDocumentElement()));
+    }
+
+    @Test
+    public void testLayoutMatchesStaxFormat() throws Exception {
+        final XmlNodeCodecCore nodeCodec =
+                prepareCodecCore(
+                        new XmlNodeConfig.Builder(),
+                        Codecs::xmlNodeCodec
+                );
+
+        final XmlCodecCore staxCodec =
+                prepareCodecCore(
+                        new XmlConfig.Builder(),
+                        Codecs::xmlCodec
+                );
+
+        final TestTypes.Custom val = new TestTypes.Custom(TestTypes.Init.INIT);
+
+        final Element out = XmlUtils.newRootElement("Custom");
+        nodeCodec.encodeImpl(TestTypes.Custom.class, val, out);
+        final String viaDom = XmlUtils.write(out, new StringWriter(), false).toString();
+
+        final StringWriter sw = new StringWriter();
+        staxCodec.encode(TestTypes.Custom.class, val, sw, "Custom");
+        final String viaStax = sw.toString();
+
+        final Document doc = docBuilder.parse(new ByteArrayInputStream(viaDom.getBytes("UTF-8")));
+        final Document doc2 = docBuilder.parse(new ByteArrayInputStream(viaStax.getBytes("UTF-8")));
+
+        Assert.assertTrue(doc.getDocumentElement().isEqualNode(doc2.getDocumentElement()));
+    }
+
+    @Test
+    public void testIndentedStreamRoundTrip() {
+        final XmlNodeCodecCore codec =
+                prepareCodecCore(
+                        new XmlNodeConfig.Builder(),
+                        Codecs::xmlNodeCodec
+                );
+
+        // The stream encoder indents its output, so arrays and maps must skip whitespace nodes.
+        final TestTypes.IntegerData val = new TestTypes.IntegerData(TestTypes.Init.INIT);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(TestTypes.IntegerData.class, val, baos);
+
+        final ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+        final TestTypes.IntegerData val2 = codec.decode(TestTypes.IntegerData.class, bais);
+
+        Assert.assertEquals(val, val2);
+    }
+
+    /**
+     * Insert a comment and a whitespace text node before each child element,
+     * as a hand-edited or pretty-printed document might contain.
+     */
+    private static void interleaveNonElementNodes(Element elem) {
+        final List<Element> children = new ArrayList<>();
+        final NodeList nodes = elem.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); ++i) {
+            if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                children.add((Element)nodes.item(i));
+            }
+        }
+
+        final Document doc = elem.getOwnerDocument();
+        for (Element child : children) {
+            elem.insertBefore(doc.createComment("comment"), child);
+            elem.insertBefore(doc.createTextNode("\n    "), child);
+            interleaveNonElementNodes(child);
+        }
+    }
+
+    private <T> void nonElementNodesRoundTrip(T val, Class<T> clazz) {
+        final XmlNodeCodecCore codec =
+                prepareCodecCore(
+                        new XmlNodeConfig.Builder(),
+                        Codecs::xmlNodeCodec
+                );
+
+        final Element out = XmlUtils.newRootElement("Custom");
+        codec.encodeImpl(clazz, val, out);
+
+        interleaveNonElementNodes(out);
+
+        final T val2 = codec.decodeImpl(clazz, out);
+
+        Assert.assertEquals(val, val2);
+    }
+
+    @Test
+    public void testArraysSkipNonElementNodes() {
+        nonElementNodesRoundTrip(new TestTypes.BooleanData(TestTypes.Init.INIT), TestTypes.BooleanData.class);
+        nonElementNodesRoundTrip(new TestTypes.ByteData(TestTypes.Init.INIT), TestTypes.ByteData.class);
+        nonElementNodesRoundTrip(new TestTypes.CharData(TestTypes.Init.INIT), TestTypes.CharData.class);
+        nonElementNodesRoundTrip(new TestTypes.ShortData(TestTypes.Init.INIT), TestTypes.ShortData.class);
+        nonElementNodesRoundTrip(new TestTypes.IntegerData(TestTypes.Init.INIT), TestTypes.IntegerData.class);
+        nonElementNodesRoundTrip(new TestTypes.LongData(TestTypes.Init.INIT), TestTypes.LongData.class);
+        nonElementNodesRoundTrip(new TestTypes.FloatData(TestTypes.Init.INIT), TestTypes.FloatData.class);
+        nonElementNodesRoundTrip(new TestTypes.DoubleData(TestTypes.Init.INIT), TestTypes.DoubleData.class);
+    }
+
+    @Test
+    public void testMapsSkipNonElementNodes() {
+        nonElementNodesRoundTrip(new TestTypes.CollTypes(), TestTypes.CollTypes.class);
+        nonElementNodesRoundTrip(new TestTypes.Custom(TestTypes.Init.INIT), TestTypes.Custom.class);
+    }
 }
@@ -0,0 +1,53 @@
+package org.typemeta.funcj.codec2.bytes;
+
+import org.typemeta.funcj.codec2.bytes.ByteTypes.InStream;
+import org.typemeta.funcj.codec2.bytes.ByteTypes.OutStream;
+import org.typemeta.funcj.codec2.core.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec core for the compact binary format.
+ * <p>
+ * Encoding only touches the {@link Encoder} side of each codec and the output stream implementation,
+ * so encode-only services do not load the decode machinery, and vice versa.
+ */
+public class ByteCodecCore extends CodecCoreImpl<InStream, OutStream> {
+
+    public ByteCodecCore(ByteCodecFormat format, CodecConfig config) {
+        super(format, config);
+    }
+
+    public ByteCodecCore() {
+        this(new ByteCodecFormat(), new ByteConfig());
+    }
+
+    /**
+     * Encode a value, using the pooled {@link Context} for the current thread.
+     * @param type      the static type of the value
+     * @param value     the value to encode
+     * @param os        the output stream to which the bytes are written
+     * @param <T>       the static type of the value
+     * @return          the output stream
+     */
+    public <T> OutputStream encode(Class<T> type, T value, OutputStream os) {
+        try (ContextImpl ctx = ContextImpl.acquire()) {
+            getEncoder(type).encode(this, ctx, value, ByteTypes.outputOf(os));
+            return os;
+        }
+    }
+
+    /**
+     * Decode a value, using the pooled {@link Context} for the current thread.
+     * @param type      the static type of the value
+     * @param is        the input stream from which the bytes are read
+     * @param <T>       the static type of the value
+     * @return          the decoded value
+     */
+    public <T> T decode(Class<T> type, InputStream is) {
+        try (ContextImpl ctx = ContextImpl.acquire()) {
+            return getDecoder(type).decode(this, ctx, ByteTypes.inputOf(is));
+        }
+    }
+}
@@ -0,0 +1,655 @@
+package org.typemeta.funcj.codec2.bytes;
+
+import org.typemeta.funcj.codec2.bytes.ByteTypes.InStream;
+import org.typemeta.funcj.codec2.bytes.ByteTypes.OutStream;
+import org.typemeta.funcj.codec2.core.*;
+import org.typemeta.funcj.codec2.core.PrimitiveCodecs.*;
+import org.typemeta.funcj.codec2.core.fields.FieldCodec;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * A compact binary encoding.
+ * <p>
+ * Object fields are encoded positionally, without field names.
+ * Array and string lengths are encoded as varints.
+ * Nullable values are preceded by a one-byte null flag,
+ * and values of non-final types by a dynamic type tag (see {@link OutStream#writeTypeTag(String)}).
+ */
+public class ByteCodecFormat implements StreamCodecFormat<InStream, OutStream> {
+    private static final ByteCodecFormat INSTANCE = new ByteCodecFormat();
+
+    public static ByteCodecFormat instance () {
+        return INSTANCE;
+    }
+
+    /**
+     * The maximum number of array elements allocated up-front, based on the encoded length.
+     * Larger arrays grow as their elements are decoded,
+     * so that a corrupt length can't cause an excessive allocation.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private static int initialCapacity(int len) {
+        return Math.min(len, MAX_INITIAL_CAPACITY);
+    }
+
+    private static int newCapacity(int size, int len) {
+        return (int)Math.min(len, Math.max(size * 2L, MAX_INITIAL_CAPACITY));
+    }
+
+    private final BooleanCodec<InStream, OutStream> BOOLEAN_CODEC = new BooleanCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeBool(EncoderCore<OutStream> core, Context ctx, boolean value, OutStream os) {
+            return os.writeBoolean(value);
+        }
+
+        @Override
+        public boolean decodeBool(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readBoolean();
+        }
+    };
+
+    private final Codec<boolean[], InStream, OutStream> BOOLEAN_ARRAY_CODEC = new FinalCodec<boolean[], InStream, OutStream>() {
+        @Override
+        public Class<boolean[]> type() {
+            return boolean[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, boolean[] value, OutStream os) {
+            os.writeVarInt(value.length);
+            for (boolean val : value) {
+                os.writeBoolean(val);
+            }
+            return os;
+        }
+
+        @Override
+        public boolean[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final int len = is.readLength();
+            boolean[] arr = new boolean[initialCapacity(len)];
+            for (int i = 0; i < len; ++i) {
+                if (i == arr.length) {
+                    arr = Arrays.copyOf(arr, newCapacity(i, len));
+                }
+                arr[i] = is.readBoolean();
+            }
+            return arr;
+        }
+    };
+
+    private final ByteCodec<InStream, OutStream> BYTE_CODEC = new ByteCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeByte(EncoderCore<OutStream> core, Context ctx, byte value, OutStream os) {
+            return os.writeByte(value);
+        }
+
+        @Override
+        public byte decodeByte(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readByte();
+        }
+    };
+
+    private final Codec<byte[], InStream, OutStream> BYTE_ARRAY_CODEC = new FinalCodec<byte[], InStream, OutStream>() {
+        @Override
+        public Class<byte[]> type() {
+            return byte[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, byte[] value, OutStream os) {
+            os.writeVarInt(value.length);
+            for (byte val : value) {
+                os.writeByte(val);
+            }
+            return os;
+        }
+
+        @Override
+        public byte[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final int len = is.readLength();
+            byte[] arr = new byte[initialCapacity(len)];
+            for (int i = 0; i < len; ++i) {
+                if (i == arr.length) {
+                    arr = Arrays.copyOf(arr, newCapacity(i, len));
+                }
+                arr[i] = is.readByte();
+            }
+            return arr;
+        }
+    };
+
+    private final CharCodec<InStream, OutStream> CHAR_CODEC = new CharCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeChar(EncoderCore<OutStream> core, Context ctx, char value, OutStream os) {
+            return os.writeChar(value);
+        }
+
+        @Override
+        public char decodeChar(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readChar();
+        }
+    };
+
+    private final Codec<char[], InStream, OutStream> CHAR_ARRAY_CODEC = new FinalCodec<char[], InStream, OutStream>() {
+        @Override
+        public Class<char[]> type() {
+            return char[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, char[] value, OutStream os) {
+            os.writeVarInt(value.length);
+            for (char val : value) {
+                os.writeChar(val);
+            }
+            return os;
+        }
+
+        @Override
+        public char[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final int len = is.readLength();
+            char[] arr = new char[initialCapacity(len)];
+            for (int i = 0; i < len; ++i) {
+                if (i == arr.length) {
+                    arr = Arrays.copyOf(arr, newCapacity(i, len));
+                }
+                arr[i] = is.readChar();
+            }
+            return arr;
+        }
+    };
+
+    private final ShortCodec<InStream, OutStream> SHORT_CODEC = new ShortCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeShort(EncoderCore<OutStream> core, Context ctx, short value, OutStream os) {
+            return os.writeShort(value);
+        }
+
+        @Override
+        public short decodeShort(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readShort();
+        }
+    };
+
+    private final Codec<short[], InStream, OutStream> SHORT_ARRAY_CODEC = new FinalCodec<short[], InStream, OutStream>() {
+        @Override
+        public Class<short[]> type() {
+            return short[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, short[] value, OutStream os) {
+            os.writeVarInt(value.length);
+            for (short val : value) {
+                os.writeShort(val);
+            }
+            return os;
+        }
+
+        @Override
+        public short[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final int len = is.readLength();
+            short[] arr = new short[initialCapacity(len)];
+            for (int i = 0; i < len; ++i) {
+                if (i == arr.length) {
+                    arr = Arrays.copyOf(arr, newCapacity(i, len));
+                }
+                arr[i] = is.readShort();
+            }
+            return arr;
+        }
+    };
+
+    private final IntegerCodec<InStream, OutStream> INTEGER_CODEC = new IntegerCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeInt(EncoderCore<OutStream> core, Context ctx, int value, OutStream os) {
+            return os.writeInt(value);
+        }
+
+        @Override
+        public int decodeInt(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readInt();
+        }
+    };
+
+    private final Codec<int[], InStream, OutStream> INTEGER_ARRAY_CODEC = new FinalCodec<int[], InStream, OutStream>() {
+        @Override
+        public Class<int[]> type() {
+            return int[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, int[] value, OutStream os) {
+            os.writeVarInt(value.length);
+            for (int val : value) {
+                os.writeInt(val);
+            }
+            return os;
+        }
+
+        @Override
+        public int[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final int len = is.readLength();
+            int[] arr = new int[initialCapacity(len)];
+            for (int i = 0; i < len; ++i) {
+                if (i == arr.length) {
+                    arr = Arrays.copyOf(arr, newCapacity(i, len));
+                }
+                arr[i] = is.readInt();
+            }
+            return arr;
+        }
+    };
+
+    private final LongCodec<InStream, OutStream> LONG_CODEC = new LongCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeLong(EncoderCore<OutStream> core, Context ctx, long value, OutStream os) {
+            return os.writeLong(value);
+        }
+
+        @Override
+        public long decodeLong(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readLong();
+        }
+    };
+
+    private final Codec<long[], InStream, OutStream> LONG_ARRAY_CODEC = new FinalCodec<long[], InStream, OutStream>() {
+        @Override
+        public Class<long[]> type() {
+            return long[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, long[] value, OutStream os) {
+            os.writeVarInt(value.length);
+            for (long val : value) {
+                os.writeLong(val);
+            }
+            return os;
+        }
+
+        @Override
+        public long[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final int len = is.readLength();
+            long[] arr = new long[initialCapacity(len)];
+            for (int i = 0; i < len; ++i) {
+                if (i == arr.length) {
+                    arr = Arrays.copyOf(arr, newCapacity(i, len));
+                }
+                arr[i] = is.readLong();
+            }
+            return arr;
+        }
+    };
+
+    private final FloatCodec<InStream, OutStream> FLOAT_CODEC = new FloatCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeFloat(EncoderCore<OutStream> core, Context ctx, float value, OutStream os) {
+            return os.writeFloat(value);
+        }
+
+        @Override
+        public float decodeFloat(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readFloat();
+        }
+    };
+
+    private final Codec<float[], InStream, OutStream> FLOAT_ARRAY_CODEC = new FinalCodec<float[], InStream, OutStream>() {
+        @Override
+        public Class<float[]> type() {
+            return float[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, float[] value, OutStream os) {
+            os.writeVarInt(value.length);
+            for (float val : value) {
+                os.writeFloat(val);
+            }
+            return os;
+        }
+
+        @Override
+        public float[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final int len = is.readLength();
+            float[] arr = new float[initialCapacity(len)];
+            for (int i = 0; i < len; ++i) {
+                if (i == arr.length) {
+                    arr = Arrays.copyOf(arr, newCapacity(i, len));
+                }
+                arr[i] = is.readFloat();
+            }
+            return arr;
+        }
+    };
+
+    private final DoubleCodec<InStream, OutStream> DOUBLE_CODEC = new DoubleCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeDouble(EncoderCore<OutStream> core, Context ctx, double value, OutStream os) {
+            return os.writeDouble(value);
+        }
+
+        @Override
+        public double decodeDouble(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readDouble();
+        }
+    };
+
+    private final Codec<double[], InStream, OutStream> DOUBLE_ARRAY_CODEC = new FinalCodec<double[], InStream, OutStream>() {
+        @Override
+        public Class<double[]> type() {
+            return double[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, double[] value, OutStream os) {
+            os.writeVarInt(value.length);
+            for (double val : value) {
+                os.writeDouble(val);
+            }
+            return os;
+        }
+
+        @Override
+        public double[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final int len = is.readLength();
+            double[] arr = new double[initialCapacity(len)];
+            for (int i = 0; i < len; ++i) {
+                if (i == arr.length) {
+                    arr = Arrays.copyOf(arr, newCapacity(i, len));
+                }
+                arr[i] = is.readDouble();
+            }
+            return arr;
+        }
+    };
+
+    private final Codec<String, InStream, OutStream> STRING_CODEC = new FinalCodec<String, InStream, OutStream>() {
+        @Override
+        public Class<String> type() {
+            return String.class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, String value, OutStream os) {
+            return os.writeString(value);
+        }
+
+        @Override
+        public String decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readString();
+        }
+    };
+
+    @Override
+    public <T> EncodeResult<OutStream> encodeNull(EncoderCore<OutStream> core, Context ctx, T val, OutStream os) {
+        final boolean isNull = val == null;
+        return new EncodeResult<>(isNull, os.writeBoolean(isNull));
+    }
+
+    @Override
+    public boolean decodeNull(DecoderCore<InStream> core, Context ctx, InStream is) {
+        return is.readBoolean();
+    }
+
+    @Override
+    public BooleanCodec<InStream, OutStream> booleanCodec() {
+        return BOOLEAN_CODEC;
+    }
+
+    @Override
+    public Codec<boolean[], InStream, OutStream> booleanArrayCodec() {
+        return BOOLEAN_ARRAY_CODEC;
+    }
+
+    @Override
+    public ByteCodec<InStream, OutStream> byteCodec() {
+        return BYTE_CODEC;
+    }
+
+    @Override
+    public Codec<byte[], InStream, OutStream> byteArrayCodec() {
+        return BYTE_ARRAY_CODEC;
+    }
+
+    @Override
+    public CharCodec<InStream, OutStream> charCodec() {
+        return CHAR_CODEC;
+    }
+
+    @Override
+    public Codec<char[], InStream, OutStream> charArrayCodec() {
+        return CHAR_ARRAY_CODEC;
+    }
+
+    @Override
+    public ShortCodec<InStream, OutStream> shortCodec() {
+        return SHORT_CODEC;
+    }
+
+    @Override
+    public Codec<short[], InStream, OutStream> shortArrayCodec() {
+        return SHORT_ARRAY_CODEC;
+    }
+
+    @Override
+    public IntegerCodec<InStream, OutStream> integerCodec() {
+        return INTEGER_CODEC;
+    }
+
+    @Override
+    public Codec<int[], InStream, OutStream> integerArrayCodec() {
+        return INTEGER_ARRAY_CODEC;
+    }
+
+    @Override
+    public LongCodec<InStream, OutStream> longCodec() {
+        return LONG_CODEC;
+    }
+
+    @Override
+    public Codec<long[], InStream, OutStream> longArrayCodec() {
+        return LONG_ARRAY_CODEC;
+    }
+
+    @Override
+    public FloatCodec<InStream, OutStream> floatCodec() {
+        return FLOAT_CODEC;
+    }
+
+    @Override
+    public Codec<float[], InStream, OutStream> floatArrayCodec() {
+        return FLOAT_ARRAY_CODEC;
+    }
+
+    @Override
+    public DoubleCodec<InStream, OutStream> doubleCodec() {
+        return DOUBLE_CODEC;
+    }
+
+    @Override
+    public Codec<double[], InStream, OutStream> doubleArrayCodec() {
+        return DOUBLE_ARRAY_CODEC;
+    }
+
+    @Override
+    public Codec<String, InStream, OutStream> stringCodec() {
+        return STRING_CODEC;
+    }
+
+    /**
+     * The field codecs for an object type, held in an array.
+     * Fields are encoded in declaration order, with no names.
+     * @param <T>       the object type
+     */
+    private static class ObjectFields<T> {
+        private final ObjectCreator<T> ctor;
+        private final FieldCodec<T, InStream, OutStream>[] codecs;
+
+        @SuppressWarnings("unchecked")
+        private ObjectFields(Map<String, FieldCodec<?, InStream, OutStream>> fieldCodecs, ObjectCreator<T> ctor) {
+            this.ctor = ctor;
+            // The field codecs are those of the fields of T.
+            this.codecs = (FieldCodec<T, InStream, OutStream>[])fieldCodecs.values().toArray(new FieldCodec<?, ?, ?>[0]);
+        }
+
+        OutStream encode(EncoderCore<OutStream> core, Context ctx, T value, OutStream os) {
+            for (FieldCodec<T, InStream, OutStream> codec : codecs) {
+                codec.encodeField(core, ctx, value, os);
+            }
+            return os;
+        }
+
+        T decode(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final T value = ctor.create();
+            for (FieldCodec<T, InStream, OutStream> codec : codecs) {
+                codec.decodeField(core, ctx, value, is);
+            }
+            return value;
+        }
+    }
+
+    @Override
+    public <T> Codec<T, InStream, OutStream> objectCodec(Class<T> type, Map<String, FieldCodec<?, InStream, OutStream>> fieldCodecs, ObjectCreator<T> ctor) {
+        final ObjectFields<T> fields = new ObjectFields<>(fieldCodecs, ctor);
+        if (Modifier.isFinal(type.getModifiers())) {
+            return new FinalCodec<T, InStream, OutStream>() {
+                @Override
+                public Class<T> type() {
+                    return type;
+                }
+
+                @Override
+                public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, T value, OutStream os) {
+                    return fields.encode(core, ctx, value, os);
+                }
+
+                @Override
+                public T decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+                    return fields.decode(core, ctx, is);
+                }
+            };
+        } else {
+            return new NonFinalCodec<T, InStream, OutStream>() {
+                @Override
+                public Class<T> type() {
+                    return type;
+                }
+
+                @Override
+                public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, T value, OutStream os) {
+                    return fields.encode(core, ctx, value, os);
+                }
+
+                @Override
+                public T decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+                    return fields.decode(core, ctx, is);
+                }
+            };
+        }
+    }
+
+    @Override
+    public <T> Codec<T[], InStream, OutStream> objectArrayCodec(Class<T[]> arrType, Class<T> elemType, Codec<T, InStream, OutStream> elemCodec) {
+        if (Modifier.isFinal(elemType.getModifiers())) {
+            return new FinalCodec<T[], InStream, OutStream>() {
+                @Override
+                public Class<T[]> type() {
+                    return arrType;
+                }
+
+                @Override
+                public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, T[] value, OutStream os) {
+                    return encodeArray(core, ctx, elemCodec, value, os);
+                }
+
+                @Override
+                public T[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+                    return decodeArray(core, ctx, elemType, elemCodec, is);
+                }
+            };
+        } else {
+            return new NonFinalCodec<T[], InStream, OutStream>() {
+                @Override
+                public Class<T[]> type() {
+                    return arrType;
+                }
+
+                @Override
+                public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, T[] value, OutStream os) {
+                    return encodeArray(core, ctx, elemCodec, value, os);
+                }
+
+                @Override
+                public T[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+                    return decodeArray(core, ctx, elemType, elemCodec, is);
+                }
+            };
+        }
+    }
+
+    private static <T> OutStream encodeArray(
+            EncoderCore<OutStream> core,
+            Context ctx,
+            Codec<T, InStream, OutStream> elemCodec,
+            T[] value,
+            OutStream os) {
+        os.writeVarInt(value.length);
+        for (T val : value) {
+            elemCodec.encode(core, ctx, val, os);
+        }
+        return os;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T[] decodeArray(
+            DecoderCore<InStream> core,
+            Context ctx,
+            Class<T> elemType,
+            Codec<T, InStream, OutStream> elemCodec,
+            InStream is) {
+        final int len = is.readLength();
+        T[] arr = (T[]) Array.newInstance(elemType, initialCapacity(len));
+        for (int i = 0; i < len; ++i) {
+            if (i == arr.length) {
+                arr = Arrays.copyOf(arr, newCapacity(i, len));
+            }
+            arr[i] = elemCodec.decode(core, ctx, is);
+        }
+        return arr;
+    }
+
+    /**
+     * Every value of a non-final type is preceded by a type tag.
+     * If the dynamic type differs from the static type then the tag carries the type name,
+     * and the value is encoded directly with the codec for the dynamic type.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> EncodeResult<OutStream> encodeDynamic(EncoderCore<OutStream> core, Context ctx, T value, OutStream os, Encoder<T, OutStream> encoder) {
+        final Class<T> dynType = (Class<T>) value.getClass();
+        if (core.config().dynamicTypeMatch(encoder.type(), dynType)) {
+            os.writeTypeTag(null);
+            return new EncodeResult<>(false, os);
+        } else {
+            os.writeTypeTag(core.config().classToName(dynType));
+            ctx.encoder(core, dynType).encodeImpl(core, ctx, value, os);
+            return new EncodeResult<>(true, os);
+        }
+    }
+
+    @Override
+    public <T> T decodeDynamic(DecoderCore<InStream> core, Context ctx, InStream is) {
+        final String typeName = is.readTypeTag();
+        if (typeName == null) {
+            // null indicates a dynamic encoded value was not found.
+            return null;
+        } else {
+            return ctx.decoder(core, core.config().<T>nameToClass(typeName)).decodeImpl(core, ctx, is);
+        }
+    }
+}
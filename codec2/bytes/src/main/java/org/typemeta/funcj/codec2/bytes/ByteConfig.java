@@ -0,0 +1,18 @@
+package org.typemeta.funcj.codec2.bytes;
+
+import org.typemeta.funcj.codec2.core.*;
+
+public class ByteConfig extends CodecConfigImpl {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <CFG extends CodecConfig, T> T get(Property<CFG, T> prop) {
+        return prop.value((CFG)this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <CFG extends CodecConfig, S, T> T get(Property1<CFG, S, T> prop, S arg) {
+        return prop.value((CFG)this, arg);
+    }
+}
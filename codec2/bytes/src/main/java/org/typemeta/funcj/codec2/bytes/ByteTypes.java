@@ -0,0 +1,94 @@
+package org.typemeta.funcj.codec2.bytes;
+
+import org.typemeta.funcj.codec2.bytes.io.InputImpl;
+import org.typemeta.funcj.codec2.bytes.io.OutputImpl;
+import org.typemeta.funcj.codec2.core.StreamCodecFormat;
+
+import java.io.*;
+
+public abstract class ByteTypes {
+
+    /**
+     * Interface for classes which implement an input stream of bytes
+     */
+    public interface InStream extends StreamCodecFormat.Input {
+
+        /**
+         * Read an unsigned variable-length integer.
+         * @return          the integer value
+         */
+        int readVarInt();
+
+        /**
+         * Read the length of an array or string, encoded as a varint.
+         * A negative length is rejected with a {@code CodecException}.
+         * @return          the length
+         */
+        int readLength();
+
+        /**
+         * Read a dynamic type tag.
+         * @return          the type name, or null if the value has the static type
+         */
+        String readTypeTag();
+    }
+
+    /**
+     * Interface for classes which implement an output stream of bytes
+     */
+    public interface OutStream extends StreamCodecFormat.Output {
+
+        @Override
+        OutStream writeBoolean(boolean value);
+        @Override
+        OutStream writeChar(char value);
+        @Override
+        OutStream writeByte(byte value);
+        @Override
+        OutStream writeShort(short value);
+        @Override
+        OutStream writeInt(int value);
+        @Override
+        OutStream writeLong(long value);
+        @Override
+        OutStream writeFloat(float value);
+        @Override
+        OutStream writeDouble(double value);
+        @Override
+        OutStream writeString(String value);
+
+        /**
+         * Write an unsigned variable-length integer,
+         * using 7 bits per byte, with the high bit set on all but the last byte.
+         * @param value     the (non-negative) integer value
+         * @return          this stream
+         */
+        OutStream writeVarInt(int value);
+
+        /**
+         * Write a dynamic type tag.
+         * A tag is a single varint - 0 denotes the static type,
+         * 1 denotes a new type name (which follows the tag),
+         * and {@code n > 1} refers back to the {@code n-2}'th type name already written to this stream.
+         * @param typeName  the type name, or null if the value has the static type
+         * @return          this stream
+         */
+        OutStream writeTypeTag(String typeName);
+    }
+
+    public static InStream inputOf(InputStream is) {
+        return new InputImpl(new DataInputStream(is));
+    }
+
+    public static InStream inputOf(DataInput input) {
+        return new InputImpl(input);
+    }
+
+    public static OutStream outputOf(OutputStream os) {
+        return new OutputImpl(new DataOutputStream(os));
+    }
+
+    public static OutStream outputOf(DataOutput output) {
+        return new OutputImpl(output);
+    }
+}
@@ -0,0 +1,177 @@
+package org.typemeta.funcj.codec2.bytes.io;
+
+import org.typemeta.funcj.codec2.bytes.ByteTypes;
+import org.typemeta.funcj.codec2.core.utils.CodecException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public final class InputImpl implements ByteTypes.InStream {
+    /**
+     * The maximum size of the string buffer which is retained between reads.
+     * Longer strings are read into a buffer which grows as the data is read,
+     * so that a corrupt length can't cause an excessive allocation.
+     */
+    private static final int MAX_RETAINED_SIZE = 1 << 16;
+
+    private final DataInput input;
+
+    private byte[] buffer = new byte[64];
+
+    private List<String> typeNames;
+
+    public InputImpl(DataInput input) {
+        this.input = input;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        try {
+            return input.readBoolean();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public byte readByte() {
+        try {
+            return input.readByte();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public char readChar() {
+        try {
+            return input.readChar();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public short readShort() {
+        try {
+            return input.readShort();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public int readInt() {
+        try {
+            return input.readInt();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public long readLong() {
+        try {
+            return input.readLong();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public float readFloat() {
+        try {
+            return input.readFloat();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public double readDouble() {
+        try {
+            return input.readDouble();
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public int readVarInt() {
+        try {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                final int b = input.readUnsignedByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new CodecException("Malformed varint");
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public int readLength() {
+        final int len = readVarInt();
+        if (len < 0) {
+            throw new CodecException("Negative length " + len);
+        } else {
+            return len;
+        }
+    }
+
+    @Override
+    public String readString() {
+        final int len = readLength();
+        try {
+            if (len <= MAX_RETAINED_SIZE) {
+                if (buffer.length < len) {
+                    buffer = new byte[Math.min(Math.max(len, buffer.length * 2), MAX_RETAINED_SIZE)];
+                }
+
+                input.readFully(buffer, 0, len);
+                return new String(buffer, 0, len, StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[MAX_RETAINED_SIZE];
+                int n = 0;
+                while (n < len) {
+                    if (n == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, (int)Math.min(len, bytes.length * 2L));
+                    }
+                    final int k = bytes.length - n;
+                    input.readFully(bytes, n, k);
+                    n += k;
+                }
+                return new String(bytes, 0, len, StandardCharsets.UTF_8);
+            }
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public String readTypeTag() {
+        final int tag = readVarInt();
+        if (tag == 0) {
+            return null;
+        } else {
+            if (typeNames == null) {
+                typeNames = new ArrayList<>();
+            }
+
+            if (tag == 1) {
+                final String typeName = readString();
+                typeNames.add(typeName);
+                return typeName;
+            } else if (tag > 1 && tag - 2 < typeNames.size()) {
+                return typeNames.get(tag - 2);
+            } else {
+                throw new CodecException("Unknown type tag " + tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.typemeta.funcj.codec2.bytes.io;
+
+import org.typemeta.funcj.codec2.bytes.ByteTypes;
+import org.typemeta.funcj.codec2.core.utils.CodecException;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class OutputImpl implements ByteTypes.OutStream {
+    private final DataOutput output;
+
+    private byte[] buffer = new byte[64];
+
+    private Map<String, Integer> typeNames;
+
+    public OutputImpl(DataOutput output) {
+        this.output = output;
+    }
+
+    @Override
+    public OutputImpl writeBoolean(boolean v) {
+        try {
+            output.writeBoolean(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeByte(byte v) {
+        try {
+            output.writeByte(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeChar(char v) {
+        try {
+            output.writeChar(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeShort(short v) {
+        try {
+            output.writeShort(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeInt(int v) {
+        try {
+            output.writeInt(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeLong(long v) {
+        try {
+            output.writeLong(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeFloat(float v) {
+        try {
+            output.writeFloat(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeDouble(double v) {
+        try {
+            output.writeDouble(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeVarInt(int v) {
+        try {
+            while ((v & ~0x7F) != 0) {
+                output.writeByte((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            output.writeByte(v);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    /**
+     * Strings are written as a varint byte length, followed by the UTF-8 encoded bytes.
+     */
+    @Override
+    public OutputImpl writeString(String s) {
+        final int len = s.length();
+        if (buffer.length < len * 3) {
+            buffer = new byte[len * 3];
+        }
+
+        final byte[] buf = buffer;
+        int n = 0;
+        for (int i = 0; i < len; ++i) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                buf[n++] = (byte)c;
+            } else if (c < 0x800) {
+                buf[n++] = (byte)(0xC0 | (c >> 6));
+                buf[n++] = (byte)(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[n++] = (byte)(0xF0 | (cp >> 18));
+                buf[n++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+                buf[n++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+                buf[n++] = (byte)(0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate - replace as per String.getBytes.
+                buf[n++] = '?';
+            } else {
+                buf[n++] = (byte)(0xE0 | (c >> 12));
+                buf[n++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                buf[n++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+
+        writeVarInt(n);
+
+        try {
+            output.write(buf, 0, n);
+            return this;
+        } catch (IOException ex) {
+            throw new CodecException(ex);
+        }
+    }
+
+    @Override
+    public OutputImpl writeTypeTag(String typeName) {
+        if (typeName == null) {
+            return writeVarInt(0);
+        } else {
+            if (typeNames == null) {
+                typeNames = new HashMap<>();
+            }
+
+            final Integer index = typeNames.get(typeName);
+            if (index != null) {
+                return writeVarInt(index + 2);
+            } else {
+                typeNames.put(typeName, typeNames.size());
+                writeVarInt(1);
+                return writeString(typeName);
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains classes which implement a compact binary encoding via byte streams.
+ */
+package org.typemeta.funcj.codec2.bytes;
@@ -0,0 +1,262 @@
+package org.typemeta.funcj.codec2.bytes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.typemeta.funcj.codec2.core.utils.CodecException;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ByteCodecTest {
+    public interface Shape {
+    }
+
+    public static class Circle implements Shape {
+        public final double radius;
+
+        public Circle(double radius) {
+            this.radius = radius;
+        }
+
+        private Circle() {
+            this.radius = 0;
+        }
+
+        @Override
+        public boolean equals(Object rhs) {
+            if (this == rhs) {
+                return true;
+            } else if (rhs == null || getClass() != rhs.getClass()) {
+                return false;
+            } else {
+                return Double.compare(radius, ((Circle) rhs).radius) == 0;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(radius);
+        }
+    }
+
+    public static class Drawing {
+        public final boolean visible;
+        public final byte layer;
+        public final char code;
+        public final short version;
+        public final int id;
+        public final long timestamp;
+        public final float scale;
+        public final Integer boxedId;
+        public final String title;
+        public final int[] ids;
+        public final double[] weights;
+        public final String[] tags;
+        public final Shape main;
+        public final Shape[] shapes;
+
+        public Drawing(int id, String title, Shape main, Shape[] shapes) {
+            this.visible = true;
+            this.layer = (byte)-3;
+            this.code = 'é';
+            this.version = (short)300;
+            this.id = id;
+            this.timestamp = 1234567890123L;
+            this.scale = 0.75f;
+            this.boxedId = id;
+            this.title = title;
+            this.ids = new int[] {id, -id, 0};
+            this.weights = new double[] {1.5, -2.25};
+            this.tags = new String[] {"a", null, "😀 smile"};
+            this.main = main;
+            this.shapes = shapes;
+        }
+
+        private Drawing() {
+            this.visible = false;
+            this.layer = 0;
+            this.code = 0;
+            this.version = 0;
+            this.id = 0;
+            this.timestamp = 0;
+            this.scale = 0;
+            this.boxedId = null;
+            this.title = null;
+            this.ids = null;
+            this.weights = null;
+            this.tags = null;
+            this.main = null;
+            this.shapes = null;
+        }
+
+        @Override
+        public boolean equals(Object rhs) {
+            if (this == rhs) {
+                return true;
+            } else if (rhs == null || getClass() != rhs.getClass()) {
+                return false;
+            } else {
+                final Drawing rhsT = (Drawing) rhs;
+                return visible == rhsT.visible &&
+                        layer == rhsT.layer &&
+                        code == rhsT.code &&
+                        version == rhsT.version &&
+                        id == rhsT.id &&
+                        timestamp == rhsT.timestamp &&
+                        Float.compare(scale, rhsT.scale) == 0 &&
+                        Objects.equals(boxedId, rhsT.boxedId) &&
+                        Objects.equals(title, rhsT.title) &&
+                        Arrays.equals(ids, rhsT.ids) &&
+                        Arrays.equals(weights, rhsT.weights) &&
+                        Arrays.equals(tags, rhsT.tags) &&
+                        Objects.equals(main, rhsT.main) &&
+                        Arrays.equals(shapes, rhsT.shapes);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, title);
+        }
+    }
+
+    private static <T> byte[] encode(ByteCodecCore codecCore, Class<T> type, T value) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codecCore.encode(type, value, baos);
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        final Drawing drawing = new Drawing(
+                42,
+                "Title Δ",
+                new Circle(1.0),
+                new Shape[] {new Circle(2.0), null, new Circle(3.0)}
+        );
+
+        final byte[] bytes = encode(codecCore, Drawing.class, drawing);
+        final Drawing drawing2 = codecCore.decode(Drawing.class, new ByteArrayInputStream(bytes));
+
+        Assert.assertEquals(drawing, drawing2);
+    }
+
+    @Test
+    public void testNulls() {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        final Drawing drawing = new Drawing(0, null, null, null);
+
+        final byte[] bytes = encode(codecCore, Drawing.class, drawing);
+        final Drawing drawing2 = codecCore.decode(Drawing.class, new ByteArrayInputStream(bytes));
+
+        Assert.assertEquals(drawing, drawing2);
+    }
+
+    @Test
+    public void testTypeNamesWrittenOnce() {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        final Shape[] one = {new Circle(1.0)};
+        final Shape[] two = {new Circle(1.0), new Circle(1.0)};
+
+        final int len1 = encode(codecCore, Shape[].class, one).length;
+        final int len2 = encode(codecCore, Shape[].class, two).length;
+
+        // The second circle costs a null flag, a one-byte type tag and the radius.
+        Assert.assertEquals(1 + 1 + 8, len2 - len1);
+    }
+
+    @Test
+    public void testConcurrentRoundTrip() throws Exception {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        final Drawing drawing = new Drawing(42, "Title", new Circle(1.0), new Shape[] {new Circle(2.0)});
+
+        // The final fields are accessed reflectively by every thread through the same field codecs.
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Drawing>> results = new ArrayList<>();
+            for (int i = 0; i < 2000; ++i) {
+                results.add(executor.submit(() -> {
+                    final byte[] bytes = encode(codecCore, Drawing.class, drawing);
+                    return codecCore.decode(Drawing.class, new ByteArrayInputStream(bytes));
+                }));
+            }
+
+            for (Future<Drawing> result : results) {
+                Assert.assertEquals(drawing, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Replace the trailing zero length of an encoded empty value with the given varint.
+     */
+    private static byte[] withLength(byte[] emptyEncoded, int... varInt) {
+        final byte[] bytes = Arrays.copyOf(emptyEncoded, emptyEncoded.length - 1 + varInt.length);
+        for (int i = 0; i < varInt.length; ++i) {
+            bytes[emptyEncoded.length - 1 + i] = (byte)varInt[i];
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testLargeValuesRoundTrip() {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        final int[] ints = new int[5000];
+        for (int i = 0; i < ints.length; ++i) {
+            ints[i] = i;
+        }
+        final int[] ints2 = codecCore.decode(int[].class, new ByteArrayInputStream(encode(codecCore, int[].class, ints)));
+        Assert.assertArrayEquals(ints, ints2);
+
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < 200000) {
+            sb.append("abcéΔ");
+        }
+        final String str = sb.toString();
+        final String str2 = codecCore.decode(String.class, new ByteArrayInputStream(encode(codecCore, String.class, str)));
+        Assert.assertEquals(str, str2);
+    }
+
+    @Test(expected = CodecException.class)
+    public void testNegativeArrayLengthRejected() {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        // A varint which decodes to -1.
+        final byte[] bytes = withLength(encode(codecCore, int[].class, new int[0]), 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        codecCore.decode(int[].class, new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expected = CodecException.class)
+    public void testNegativeStringLengthRejected() {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        final byte[] bytes = withLength(encode(codecCore, String.class, ""), 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        codecCore.decode(String.class, new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expected = CodecException.class)
+    public void testTruncatedLargeArrayRejected() {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        // A length of Integer.MAX_VALUE, with no elements following.
+        final byte[] bytes = withLength(encode(codecCore, String[].class, new String[0]), 0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+        codecCore.decode(String[].class, new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expected = CodecException.class)
+    public void testTruncatedLargeStringRejected() {
+        final ByteCodecCore codecCore = new ByteCodecCore();
+
+        final byte[] bytes = withLength(encode(codecCore, String.class, ""), 0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+        codecCore.decode(String.class, new ByteArrayInputStream(bytes));
+    }
+}
@@ -67,44 +67,49 @@ public <T> Codec<T, IN, OUT> getCodec(Class<T> type) {
         if (codecMap.containsKey(type)) {
             return (Codec<T, IN, OUT>)codecMap.get(type);
         } else {
-            final CodecRef<T, IN, OUT> codecRef;
-            // Lock the map and try again.
-            synchronized(codecMap) {
-                if (codecMap.containsKey(type)) {
-                    return (Codec<T, IN, OUT>)codecMap.get(type);
-                } else {
-                    // Ok, it's definitely not there, so add a CodecRef
-                    // (in case the class has a recursive self-reference).
-                    codecRef = new CodecRef<>();
-                    codecMap.put(type, codecRef);
+            // Hold the lock on the CodecRef until it's initialised,
+            // so that other threads which use it in the meantime wait for the real Codec.
+            final CodecRef<T, IN, OUT> codecRef = new CodecRef<>();
+            synchronized(codecRef) {
+                // Lock the map and try again.
+                synchronized(codecMap) {
+                    if (codecMap.containsKey(type)) {
+                        return (Codec<T, IN, OUT>)codecMap.get(type);
+                    } else {
+                        // Ok, it's definitely not there, so add the CodecRef
+                        // (in case the class has a recursive self-reference).
+                        codecMap.put(type, codecRef);
+                    }
                 }
-            }
 
-            // Initialise the CodecRef, and overwrite the registry entry with the real Codec.
-            codecMap.put(type, codecRef.setIfUninitialised(() -> createCodec(type)));
+                // Initialise the CodecRef, and overwrite the registry entry with the real Codec.
+                codecMap.put(type, codecRef.setIfUninitialised(() -> createCodec(type)));
+            }
 
             return (Codec<T, IN, OUT>)codecMap.get(type);
         }
     }
 
+    // Each branch establishes that T is the type of the codec it returns, before casting it.
+    @SuppressWarnings("unchecked")
     public <T> Codec<T, IN, OUT> createCodec(Class<T> type) {
         if (type.isPrimitive()) {
             if (type.equals(boolean.class)) {
                 return (Codec<T, IN, OUT>)format.booleanCodec();
-//            } else if (type.equals(byte.class)) {
-//                return (Codec<T, IN, OUT>) format.byteCodec();
-//            } else if (type.equals(char.class)) {
-//                return (Codec<T, IN, OUT>) format.charCodec();
-//            } else if (type.equals(short.class)) {
-//                return (Codec<T, IN, OUT>) format.shortCodec();
+            } else if (type.equals(byte.class)) {
+                return (Codec<T, IN, OUT>) format.byteCodec();
+            } else if (type.equals(char.class)) {
+                return (Codec<T, IN, OUT>) format.charCodec();
+            } else if (type.equals(short.class)) {
+                return (Codec<T, IN, OUT>) format.shortCodec();
             } else if (type.equals(int.class)) {
                 return (Codec<T, IN, OUT>) format.integerCodec();
-//            } else if (type.equals(long.class)) {
-//                return (Codec<T, IN, OUT>) format.longCodec();
-//            } else if (type.equals(float.class)) {
-//                return (Codec<T, IN, OUT>) format.floatCodec();
-//            } else if (type.equals(double.class)) {
-//                return (Codec<T, IN, OUT>) format.doubleCodec();
+            } else if (type.equals(long.class)) {
+                return (Codec<T, IN, OUT>) format.longCodec();
+            } else if (type.equals(float.class)) {
+                return (Codec<T, IN, OUT>) format.floatCodec();
+            } else if (type.equals(double.class)) {
+                return (Codec<T, IN, OUT>) format.doubleCodec();
             } else {
                 throw new IllegalStateException("Unexpected primitive type - " + type);
             }
@@ -114,43 +119,43 @@ public <T> Codec<T, IN, OUT> createCodec(Class<T> type) {
                 if (elemType.isPrimitive()) {
                     if (elemType.equals(boolean.class)) {
                         return (Codec<T, IN, OUT>) format.booleanArrayCodec();
-    //                } else if (elemType.equals(byte.class)) {
-    //                    return (Codec<T, IN, OUT>) format.byteArrayCodec();
-    //                } else if (elemType.equals(char.class)) {
-    //                    return (Codec<T, IN, OUT>) format.charArrayCodec();
-    //                } else if (elemType.equals(short.class)) {
-    //                    return (Codec<T, IN, OUT>) format.shortArrayCodec();
+                    } else if (elemType.equals(byte.class)) {
+                        return (Codec<T, IN, OUT>) format.byteArrayCodec();
+                    } else if (elemType.equals(char.class)) {
+                        return (Codec<T, IN, OUT>) format.charArrayCodec();
+                    } else if (elemType.equals(short.class)) {
+                        return (Codec<T, IN, OUT>) format.shortArrayCodec();
                     } else if (elemType.equals(int.class)) {
                         return (Codec<T, IN, OUT>) format.integerArrayCodec();
-    //                } else if (elemType.equals(long.class)) {
-    //                    return (Codec<T, IN, OUT>) format.longArrayCodec();
-    //                } else if (elemType.equals(float.class)) {
-    //                    return (Codec<T, IN, OUT>) format.floatArrayCodec();
-    //                } else if (elemType.equals(double.class)) {
-    //                    return (Codec<T, IN, OUT>) format.doubleArrayCodec();
+                    } else if (elemType.equals(long.class)) {
+                        return (Codec<T, IN, OUT>) format.longArrayCodec();
+                    } else if (elemType.equals(float.class)) {
+                        return (Codec<T, IN, OUT>) format.floatArrayCodec();
+                    } else if (elemType.equals(double.class)) {
+                        return (Codec<T, IN, OUT>) format.doubleArrayCodec();
                     } else {
                         throw new IllegalStateException("Unexpected array element primitive type - " + elemType);
                     }
                 } else {
                     if (elemType.equals(Boolean.class)) {
-                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, Boolean.class, format.booleanCodec());
-//                    } else if (elemType.equals(Byte.class)) {
-//                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, Byte.class, format.byteCodec());
-//                    } else if (elemType.equals(Character.class)) {
-//                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, Character.class, format.charCodec());
-//                    } else if (elemType.equals(Short.class)) {
-//                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, Short.class, format.shortCodec());
+                        return objectArrayCodec(type, Boolean.class, format.booleanCodec());
+                    } else if (elemType.equals(Byte.class)) {
+                        return objectArrayCodec(type, Byte.class, format.byteCodec());
+                    } else if (elemType.equals(Character.class)) {
+                        return objectArrayCodec(type, Character.class, format.charCodec());
+                    } else if (elemType.equals(Short.class)) {
+                        return objectArrayCodec(type, Short.class, format.shortCodec());
                     } else if (elemType.equals(Integer.class)) {
-                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, Integer.class, format.integerCodec());
-//                    } else if (elemType.equals(Long.class)) {
-//                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, Long.class, format.longCodec());
-//                    } else if (elemType.equals(Float.class)) {
-//                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, Float.class, format.floatCodec());
-//                    } else if (elemType.equals(Double.class)) {
-//                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, Double.class, format.doubleCodec());
+                        return objectArrayCodec(type, Integer.class, format.integerCodec());
+                    } else if (elemType.equals(Long.class)) {
+                        return objectArrayCodec(type, Long.class, format.longCodec());
+                    } else if (elemType.equals(Float.class)) {
+                        return objectArrayCodec(type, Float.class, format.floatCodec());
+                    } else if (elemType.equals(Double.class)) {
+                        return objectArrayCodec(type, Double.class, format.doubleCodec());
                     } else {
                         final Codec<Object, IN, OUT> elemCodec = getCodec((Class<Object>)elemType);
-                        return (Codec<T, IN, OUT>) format().objectArrayCodec((Class)type, (Class<Object>) elemType, elemCodec);
+                        return objectArrayCodec(type, (Class<Object>)elemType, elemCodec);
                     }
                 }
 //            } else if (type.isEnum()) {
@@ -159,20 +164,20 @@ public <T> Codec<T, IN, OUT> createCodec(Class<T> type) {
 //                return format.enumCodec((Class) type.getSuperclass());
             } else if (type.equals(Boolean.class)) {
                 return (Codec<T, IN, OUT>) format.booleanCodec();
-//            } else if (type.equals(Byte.class)) {
-//                return (Codec<T, IN, OUT>) format.byteCodec();
-//            } else if (type.equals(Character.class)) {
-//                return (Codec<T, IN, OUT>) format.charCodec();
-//            } else if (type.equals(Short.class)) {
-//                return (Codec<T, IN, OUT>) format.shortCodec();
+            } else if (type.equals(Byte.class)) {
+                return (Codec<T, IN, OUT>) format.byteCodec();
+            } else if (type.equals(Character.class)) {
+                return (Codec<T, IN, OUT>) format.charCodec();
+            } else if (type.equals(Short.class)) {
+                return (Codec<T, IN, OUT>) format.shortCodec();
             } else if (type.equals(Integer.class)) {
                 return (Codec<T, IN, OUT>) format.integerCodec();
-//            } else if (type.equals(Long.class)) {
-//                return (Codec<T, IN, OUT>) format.longCodec();
-//            } else if (type.equals(Float.class)) {
-//                return (Codec<T, IN, OUT>) format.floatCodec();
-//            } else if (type.equals(Double.class)) {
-//                return (Codec<T, IN, OUT>) format.doubleCodec();
+            } else if (type.equals(Long.class)) {
+                return (Codec<T, IN, OUT>) format.longCodec();
+            } else if (type.equals(Float.class)) {
+                return (Codec<T, IN, OUT>) format.floatCodec();
+            } else if (type.equals(Double.class)) {
+                return (Codec<T, IN, OUT>) format.doubleCodec();
             } else if (type.equals(String.class)) {
                 return (Codec<T, IN, OUT>) format.stringCodec();
 //            } else if (Map.class.isAssignableFrom(type)) {
@@ -200,6 +205,12 @@ public <T> Codec<T, IN, OUT> createCodec(Class<T> type) {
         }
     }
 
+    // arrType is the array type E[].
+    @SuppressWarnings("unchecked")
+    private <T, E> Codec<T, IN, OUT> objectArrayCodec(Class<T> arrType, Class<E> elemType, Codec<E, IN, OUT> elemCodec) {
+        return (Codec<T, IN, OUT>)format.objectArrayCodec((Class<E[]>)arrType, elemType, elemCodec);
+    }
+
     protected <T> Codec<T, IN, OUT> createObjectCodec(Class<T> type) {
         return codecGenerator.generate(this, type);
     }
@@ -33,10 +33,34 @@ public OUT out() {
 
     Codec<boolean[], IN, OUT> booleanArrayCodec();
 
+    ByteCodec<IN, OUT> byteCodec();
+
+    Codec<byte[], IN, OUT> byteArrayCodec();
+
+    CharCodec<IN, OUT> charCodec();
+
+    Codec<char[], IN, OUT> charArrayCodec();
+
+    ShortCodec<IN, OUT> shortCodec();
+
+    Codec<short[], IN, OUT> shortArrayCodec();
+
     IntegerCodec<IN, OUT> integerCodec();
 
     Codec<int[], IN, OUT> integerArrayCodec();
 
+    LongCodec<IN, OUT> longCodec();
+
+    Codec<long[], IN, OUT> longArrayCodec();
+
+    FloatCodec<IN, OUT> floatCodec();
+
+    Codec<float[], IN, OUT> floatArrayCodec();
+
+    DoubleCodec<IN, OUT> doubleCodec();
+
+    Codec<double[], IN, OUT> doubleArrayCodec();
+
     Codec<String, IN, OUT> stringCodec();
 
     <T> Codec<T, IN, OUT> objectCodec(
@@ -21,22 +21,22 @@ public Class<Object> type() {
 
         @Override
         public Object encode(EncoderCore core, Context ctx, Object value, Object o) {
-            return error();
+            throw error();
         }
 
         @Override
         public Object encodeImpl(EncoderCore core, Context ctx, Object value, Object o) {
-            return error();
+            throw error();
         }
 
         @Override
         public Object decode(DecoderCore core, Context ctx, Object o) {
-            return error();
+            throw error();
         }
 
         @Override
         public Object decodeImpl(DecoderCore core, Context ctx, Object o) {
-            return error();
+            throw error();
         }
 
         private static RuntimeException error() {
@@ -76,6 +76,21 @@ public Codec<T, IN, OUT> get() {
         return impl;
     }
 
+    /**
+     * Return the codec, waiting for it to be initialised if another thread is currently initialising it.
+     * @return          the codec
+     */
+    private Codec<T, IN, OUT> impl() {
+        final Codec<T, IN, OUT> impl = this.impl;
+        if (impl != Uninitialised.INSTANCE) {
+            return impl;
+        } else {
+            synchronized(this) {
+                return this.impl;
+            }
+        }
+    }
+
     @Override
     public Class<T> type() {
         return null;
@@ -83,21 +98,21 @@ public Class<T> type() {
 
     @Override
     public OUT encode(EncoderCore<OUT> core, Context ctx, T value, OUT out) {
-        return impl.encode(core, ctx, value, out);
+        return impl().encode(core, ctx, value, out);
     }
 
     @Override
     public OUT encodeImpl(EncoderCore<OUT> core, Context ctx, T value, OUT out) {
-        return impl.encodeImpl(core, ctx, value, out);
+        return impl().encodeImpl(core, ctx, value, out);
     }
 
     @Override
     public T decode(DecoderCore<IN> core, Context ctx, IN in) {
-        return impl.decode(core, ctx, in);
+        return impl().decode(core, ctx, in);
     }
 
     @Override
     public T decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
-        return impl.decodeImpl(core, ctx, in);
+        return impl().decodeImpl(core, ctx, in);
     }
 }
@@ -1,4 +1,83 @@
 package org.typemeta.funcj.codec2.core;
 
+/**
+ * State which is threaded through a single encode or decode operation.
+ * <p>
+ * A context carries reusable scratch buffers and caches,
+ * which allow steady-state encoding and decoding to avoid allocation.
+ * Contexts are not thread-safe, and should only be used by one thread at a time.
+ * @see ContextImpl#acquire()
+ */
 public interface Context {
+
+    /**
+     * Return a scratch array of the given primitive array type,
+     * with a length of at least {@code minLength}.
+     * If the existing scratch array for that type is too small then it is grown,
+     * and its current contents are preserved.
+     * The array remains valid until the next call for the same array type.
+     * @param arrType   the array type, e.g. {@code int[].class}
+     * @param minLength the minimum length of the array
+     * @param <A>       the array type
+     * @return          the scratch array
+     */
+    <A> A scratchArray(Class<A> arrType, int minLength);
+
+    /**
+     * Return a scratch {@code char} buffer.
+     * @param minLength the minimum length of the buffer
+     * @return          the scratch buffer
+     */
+    default char[] charBuffer(int minLength) {
+        return scratchArray(char[].class, minLength);
+    }
+
+    /**
+     * Return a scratch {@code byte} buffer.
+     * @param minLength the minimum length of the buffer
+     * @return          the scratch buffer
+     */
+    default byte[] byteBuffer(int minLength) {
+        return scratchArray(byte[].class, minLength);
+    }
+
+    /**
+     * Look up the encoder for a dynamic type, via a small per-context cache.
+     * @param core      the encoder core
+     * @param type      the dynamic type
+     * @param <T>       the dynamic type
+     * @param <OUT>     the encoded output type
+     * @return          the encoder
+     */
+    <T, OUT> Encoder<T, OUT> encoder(EncoderCore<OUT> core, Class<T> type);
+
+    /**
+     * Look up the decoder for a dynamic type, via a small per-context cache.
+     * @param core      the decoder core
+     * @param type      the dynamic type
+     * @param <T>       the dynamic type
+     * @param <IN>      the encoded input type
+     * @return          the decoder
+     */
+    <T, IN> Decoder<T, IN> decoder(DecoderCore<IN> core, Class<T> type);
+
+    /**
+     * Push a new frame onto the seen-fields stack, for decoding an object.
+     * The returned array has all of its first {@code numFields} flags cleared.
+     * Each call must be matched by a call to {@link Context#popSeenFields()}.
+     * @param numFields the number of fields in the object
+     * @return          the seen-field flags for the object
+     */
+    boolean[] pushSeenFields(int numFields);
+
+    /**
+     * Pop the current frame from the seen-fields stack.
+     */
+    void popSeenFields();
+
+    /**
+     * Reset the per-operation state, ready for the next encode or decode.
+     * Scratch buffers are retained, unless they have grown unusually large.
+     */
+    void reset();
 }
@@ -0,0 +1,151 @@
+package org.typemeta.funcj.codec2.core;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * Default implementation of {@link Context}.
+ * <p>
+ * Each thread has a pooled instance, which is obtained via {@link ContextImpl#acquire()}
+ * and returned to the pool by {@link ContextImpl#close()}.
+ */
+@SuppressWarnings("unchecked")
+public class ContextImpl implements Context, AutoCloseable {
+
+    private static final ThreadLocal<ContextImpl> POOL = ThreadLocal.withInitial(ContextImpl::new);
+
+    private static final int CODEC_CACHE_SIZE = 16;
+
+    /**
+     * Scratch arrays longer than this are not retained by {@link ContextImpl#reset()},
+     * to avoid pinning memory after decoding an unusually large array.
+     */
+    private static final int MAX_RETAINED_SIZE = 1 << 16;
+
+    /**
+     * Obtain a context for the current thread.
+     * If the pooled context is already in use (e.g. due to a nested encode)
+     * then a new, unpooled, context is returned.
+     * @return          the context
+     */
+    public static ContextImpl acquire() {
+        final ContextImpl ctx = POOL.get();
+        if (ctx.inUse) {
+            return new ContextImpl();
+        } else {
+            ctx.inUse = true;
+            return ctx;
+        }
+    }
+
+    private boolean inUse;
+
+    private final Map<Class<?>, Object> scratchArrays = new HashMap<>();
+
+    private Object encCore;
+    private final Class<?>[] encTypes = new Class<?>[CODEC_CACHE_SIZE];
+    private final Encoder<?, ?>[] encoders = new Encoder<?, ?>[CODEC_CACHE_SIZE];
+
+    private Object decCore;
+    private final Class<?>[] decTypes = new Class<?>[CODEC_CACHE_SIZE];
+    private final Decoder<?, ?>[] decoders = new Decoder<?, ?>[CODEC_CACHE_SIZE];
+
+    private boolean[][] seenFields = new boolean[8][];
+    private int seenDepth;
+
+    @Override
+    public <A> A scratchArray(Class<A> arrType, int minLength) {
+        final Object arr = scratchArrays.get(arrType);
+        if (arr != null) {
+            final int len = Array.getLength(arr);
+            if (len >= minLength) {
+                return (A)arr;
+            } else {
+                final Object arr2 = Array.newInstance(arrType.getComponentType(), Math.max(minLength, len * 2));
+                System.arraycopy(arr, 0, arr2, 0, len);
+                scratchArrays.put(arrType, arr2);
+                return (A)arr2;
+            }
+        } else {
+            final Object arr2 = Array.newInstance(arrType.getComponentType(), minLength);
+            scratchArrays.put(arrType, arr2);
+            return (A)arr2;
+        }
+    }
+
+    @Override
+    public <T, OUT> Encoder<T, OUT> encoder(EncoderCore<OUT> core, Class<T> type) {
+        if (encCore != core) {
+            Arrays.fill(encTypes, null);
+            Arrays.fill(encoders, null);
+            encCore = core;
+        }
+
+        final int i = type.hashCode() & (CODEC_CACHE_SIZE - 1);
+        if (encTypes[i] == type) {
+            return (Encoder<T, OUT>)encoders[i];
+        } else {
+            final Encoder<T, OUT> encoder = core.getEncoder(type);
+            encTypes[i] = type;
+            encoders[i] = encoder;
+            return encoder;
+        }
+    }
+
+    @Override
+    public <T, IN> Decoder<T, IN> decoder(DecoderCore<IN> core, Class<T> type) {
+        if (decCore != core) {
+            Arrays.fill(decTypes, null);
+            Arrays.fill(decoders, null);
+            decCore = core;
+        }
+
+        final int i = type.hashCode() & (CODEC_CACHE_SIZE - 1);
+        if (decTypes[i] == type) {
+            return (Decoder<T, IN>)decoders[i];
+        } else {
+            final Decoder<T, IN> decoder = core.getDecoder(type);
+            decTypes[i] = type;
+            decoders[i] = decoder;
+            return decoder;
+        }
+    }
+
+    @Override
+    public boolean[] pushSeenFields(int numFields) {
+        if (seenDepth == seenFields.length) {
+            seenFields = Arrays.copyOf(seenFields, seenDepth * 2);
+        }
+
+        boolean[] seen = seenFields[seenDepth];
+        if (seen == null || seen.length < numFields) {
+            seen = new boolean[numFields];
+            seenFields[seenDepth] = seen;
+        } else {
+            Arrays.fill(seen, 0, numFields, false);
+        }
+
+        ++seenDepth;
+        return seen;
+    }
+
+    @Override
+    public void popSeenFields() {
+        --seenDepth;
+    }
+
+    @Override
+    public void reset() {
+        seenDepth = 0;
+        scratchArrays.values().removeIf(arr -> Array.getLength(arr) > MAX_RETAINED_SIZE);
+    }
+
+    /**
+     * Reset this context and, if it is the pooled context, return it to the pool.
+     */
+    @Override
+    public void close() {
+        reset();
+        inUse = false;
+    }
+}
@@ -24,6 +24,69 @@ default Boolean decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
         boolean decodeBool(DecoderCore<IN> core, Context ctx, IN in);
     }
 
+    public interface ByteCodec<IN, OUT> extends FinalCodec<Byte, IN, OUT> {
+        @Override
+        default Class<Byte> type() {
+            return Byte.class;
+        }
+
+        @Override
+        default OUT encodeImpl(EncoderCore<OUT> core, Context ctx, Byte value, OUT out) {
+            return encodeByte(core, ctx, value, out);
+        }
+
+        @Override
+        default Byte decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
+            return decodeByte(core, ctx, in);
+        }
+
+        OUT encodeByte(EncoderCore<OUT> core, Context ctx, byte value, OUT out);
+
+        byte decodeByte(DecoderCore<IN> core, Context ctx, IN in);
+    }
+
+    public interface CharCodec<IN, OUT> extends FinalCodec<Character, IN, OUT> {
+        @Override
+        default Class<Character> type() {
+            return Character.class;
+        }
+
+        @Override
+        default OUT encodeImpl(EncoderCore<OUT> core, Context ctx, Character value, OUT out) {
+            return encodeChar(core, ctx, value, out);
+        }
+
+        @Override
+        default Character decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
+            return decodeChar(core, ctx, in);
+        }
+
+        OUT encodeChar(EncoderCore<OUT> core, Context ctx, char value, OUT out);
+
+        char decodeChar(DecoderCore<IN> core, Context ctx, IN in);
+    }
+
+    public interface ShortCodec<IN, OUT> extends FinalCodec<Short, IN, OUT> {
+        @Override
+        default Class<Short> type() {
+            return Short.class;
+        }
+
+        @Override
+        default OUT encodeImpl(EncoderCore<OUT> core, Context ctx, Short value, OUT out) {
+            return encodeShort(core, ctx, value, out);
+        }
+
+        @Override
+        default Short decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
+            return decodeShort(core, ctx, in);
+        }
+
+        OUT encodeShort(EncoderCore<OUT> core, Context ctx, short value, OUT out);
+
+        short decodeShort(DecoderCore<IN> core, Context ctx, IN in);
+    }
+
     public interface IntegerCodec<IN, OUT> extends FinalCodec<Integer, IN, OUT> {
         @Override
         default Class<Integer> type() {
@@ -45,6 +108,69 @@ default Integer decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
         int decodeInt(DecoderCore<IN> core, Context ctx, IN in);
     }
 
+    public interface LongCodec<IN, OUT> extends FinalCodec<Long, IN, OUT> {
+        @Override
+        default Class<Long> type() {
+            return Long.class;
+        }
+
+        @Override
+        default OUT encodeImpl(EncoderCore<OUT> core, Context ctx, Long value, OUT out) {
+            return encodeLong(core, ctx, value, out);
+        }
+
+        @Override
+        default Long decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
+            return decodeLong(core, ctx, in);
+        }
+
+        OUT encodeLong(EncoderCore<OUT> core, Context ctx, long value, OUT out);
+
+        long decodeLong(DecoderCore<IN> core, Context ctx, IN in);
+    }
+
+    public interface FloatCodec<IN, OUT> extends FinalCodec<Float, IN, OUT> {
+        @Override
+        default Class<Float> type() {
+            return Float.class;
+        }
+
+        @Override
+        default OUT encodeImpl(EncoderCore<OUT> core, Context ctx, Float value, OUT out) {
+            return encodeFloat(core, ctx, value, out);
+        }
+
+        @Override
+        default Float decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
+            return decodeFloat(core, ctx, in);
+        }
+
+        OUT encodeFloat(EncoderCore<OUT> core, Context ctx, float value, OUT out);
+
+        float decodeFloat(DecoderCore<IN> core, Context ctx, IN in);
+    }
+
+    public interface DoubleCodec<IN, OUT> extends FinalCodec<Double, IN, OUT> {
+        @Override
+        default Class<Double> type() {
+            return Double.class;
+        }
+
+        @Override
+        default OUT encodeImpl(EncoderCore<OUT> core, Context ctx, Double value, OUT out) {
+            return encodeDouble(core, ctx, value, out);
+        }
+
+        @Override
+        default Double decodeImpl(DecoderCore<IN> core, Context ctx, IN in) {
+            return decodeDouble(core, ctx, in);
+        }
+
+        OUT encodeDouble(EncoderCore<OUT> core, Context ctx, double value, OUT out);
+
+        double decodeDouble(DecoderCore<IN> core, Context ctx, IN in);
+    }
+
     public interface StringCodec<IN, OUT> extends FinalCodec<String, IN, OUT> {
         @Override
         default Class<String> type() {
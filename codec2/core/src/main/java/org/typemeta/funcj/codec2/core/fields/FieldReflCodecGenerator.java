@@ -1,9 +1,7 @@
 package org.typemeta.funcj.codec2.core.fields;
 
 import org.typemeta.funcj.codec2.core.*;
-import org.typemeta.funcj.codec2.core.fields.PrimitiveFieldCodecs.BooleanFieldCodec;
-import org.typemeta.funcj.codec2.core.fields.PrimitiveFieldCodecs.IntegerFieldCodec;
-import org.typemeta.funcj.codec2.core.fields.PrimitiveFieldCodecs.ObjectFieldCodec;
+import org.typemeta.funcj.codec2.core.fields.PrimitiveFieldCodecs.*;
 import org.typemeta.funcj.codec2.core.utils.CodecException;
 import org.typemeta.funcj.codec2.core.utils.ReflectionUtils;
 
@@ -55,26 +53,28 @@ public <T> Codec<T, IN, OUT> generate(CodecCore<IN, OUT> core, Class<T> type) {
         return core.format().objectCodec(type, fieldCodecs, ctor);
     }
 
+    // The field type is only known at runtime, so the field class and its codecs are cast unchecked.
+    @SuppressWarnings("unchecked")
     protected <T> FieldCodec<T, IN, OUT> createFieldCodec(CodecCore<IN, OUT> core, Field field) {
         final CodecFormat<IN, OUT> format = core.format();
         final Class<T> clazz = (Class<T>) field.getType();
         if (clazz.isPrimitive()) {
             if (clazz.equals(boolean.class)) {
                 return new BooleanFieldCodec<>(field, format.booleanCodec());
-//            } else if (clazz.equals(byte.class)) {
-//                return new FieldCodec.ByteFieldCodec<>(field, format.byteCodec());
-//            } else if (clazz.equals(char.class)) {
-//                return new FieldCodec.CharFieldCodec<>(field, format.charCodec());
-//            } else if (clazz.equals(short.class)) {
-//                return new FieldCodec.ShortFieldCodec<>(field, format.shortCodec());
+            } else if (clazz.equals(byte.class)) {
+                return new ByteFieldCodec<>(field, format.byteCodec());
+            } else if (clazz.equals(char.class)) {
+                return new CharFieldCodec<>(field, format.charCodec());
+            } else if (clazz.equals(short.class)) {
+                return new ShortFieldCodec<>(field, format.shortCodec());
             } else if (clazz.equals(int.class)) {
                 return new IntegerFieldCodec<>(field, format.integerCodec());
-//            } else if (clazz.equals(long.class)) {
-//                return new FieldCodec.LongFieldCodec<>(field, format.longCodec());
-//            } else if (clazz.equals(float.class)) {
-//                return new FieldCodec.FloatFieldCodec<>(field, format.floatCodec());
-//            } else if (clazz.equals(double.class)) {
-//                return new FieldCodec.DoubleFieldCodec<>(field, format.doubleCodec());
+            } else if (clazz.equals(long.class)) {
+                return new LongFieldCodec<>(field, format.longCodec());
+            } else if (clazz.equals(float.class)) {
+                return new FloatFieldCodec<>(field, format.floatCodec());
+            } else if (clazz.equals(double.class)) {
+                return new DoubleFieldCodec<>(field, format.doubleCodec());
             } else {
                 throw new CodecException("Unexpected primitive type - " + clazz);
             }
@@ -82,20 +82,20 @@ protected <T> FieldCodec<T, IN, OUT> createFieldCodec(CodecCore<IN, OUT> core, F
             final Class<?> elemType = clazz.getComponentType();
             if (elemType.equals(boolean.class)) {
                 return new ObjectFieldCodec<>(field, format.booleanArrayCodec());
-//            } else if (elemType.equals(byte.class)) {
-//                return new FieldCodec.ByteArrayFieldCodec<>(field, format.byteArrayCodec());
-//            } else if (elemType.equals(char.class)) {
-//                return new FieldCodec.CharArrayFieldCodec<>(field, format.charArrayCodec());
-//            } else if (elemType.equals(short.class)) {
-//                return new FieldCodec.ShortArrayFieldCodec<>(field, format.shortArrayCodec());
+            } else if (elemType.equals(byte.class)) {
+                return new ObjectFieldCodec<>(field, format.byteArrayCodec());
+            } else if (elemType.equals(char.class)) {
+                return new ObjectFieldCodec<>(field, format.charArrayCodec());
+            } else if (elemType.equals(short.class)) {
+                return new ObjectFieldCodec<>(field, format.shortArrayCodec());
             } else if (elemType.equals(int.class)) {
                 return new ObjectFieldCodec<>(field, format.integerArrayCodec());
-//            } else if (elemType.equals(long.class)) {
-//                return new FieldCodec.LongArrayFieldCodec<>(field, format.longArrayCodec());
-//            } else if (elemType.equals(float.class)) {
-//                return new FieldCodec.FloatArrayFieldCodec<>(field, format.floatArrayCodec());
-//            } else if (elemType.equals(double.class)) {
-//                return new FieldCodec.DoubleArrayFieldCodec<>(field, format.doubleArrayCodec());
+            } else if (elemType.equals(long.class)) {
+                return new ObjectFieldCodec<>(field, format.longArrayCodec());
+            } else if (elemType.equals(float.class)) {
+                return new ObjectFieldCodec<>(field, format.floatArrayCodec());
+            } else if (elemType.equals(double.class)) {
+                return new ObjectFieldCodec<>(field, format.doubleArrayCodec());
             } else {
                 final Codec<Object[], IN, OUT> codec = core.getCodec((Class<Object[]>) clazz);
                 return new ObjectFieldCodec<>(field, codec);
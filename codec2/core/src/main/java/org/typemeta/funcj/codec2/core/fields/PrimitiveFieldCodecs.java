@@ -4,8 +4,7 @@
 import org.typemeta.funcj.codec2.core.Context;
 import org.typemeta.funcj.codec2.core.DecoderCore;
 import org.typemeta.funcj.codec2.core.EncoderCore;
-import org.typemeta.funcj.codec2.core.PrimitiveCodecs.BooleanCodec;
-import org.typemeta.funcj.codec2.core.PrimitiveCodecs.IntegerCodec;
+import org.typemeta.funcj.codec2.core.PrimitiveCodecs.*;
 import org.typemeta.funcj.codec2.core.utils.CodecException;
 
 import java.lang.reflect.Field;
@@ -19,18 +18,11 @@ private PrimitiveFieldCodecs() {}
 
         protected final Field field;
 
-        protected final boolean isAccessible;
-
         protected AbstractImpl(Field field) {
             this.field = field;
-            this.isAccessible =
-                    Modifier.isFinal(field.getModifiers()) ||
-                            !Modifier.isPublic(field.getModifiers());
-        }
-
-        protected void setAccessible(boolean flag) {
-            if (isAccessible) {
-                field.setAccessible(flag);
+            // Made accessible once, as toggling it around each access would race under concurrent use.
+            if (Modifier.isFinal(field.getModifiers()) || !Modifier.isPublic(field.getModifiers())) {
+                field.setAccessible(true);
             }
         }
     }
@@ -46,47 +38,83 @@ protected BooleanFieldCodec(Field field, BooleanCodec<IN, OUT> codec) {
 
         @Override
         public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
-            setAccessible(true);
             final boolean fieldVal = CodecException.wrap(() -> field.getBoolean(source));
-            setAccessible(false);
             return codec.encodeBool(core, ctx, fieldVal, out);
         }
 
         @Override
         public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
             final boolean fieldVal = codec.decodeBool(core, ctx, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setBoolean(target, fieldVal));
-            setAccessible(false);
         }
     }
-//
-//    public static class BooleanArrayFieldCodec<T, IN, OUT> extends AbstractImpl<T, IN, OUT> {
-//
-//        protected final Codec<boolean[], IN, OUT> codec;
-//
-//        protected BooleanArrayFieldCodec(Field field, Codec<boolean[], IN, OUT> codec) {
-//            super(field);
-//            this.codec = Objects.requireNonNull(codec);
-//        }
-//
-//        @Override
-//        public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
-//            setAccessible(true);
-//            final boolean[] fieldVal = CodecException.wrap(() -> (boolean[])field.get(source));
-//            setAccessible(false);
-//            return codec.encode(core, ctx, fieldVal, out);
-//        }
-//
-//        @Override
-//        public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
-//            final boolean[] fieldVal = codec.decode(core, ctx, in);
-//            setAccessible(true);
-//            CodecException.wrap(() -> field.set(target, fieldVal));
-//            setAccessible(false);
-//        }
-//    }
-//
+
+    public static class ByteFieldCodec<T, IN, OUT> extends AbstractImpl<T, IN, OUT> {
+
+        protected final ByteCodec<IN, OUT> codec;
+
+        protected ByteFieldCodec(Field field, ByteCodec<IN, OUT> codec) {
+            super(field);
+            this.codec = Objects.requireNonNull(codec);
+        }
+
+        @Override
+        public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
+            final byte fieldVal = CodecException.wrap(() -> field.getByte(source));
+            return codec.encodeByte(core, ctx, fieldVal, out);
+        }
+
+        @Override
+        public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
+            final byte fieldVal = codec.decodeByte(core, ctx, in);
+            CodecException.wrap(() -> field.setByte(target, fieldVal));
+        }
+    }
+
+    public static class CharFieldCodec<T, IN, OUT> extends AbstractImpl<T, IN, OUT> {
+
+        protected final CharCodec<IN, OUT> codec;
+
+        protected CharFieldCodec(Field field, CharCodec<IN, OUT> codec) {
+            super(field);
+            this.codec = Objects.requireNonNull(codec);
+        }
+
+        @Override
+        public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
+            final char fieldVal = CodecException.wrap(() -> field.getChar(source));
+            return codec.encodeChar(core, ctx, fieldVal, out);
+        }
+
+        @Override
+        public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
+            final char fieldVal = codec.decodeChar(core, ctx, in);
+            CodecException.wrap(() -> field.setChar(target, fieldVal));
+        }
+    }
+
+    public static class ShortFieldCodec<T, IN, OUT> extends AbstractImpl<T, IN, OUT> {
+
+        protected final ShortCodec<IN, OUT> codec;
+
+        protected ShortFieldCodec(Field field, ShortCodec<IN, OUT> codec) {
+            super(field);
+            this.codec = Objects.requireNonNull(codec);
+        }
+
+        @Override
+        public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
+            final short fieldVal = CodecException.wrap(() -> field.getShort(source));
+            return codec.encodeShort(core, ctx, fieldVal, out);
+        }
+
+        @Override
+        public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
+            final short fieldVal = codec.decodeShort(core, ctx, in);
+            CodecException.wrap(() -> field.setShort(target, fieldVal));
+        }
+    }
+
     public static class IntegerFieldCodec<T, IN, OUT> extends AbstractImpl<T, IN, OUT> {
 
         protected final IntegerCodec<IN, OUT> codec;
@@ -98,18 +126,80 @@ protected IntegerFieldCodec(Field field, IntegerCodec<IN, OUT> codec) {
 
         @Override
         public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
-            setAccessible(true);
             final int fieldVal = CodecException.wrap(() -> field.getInt(source));
-            setAccessible(false);
             return codec.encodeInt(core, ctx, fieldVal, out);
         }
 
         @Override
         public void decodeField(DecoderCore<IN> core, Context ctx,T target, IN in) {
             final int fieldVal = codec.decodeInt(core, ctx, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.setInt(target, fieldVal));
-            setAccessible(false);
+        }
+    }
+
+    public static class LongFieldCodec<T, IN, OUT> extends AbstractImpl<T, IN, OUT> {
+
+        protected final LongCodec<IN, OUT> codec;
+
+        protected LongFieldCodec(Field field, LongCodec<IN, OUT> codec) {
+            super(field);
+            this.codec = Objects.requireNonNull(codec);
+        }
+
+        @Override
+        public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
+            final long fieldVal = CodecException.wrap(() -> field.getLong(source));
+            return codec.encodeLong(core, ctx, fieldVal, out);
+        }
+
+        @Override
+        public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
+            final long fieldVal = codec.decodeLong(core, ctx, in);
+            CodecException.wrap(() -> field.setLong(target, fieldVal));
+        }
+    }
+
+    public static class FloatFieldCodec<T, IN, OUT> extends AbstractImpl<T, IN, OUT> {
+
+        protected final FloatCodec<IN, OUT> codec;
+
+        protected FloatFieldCodec(Field field, FloatCodec<IN, OUT> codec) {
+            super(field);
+            this.codec = Objects.requireNonNull(codec);
+        }
+
+        @Override
+        public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
+            final float fieldVal = CodecException.wrap(() -> field.getFloat(source));
+            return codec.encodeFloat(core, ctx, fieldVal, out);
+        }
+
+        @Override
+        public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
+            final float fieldVal = codec.decodeFloat(core, ctx, in);
+            CodecException.wrap(() -> field.setFloat(target, fieldVal));
+        }
+    }
+
+    public static class DoubleFieldCodec<T, IN, OUT> extends AbstractImpl<T, IN, OUT> {
+
+        protected final DoubleCodec<IN, OUT> codec;
+
+        protected DoubleFieldCodec(Field field, DoubleCodec<IN, OUT> codec) {
+            super(field);
+            this.codec = Objects.requireNonNull(codec);
+        }
+
+        @Override
+        public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
+            final double fieldVal = CodecException.wrap(() -> field.getDouble(source));
+            return codec.encodeDouble(core, ctx, fieldVal, out);
+        }
+
+        @Override
+        public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
+            final double fieldVal = codec.decodeDouble(core, ctx, in);
+            CodecException.wrap(() -> field.setDouble(target, fieldVal));
         }
     }
 
@@ -124,18 +214,14 @@ protected ObjectFieldCodec(Field field, Codec<FT, IN, OUT> codec) {
 
         @Override
         public OUT encodeField(EncoderCore<OUT> core, Context ctx, T source, OUT out) {
-            setAccessible(true);
             final FT fieldVal = CodecException.wrap(() -> (FT)field.get(source));
-            setAccessible(false);
             return codec.encode(core, ctx, fieldVal, out);
         }
 
         @Override
         public void decodeField(DecoderCore<IN> core, Context ctx, T target, IN in) {
             final FT fieldVal = codec.decode(core, ctx, in);
-            setAccessible(true);
             CodecException.wrap(() -> field.set(target, fieldVal));
-            setAccessible(false);
         }
     }
 }
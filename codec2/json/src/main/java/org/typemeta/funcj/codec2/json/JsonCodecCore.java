@@ -4,6 +4,9 @@
 import org.typemeta.funcj.codec2.json.JsonTypes.InStream;
 import org.typemeta.funcj.codec2.json.JsonTypes.OutStream;
 
+import java.io.Reader;
+import java.io.Writer;
+
 public class JsonCodecCore extends CodecCoreImpl<InStream, OutStream> {
 
     public JsonCodecCore(JsonCodecFormat format, CodecConfig config) {
@@ -13,4 +16,32 @@ public JsonCodecCore(JsonCodecFormat format, CodecConfig config) {
     public JsonCodecCore() {
         this(new JsonCodecFormat(), new JsonConfig());
     }
+
+    /**
+     * Encode a value as JSON, using the pooled {@link Context} for the current thread.
+     * @param type      the static type of the value
+     * @param value     the value to encode
+     * @param writer    the writer to which the JSON is written
+     * @param <T>       the static type of the value
+     * @return          the writer
+     */
+    public <T> Writer encode(Class<T> type, T value, Writer writer) {
+        try (ContextImpl ctx = ContextImpl.acquire()) {
+            getEncoder(type).encode(this, ctx, value, JsonTypes.outputOf(writer));
+            return writer;
+        }
+    }
+
+    /**
+     * Decode a value from JSON, using the pooled {@link Context} for the current thread.
+     * @param type      the static type of the value
+     * @param reader    the reader from which the JSON is read
+     * @param <T>       the static type of the value
+     * @return          the decoded value
+     */
+    public <T> T decode(Class<T> type, Reader reader) {
+        try (ContextImpl ctx = ContextImpl.acquire()) {
+            return getDecoder(type).decode(this, ctx, JsonTypes.inputOf(reader));
+        }
+    }
 }
@@ -1,8 +1,7 @@
 package org.typemeta.funcj.codec2.json;
 
 import org.typemeta.funcj.codec2.core.*;
-import org.typemeta.funcj.codec2.core.PrimitiveCodecs.BooleanCodec;
-import org.typemeta.funcj.codec2.core.PrimitiveCodecs.IntegerCodec;
+import org.typemeta.funcj.codec2.core.PrimitiveCodecs.*;
 import org.typemeta.funcj.codec2.core.fields.FieldCodec;
 import org.typemeta.funcj.codec2.core.utils.CodecException;
 import org.typemeta.funcj.codec2.json.JsonTypes.InStream;
@@ -11,10 +10,7 @@
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 public class JsonCodecFormat implements StreamCodecFormat<InStream, OutStream> {
     private static final JsonCodecFormat INSTANCE = new JsonCodecFormat();
@@ -52,12 +48,12 @@ public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, boolean[]
 
         @Override
         public boolean[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
-            boolean[] arr = new boolean[core.config().defaultArraySize()];
+            boolean[] arr = ctx.scratchArray(boolean[].class, core.config().defaultArraySize());
             is.startArray();
             int i = 0;
             while (is.notEOF() && is.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, core.config().newArraySize(arr.length));
+                    arr = ctx.scratchArray(boolean[].class, core.config().newArraySize(arr.length));
                 }
                 arr[i++] = booleanCodec().decodeBool(core, ctx, is);
             }
@@ -66,6 +62,150 @@ public boolean[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is
         }
     };
 
+    private final ByteCodec<InStream, OutStream> BYTE_CODEC = new ByteCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeByte(EncoderCore<OutStream> core, Context ctx, byte value, OutStream os) {
+            return os.writeByte(value);
+        }
+
+        @Override
+        public byte decodeByte(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readByte();
+        }
+    };
+
+    private final Codec<byte[], InStream, OutStream> BYTE_ARRAY_CODEC = new FinalCodec<byte[], InStream, OutStream>() {
+        @Override
+        public Class<byte[]> type() {
+            return byte[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, byte[] value, OutStream os) {
+            final ByteCodec<InStream, OutStream> elemCodec = byteCodec();
+
+            os.startArray();
+            for (byte val : value) {
+                elemCodec.encodeByte(core, ctx, val, os);
+            }
+            return os.endArray();
+        }
+
+        @Override
+        public byte[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final ByteCodec<InStream, OutStream> elemCodec = byteCodec();
+
+            byte[] arr = ctx.scratchArray(byte[].class, core.config().defaultArraySize());
+            is.startArray();
+            int i = 0;
+            while (is.notEOF() && is.currentEventType() != JsonEvent.Type.ARRAY_END) {
+                if (i == arr.length) {
+                    arr = ctx.scratchArray(byte[].class, core.config().newArraySize(arr.length));
+                }
+                arr[i++] = elemCodec.decodeByte(core, ctx, is);
+            }
+            is.endArray();
+
+            return Arrays.copyOf(arr, i);
+        }
+    };
+
+    private final CharCodec<InStream, OutStream> CHAR_CODEC = new CharCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeChar(EncoderCore<OutStream> core, Context ctx, char value, OutStream os) {
+            return os.writeChar(value);
+        }
+
+        @Override
+        public char decodeChar(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readChar();
+        }
+    };
+
+    private final Codec<char[], InStream, OutStream> CHAR_ARRAY_CODEC = new FinalCodec<char[], InStream, OutStream>() {
+        @Override
+        public Class<char[]> type() {
+            return char[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, char[] value, OutStream os) {
+            final CharCodec<InStream, OutStream> elemCodec = charCodec();
+
+            os.startArray();
+            for (char val : value) {
+                elemCodec.encodeChar(core, ctx, val, os);
+            }
+            return os.endArray();
+        }
+
+        @Override
+        public char[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final CharCodec<InStream, OutStream> elemCodec = charCodec();
+
+            char[] arr = ctx.scratchArray(char[].class, core.config().defaultArraySize());
+            is.startArray();
+            int i = 0;
+            while (is.notEOF() && is.currentEventType() != JsonEvent.Type.ARRAY_END) {
+                if (i == arr.length) {
+                    arr = ctx.scratchArray(char[].class, core.config().newArraySize(arr.length));
+                }
+                arr[i++] = elemCodec.decodeChar(core, ctx, is);
+            }
+            is.endArray();
+
+            return Arrays.copyOf(arr, i);
+        }
+    };
+
+    private final ShortCodec<InStream, OutStream> SHORT_CODEC = new ShortCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeShort(EncoderCore<OutStream> core, Context ctx, short value, OutStream os) {
+            return os.writeShort(value);
+        }
+
+        @Override
+        public short decodeShort(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readShort();
+        }
+    };
+
+    private final Codec<short[], InStream, OutStream> SHORT_ARRAY_CODEC = new FinalCodec<short[], InStream, OutStream>() {
+        @Override
+        public Class<short[]> type() {
+            return short[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, short[] value, OutStream os) {
+            final ShortCodec<InStream, OutStream> elemCodec = shortCodec();
+
+            os.startArray();
+            for (short val : value) {
+                elemCodec.encodeShort(core, ctx, val, os);
+            }
+            return os.endArray();
+        }
+
+        @Override
+        public short[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final ShortCodec<InStream, OutStream> elemCodec = shortCodec();
+
+            short[] arr = ctx.scratchArray(short[].class, core.config().defaultArraySize());
+            is.startArray();
+            int i = 0;
+            while (is.notEOF() && is.currentEventType() != JsonEvent.Type.ARRAY_END) {
+                if (i == arr.length) {
+                    arr = ctx.scratchArray(short[].class, core.config().newArraySize(arr.length));
+                }
+                arr[i++] = elemCodec.decodeShort(core, ctx, is);
+            }
+            is.endArray();
+
+            return Arrays.copyOf(arr, i);
+        }
+    };
+
     private final IntegerCodec<InStream, OutStream> INTEGER_CODEC = new IntegerCodec<InStream, OutStream>() {
         @Override
         public OutStream encodeInt(EncoderCore<OutStream> core, Context ctx, int value, OutStream os) {
@@ -99,22 +239,162 @@ public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, int[] valu
         public int[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
             final IntegerCodec<InStream, OutStream> elemCodec = integerCodec();
 
-            int[] arr = new int[core.config().defaultArraySize()];
+            int[] arr = ctx.scratchArray(int[].class, core.config().defaultArraySize());
             is.startArray();
             int i = 0;
             while (is.notEOF() && is.currentEventType() != JsonEvent.Type.ARRAY_END) {
                 if (i == arr.length) {
-                    arr = Arrays.copyOf(arr, core.config().newArraySize(arr.length));
+                    arr = ctx.scratchArray(int[].class, core.config().newArraySize(arr.length));
                 }
                 arr[i++] = elemCodec.decodeInt(core, ctx, is);
             }
             is.endArray();
 
-            if (i == arr.length) {
-                return arr;
-            } else {
-                return Arrays.copyOf(arr, i);
+            return Arrays.copyOf(arr, i);
+        }
+    };
+
+    private final LongCodec<InStream, OutStream> LONG_CODEC = new LongCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeLong(EncoderCore<OutStream> core, Context ctx, long value, OutStream os) {
+            return os.writeLong(value);
+        }
+
+        @Override
+        public long decodeLong(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readLong();
+        }
+    };
+
+    private final Codec<long[], InStream, OutStream> LONG_ARRAY_CODEC = new FinalCodec<long[], InStream, OutStream>() {
+        @Override
+        public Class<long[]> type() {
+            return long[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, long[] value, OutStream os) {
+            final LongCodec<InStream, OutStream> elemCodec = longCodec();
+
+            os.startArray();
+            for (long val : value) {
+                elemCodec.encodeLong(core, ctx, val, os);
+            }
+            return os.endArray();
+        }
+
+        @Override
+        public long[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final LongCodec<InStream, OutStream> elemCodec = longCodec();
+
+            long[] arr = ctx.scratchArray(long[].class, core.config().defaultArraySize());
+            is.startArray();
+            int i = 0;
+            while (is.notEOF() && is.currentEventType() != JsonEvent.Type.ARRAY_END) {
+                if (i == arr.length) {
+                    arr = ctx.scratchArray(long[].class, core.config().newArraySize(arr.length));
+                }
+                arr[i++] = elemCodec.decodeLong(core, ctx, is);
             }
+            is.endArray();
+
+            return Arrays.copyOf(arr, i);
+        }
+    };
+
+    private final FloatCodec<InStream, OutStream> FLOAT_CODEC = new FloatCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeFloat(EncoderCore<OutStream> core, Context ctx, float value, OutStream os) {
+            return os.writeFloat(value);
+        }
+
+        @Override
+        public float decodeFloat(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readFloat();
+        }
+    };
+
+    private final Codec<float[], InStream, OutStream> FLOAT_ARRAY_CODEC = new FinalCodec<float[], InStream, OutStream>() {
+        @Override
+        public Class<float[]> type() {
+            return float[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, float[] value, OutStream os) {
+            final FloatCodec<InStream, OutStream> elemCodec = floatCodec();
+
+            os.startArray();
+            for (float val : value) {
+                elemCodec.encodeFloat(core, ctx, val, os);
+            }
+            return os.endArray();
+        }
+
+        @Override
+        public float[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final FloatCodec<InStream, OutStream> elemCodec = floatCodec();
+
+            float[] arr = ctx.scratchArray(float[].class, core.config().defaultArraySize());
+            is.startArray();
+            int i = 0;
+            while (is.notEOF() && is.currentEventType() != JsonEvent.Type.ARRAY_END) {
+                if (i == arr.length) {
+                    arr = ctx.scratchArray(float[].class, core.config().newArraySize(arr.length));
+                }
+                arr[i++] = elemCodec.decodeFloat(core, ctx, is);
+            }
+            is.endArray();
+
+            return Arrays.copyOf(arr, i);
+        }
+    };
+
+    private final DoubleCodec<InStream, OutStream> DOUBLE_CODEC = new DoubleCodec<InStream, OutStream>() {
+        @Override
+        public OutStream encodeDouble(EncoderCore<OutStream> core, Context ctx, double value, OutStream os) {
+            return os.writeDouble(value);
+        }
+
+        @Override
+        public double decodeDouble(DecoderCore<InStream> core, Context ctx, InStream is) {
+            return is.readDouble();
+        }
+    };
+
+    private final Codec<double[], InStream, OutStream> DOUBLE_ARRAY_CODEC = new FinalCodec<double[], InStream, OutStream>() {
+        @Override
+        public Class<double[]> type() {
+            return double[].class;
+        }
+
+        @Override
+        public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, double[] value, OutStream os) {
+            final DoubleCodec<InStream, OutStream> elemCodec = doubleCodec();
+
+            os.startArray();
+            for (double val : value) {
+                elemCodec.encodeDouble(core, ctx, val, os);
+            }
+            return os.endArray();
+        }
+
+        @Override
+        public double[] decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
+            final DoubleCodec<InStream, OutStream> elemCodec = doubleCodec();
+
+            double[] arr = ctx.scratchArray(double[].class, core.config().defaultArraySize());
+            is.startArray();
+            int i = 0;
+            while (is.notEOF() && is.currentEventType() != JsonEvent.Type.ARRAY_END) {
+                if (i == arr.length) {
+                    arr = ctx.scratchArray(double[].class, core.config().newArraySize(arr.length));
+                }
+                arr[i++] = elemCodec.decodeDouble(core, ctx, is);
+            }
+            is.endArray();
+
+            return Arrays.copyOf(arr, i);
         }
     };
 
@@ -164,6 +444,36 @@ public Codec<boolean[], InStream, OutStream> booleanArrayCodec() {
         return BOOLEAN_ARRAY_CODEC;
     }
 
+    @Override
+    public ByteCodec<InStream, OutStream> byteCodec() {
+        return BYTE_CODEC;
+    }
+
+    @Override
+    public Codec<byte[], InStream, OutStream> byteArrayCodec() {
+        return BYTE_ARRAY_CODEC;
+    }
+
+    @Override
+    public CharCodec<InStream, OutStream> charCodec() {
+        return CHAR_CODEC;
+    }
+
+    @Override
+    public Codec<char[], InStream, OutStream> charArrayCodec() {
+        return CHAR_ARRAY_CODEC;
+    }
+
+    @Override
+    public ShortCodec<InStream, OutStream> shortCodec() {
+        return SHORT_CODEC;
+    }
+
+    @Override
+    public Codec<short[], InStream, OutStream> shortArrayCodec() {
+        return SHORT_ARRAY_CODEC;
+    }
+
     @Override
     public IntegerCodec<InStream, OutStream> integerCodec() {
         return INTEGER_CODEC;
@@ -174,13 +484,136 @@ public Codec<int[], InStream, OutStream> integerArrayCodec() {
         return INTEGER_ARRAY_CODEC;
     }
 
+    @Override
+    public LongCodec<InStream, OutStream> longCodec() {
+        return LONG_CODEC;
+    }
+
+    @Override
+    public Codec<long[], InStream, OutStream> longArrayCodec() {
+        return LONG_ARRAY_CODEC;
+    }
+
+    @Override
+    public FloatCodec<InStream, OutStream> floatCodec() {
+        return FLOAT_CODEC;
+    }
+
+    @Override
+    public Codec<float[], InStream, OutStream> floatArrayCodec() {
+        return FLOAT_ARRAY_CODEC;
+    }
+
+    @Override
+    public DoubleCodec<InStream, OutStream> doubleCodec() {
+        return DOUBLE_CODEC;
+    }
+
+    @Override
+    public Codec<double[], InStream, OutStream> doubleArrayCodec() {
+        return DOUBLE_ARRAY_CODEC;
+    }
+
     @Override
     public Codec<String, InStream, OutStream> stringCodec() {
         return STRING_CODEC;
     }
 
+    /**
+     * The field codecs for an object type, held in arrays for indexed access.
+     * @param <T>       the object type
+     */
+    private static class ObjectFields<T> {
+        private final Class<T> type;
+        private final ObjectCreator<T> ctor;
+        private final Set<String> expNames;
+        private final String[] names;
+        private final FieldCodec<T, InStream, OutStream>[] codecs;
+        private final Map<String, Integer> indices;
+
+        // The field codecs are those of the fields of T.
+        @SuppressWarnings("unchecked")
+        private ObjectFields(
+                Class<T> type,
+                Map<String, FieldCodec<?, InStream, OutStream>> fieldCodecs,
+                ObjectCreator<T> ctor) {
+            this.type = type;
+            this.ctor = ctor;
+            this.expNames = fieldCodecs.keySet();
+            this.names = new String[fieldCodecs.size()];
+            this.codecs = (FieldCodec<T, InStream, OutStream>[])new FieldCodec<?, ?, ?>[fieldCodecs.size()];
+            this.indices = new HashMap<>();
+
+            int i = 0;
+            for (Map.Entry<String, FieldCodec<?, InStream, OutStream>> en : fieldCodecs.entrySet()) {
+                names[i] = en.getKey();
+                codecs[i] = (FieldCodec<T, InStream, OutStream>)en.getValue();
+                indices.put(en.getKey(), i);
+                ++i;
+            }
+        }
+
+        OutStream encode(EncoderCore<OutStream> core, Context ctx, T value, OutStream os) {
+            os.startObject();
+
+            for (int i = 0; i < names.length; ++i) {
+                os.writeField(names[i]);
+                codecs[i].encodeField(core, ctx, value, os);
+            }
+
+            return os.endObject();
+        }
+
+        T decode(DecoderCore<InStream> core, Context ctx, InStream is) {
+            is.startObject();
+
+            final boolean[] seen = ctx.pushSeenFields(names.length);
+            int numSeen = 0;
+            final T value = ctor.create();
+
+            while (is.notEOF() && is.currentEventType() != JsonEvent.Type.OBJECT_END) {
+                final String name = is.readFieldName();
+                final Integer index = indices.get(name);
+                if (index == null) {
+                    if (core.config().failOnUnrecognisedFields()) {
+                        throw new CodecException(
+                                "Field name '" + name + "' unexpected for type " + type +
+                                        " at location " + is.location());
+                    } else {
+                        is.skipNode();
+                    }
+                } else if (seen[index]) {
+                    throw new CodecException(
+                            "Duplicate field name '" + name + "' for type " + type +
+                                    " at location " + is.location());
+                } else {
+                    seen[index] = true;
+                    ++numSeen;
+                    codecs[index].decodeField(core, ctx, value, is);
+                }
+            }
+
+            if (numSeen != names.length) {
+                final Set<String> actNames = new HashSet<>();
+                for (int i = 0; i < names.length; ++i) {
+                    if (seen[i]) {
+                        actNames.add(names[i]);
+                    }
+                }
+                core.config().checkFields(type, expNames, actNames);
+            }
+
+            ctx.popSeenFields();
+
+            is.endObject();
+
+            return value;
+        }
+    }
+
     @Override
     public <T> Codec<T, InStream, OutStream> objectCodec(Class<T> type, Map<String, FieldCodec<?, InStream, OutStream>> fieldCodecs, ObjectCreator<T> ctor) {
+        final ObjectFields<T> fields = new ObjectFields<>(type, fieldCodecs, ctor);
         if (Modifier.isFinal(type.getModifiers())) {
             return new FinalCodec<T, InStream, OutStream>() {
                 @Override
@@ -190,49 +623,12 @@ public Class<T> type() {
 
                 @Override
                 public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, T value, OutStream os) {
-                    os.startObject();
-
-                    fieldCodecs.forEach((name, field) -> {
-                        os.writeField(name);
-                        ((FieldCodec<T, InStream, OutStream>)field).encodeField(core, ctx, value, os);
-                    });
-
-                    return os.endObject();
+                    return fields.encode(core, ctx, value, os);
                 }
 
                 @Override
                 public T decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
-                    is.startObject();
-
-                    final Set<String> expNames = fieldCodecs.keySet();
-                    final Set<String> actNames = new HashSet<>();
-                    final T value = ctor.create();
-
-                    while (is.notEOF() && is.currentEventType() != JsonEvent.Type.OBJECT_END) {
-                        final String name = is.readFieldName();
-                        if (!expNames.contains(name)) {
-                            if (core.config().failOnUnrecognisedFields()) {
-                                throw new CodecException(
-                                        "Field name '" + name + "' unexpected for type " + type +
-                                                " at location " + is.location());
-                            } else {
-                                is.skipNode();
-                            }
-                        } else if (actNames.contains(name)) {
-                            throw new CodecException(
-                                    "Duplicate field name '" + name + "' for type " + type +
-                                            " at location " + is.location());
-                        } else {
-                            actNames.add(name);
-                            ((FieldCodec<T, InStream, OutStream>)fieldCodecs.get(name)).decodeField(core, ctx, value, is);
-                        }
-                    }
-
-                    core.config().checkFields(type, expNames, actNames);
-
-                    is.endObject();
-
-                    return value;
+                    return fields.decode(core, ctx, is);
                 }
             };
         } else {
@@ -245,49 +641,12 @@ public Class<T> type() {
 
                 @Override
                 public OutStream encodeImpl(EncoderCore<OutStream> core, Context ctx, T value, OutStream os) {
-                    os.startObject();
-
-                    fieldCodecs.forEach((name, field) -> {
-                        os.writeField(name);
-                        ((FieldCodec<T, InStream, OutStream>)field).encodeField(core, ctx, value, os);
-                    });
-
-                    return os.endObject();
+                    return fields.encode(core, ctx, value, os);
                 }
 
                 @Override
                 public T decodeImpl(DecoderCore<InStream> core, Context ctx, InStream is) {
-                    is.startObject();
-
-                    final Set<String> expNames = fieldCodecs.keySet();
-                    final Set<String> actNames = new HashSet<>();
-                    final T value = ctor.create();
-
-                    while (is.notEOF() && is.currentEventType() != JsonEvent.Type.OBJECT_END) {
-                        final String name = is.readFieldName();
-                        if (!expNames.contains(name)) {
-                            if (core.config().failOnUnrecognisedFields()) {
-                                throw new CodecException(
-                                        "Field name '" + name + "' unexpected for type " + type +
-                                                " at location " + is.location());
-                            } else {
-                                is.skipNode();
-                            }
-                        } else if (actNames.contains(name)) {
-                            throw new CodecException(
-                                    "Duplicate field name '" + name + "' for type " + type +
-                                            " at location " + is.location());
-                        } else {
-                            actNames.add(name);
-                            ((FieldCodec<T, InStream, OutStream>)fieldCodecs.get(name)).decodeField(core, ctx, value, is);
-                        }
-                    }
-
-                    core.config().checkFields(type, expNames, actNames);
-
-                    is.endObject();
-
-                    return value;
+                    return fields.decode(core, ctx, is);
                 }
             };
         }
@@ -372,14 +731,14 @@ public <T> EncodeResult<OutStream> encodeDynamic(EncoderCore<OutStream> core, Co
         if (core.config().dynamicTypeMatch(encoder.type(), dynType)) {
             return new EncodeResult<>(false, os);
         } else if (!core.config().dynamicTypeTags()) {
-            final Encoder<T, OutStream> dynCodec = core.getEncoder(dynType);
+            final Encoder<T, OutStream> dynCodec = ctx.encoder(core, dynType);
             dynCodec.encode(core, ctx, value, os);
             return new EncodeResult<>(true, os);
         } else {
             final String typeFieldName = core.config().get(JsonConfig.TYPE_FIELD_NAME);
             final String valueFieldName = core.config().get(JsonConfig.VALUE_FIELD_NAME);
 
-            final Encoder<T, OutStream> dynCodec = core.getEncoder(dynType);
+            final Encoder<T, OutStream> dynCodec = ctx.encoder(core, dynType);
 
             os.startObject();
 
@@ -405,10 +764,9 @@ public <T> T decodeDynamic(DecoderCore<InStream> core, Context ctx, InStream is)
             final String typeFieldName = core.config().get(JsonConfig.TYPE_FIELD_NAME);
             final String valueFieldName = core.config().get(JsonConfig.VALUE_FIELD_NAME);
 
-            final JsonEvent.FieldName typeField = new JsonEvent.FieldName(typeFieldName);
-
             final JsonEvent next = is.event(1);
-            if (next.equals(typeField)) {
+            if (next.type() == JsonEvent.Type.FIELD_NAME &&
+                    ((JsonEvent.FieldName)next).value.equals(typeFieldName)) {
                 is.startObject();
 
                 final T val;
@@ -421,7 +779,7 @@ public <T> T decodeDynamic(DecoderCore<InStream> core, Context ctx, InStream is)
                         throw new CodecException("Was expecting field '" + valueFieldName + "' but got '" + field2 + "'");
                     }
 
-                    val = core.getDecoder(core.config().<T>nameToClass(typeName)).decode(core, ctx, is);
+                    val = ctx.decoder(core, core.config().<T>nameToClass(typeName)).decode(core, ctx, is);
                 }
 
                 is.endObject();
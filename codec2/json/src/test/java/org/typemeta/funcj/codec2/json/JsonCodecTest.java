@@ -1,7 +1,9 @@
 package org.typemeta.funcj.codec2.json;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.typemeta.funcj.codec2.core.Context;
+import org.typemeta.funcj.codec2.core.ContextImpl;
 import org.typemeta.funcj.codec2.json.io.*;
 
 import java.io.*;
@@ -140,6 +142,87 @@ public int hashCode() {
         }
     }
 
+    public static class PrimitiveTypes {
+        public final byte byteField;
+        public final char charField;
+        public final short shortField;
+        public final long longField;
+        public final float floatField;
+        public final double doubleField;
+        public final Long longField2;
+        public final Double doubleField2;
+        public final byte[] byteArrField;
+        public final char[] charArrField;
+        public final short[] shortArrField;
+        public final long[] longArrField;
+        public final float[] floatArrField;
+        public final double[] doubleArrField;
+
+        public PrimitiveTypes(byte byteField, char charField, short shortField, long longField, float floatField, double doubleField) {
+            this.byteField = byteField;
+            this.charField = charField;
+            this.shortField = shortField;
+            this.longField = longField;
+            this.floatField = floatField;
+            this.doubleField = doubleField;
+            this.longField2 = longField;
+            this.doubleField2 = doubleField;
+            this.byteArrField = new byte[] {byteField, 0, -1};
+            this.charArrField = new char[] {charField, 'z'};
+            this.shortArrField = new short[] {shortField, Short.MIN_VALUE};
+            this.longArrField = new long[] {longField, Long.MAX_VALUE};
+            this.floatArrField = new float[] {floatField, -0.5f};
+            this.doubleArrField = new double[] {doubleField, Double.MIN_VALUE};
+        }
+
+        private PrimitiveTypes() {
+            this.byteField = 0;
+            this.charField = 0;
+            this.shortField = 0;
+            this.longField = 0;
+            this.floatField = 0;
+            this.doubleField = 0;
+            this.longField2 = null;
+            this.doubleField2 = null;
+            this.byteArrField = null;
+            this.charArrField = null;
+            this.shortArrField = null;
+            this.longArrField = null;
+            this.floatArrField = null;
+            this.doubleArrField = null;
+        }
+
+        @Override
+        public boolean equals(Object rhs) {
+            if (this == rhs) {
+                return true;
+            } else if (rhs == null || getClass() != rhs.getClass()) {
+                return false;
+            } else {
+                final PrimitiveTypes rhsT = (PrimitiveTypes) rhs;
+                return byteField == rhsT.byteField &&
+                        charField == rhsT.charField &&
+                        shortField == rhsT.shortField &&
+                        longField == rhsT.longField &&
+                        Float.compare(floatField, rhsT.floatField) == 0 &&
+                        Double.compare(doubleField, rhsT.doubleField) == 0 &&
+                        Objects.equals(longField2, rhsT.longField2) &&
+                        Objects.equals(doubleField2, rhsT.doubleField2) &&
+                        Arrays.equals(byteArrField, rhsT.byteArrField) &&
+                        Arrays.equals(charArrField, rhsT.charArrField) &&
+                        Arrays.equals(shortArrField, rhsT.shortArrField) &&
+                        Arrays.equals(longArrField, rhsT.longArrField) &&
+                        Arrays.equals(floatArrField, rhsT.floatArrField) &&
+                        Arrays.equals(doubleArrField, rhsT.doubleArrField);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(byteField, charField, shortField, longField, floatField, doubleField);
+        }
+    }
+
     public interface SomeInterface {
 
     }
@@ -339,7 +422,7 @@ public void testJson() {
 
         final JsonCodecCore codecCore = new JsonCodecCore();
 
-        final Context ctx = new Context() {};
+        final Context ctx = new ContextImpl();
 
         final StringWriter sw = new StringWriter();
         final JsonGenerator jsonGen = new JsonGenerator(sw);
@@ -357,4 +440,63 @@ public void testJson() {
 
         System.out.println("MATCH=" + Objects.equals(container,container2));
     }
+
+    @Test
+    public void testPooledContext() {
+        final JsonCodecCore codecCore = new JsonCodecCore();
+
+        for (int i = 0; i < 3; ++i) {
+            final Container container = SampleData.container(new AtomicInteger(i));
+
+            final StringWriter sw = new StringWriter();
+            codecCore.encode(Container.class, container, sw);
+
+            final Container container2 = codecCore.decode(Container.class, new StringReader(sw.toString()));
+
+            Assert.assertEquals(container, container2);
+        }
+    }
+
+    @Test
+    public void testNestedContextAcquire() {
+        try (ContextImpl ctx = ContextImpl.acquire()) {
+            try (ContextImpl ctx2 = ContextImpl.acquire()) {
+                Assert.assertNotSame(ctx, ctx2);
+            }
+        }
+
+        final ContextImpl ctx = ContextImpl.acquire();
+        ctx.close();
+        try (ContextImpl ctx2 = ContextImpl.acquire()) {
+            Assert.assertSame(ctx, ctx2);
+        }
+    }
+
+    @Test
+    public void testScratchArrayRetention() {
+        final ContextImpl ctx = new ContextImpl();
+
+        final int[] small = ctx.scratchArray(int[].class, 16);
+        ctx.reset();
+        Assert.assertSame(small, ctx.scratchArray(int[].class, 16));
+
+        final int[] large = ctx.scratchArray(int[].class, 1 << 20);
+        Assert.assertSame(large, ctx.scratchArray(int[].class, 16));
+        ctx.reset();
+        Assert.assertNotSame(large, ctx.scratchArray(int[].class, 16));
+    }
+
+    @Test
+    public void testPrimitives() {
+        final PrimitiveTypes prims = new PrimitiveTypes((byte)-12, 'q', (short)1234, 1L << 40, 1.25f, -3.5e100);
+
+        final JsonCodecCore codecCore = new JsonCodecCore();
+
+        final StringWriter sw = new StringWriter();
+        codecCore.encode(PrimitiveTypes.class, prims, sw);
+
+        final PrimitiveTypes prims2 = codecCore.decode(PrimitiveTypes.class, new StringReader(sw.toString()));
+
+        Assert.assertEquals(prims, prims2);
+    }
 }
@@ -36,6 +36,10 @@ String release() {
             return res;
         }
 
+        void clear() {
+            size = 0;
+        }
+
         @Override
         public String toString() {
             return new String(buffer, 0, size);
@@ -66,6 +70,22 @@ public JsonTokeniser(Reader rdr) {
         this.buffer = new Buffer();
     }
 
+    /**
+     * Reset this tokeniser so that it reads from a new {@link Reader},
+     * allowing the tokeniser to be reused.
+     * @param rdr       the reader
+     * @return          this tokeniser
+     */
+    public JsonTokeniser reset(Reader rdr) {
+        this.rdr = rdr;
+        this.nextChar = EMPTY;
+        this.pos = 0;
+        this.buffer.clear();
+        this.state = State.OTHER;
+        this.stateStack.clear();
+        return this;
+    }
+
     public long position() {
         return pos;
     }
@@ -298,6 +318,92 @@ public JsonEvent getNextEvent() {
         }
     }
 
+    /**
+     * Skip over the next value, including any nested values, without creating any events.
+     * Only the bracket depth and the string and escape state are tracked,
+     * so the skipped input is not fully validated.
+     * The tokeniser state is unchanged, as a value is always balanced.
+     */
+    public void skipValue() {
+        if (rdr == null) {
+            throw raiseError("Unexpected end-of-input");
+        }
+
+        try {
+            int depth = 0;
+            while (true) {
+                final char c = nextCharOrThrow();
+                switch (c) {
+                    case '{':
+                    case '[':
+                        ++depth;
+                        break;
+                    case '}':
+                    case ']':
+                        if (depth == 0) {
+                            throw raiseError("Unexpected input '" + c + "'");
+                        } else if (--depth == 0) {
+                            return;
+                        }
+                        break;
+                    case '"':
+                        skipString();
+                        if (depth == 0) {
+                            return;
+                        }
+                        break;
+                    case ',':
+                    case ':':
+                        if (depth == 0) {
+                            throw raiseError("Unexpected input '" + c + "'");
+                        }
+                        break;
+                    default:
+                        if (depth == 0 && !Character.isWhitespace(c)) {
+                            skipLiteral();
+                            return;
+                        }
+                }
+            }
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            switch (nextStringChar()) {
+                case '"':
+                    return;
+                case '\\':
+                    nextStringChar();
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Skip the remainder of a number or symbol, up to the next delimiter.
+     */
+    private void skipLiteral() throws IOException {
+        while (true) {
+            final int ic = nextChar();
+            switch (ic) {
+                case -1:
+                case ',':
+                case ':':
+                case '}':
+                case ']':
+                    nextChar = ic;
+                    return;
+                default:
+                    if (Character.isWhitespace((char)ic)) {
+                        return;
+                    }
+            }
+        }
+    }
+
     private char nextStringChar() throws IOException {
         return nextCharOrThrow("Unexpected end-of-input while parsing a string");
     }
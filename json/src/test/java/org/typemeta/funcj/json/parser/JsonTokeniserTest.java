@@ -1,6 +1,8 @@
 package org.typemeta.funcj.json.parser;
 
-import org.junit.Test;
+import org.junit.*;
+
+import java.io.StringReader;
 
 public class JsonTokeniserTest {
     @Test
@@ -15,4 +17,21 @@ public void test() throws Throwable {
                     return 0;
                 }).orElseThrow();
     }
+
+    @Test
+    public void testSkipValue() {
+        final JsonTokeniser jt = new JsonTokeniser(new StringReader(
+                "[{\"a\": [1, \"]}\\\"\"]}, -12.5e-3, \"b\", true]"));
+
+        Assert.assertEquals(JsonEvent.Type.ARRAY_START, jt.getNextEvent());
+        jt.skipValue();
+        Assert.assertEquals(JsonEvent.Type.COMMA, jt.getNextEvent());
+        jt.skipValue();
+        Assert.assertEquals(JsonEvent.Type.COMMA, jt.getNextEvent());
+        jt.skipValue();
+        Assert.assertEquals(JsonEvent.Type.COMMA, jt.getNextEvent());
+        Assert.assertEquals(JsonEvent.Type.TRUE, jt.getNextEvent());
+        Assert.assertEquals(JsonEvent.Type.ARRAY_END, jt.getNextEvent());
+        Assert.assertEquals(JsonEvent.Type.EOF, jt.getNextEvent());
+    }
 }